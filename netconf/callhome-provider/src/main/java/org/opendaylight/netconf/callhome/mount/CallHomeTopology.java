@@ -17,6 +17,7 @@ import org.opendaylight.controller.md.sal.dom.api.DOMMountPointService;
 import org.opendaylight.netconf.client.NetconfClientDispatcher;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.netconf.sal.DeviceDataBrokerConfiguration;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceSalFacade;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.topology.api.SchemaRepositoryProvider;
@@ -38,4 +39,10 @@ public class CallHomeTopology extends BaseCallHomeTopology {
     protected RemoteDeviceHandler<NetconfSessionPreferences> createSalFacade(final RemoteDeviceId id) {
         return new NetconfDeviceSalFacade(id, mountPointService, dataBroker);
     }
+
+    @Override
+    protected RemoteDeviceHandler<NetconfSessionPreferences> createSalFacade(final RemoteDeviceId id,
+            final DeviceDataBrokerConfiguration dataBrokerConfiguration) {
+        return new NetconfDeviceSalFacade(id, mountPointService, dataBroker, dataBrokerConfiguration);
+    }
 }
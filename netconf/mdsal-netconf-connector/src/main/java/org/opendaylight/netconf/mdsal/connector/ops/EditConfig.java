@@ -10,8 +10,10 @@ package org.opendaylight.netconf.mdsal.connector.ops;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
@@ -26,8 +28,10 @@ import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.mdsal.connector.CurrentSchemaContext;
 import org.opendaylight.netconf.mdsal.connector.TransactionProvider;
 import org.opendaylight.netconf.mdsal.connector.ops.DataTreeChangeTracker.DataTreeChange;
+import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.ModifyAction;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
 import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
@@ -74,111 +78,105 @@ public final class EditConfig extends AbstractEdit {
 
         final XmlElement configElement = getElement(operationElement, CONFIG_KEY);
 
+        // Schemas of lists whose entries are edited, shared by all changes of this edit-config
+        final Map<List<QName>, ListSchemaNode> listSchemas = new HashMap<>();
         for (final XmlElement element : configElement.getChildElements()) {
             final String ns = element.getNamespace();
             final DataSchemaNode schemaNode = getSchemaNodeFromNamespace(ns, element);
             final DataTreeChangeTracker changeTracker = new DataTreeChangeTracker(defaultAction);
             parseIntoNormalizedNode(schemaNode, element,
                 new EditOperationNormalizedNodeStreamWriter(new NormalizedNodeResult(), changeTracker));
-            executeOperations(changeTracker);
+            executeOperations(changeTracker, listSchemas);
         }
 
         return XmlUtil.createElement(document, XmlNetconfConstants.OK, Optional.absent());
     }
 
-    private void executeOperations(final DataTreeChangeTracker changeTracker) throws DocumentedException {
+    private void executeOperations(final DataTreeChangeTracker changeTracker,
+            final Map<List<QName>, ListSchemaNode> listSchemas) throws DocumentedException {
         final DOMDataReadWriteTransaction rwTx = transactionProvider.getOrCreateTransaction();
         final List<DataTreeChange> aa = changeTracker.getDataTreeChanges();
-        final ListIterator<DataTreeChange> iterator = aa.listIterator(aa.size());
+        final List<YangInstanceIdentifier> paths = new ArrayList<>(aa.size());
+        final List<YangInstanceIdentifier> checkedPaths = new ArrayList<>();
+        for (final DataTreeChange change : aa) {
+            final YangInstanceIdentifier path = YangInstanceIdentifier.create(change.getPath());
+            paths.add(path);
+            if (change.getAction() == ModifyAction.CREATE || change.getAction() == ModifyAction.DELETE) {
+                checkedPaths.add(path);
+            }
+        }
 
-        while (iterator.hasPrevious()) {
-            final DataTreeChange dtc = iterator.previous();
-            executeChange(rwTx, dtc);
+        // Read everything needed by existence checks before the first change is applied
+        final ExistenceSnapshot existence = new ExistenceSnapshot(rwTx, checkedPaths);
+        for (int i = aa.size() - 1; i >= 0; --i) {
+            executeChange(rwTx, existence, listSchemas, aa.get(i), paths.get(i));
         }
     }
 
-    private void executeChange(final DOMDataReadWriteTransaction rwtx, final DataTreeChange change)
-            throws DocumentedException {
-        final YangInstanceIdentifier path = YangInstanceIdentifier.create(change.getPath());
+    private void executeChange(final DOMDataReadWriteTransaction rwtx, final ExistenceSnapshot existence,
+            final Map<List<QName>, ListSchemaNode> listSchemas, final DataTreeChange change,
+            final YangInstanceIdentifier path) throws DocumentedException {
         final NormalizedNode<?, ?> changeData = change.getChangeRoot();
         switch (change.getAction()) {
             case NONE:
                 return;
             case MERGE:
-                mergeParentMixin(rwtx, path, changeData);
+                mergeParentMixin(rwtx, existence, listSchemas, path, changeData);
                 rwtx.merge(LogicalDatastoreType.CONFIGURATION, path, changeData);
+                existence.recordWrite(path);
                 break;
             case CREATE:
                 try {
-                    final Optional<NormalizedNode<?, ?>> readResult =
-                            rwtx.read(LogicalDatastoreType.CONFIGURATION, path).get();
-                    if (readResult.isPresent()) {
+                    if (existence.exists(path)) {
                         throw new DocumentedException("Data already exists, cannot execute CREATE operation",
                             ErrorType.PROTOCOL, ErrorTag.DATA_EXISTS, ErrorSeverity.ERROR);
                     }
-                    mergeParentMixin(rwtx, path, changeData);
+                    mergeParentMixin(rwtx, existence, listSchemas, path, changeData);
                     rwtx.put(LogicalDatastoreType.CONFIGURATION, path, changeData);
+                    existence.recordWrite(path);
                 } catch (final InterruptedException | ExecutionException e) {
                     LOG.warn("Read from datastore failed when trying to read data for create operation", change, e);
                 }
                 break;
             case REPLACE:
-                mergeParentMixin(rwtx, path, changeData);
+                mergeParentMixin(rwtx, existence, listSchemas, path, changeData);
                 rwtx.put(LogicalDatastoreType.CONFIGURATION, path, changeData);
+                existence.recordWrite(path);
                 break;
             case DELETE:
                 try {
-                    final Optional<NormalizedNode<?, ?>> readResult =
-                            rwtx.read(LogicalDatastoreType.CONFIGURATION, path).get();
-                    if (!readResult.isPresent()) {
+                    if (!existence.exists(path)) {
                         throw new DocumentedException("Data is missing, cannot execute DELETE operation",
                             ErrorType.PROTOCOL, ErrorTag.DATA_MISSING, ErrorSeverity.ERROR);
                     }
                     rwtx.delete(LogicalDatastoreType.CONFIGURATION, path);
+                    existence.recordWrite(path);
                 } catch (final InterruptedException | ExecutionException e) {
                     LOG.warn("Read from datastore failed when trying to read data for delete operation", change, e);
                 }
                 break;
             case REMOVE:
                 rwtx.delete(LogicalDatastoreType.CONFIGURATION, path);
+                existence.recordWrite(path);
                 break;
             default:
                 LOG.warn("Unknown/not implemented operation, not executing");
         }
     }
 
-    private void mergeParentMixin(final DOMDataReadWriteTransaction rwtx, final YangInstanceIdentifier path,
-                                final NormalizedNode<?, ?> change) {
+    private void mergeParentMixin(final DOMDataReadWriteTransaction rwtx, final ExistenceSnapshot existence,
+                                  final Map<List<QName>, ListSchemaNode> listSchemas,
+                                  final YangInstanceIdentifier path, final NormalizedNode<?, ?> change) {
         final YangInstanceIdentifier parentNodeYid = path.getParent();
         if (change instanceof MapEntryNode) {
-            final SchemaNode schemaNode = SchemaContextUtil.findNodeInSchemaContext(
-                    schemaContext.getCurrentContext(),
-                    parentNodeYid.getPathArguments().stream()
-                            // filter out identifiers not present in the schema tree
-                            .filter(arg -> !(arg instanceof YangInstanceIdentifier.NodeIdentifierWithPredicates))
-                            .filter(arg -> !(arg instanceof YangInstanceIdentifier.AugmentationIdentifier))
-                            .map(YangInstanceIdentifier.PathArgument::getNodeType).collect(Collectors.toList()));
-
-            // we should have the schema node that points to the parent list now, enforce it
-            Preconditions.checkState(schemaNode instanceof ListSchemaNode, "Schema node is not pointing to a list.");
-
             //merge empty ordered or unordered map
-            if (((ListSchemaNode) schemaNode).isUserOrdered()) {
-                final MapNode mixinNode = Builders.orderedMapBuilder()
-                        .withNodeIdentifier(
-                                new YangInstanceIdentifier.NodeIdentifier(
-                                        parentNodeYid.getLastPathArgument().getNodeType()))
-                        .build();
-                rwtx.merge(LogicalDatastoreType.CONFIGURATION, parentNodeYid, mixinNode);
-                return;
-            }
-
-            final MapNode mixinNode = Builders.mapBuilder()
-                    .withNodeIdentifier(
-                            new YangInstanceIdentifier.NodeIdentifier(
-                                        parentNodeYid.getLastPathArgument().getNodeType()))
-                    .build();
+            final NodeIdentifier mixinIdentifier =
+                    new NodeIdentifier(parentNodeYid.getLastPathArgument().getNodeType());
+            final MapNode mixinNode = getListSchema(listSchemas, parentNodeYid).isUserOrdered()
+                    ? Builders.orderedMapBuilder().withNodeIdentifier(mixinIdentifier).build()
+                    : Builders.mapBuilder().withNodeIdentifier(mixinIdentifier).build();
             rwtx.merge(LogicalDatastoreType.CONFIGURATION, parentNodeYid, mixinNode);
+            existence.recordStructuralMerge(parentNodeYid);
         } else if (parentNodeYid.getLastPathArgument() instanceof YangInstanceIdentifier.AugmentationIdentifier) {
             // merge empty augmentation node
             final YangInstanceIdentifier.AugmentationIdentifier augmentationYid =
@@ -186,7 +184,29 @@ public final class EditConfig extends AbstractEdit {
             final AugmentationNode augmentationNode = Builders.augmentationBuilder()
                 .withNodeIdentifier(augmentationYid).build();
             rwtx.merge(LogicalDatastoreType.CONFIGURATION, parentNodeYid, augmentationNode);
+            existence.recordStructuralMerge(parentNodeYid);
+        }
+    }
+
+    private ListSchemaNode getListSchema(final Map<List<QName>, ListSchemaNode> listSchemas,
+            final YangInstanceIdentifier listYid) {
+        // Keyed by the schema path, so that entries of the same list share the lookup regardless of their keys
+        final List<QName> schemaPath = listYid.getPathArguments().stream()
+                // filter out identifiers not present in the schema tree
+                .filter(arg -> !(arg instanceof YangInstanceIdentifier.NodeIdentifierWithPredicates))
+                .filter(arg -> !(arg instanceof YangInstanceIdentifier.AugmentationIdentifier))
+                .map(YangInstanceIdentifier.PathArgument::getNodeType).collect(Collectors.toList());
+        ListSchemaNode listSchema = listSchemas.get(schemaPath);
+        if (listSchema == null) {
+            final SchemaNode schemaNode = SchemaContextUtil.findNodeInSchemaContext(
+                    schemaContext.getCurrentContext(), schemaPath);
+
+            // we should have the schema node that points to the parent list now, enforce it
+            Preconditions.checkState(schemaNode instanceof ListSchemaNode, "Schema node is not pointing to a list.");
+            listSchema = (ListSchemaNode) schemaNode;
+            listSchemas.put(schemaPath, listSchema);
         }
+        return listSchema;
     }
 
     private static ModifyAction getDefaultOperation(final XmlElement operationElement) throws DocumentedException {
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.mdsal.connector.ops;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.CheckedFuture;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataReadWriteTransaction;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Answers the existence checks of CREATE and DELETE changes of a single edit-config. Instead of a blocking read per
+ * change, parents shared by several checked paths are read once, up front, and each check of such a path is a lookup
+ * in the parent read. Sibling list entries created by a bulk edit therefore cost a single read. A path which is the
+ * only checked child of its parent is read directly, so that a single check does not read all of its siblings.
+ *
+ * <p>
+ * Writes done by the edit itself are recorded, paths overlapping them are checked by reading them from the
+ * transaction, as the snapshot does not reflect those writes.
+ */
+final class ExistenceSnapshot {
+    private static final Logger LOG = LoggerFactory.getLogger(ExistenceSnapshot.class);
+
+    private final Map<YangInstanceIdentifier, CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException>>
+            parentReads = new HashMap<>();
+    private final Map<YangInstanceIdentifier, Optional<NormalizedNode<?, ?>>> parents = new HashMap<>();
+    // Paths written by the edit
+    private final Set<YangInstanceIdentifier> written = new HashSet<>();
+    // Paths containing a write of the edit, whose existence may have changed
+    private final Set<YangInstanceIdentifier> containingWrites = new HashSet<>();
+    private final DOMDataReadWriteTransaction rwTx;
+
+    /**
+     * Issue reads of the parents shared by several of the paths which are going to be checked.
+     *
+     * @param rwTx Transaction of the edit
+     * @param checkedPaths Paths, whose existence is going to be checked
+     */
+    ExistenceSnapshot(final DOMDataReadWriteTransaction rwTx, final Collection<YangInstanceIdentifier> checkedPaths) {
+        this.rwTx = requireNonNull(rwTx);
+        final Map<YangInstanceIdentifier, Set<YangInstanceIdentifier>> children = new HashMap<>();
+        for (YangInstanceIdentifier path : checkedPaths) {
+            final YangInstanceIdentifier parent = path.getParent();
+            if (parent != null) {
+                children.computeIfAbsent(parent, key -> new HashSet<>()).add(path);
+            }
+        }
+        children.forEach((parent, paths) -> {
+            if (paths.size() > 1) {
+                parentReads.put(parent, rwTx.read(LogicalDatastoreType.CONFIGURATION, parent));
+            }
+        });
+    }
+
+    /**
+     * Check whether data exists at a path, taking into account all writes recorded so far.
+     *
+     * @param path Path to check
+     * @return True if data exists
+     * @throws InterruptedException if interrupted while waiting for a read
+     * @throws ExecutionException if a read fails
+     */
+    boolean exists(final YangInstanceIdentifier path) throws InterruptedException, ExecutionException {
+        final YangInstanceIdentifier parent = path.getParent();
+        if (parent != null && !isAffectedByWrites(path)) {
+            final Optional<NormalizedNode<?, ?>> parentData = getParent(parent);
+            if (parentData != null) {
+                return parentData.isPresent()
+                        && NormalizedNodes.getDirectChild(parentData.get(), path.getLastPathArgument()).isPresent();
+            }
+        }
+
+        return rwTx.read(LogicalDatastoreType.CONFIGURATION, path).get().isPresent();
+    }
+
+    /**
+     * Record a write of the edit, which may change the existence of the path, its ancestors and descendants.
+     *
+     * @param path Written path
+     */
+    void recordWrite(final YangInstanceIdentifier path) {
+        written.add(path);
+        addAncestors(path.getParent());
+    }
+
+    /**
+     * Record a merge of an empty structural node, such as the parent list of an entry. It does not change existence
+     * of data below the path, but may create the path and its ancestors.
+     *
+     * @param path Merged path
+     */
+    void recordStructuralMerge(final YangInstanceIdentifier path) {
+        addAncestors(path);
+    }
+
+    private void addAncestors(final YangInstanceIdentifier path) {
+        // Ancestors of an already present path are present as well
+        YangInstanceIdentifier current = path;
+        while (current != null && containingWrites.add(current)) {
+            current = current.getParent();
+        }
+    }
+
+    private boolean isAffectedByWrites(final YangInstanceIdentifier path) {
+        if (containingWrites.contains(path)) {
+            return true;
+        }
+        for (YangInstanceIdentifier current = path; current != null; current = current.getParent()) {
+            if (written.contains(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns null if the parent was not read or its read failed
+    private Optional<NormalizedNode<?, ?>> getParent(final YangInstanceIdentifier parent)
+            throws InterruptedException {
+        Optional<NormalizedNode<?, ?>> result = parents.get(parent);
+        if (result == null) {
+            final CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> read = parentReads.remove(parent);
+            if (read == null) {
+                return null;
+            }
+            try {
+                result = read.get();
+            } catch (ExecutionException e) {
+                LOG.debug("Failed to read {}, checking its children one by one", parent, e);
+                return null;
+            }
+            parents.put(parent, result);
+        }
+        return result;
+    }
+}
@@ -16,6 +16,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import javax.annotation.Nullable;
+import javax.xml.namespace.QName;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
@@ -93,6 +94,12 @@ public class RuntimeRpc extends AbstractSingletonNetconfOperation {
 
     }
 
+    @Override
+    public Optional<QName> getHandledOperation() {
+        // Any rpc present in the schema context can be handled
+        return Optional.absent();
+    }
+
     @Override
     protected String getOperationName() {
         throw new UnsupportedOperationException("Runtime rpc does not have a stable name");
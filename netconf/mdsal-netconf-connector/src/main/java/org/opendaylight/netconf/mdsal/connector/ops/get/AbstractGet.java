@@ -10,47 +10,49 @@ package org.opendaylight.netconf.mdsal.connector.ops.get;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
-import com.google.common.base.Throwables;
-import com.google.common.collect.Iterables;
-import java.io.IOException;
-import javax.xml.stream.XMLOutputFactory;
-import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.XMLStreamWriter;
-import javax.xml.transform.dom.DOMResult;
+import com.google.common.util.concurrent.CheckedFuture;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataReadTransaction;
 import org.opendaylight.netconf.api.DocumentedException;
-import org.opendaylight.netconf.api.DocumentedException.ErrorSeverity;
-import org.opendaylight.netconf.api.DocumentedException.ErrorTag;
-import org.opendaylight.netconf.api.DocumentedException.ErrorType;
 import org.opendaylight.netconf.api.xml.XmlElement;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.mdsal.connector.CurrentSchemaContext;
 import org.opendaylight.netconf.mdsal.connector.ops.Datastore;
 import org.opendaylight.netconf.util.mapping.AbstractSingletonNetconfOperation;
+import org.opendaylight.netconf.util.messages.StreamedReplyContent;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
 import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
-import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
-import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
-import org.opendaylight.yangtools.yang.data.codec.xml.XMLStreamNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
 import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
 
 public abstract class AbstractGet extends AbstractSingletonNetconfOperation {
-    private static final XMLOutputFactory XML_OUTPUT_FACTORY;
     private static final YangInstanceIdentifier ROOT = YangInstanceIdentifier.EMPTY;
     private static final String FILTER = "filter";
 
-    static {
-        XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
-        XML_OUTPUT_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
-    }
-
     protected final CurrentSchemaContext schemaContext;
     private final FilterContentValidator validator;
 
@@ -60,94 +62,190 @@ public abstract class AbstractGet extends AbstractSingletonNetconfOperation {
         this.validator = new FilterContentValidator(schemaContext);
     }
 
-    protected Node transformNormalizedNode(final Document document, final NormalizedNode<?, ?> data,
-                                           final YangInstanceIdentifier dataRoot) {
-        final DOMResult result = new DOMResult(document.createElement(XmlNetconfConstants.DATA_KEY));
-
-        final XMLStreamWriter xmlWriter = getXmlStreamWriter(result);
-
-        final NormalizedNodeStreamWriter nnStreamWriter = XMLStreamNormalizedNodeStreamWriter.create(xmlWriter,
-                schemaContext.getCurrentContext(), getSchemaPath(dataRoot));
-
-        final NormalizedNodeWriter nnWriter = NormalizedNodeWriter.forStreamWriter(nnStreamWriter, true);
-
-        writeRootElement(xmlWriter, nnWriter, (ContainerNode) data);
-        return result.getNode();
-    }
-
-    private XMLStreamWriter getXmlStreamWriter(final DOMResult result) {
-        try {
-            return XML_OUTPUT_FACTORY.createXMLStreamWriter(result);
-        } catch (final XMLStreamException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private SchemaPath getSchemaPath(final YangInstanceIdentifier dataRoot) {
-        return SchemaPath.create(
-                Iterables.transform(dataRoot.getPathArguments(), PathArgument::getNodeType), dataRoot.equals(ROOT));
-    }
-
-    private void writeRootElement(final XMLStreamWriter xmlWriter, final NormalizedNodeWriter nnWriter,
-                                  final ContainerNode data) {
-        try {
-            if (data.getNodeType().equals(SchemaContext.NAME)) {
-                for (final DataContainerChild<? extends PathArgument, ?> child : data.getValue()) {
-                    nnWriter.write(child);
-                }
-            } else {
-                nnWriter.write(data);
-            }
-            nnWriter.flush();
-            xmlWriter.flush();
-        } catch (XMLStreamException | IOException e) {
-            Throwables.propagate(e);
-        }
+    /**
+     * Create the {@code data} element of the reply. Its content is not serialized into the document, but attached
+     * to the element as a {@link StreamedReplyContent}, so that it can be streamed to the session.
+     *
+     * @param document reply document
+     * @param data root container holding the read data
+     * @return empty data element carrying the data
+     */
+    protected Element transformNormalizedNode(final Document document, final NormalizedNode<?, ?> data) {
+        final Collection<? extends NormalizedNode<?, ?>> payload = data.getNodeType().equals(SchemaContext.NAME)
+                ? ((ContainerNode) data).getValue() : Collections.singletonList(data);
+        return StreamedReplyContent.createElement(document,
+                XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0, XmlNetconfConstants.DATA_KEY, payload,
+                schemaContext.getCurrentContext(), SchemaPath.ROOT);
     }
 
     protected Element serializeNodeWithParentStructure(final Document document, final YangInstanceIdentifier dataRoot,
                                                        final NormalizedNode node) {
         if (!dataRoot.equals(ROOT)) {
-            return (Element) transformNormalizedNode(document,
-                    ImmutableNodes.fromInstanceId(schemaContext.getCurrentContext(), dataRoot, node),
-                    ROOT);
+            return transformNormalizedNode(document,
+                    ImmutableNodes.fromInstanceId(schemaContext.getCurrentContext(), dataRoot, node));
         }
-        return (Element) transformNormalizedNode(document, node, ROOT);
+        return transformNormalizedNode(document, node);
     }
 
     /**
-     * Obtain data root according to filter from operation element.
+     * Obtain data roots according to filter from operation element.
      *
      * @param operationElement operation element
-     * @return if filter is present and not empty returns Optional of the InstanceIdentifier to the read location
-     *      in datastore. Empty filter returns Optional.absent() which should equal an empty &lt;data/&gt;
-     *      container in the response. If filter is not present we want to read the entire datastore - return ROOT.
+     * @return if filter is present and not empty returns InstanceIdentifiers of the read locations in datastore,
+     *      which together hold all data selected by the filter. Empty filter returns an empty list which should equal
+     *      an empty &lt;data/&gt; container in the response. If filter is not present we want to read the entire
+     *      datastore - return ROOT.
      * @throws DocumentedException if not possible to get identifier from filter
      */
-    protected Optional<YangInstanceIdentifier> getDataRootFromFilter(final XmlElement operationElement)
+    protected List<YangInstanceIdentifier> getDataRootsFromFilter(final XmlElement operationElement)
             throws DocumentedException {
         final Optional<XmlElement> filterElement = operationElement.getOnlyChildElementOptionally(FILTER);
         if (filterElement.isPresent()) {
-            if (filterElement.get().getChildElements().size() == 0) {
-                return Optional.absent();
+            return getInstanceIdentifiersFromFilter(filterElement.get());
+        }
+
+        return Collections.singletonList(ROOT);
+    }
+
+    /**
+     * Read data from all data roots and create the {@code data} element of the reply holding them. Reads of all data
+     * roots are issued before waiting for the first of them.
+     *
+     * @param document reply document
+     * @param tx transaction to read from
+     * @param store datastore to read from
+     * @param dataRoots InstanceIdentifiers of the read locations, none of which is an ancestor of another
+     * @return data element
+     * @throws ReadFailedException if a read fails
+     */
+    protected Element readData(final Document document, final DOMDataReadTransaction tx,
+            final LogicalDatastoreType store, final List<YangInstanceIdentifier> dataRoots)
+            throws ReadFailedException {
+        final List<CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException>> reads =
+                new ArrayList<>(dataRoots.size());
+        for (final YangInstanceIdentifier dataRoot : dataRoots) {
+            reads.add(tx.read(store, dataRoot));
+        }
+
+        if (reads.size() == 1) {
+            final Optional<NormalizedNode<?, ?>> data = reads.get(0).checkedGet();
+            return data.isPresent() ? serializeNodeWithParentStructure(document, dataRoots.get(0), data.get())
+                    : XmlUtil.createElement(document, XmlNetconfConstants.DATA_KEY, Optional.absent());
+        }
+
+        // Merge the subtrees into a single tree, as they may share their parents
+        final SchemaContext context = schemaContext.getCurrentContext();
+        NormalizedNode<?, ?> merged = null;
+        for (int i = 0; i < reads.size(); ++i) {
+            final Optional<NormalizedNode<?, ?>> data = reads.get(i).checkedGet();
+            if (data.isPresent()) {
+                final NormalizedNode<?, ?> tree = ImmutableNodes.fromInstanceId(context, dataRoots.get(i), data.get());
+                merged = merged == null ? tree : merge(merged, tree);
             }
-            return Optional.of(getInstanceIdentifierFromFilter(filterElement.get()));
         }
+        if (merged == null) {
+            return XmlUtil.createElement(document, XmlNetconfConstants.DATA_KEY, Optional.absent());
+        }
+        return transformNormalizedNode(document, merged);
+    }
+
+    /**
+     * Merge two trees read from disjoint data roots. Nodes present in both trees are parents shared by the data roots,
+     * their children are merged one by one. Any other node present in both trees, such as a key leaf of a shared list
+     * entry, is the same in both of them.
+     */
+    private static NormalizedNode<?, ?> merge(final NormalizedNode<?, ?> first, final NormalizedNode<?, ?> second) {
+        if (first instanceof ContainerNode && second instanceof ContainerNode) {
+            return mergeChildren(
+                Builders.containerBuilder().withNodeIdentifier(((ContainerNode) first).getIdentifier()),
+                (ContainerNode) first, (ContainerNode) second);
+        }
+        if (first instanceof MapEntryNode && second instanceof MapEntryNode) {
+            return mergeChildren(Builders.mapEntryBuilder().withNodeIdentifier(((MapEntryNode) first).getIdentifier()),
+                (MapEntryNode) first, (MapEntryNode) second);
+        }
+        if (first instanceof AugmentationNode && second instanceof AugmentationNode) {
+            return mergeChildren(
+                Builders.augmentationBuilder().withNodeIdentifier(((AugmentationNode) first).getIdentifier()),
+                (AugmentationNode) first, (AugmentationNode) second);
+        }
+        if (first instanceof ChoiceNode && second instanceof ChoiceNode) {
+            return mergeChildren(Builders.choiceBuilder().withNodeIdentifier(((ChoiceNode) first).getIdentifier()),
+                (ChoiceNode) first, (ChoiceNode) second);
+        }
+        if (first instanceof OrderedMapNode && second instanceof OrderedMapNode) {
+            final CollectionNodeBuilder<MapEntryNode, OrderedMapNode> builder =
+                    Builders.orderedMapBuilder().withNodeIdentifier(((OrderedMapNode) first).getIdentifier());
+            for (final NormalizedNode<?, ?> entry : mergeChildren(first.getValue(), second.getValue())) {
+                builder.withChild((MapEntryNode) entry);
+            }
+            return builder.build();
+        }
+        if (first instanceof MapNode && second instanceof MapNode) {
+            final CollectionNodeBuilder<MapEntryNode, MapNode> builder =
+                    Builders.mapBuilder().withNodeIdentifier(((MapNode) first).getIdentifier());
+            for (final NormalizedNode<?, ?> entry : mergeChildren(first.getValue(), second.getValue())) {
+                builder.withChild((MapEntryNode) entry);
+            }
+            return builder.build();
+        }
+        return second;
+    }
 
-        return Optional.of(ROOT);
+    private static <T extends DataContainerNode<?>> T mergeChildren(final DataContainerNodeBuilder<?, T> builder,
+            final DataContainerNode<?> first, final DataContainerNode<?> second) {
+        for (final NormalizedNode<?, ?> child : mergeChildren(first.getValue(), second.getValue())) {
+            builder.withChild((DataContainerChild<?, ?>) child);
+        }
+        return builder.build();
     }
 
+    private static Collection<NormalizedNode<?, ?>> mergeChildren(
+            final Collection<? extends NormalizedNode<?, ?>> first,
+            final Collection<? extends NormalizedNode<?, ?>> second) {
+        final Map<PathArgument, NormalizedNode<?, ?>> merged = new LinkedHashMap<>();
+        for (final NormalizedNode<?, ?> child : first) {
+            merged.put(child.getIdentifier(), child);
+        }
+        for (final NormalizedNode<?, ?> child : second) {
+            merged.merge(child.getIdentifier(), child, AbstractGet::merge);
+        }
+        return merged.values();
+    }
+
+    /**
+     * Obtain InstanceIdentifiers of the read locations selected by a filter, which may have multiple roots.
+     *
+     * @param filterElement filter element
+     * @return InstanceIdentifiers, none of which is an ancestor of another
+     * @throws DocumentedException if not possible to get identifiers from filter
+     */
     @VisibleForTesting
-    protected YangInstanceIdentifier getInstanceIdentifierFromFilter(final XmlElement filterElement)
+    protected List<YangInstanceIdentifier> getInstanceIdentifiersFromFilter(final XmlElement filterElement)
             throws DocumentedException {
-
-        if (filterElement.getChildElements().size() != 1) {
-            throw new DocumentedException("Multiple filter roots not supported yet",
-                    ErrorType.APPLICATION, ErrorTag.OPERATION_NOT_SUPPORTED, ErrorSeverity.ERROR);
+        final List<YangInstanceIdentifier> dataRoots = new ArrayList<>();
+        for (final XmlElement element : filterElement.getChildElements()) {
+            for (final YangInstanceIdentifier dataRoot : validator.validateDataRoots(element)) {
+                addDataRoot(dataRoots, dataRoot);
+            }
         }
+        return dataRoots;
+    }
 
-        final XmlElement element = filterElement.getOnlyChildElement();
-        return validator.validate(element);
+    private static void addDataRoot(final List<YangInstanceIdentifier> dataRoots,
+            final YangInstanceIdentifier dataRoot) {
+        // Reading the ancestor of a data root reads the data root as well
+        final Iterator<YangInstanceIdentifier> it = dataRoots.iterator();
+        while (it.hasNext()) {
+            final YangInstanceIdentifier existing = it.next();
+            if (existing.contains(dataRoot)) {
+                return;
+            }
+            if (dataRoot.contains(existing)) {
+                it.remove();
+            }
+        }
+        dataRoots.add(dataRoot);
     }
 
     protected static final class GetConfigExecution {
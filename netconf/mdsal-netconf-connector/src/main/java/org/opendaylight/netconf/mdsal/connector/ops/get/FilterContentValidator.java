@@ -18,8 +18,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.xml.namespace.NamespaceContext;
 import javax.xml.stream.XMLStreamWriter;
 import org.opendaylight.netconf.api.DocumentedException;
@@ -29,6 +31,7 @@ import org.opendaylight.netconf.mdsal.connector.CurrentSchemaContext;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.InstanceIdentifierBuilder;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.codec.xml.XmlCodecFactory;
 import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareCodec;
 import org.opendaylight.yangtools.yang.data.util.codec.TypeAwareCodec;
@@ -50,6 +53,8 @@ import org.w3c.dom.Document;
 public class FilterContentValidator {
 
     private static final Logger LOG = LoggerFactory.getLogger(FilterContentValidator.class);
+    private static final int MAX_DATA_ROOTS = 32;
+
     private final CurrentSchemaContext schemaContext;
 
     public FilterContentValidator(final CurrentSchemaContext schemaContext) {
@@ -65,13 +70,39 @@ public class FilterContentValidator {
      * @throws DocumentedException if filter content validation failed
      */
     public YangInstanceIdentifier validate(final XmlElement filterContent) throws DocumentedException {
+        return getFilterDataRoot(validateTree(filterContent), filterContent, YangInstanceIdentifier.builder());
+    }
+
+    /**
+     * Validates filter content against this validator schema context. If the filter is valid, method returns
+     * {@link YangInstanceIdentifier}s of nodes, which together hold all data the filter can select. Unlike
+     * {@link #validate(XmlElement)}, every branch of a containment node is followed separately and every list entry
+     * identified by its keys is selected on its own, so only the subtrees touched by the filter need to be read.
+     *
+     * @param filterContent filter content
+     * @return YangInstanceIdentifiers of nodes, none of which is an ancestor of another
+     * @throws DocumentedException if filter content validation failed
+     */
+    public List<YangInstanceIdentifier> validateDataRoots(final XmlElement filterContent) throws DocumentedException {
+        final FilterTree filterTree = validateTree(filterContent);
+        final List<YangInstanceIdentifier> dataRoots = new ArrayList<>();
+        collectDataRoots(filterTree, YangInstanceIdentifier.EMPTY, dataRoots);
+        if (dataRoots.size() > MAX_DATA_ROOTS) {
+            // Too many reads would cost more than reading the common root
+            return Collections.singletonList(
+                getFilterDataRoot(filterTree, filterContent, YangInstanceIdentifier.builder()));
+        }
+        return dataRoots;
+    }
+
+    private FilterTree validateTree(final XmlElement filterContent) throws DocumentedException {
         try {
             final URI namespace = new URI(filterContent.getNamespace());
             final Module module = schemaContext.getCurrentContext().findModules(namespace).iterator().next();
             final DataSchemaNode schema = getRootDataSchemaNode(module, namespace, filterContent.getName());
-            final FilterTree filterTree = validateNode(
-                    filterContent, schema, new FilterTree(schema.getQName(), Type.OTHER, schema));
-            return getFilterDataRoot(filterTree, filterContent, YangInstanceIdentifier.builder());
+            final FilterTree root = new FilterTree(schema.getQName(), getType(schema), schema);
+            root.addElement(filterContent);
+            return validateNode(filterContent, schema, root);
         } catch (final URISyntaxException e) {
             throw new RuntimeException("Wrong namespace in element + " + filterContent.toString(), e);
         } catch (final ValidationException e) {
@@ -131,6 +162,7 @@ public class FilterContentValidator {
                 for (final DataSchemaNode dataSchemaNode : path) {
                     subtree = subtree.addChild(dataSchemaNode);
                 }
+                subtree.addElement(childElement);
                 final DataSchemaNode childSchema = path.getLast();
                 validateNode(childElement, childSchema, subtree);
             } catch (URISyntaxException | MissingNameSpaceException e) {
@@ -170,6 +202,74 @@ public class FilterContentValidator {
         return builder.build();
     }
 
+    /**
+     * Collects YangInstanceIdentifiers of nodes, which hold all data selected by the filter tree. A containment node
+     * is split into its branches, unless it has content match nodes, which select its children as a whole. Lists
+     * are split into entries, if all entries are identified by their keys.
+     *
+     * @param tree      QName tree
+     * @param parent    YangInstanceIdentifier of the parent node
+     * @param dataRoots collected YangInstanceIdentifiers
+     */
+    private void collectDataRoots(final FilterTree tree, final YangInstanceIdentifier parent,
+                                  final List<YangInstanceIdentifier> dataRoots) {
+        final YangInstanceIdentifier path = parent.node(tree.getName());
+        if (tree.getType() == Type.LIST) {
+            dataRoots.addAll(getListEntryRoots(tree, path));
+            return;
+        }
+
+        final List<FilterTree> children = new ArrayList<>();
+        addDataChildren(tree, children);
+        if (children.size() == 1) {
+            collectDataRoots(children.get(0), path, dataRoots);
+        } else if (children.isEmpty() || tree.getElements().size() != 1
+                || hasContentMatch(tree.getElements().get(0))) {
+            dataRoots.add(path);
+        } else {
+            for (final FilterTree child : children) {
+                collectDataRoots(child, path, dataRoots);
+            }
+        }
+    }
+
+    private static void addDataChildren(final FilterTree tree, final List<FilterTree> children) {
+        // cases are not present in YangInstanceIdentifiers, their children are
+        for (final FilterTree child : tree.getChildren()) {
+            if (child.getType() == Type.CHOICE_CASE) {
+                addDataChildren(child, children);
+            } else {
+                children.add(child);
+            }
+        }
+    }
+
+    private static boolean hasContentMatch(final XmlElement element) {
+        for (final XmlElement child : element.getChildElements()) {
+            if (child.getChildElements().isEmpty()) {
+                final Optional<String> text = child.getOnlyTextContentOptionally();
+                if (text.isPresent() && !text.get().trim().isEmpty()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<YangInstanceIdentifier> getListEntryRoots(final FilterTree tree, final YangInstanceIdentifier path) {
+        final ListSchemaNode listSchemaNode = (ListSchemaNode) tree.getSchemaNode();
+        final Set<YangInstanceIdentifier> entries = new LinkedHashSet<>();
+        for (final XmlElement entry : tree.getElements()) {
+            final Map<QName, Object> keys = getKeyValues(entry, listSchemaNode);
+            if (keys.isEmpty()) {
+                // entry without keys may select any entry of the list
+                return Collections.singletonList(path);
+            }
+            entries.add(path.node(new NodeIdentifierWithPredicates(tree.getName(), keys)));
+        }
+        return new ArrayList<>(entries);
+    }
+
     private void appendKeyIfPresent(final FilterTree tree, final XmlElement filterContent,
                                     final List<String> pathToList,
                                     final InstanceIdentifierBuilder builder) {
@@ -194,11 +294,22 @@ public class FilterContentValidator {
             }
             current = childElements.get(0);
         }
+        return getKeyValues(current, listSchemaNode);
+    }
+
+    /**
+     * Returns values of all keys of a list entry present in the filter.
+     *
+     * @param entry          list entry element
+     * @param listSchemaNode list schema
+     * @return key values, or an empty map if not all keys have a value in the filter
+     */
+    private Map<QName, Object> getKeyValues(final XmlElement entry, final ListSchemaNode listSchemaNode) {
         final Map<QName, Object> keys = new HashMap<>();
         final List<QName> keyDefinition = listSchemaNode.getKeyDefinition();
         for (final QName qualifiedName : keyDefinition) {
             final Optional<XmlElement> childElements =
-                    current.getOnlyChildElementOptionally(qualifiedName.getLocalName());
+                    entry.getOnlyChildElementOptionally(qualifiedName.getLocalName());
             if (!childElements.isPresent()) {
                 return Collections.emptyMap();
             }
@@ -210,7 +321,7 @@ public class FilterContentValidator {
                 } else {
                     final TypeDefinition<? extends TypeDefinition<?>> keyType = listKey.getType();
                     if (keyType instanceof IdentityrefTypeDefinition || keyType instanceof LeafrefTypeDefinition) {
-                        final Document document = filterContent.getDomElement().getOwnerDocument();
+                        final Document document = entry.getDomElement().getOwnerDocument();
                         final NamespaceContext nsContext = new UniversalNamespaceContextImpl(document, false);
                         final XmlCodecFactory xmlCodecFactory =
                                 XmlCodecFactory.create(schemaContext.getCurrentContext());
@@ -224,6 +335,8 @@ public class FilterContentValidator {
                         keys.put(qualifiedName, deserializedKey);
                     }
                 }
+            } else {
+                return Collections.emptyMap();
             }
         }
         return keys;
@@ -233,6 +346,15 @@ public class FilterContentValidator {
         LIST, CHOICE_CASE, OTHER
     }
 
+    private static Type getType(final DataSchemaNode schemaNode) {
+        if (schemaNode instanceof CaseSchemaNode) {
+            return Type.CHOICE_CASE;
+        } else if (schemaNode instanceof ListSchemaNode) {
+            return Type.LIST;
+        }
+        return Type.OTHER;
+    }
+
     /**
      * Class represents tree of QNames as they are present in the filter.
      */
@@ -242,6 +364,7 @@ public class FilterContentValidator {
         private final Type type;
         private final DataSchemaNode schemaNode;
         private final Map<QName, FilterTree> children;
+        private final List<XmlElement> elements = new ArrayList<>(1);
 
         FilterTree(final QName name, final Type type, final DataSchemaNode schemaNode) {
             this.name = name;
@@ -251,23 +374,26 @@ public class FilterContentValidator {
         }
 
         FilterTree addChild(final DataSchemaNode data) {
-            final Type childType;
-            if (data instanceof CaseSchemaNode) {
-                childType = Type.CHOICE_CASE;
-            } else if (data instanceof ListSchemaNode) {
-                childType = Type.LIST;
-            } else {
-                childType = Type.OTHER;
-            }
             final QName childName = data.getQName();
             FilterTree childTree = children.get(childName);
             if (childTree == null) {
-                childTree = new FilterTree(childName, childType, data);
+                childTree = new FilterTree(childName, getType(data), data);
             }
             children.put(childName, childTree);
             return childTree;
         }
 
+        void addElement(final XmlElement element) {
+            elements.add(element);
+        }
+
+        /**
+         * Returns filter elements represented by this node, empty for choice cases.
+         */
+        List<XmlElement> getElements() {
+            return elements;
+        }
+
         Collection<FilterTree> getChildren() {
             return children.values();
         }
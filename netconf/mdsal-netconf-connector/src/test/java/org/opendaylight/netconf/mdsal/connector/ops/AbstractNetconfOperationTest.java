@@ -30,6 +30,7 @@ import org.custommonkey.xmlunit.XMLUnit;
 import org.junit.Before;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.broker.impl.SerializedDOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.store.impl.InMemoryDOMDataStoreFactory;
 import org.opendaylight.controller.sal.core.api.model.SchemaService;
@@ -41,6 +42,7 @@ import org.opendaylight.netconf.mdsal.connector.CurrentSchemaContext;
 import org.opendaylight.netconf.mdsal.connector.TransactionProvider;
 import org.opendaylight.netconf.mdsal.connector.ops.get.Get;
 import org.opendaylight.netconf.mdsal.connector.ops.get.GetConfig;
+import org.opendaylight.netconf.util.messages.StreamedReplyContent;
 import org.opendaylight.netconf.util.test.NetconfXmlUnitRecursiveQualifier;
 import org.opendaylight.netconf.util.test.XmlFileLoader;
 import org.opendaylight.yangtools.util.concurrent.SpecialExecutors;
@@ -60,6 +62,7 @@ public abstract class AbstractNetconfOperationTest {
     protected static final Document RPC_REPLY_OK = getReplyOk();
 
     private CurrentSchemaContext currentSchemaContext;
+    private DOMDataBroker dataBroker;
     private TransactionProvider transactionProvider;
 
     @Before
@@ -89,6 +92,7 @@ public abstract class AbstractNetconfOperationTest {
 
         final SerializedDOMDataBroker sdb = new SerializedDOMDataBroker(datastores,
             MoreExecutors.listeningDecorator(listenableFutureExecutor));
+        this.dataBroker = sdb;
         this.transactionProvider = new TransactionProvider(sdb, SESSION_ID_FOR_REPORTING);
     }
 
@@ -98,6 +102,10 @@ public abstract class AbstractNetconfOperationTest {
         return currentSchemaContext;
     }
 
+    protected DOMDataBroker getDataBroker() {
+        return dataBroker;
+    }
+
     protected TransactionProvider getTransactionProvider() {
         return transactionProvider;
     }
@@ -188,6 +196,7 @@ public abstract class AbstractNetconfOperationTest {
     protected static Document executeOperation(final NetconfOperation op, final String filename) throws Exception {
         final Document request = XmlFileLoader.xmlFileToDocument(filename);
         final Document response = op.handle(request, NetconfOperationChainedExecution.EXECUTION_TERMINATION_POINT);
+        StreamedReplyContent.materialize(response);
 
         LOG.debug("Got response {}", response);
         return response;
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.mdsal.connector.ops;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataReadWriteTransaction;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+
+public class ExistenceSnapshotTest {
+    private static final QName CONTAINER = QName.create("urn:test", "2018-01-01", "container");
+    private static final QName LIST = QName.create(CONTAINER, "list");
+    private static final QName KEY = QName.create(CONTAINER, "name");
+    private static final YangInstanceIdentifier LIST_PATH = YangInstanceIdentifier.create(
+        new NodeIdentifier(CONTAINER), new NodeIdentifier(LIST));
+    private static final YangInstanceIdentifier FIRST = entry("first");
+    private static final YangInstanceIdentifier SECOND = entry("second");
+    private static final YangInstanceIdentifier THIRD = entry("third");
+
+    @Mock
+    private DOMDataReadWriteTransaction readWriteTx;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        doReturn(Futures.immediateCheckedFuture(Optional.of(ImmutableNodes.mapNodeBuilder(LIST)
+            .withChild(ImmutableNodes.mapEntry(LIST, KEY, "first")).build())))
+            .when(readWriteTx).read(LogicalDatastoreType.CONFIGURATION, LIST_PATH);
+        doReturn(Futures.immediateCheckedFuture(Optional.absent()))
+            .when(readWriteTx).read(LogicalDatastoreType.CONFIGURATION, SECOND);
+        doReturn(Futures.immediateCheckedFuture(Optional.absent()))
+            .when(readWriteTx).read(LogicalDatastoreType.CONFIGURATION, THIRD);
+    }
+
+    @Test
+    public void testSiblingsShareParentRead() throws Exception {
+        final ExistenceSnapshot snapshot = new ExistenceSnapshot(readWriteTx, ImmutableList.of(FIRST, SECOND, THIRD));
+        assertTrue(snapshot.exists(FIRST));
+        assertFalse(snapshot.exists(SECOND));
+        assertFalse(snapshot.exists(THIRD));
+        verify(readWriteTx, times(1)).read(any(), any());
+    }
+
+    @Test
+    public void testLonePathIsReadDirectly() throws Exception {
+        final ExistenceSnapshot snapshot = new ExistenceSnapshot(readWriteTx, ImmutableList.of(SECOND));
+        assertFalse(snapshot.exists(SECOND));
+        verify(readWriteTx).read(LogicalDatastoreType.CONFIGURATION, SECOND);
+        verify(readWriteTx, never()).read(LogicalDatastoreType.CONFIGURATION, LIST_PATH);
+    }
+
+    @Test
+    public void testWrittenPathIsRead() throws Exception {
+        final ExistenceSnapshot snapshot = new ExistenceSnapshot(readWriteTx, ImmutableList.of(FIRST, SECOND));
+        snapshot.recordWrite(SECOND);
+        assertTrue(snapshot.exists(FIRST));
+        assertFalse(snapshot.exists(SECOND));
+        verify(readWriteTx).read(LogicalDatastoreType.CONFIGURATION, SECOND);
+    }
+
+    @Test
+    public void testFailedParentReadFallsBack() throws Exception {
+        doReturn(Futures.immediateFailedCheckedFuture(new ReadFailedException("read failed")))
+            .when(readWriteTx).read(LogicalDatastoreType.CONFIGURATION, LIST_PATH);
+        final ExistenceSnapshot snapshot = new ExistenceSnapshot(readWriteTx, ImmutableList.of(SECOND, THIRD));
+        assertFalse(snapshot.exists(SECOND));
+        assertFalse(snapshot.exists(THIRD));
+        verify(readWriteTx).read(LogicalDatastoreType.CONFIGURATION, SECOND);
+        verify(readWriteTx).read(LogicalDatastoreType.CONFIGURATION, THIRD);
+    }
+
+    private static YangInstanceIdentifier entry(final String name) {
+        return LIST_PATH.node(new NodeIdentifierWithPredicates(LIST, KEY, name));
+    }
+}
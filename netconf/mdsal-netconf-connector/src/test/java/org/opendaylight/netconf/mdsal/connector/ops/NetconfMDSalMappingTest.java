@@ -12,7 +12,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import com.google.common.collect.ImmutableSet;
 import java.io.StringWriter;
+import java.util.List;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
@@ -50,7 +52,10 @@ public class NetconfMDSalMappingTest extends AbstractNetconfOperationTest {
     private static final QName TOP = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "top");
     private static final QName USERS = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "users");
     private static final QName USER = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "user");
+    private static final QName USER_NAME = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "name");
     private static final QName MODULES = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "modules");
+    private static final QName MODULE = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "module");
+    private static final QName MODULE_ID = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "id");
     private static final QName AUGMENTED_CONTAINER = QName.create("urn:opendaylight:mdsal:mapping:test",
             "2015-02-26", "augmented-container");
     private static final QName AUGMENTED_STRING_IN_CONT = QName.create("urn:opendaylight:mdsal:mapping:test",
@@ -546,19 +551,23 @@ public class NetconfMDSalMappingTest extends AbstractNetconfOperationTest {
         verifyResponse(edit("messages/mapping/editConfigs/editConfig-filtering-setup.xml"), RPC_REPLY_OK);
         verifyResponse(commit(), RPC_REPLY_OK);
 
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-alluser.xml",
+        verifyFilterIdentifiers("messages/mapping/filters/get-filter-alluser.xml",
                 YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build());
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-company-info.xml",
+        verifyFilterIdentifiers("messages/mapping/filters/get-filter-company-info.xml",
+                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER)
+                        .nodeWithKey(USER, USER_NAME, "root").build(),
+                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER)
+                        .nodeWithKey(USER, USER_NAME, "admin").build(),
+                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER)
+                        .nodeWithKey(USER, USER_NAME, "regular").build());
+        verifyFilterIdentifiers("messages/mapping/filters/get-filter-only-names-types.xml",
                 YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build());
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-modules-and-admin.xml",
-                YangInstanceIdentifier.builder().node(TOP).build());
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-only-names-types.xml",
+        verifyFilterIdentifiers("messages/mapping/filters/get-filter-specific-module-type-and-user.xml",
+                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build(),
+                YangInstanceIdentifier.builder().node(TOP).node(MODULES).node(MODULE).build());
+        verifyFilterIdentifiers("messages/mapping/filters/get-filter-superuser.xml",
                 YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build());
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-specific-module-type-and-user.xml",
-                YangInstanceIdentifier.builder().node(TOP).build());
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-superuser.xml",
-                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build());
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-users.xml",
+        verifyFilterIdentifiers("messages/mapping/filters/get-filter-users.xml",
                 YangInstanceIdentifier.builder().node(TOP).node(USERS).build());
 
         final YangInstanceIdentifier ident = YangInstanceIdentifier
@@ -566,13 +575,27 @@ public class NetconfMDSalMappingTest extends AbstractNetconfOperationTest {
                 .node(AUGMENTED_CONTAINER)
                 .node(AUGMENTED_STRING_IN_CONT).build();
 
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-augmented-string.xml", ident);
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-augmented-case.xml",
+        verifyFilterIdentifiers("messages/mapping/filters/get-filter-augmented-string.xml", ident);
+        verifyFilterIdentifiers("messages/mapping/filters/get-filter-augmented-case.xml",
                 YangInstanceIdentifier.builder().node(TOP).node(CHOICE_NODE).node(AUGMENTED_CASE).build());
 
         verifyResponse(getConfigWithFilter("messages/mapping/filters/get-filter-augmented-case.xml"),
                 XmlFileLoader.xmlFileToDocument("messages/mapping/filters/response-augmented-case.xml"));
 
+        verifyFilterIdentifiers("messages/mapping/filters/get-filter-modules-and-admin.xml",
+                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER)
+                        .nodeWithKey(USER, USER_NAME, "admin").build(),
+                YangInstanceIdentifier.builder().node(TOP).node(MODULES).build());
+        verifyFilterIdentifiers("messages/mapping/filters/get-filter-multiple-roots.xml",
+                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER)
+                        .nodeWithKey(USER, USER_NAME, "admin").build(),
+                YangInstanceIdentifier.builder().node(TOP).node(MODULES).node(MODULE)
+                        .nodeWithKey(MODULE, MODULE_ID, "module1").build(),
+                YangInstanceIdentifier.builder().node(TOP).node(MODULES).node(MODULE)
+                        .nodeWithKey(MODULE, MODULE_ID, "module3").build());
+        verifyResponse(getConfigWithFilter("messages/mapping/filters/get-filter-multiple-roots.xml"),
+                XmlFileLoader.xmlFileToDocument("messages/mapping/filters/response-multiple-roots.xml"));
+
         /*
          *  RFC6020 requires that at most once case inside a choice is present at any time.
          *  Therefore
@@ -587,9 +610,9 @@ public class NetconfMDSalMappingTest extends AbstractNetconfOperationTest {
         //verifyResponse(edit("messages/mapping/editConfigs/editConfig-filtering-setup2.xml"), RPC_REPLY_OK);
         //verifyResponse(commit(), RPC_REPLY_OK);
 
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-augmented-case-inner-choice.xml",
+        verifyFilterIdentifiers("messages/mapping/filters/get-filter-augmented-case-inner-choice.xml",
                 YangInstanceIdentifier.builder().node(TOP).node(CHOICE_NODE).node(CHOICE_WRAPPER).build());
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-augmented-case-inner-case.xml",
+        verifyFilterIdentifiers("messages/mapping/filters/get-filter-augmented-case-inner-case.xml",
                 YangInstanceIdentifier.builder().node(TOP).node(CHOICE_NODE).node(CHOICE_WRAPPER).node(INNER_CHOICE)
                         .node(INNER_CHOICE_TEXT).build());
 
@@ -605,13 +628,14 @@ public class NetconfMDSalMappingTest extends AbstractNetconfOperationTest {
 
     }
 
-    private void verifyFilterIdentifier(final String resource, final YangInstanceIdentifier identifier)
+    private void verifyFilterIdentifiers(final String resource, final YangInstanceIdentifier... identifiers)
             throws Exception {
         final TestingGetConfig getConfig = new TestingGetConfig(SESSION_ID_FOR_REPORTING, getCurrentSchemaContext(),
                 getTransactionProvider());
         final Document request = XmlFileLoader.xmlFileToDocument(resource);
-        final YangInstanceIdentifier iid = getConfig.getInstanceIdentifierFromDocument(request);
-        assertEquals(identifier, iid);
+        final List<YangInstanceIdentifier> iids = getConfig.getInstanceIdentifiersFromDocument(request);
+        assertEquals(identifiers.length, iids.size());
+        assertEquals(ImmutableSet.copyOf(identifiers), ImmutableSet.copyOf(iids));
     }
 
     private class TestingGetConfig extends GetConfig {
@@ -620,10 +644,11 @@ public class NetconfMDSalMappingTest extends AbstractNetconfOperationTest {
             super(sessionId, schemaContext, transactionProvider);
         }
 
-        YangInstanceIdentifier getInstanceIdentifierFromDocument(final Document request) throws DocumentedException {
+        List<YangInstanceIdentifier> getInstanceIdentifiersFromDocument(final Document request)
+                throws DocumentedException {
             final XmlElement filterElement = XmlElement.fromDomDocument(request).getOnlyChildElement(GET_CONFIG)
                     .getOnlyChildElement(FILTER_NODE);
-            return getInstanceIdentifierFromFilter(filterElement);
+            return getInstanceIdentifiersFromFilter(filterElement);
         }
     }
 
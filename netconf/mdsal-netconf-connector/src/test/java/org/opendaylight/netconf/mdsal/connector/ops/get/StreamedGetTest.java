@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.mdsal.connector.ops.get;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.ImmutableSet;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.Collections;
+import java.util.Set;
+import org.hamcrest.CoreMatchers;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.StreamingNetconfMessage;
+import org.opendaylight.netconf.api.monitoring.NetconfMonitoringService;
+import org.opendaylight.netconf.api.monitoring.SessionListener;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.netconf.impl.NetconfServerSession;
+import org.opendaylight.netconf.impl.NetconfServerSessionListener;
+import org.opendaylight.netconf.impl.osgi.NetconfOperationRouterImpl;
+import org.opendaylight.netconf.mapping.api.NetconfOperation;
+import org.opendaylight.netconf.mapping.api.NetconfOperationService;
+import org.opendaylight.netconf.mdsal.connector.ops.AbstractNetconfOperationTest;
+import org.opendaylight.netconf.util.messages.NormalizedNodeNetconfMessage;
+import org.opendaylight.netconf.util.test.XmlFileLoader;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.netconf.state.SchemasBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.netconf.state.SessionsBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.netconf.state.schemas.Schema;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.netconf.state.sessions.Session;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+
+/**
+ * Tests how {@link NetconfServerSessionListener} sends replies of the mdsal {@link Get}, alone and chained with other
+ * get operations.
+ */
+public class StreamedGetTest extends AbstractNetconfOperationTest {
+    private static final QName MAPPING_NODES = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26",
+        "mapping-nodes");
+
+    @Mock
+    private NetconfMonitoringService monitoring;
+    @Mock
+    private SessionListener monitoringListener;
+    @Mock
+    private AutoCloseable closeable;
+    private EmbeddedChannel channel;
+    private NetconfServerSession session;
+
+    @Override
+    protected SchemaContext getSchemaContext() {
+        return YangParserTestUtils.parseYangResources(StreamedGetTest.class, "/yang/mdsal-netconf-mapping-test.yang");
+    }
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+
+        doReturn(monitoringListener).when(monitoring).getSessionListener();
+        doReturn(new SessionsBuilder().setSession(Collections.<Session>emptyList()).build()).when(monitoring)
+            .getSessions();
+        doReturn(new SchemasBuilder().setSchema(Collections.<Schema>emptyList()).build()).when(monitoring)
+            .getSchemas();
+
+        final DOMDataWriteTransaction tx = getDataBroker().newWriteOnlyTransaction();
+        tx.put(LogicalDatastoreType.OPERATIONAL, YangInstanceIdentifier.of(MAPPING_NODES),
+            ImmutableNodes.containerNode(MAPPING_NODES));
+        tx.submit().checkedGet();
+
+        channel = new EmbeddedChannel();
+        session = new NetconfServerSession(null, channel, 0L, null);
+    }
+
+    @Test
+    public void testStreamedGet() throws Exception {
+        final NetconfMessage reply = sendGet(new Get(SESSION_ID_FOR_REPORTING, getCurrentSchemaContext(),
+            getTransactionProvider()));
+
+        assertTrue(reply instanceof NormalizedNodeNetconfMessage);
+        final NormalizedNodeNetconfMessage streamed = (NormalizedNodeNetconfMessage) reply;
+        assertEquals(1, streamed.getPayload().size());
+        assertEquals("a", streamed.getAttributes().get("message-id"));
+        assertThat(XmlUtil.toString(reply.getDocument()), CoreMatchers.containsString("mapping-nodes"));
+    }
+
+    @Test
+    public void testGetChainedWithMonitoringGet() throws Exception {
+        final NetconfMessage reply = sendGet(
+            new Get(SESSION_ID_FOR_REPORTING, getCurrentSchemaContext(), getTransactionProvider()),
+            new org.opendaylight.netconf.monitoring.Get(monitoring));
+
+        // Monitoring data is appended as DOM to the data element, hence the reply has to be materialized
+        assertFalse(reply instanceof StreamingNetconfMessage);
+        final String replyString = XmlUtil.toString(reply.getDocument());
+        assertThat(replyString, CoreMatchers.containsString("mapping-nodes"));
+        assertThat(replyString, CoreMatchers.containsString("netconf-state"));
+        assertThat(replyString, CoreMatchers.containsString("sessions"));
+    }
+
+    private NetconfMessage sendGet(final NetconfOperation... operations) throws Exception {
+        final Set<NetconfOperation> netconfOperations = ImmutableSet.copyOf(operations);
+        final NetconfOperationService service = mock(NetconfOperationService.class);
+        doReturn(netconfOperations).when(service).getNetconfOperations();
+
+        final NetconfServerSessionListener listener = new NetconfServerSessionListener(
+            new NetconfOperationRouterImpl(service, monitoring, SESSION_ID_FOR_REPORTING), monitoring, closeable);
+        listener.onMessage(session, new NetconfMessage(XmlFileLoader.xmlFileToDocument(
+            "messages/mapping/get.xml")));
+        channel.runPendingTasks();
+        return (NetconfMessage) channel.readOutbound();
+    }
+}
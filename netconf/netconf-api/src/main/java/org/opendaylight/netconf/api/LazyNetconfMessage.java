@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.api;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.yangtools.util.xml.UntrustedXML;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * A {@link NetconfMessage} backed by the raw bytes of the received frame, held in one or more segments. Only the root
+ * element and its first child element are inspected when the message is created, which is sufficient for message
+ * dispatch and reply matching. Consumers which understand this class can parse the content exactly once via
+ * {@link #openStreamReader()}, other consumers get a DOM document built on first access to {@link #getDocument()}.
+ */
+public final class LazyNetconfMessage extends NetconfMessage {
+    private final byte[][] segments;
+    private final String rootName;
+    private final String rootNamespace;
+    private final String messageId;
+    private final String firstChildName;
+
+    private volatile Document document;
+
+    private LazyNetconfMessage(final byte[][] segments, final String rootName, final String rootNamespace,
+            final String messageId, final String firstChildName) {
+        this.segments = requireNonNull(segments);
+        this.rootName = requireNonNull(rootName);
+        this.rootNamespace = rootNamespace;
+        this.messageId = requireNonNull(messageId);
+        this.firstChildName = firstChildName;
+    }
+
+    /**
+     * Create a new message from the raw bytes of a frame. The array is not copied and must not be modified afterwards.
+     *
+     * @param content UTF-8 encoded XML message
+     * @return A new message
+     * @throws XMLStreamException if the root element of the message cannot be parsed
+     */
+    public static LazyNetconfMessage create(final byte[] content) throws XMLStreamException {
+        return create(new byte[][] { requireNonNull(content) });
+    }
+
+    /**
+     * Create a new message from the raw bytes of a frame, split into segments. Neither the list nor the arrays are
+     * copied, the arrays must not be modified afterwards.
+     *
+     * @param segments UTF-8 encoded XML message, in order
+     * @return A new message
+     * @throws XMLStreamException if the root element of the message cannot be parsed
+     */
+    public static LazyNetconfMessage create(final List<byte[]> segments) throws XMLStreamException {
+        return create(segments.toArray(new byte[segments.size()][]));
+    }
+
+    private static LazyNetconfMessage create(final byte[][] segments) throws XMLStreamException {
+        final XMLStreamReader reader = UntrustedXML.createXMLStreamReader(newInputStream(segments));
+        try {
+            reader.nextTag();
+            final String rootName = reader.getLocalName();
+            final String rootNamespace = reader.getNamespaceURI();
+
+            String messageId = "";
+            for (int i = 0; i < reader.getAttributeCount(); ++i) {
+                if (XmlNetconfConstants.MESSAGE_ID.equals(reader.getAttributeLocalName(i))
+                        && (reader.getAttributePrefix(i) == null || reader.getAttributePrefix(i).isEmpty())) {
+                    messageId = reader.getAttributeValue(i);
+                    break;
+                }
+            }
+
+            String firstChildName = null;
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    firstChildName = reader.getLocalName();
+                    break;
+                }
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    break;
+                }
+            }
+
+            return new LazyNetconfMessage(segments, rootName, rootNamespace, messageId, firstChildName);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Return the local name of the root element, for example {@code rpc-reply} or {@code notification}.
+     *
+     * @return Root element local name
+     */
+    public String getRootName() {
+        return rootName;
+    }
+
+    /**
+     * Return the namespace of the root element.
+     *
+     * @return Root element namespace, null if not specified
+     */
+    @Nullable
+    public String getRootNamespace() {
+        return rootNamespace;
+    }
+
+    /**
+     * Return the value of the {@code message-id} attribute of the root element.
+     *
+     * @return Message ID, empty string if the attribute is not present, matching {@code Element.getAttribute()}
+     */
+    public String getMessageId() {
+        return messageId;
+    }
+
+    /**
+     * Return the local name of the first child element of the root element.
+     *
+     * @return First child element local name, null if the root element has no child elements
+     */
+    @Nullable
+    public String getFirstChildName() {
+        return firstChildName;
+    }
+
+    /**
+     * Check whether the DOM representation of this message has already been built.
+     *
+     * @return True if {@link #getDocument()} has been invoked
+     */
+    public boolean isDocumentParsed() {
+        return document != null;
+    }
+
+    /**
+     * Open a new {@link XMLStreamReader} over the content of this message. The reader is positioned at the start
+     * of the document and needs to be closed by the caller.
+     *
+     * @return A new XMLStreamReader
+     * @throws XMLStreamException if the reader cannot be created
+     */
+    public XMLStreamReader openStreamReader() throws XMLStreamException {
+        return UntrustedXML.createXMLStreamReader(newInputStream(segments));
+    }
+
+    private static InputStream newInputStream(final byte[][] segments) {
+        if (segments.length == 1) {
+            return new ByteArrayInputStream(segments[0]);
+        }
+        final List<InputStream> streams = new ArrayList<>(segments.length);
+        for (byte[] segment : segments) {
+            streams.add(new ByteArrayInputStream(segment));
+        }
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    @Override
+    public Document getDocument() {
+        Document local = document;
+        if (local == null) {
+            synchronized (this) {
+                local = document;
+                if (local == null) {
+                    try {
+                        local = XmlUtil.readXmlToDocument(newInputStream(segments));
+                    } catch (SAXException | IOException e) {
+                        throw new IllegalStateException("Failed to parse message " + this, e);
+                    }
+                    document = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    @Override
+    public String toString() {
+        if (segments.length == 1) {
+            return new String(segments[0], StandardCharsets.UTF_8);
+        }
+        // Segments may split multi-byte characters, hence they are joined before decoding
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] segment : segments) {
+            out.write(segment, 0, segment.length);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
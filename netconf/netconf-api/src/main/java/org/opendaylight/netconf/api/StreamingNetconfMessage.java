@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.api;
+
+import java.io.StringWriter;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.dom.DOMResult;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.w3c.dom.Document;
+
+/**
+ * A {@link NetconfMessage} which is able to write itself to an {@link XMLStreamWriter}. Encoders which understand
+ * this class serialize the message without a DOM document ever being built. Other consumers get a document built on
+ * first access to {@link #getDocument()}.
+ */
+public abstract class StreamingNetconfMessage extends NetconfMessage {
+    private static final XMLOutputFactory XML_FACTORY;
+
+    static {
+        XML_FACTORY = XMLOutputFactory.newFactory();
+        XML_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, false);
+    }
+
+    /**
+     * Writing of a message in parts, see {@link #newWriteCursor(XMLStreamWriter)}.
+     */
+    @FunctionalInterface
+    public interface WriteCursor {
+        /**
+         * Write the next part of the message.
+         *
+         * @return True if there are more parts to write, false if the message has been written completely
+         * @throws XMLStreamException if the message cannot be written
+         */
+        boolean writeNext() throws XMLStreamException;
+    }
+
+    private volatile Document document;
+
+    /**
+     * Write the root element of this message, including all of its content. Writing the start and the end of the
+     * document is the responsibility of the caller.
+     *
+     * @param writer Writer to use
+     * @throws XMLStreamException if the message cannot be written
+     */
+    public abstract void writeTo(XMLStreamWriter writer) throws XMLStreamException;
+
+    /**
+     * Start writing the root element of this message in parts, so that the caller can stop between any two of them
+     * and continue later, possibly from another thread. Writing the start and the end of the document is the
+     * responsibility of the caller. The default implementation writes the whole message as a single part.
+     *
+     * @param writer Writer to use
+     * @return Cursor writing the parts of this message
+     */
+    public WriteCursor newWriteCursor(final XMLStreamWriter writer) {
+        return () -> {
+            writeTo(writer);
+            return false;
+        };
+    }
+
+    /**
+     * Check whether this message may be too large to be buffered in its entirety. Encoders which support it write
+     * such messages to the channel in bounded segments, as the channel becomes writable, instead of encoding them
+     * into a single buffer.
+     *
+     * @return True if the message should be written in segments, false by default
+     */
+    public boolean isSegmented() {
+        return false;
+    }
+
+    /**
+     * Check whether the DOM representation of this message has already been built.
+     *
+     * @return True if {@link #getDocument()} has been invoked
+     */
+    public final boolean isDocumentBuilt() {
+        return document != null;
+    }
+
+    @Override
+    public final Document getDocument() {
+        Document local = document;
+        if (local == null) {
+            synchronized (this) {
+                local = document;
+                if (local == null) {
+                    local = XmlUtil.newDocument();
+                    try {
+                        final XMLStreamWriter writer = XML_FACTORY.createXMLStreamWriter(new DOMResult(local));
+                        try {
+                            writeTo(writer);
+                            writer.flush();
+                        } finally {
+                            writer.close();
+                        }
+                    } catch (XMLStreamException e) {
+                        throw new IllegalStateException("Failed to build document of " + getClass(), e);
+                    }
+                    document = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    @Override
+    public String toString() {
+        final StringWriter out = new StringWriter();
+        try {
+            final XMLStreamWriter writer = XML_FACTORY.createXMLStreamWriter(out);
+            try {
+                writeTo(writer);
+                writer.flush();
+            } finally {
+                writer.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Failed to encode message", e);
+        }
+        return out.toString();
+    }
+}
@@ -14,6 +14,7 @@ import io.netty.util.concurrent.Future;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.client.conf.NetconfClientConfiguration;
 import org.opendaylight.netconf.client.conf.NetconfReconnectingClientConfiguration;
 import org.opendaylight.protocol.framework.AbstractDispatcher;
@@ -128,8 +129,12 @@ public class NetconfClientDispatcherImpl extends AbstractDispatcher<NetconfClien
     protected NetconfClientSessionNegotiatorFactory getNegotiatorFactory(final NetconfClientConfiguration cfg) {
         final List<Uri> odlHelloCapabilities = cfg.getOdlHelloCapabilities();
         if (odlHelloCapabilities == null || odlHelloCapabilities.isEmpty()) {
+            final Set<String> capabilities = cfg.isExiNegotiation()
+                    ? NetconfClientSessionNegotiatorFactory.EXI_CLIENT_CAPABILITIES
+                    : NetconfClientSessionNegotiatorFactory.DEFAULT_CLIENT_CAPABILITIES;
             return new NetconfClientSessionNegotiatorFactory(timer, cfg.getAdditionalHeader(),
-                    cfg.getConnectionTimeoutMillis());
+                    cfg.getConnectionTimeoutMillis(), capabilities, cfg.isLazyMessageDecoding(),
+                    cfg.getDecodingOffloadThreshold(), cfg.getMaxMessageSize());
         } else {
             // LinkedHashSet since perhaps the device cares about order of hello message capabilities.
             // This allows user control of the order while complying with the existing interface.
@@ -137,8 +142,13 @@ public class NetconfClientDispatcherImpl extends AbstractDispatcher<NetconfClien
             for (final Uri uri : odlHelloCapabilities) {
                 stringCapabilities.add(uri.getValue());
             }
+            if (!cfg.isExiNegotiation()) {
+                // Not advertising EXI prevents start-exi from being sent
+                stringCapabilities.remove(XmlNetconfConstants.URN_IETF_PARAMS_NETCONF_CAPABILITY_EXI_1_0);
+            }
             return new NetconfClientSessionNegotiatorFactory(timer, cfg.getAdditionalHeader(),
-                    cfg.getConnectionTimeoutMillis(), stringCapabilities);
+                    cfg.getConnectionTimeoutMillis(), stringCapabilities, cfg.isLazyMessageDecoding(),
+                    cfg.getDecodingOffloadThreshold(), cfg.getMaxMessageSize());
         }
     }
 }
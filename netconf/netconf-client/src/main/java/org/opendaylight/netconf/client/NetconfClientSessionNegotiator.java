@@ -31,6 +31,7 @@ import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.nettyutil.AbstractChannelInitializer;
 import org.opendaylight.netconf.nettyutil.AbstractNetconfSessionNegotiator;
+import org.opendaylight.netconf.nettyutil.handler.NetconfChunkAggregator;
 import org.opendaylight.netconf.nettyutil.handler.exi.NetconfStartExiMessage;
 import org.opendaylight.netconf.util.messages.NetconfMessageUtil;
 import org.opendaylight.netconf.util.xml.XMLNetconfUtil;
@@ -55,13 +56,70 @@ public class NetconfClientSessionNegotiator extends
 
     private static final Interner<Set<String>> INTERNER = Interners.newWeakInterner();
 
+    private final boolean lazyMessageDecoding;
+    private final int decodingOffloadThreshold;
+    private final int maxMessageSize;
+
     protected NetconfClientSessionNegotiator(final NetconfClientSessionPreferences sessionPreferences,
                                              final Promise<NetconfClientSession> promise,
                                              final Channel channel,
                                              final Timer timer,
                                              final NetconfClientSessionListener sessionListener,
                                              final long connectionTimeoutMillis) {
+        this(sessionPreferences, promise, channel, timer, sessionListener, connectionTimeoutMillis, false);
+    }
+
+    protected NetconfClientSessionNegotiator(final NetconfClientSessionPreferences sessionPreferences,
+                                             final Promise<NetconfClientSession> promise,
+                                             final Channel channel,
+                                             final Timer timer,
+                                             final NetconfClientSessionListener sessionListener,
+                                             final long connectionTimeoutMillis,
+                                             final boolean lazyMessageDecoding) {
+        this(sessionPreferences, promise, channel, timer, sessionListener, connectionTimeoutMillis,
+            lazyMessageDecoding, 0);
+    }
+
+    protected NetconfClientSessionNegotiator(final NetconfClientSessionPreferences sessionPreferences,
+                                             final Promise<NetconfClientSession> promise,
+                                             final Channel channel,
+                                             final Timer timer,
+                                             final NetconfClientSessionListener sessionListener,
+                                             final long connectionTimeoutMillis,
+                                             final boolean lazyMessageDecoding,
+                                             final int decodingOffloadThreshold) {
+        this(sessionPreferences, promise, channel, timer, sessionListener, connectionTimeoutMillis,
+            lazyMessageDecoding, decodingOffloadThreshold, NetconfChunkAggregator.DEFAULT_MAXIMUM_MESSAGE_SIZE);
+    }
+
+    protected NetconfClientSessionNegotiator(final NetconfClientSessionPreferences sessionPreferences,
+                                             final Promise<NetconfClientSession> promise,
+                                             final Channel channel,
+                                             final Timer timer,
+                                             final NetconfClientSessionListener sessionListener,
+                                             final long connectionTimeoutMillis,
+                                             final boolean lazyMessageDecoding,
+                                             final int decodingOffloadThreshold,
+                                             final int maxMessageSize) {
         super(sessionPreferences, promise, channel, timer, sessionListener, connectionTimeoutMillis);
+        this.lazyMessageDecoding = lazyMessageDecoding;
+        this.decodingOffloadThreshold = decodingOffloadThreshold;
+        this.maxMessageSize = maxMessageSize;
+    }
+
+    @Override
+    protected boolean isLazyMessageDecoding() {
+        return lazyMessageDecoding;
+    }
+
+    @Override
+    protected int getMessageDecodingOffloadThreshold() {
+        return decodingOffloadThreshold;
+    }
+
+    @Override
+    protected int getMaximumMessageSize() {
+        return maxMessageSize;
     }
 
     @SuppressWarnings("checkstyle:IllegalCatch")
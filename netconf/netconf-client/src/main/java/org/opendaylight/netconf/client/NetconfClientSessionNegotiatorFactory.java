@@ -24,6 +24,7 @@ import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessage;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessageAdditionalHeader;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+import org.opendaylight.netconf.nettyutil.handler.NetconfChunkAggregator;
 import org.opendaylight.netconf.nettyutil.handler.exi.EXIParameters;
 import org.opendaylight.netconf.nettyutil.handler.exi.NetconfStartExiMessage;
 import org.opendaylight.protocol.framework.SessionListenerFactory;
@@ -59,6 +60,9 @@ public class NetconfClientSessionNegotiatorFactory implements SessionNegotiatorF
     private final long connectionTimeoutMillis;
     private final Timer timer;
     private final EXIParameters options;
+    private final boolean lazyMessageDecoding;
+    private final int decodingOffloadThreshold;
+    private final int maxMessageSize;
 
     static {
         final FidelityOptions fidelity = FidelityOptions.createDefault();
@@ -84,8 +88,32 @@ public class NetconfClientSessionNegotiatorFactory implements SessionNegotiatorF
     public NetconfClientSessionNegotiatorFactory(final Timer timer,
                                                  final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
                                                  final long connectionTimeoutMillis, final Set<String> capabilities) {
-        this(timer, additionalHeader, connectionTimeoutMillis, DEFAULT_OPTIONS, capabilities);
+        this(timer, additionalHeader, connectionTimeoutMillis, capabilities, false);
+    }
 
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final Set<String> capabilities,
+                                                 final boolean lazyMessageDecoding) {
+        this(timer, additionalHeader, connectionTimeoutMillis, capabilities, lazyMessageDecoding, 0);
+    }
+
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final Set<String> capabilities,
+                                                 final boolean lazyMessageDecoding,
+                                                 final int decodingOffloadThreshold) {
+        this(timer, additionalHeader, connectionTimeoutMillis, capabilities, lazyMessageDecoding,
+            decodingOffloadThreshold, NetconfChunkAggregator.DEFAULT_MAXIMUM_MESSAGE_SIZE);
+    }
+
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final Set<String> capabilities,
+                                                 final boolean lazyMessageDecoding,
+                                                 final int decodingOffloadThreshold, final int maxMessageSize) {
+        this(timer, additionalHeader, connectionTimeoutMillis, DEFAULT_OPTIONS, capabilities, lazyMessageDecoding,
+            decodingOffloadThreshold, maxMessageSize);
     }
 
     public NetconfClientSessionNegotiatorFactory(final Timer timer,
@@ -98,11 +126,38 @@ public class NetconfClientSessionNegotiatorFactory implements SessionNegotiatorF
                                                  final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
                                                  final long connectionTimeoutMillis, final EXIParameters exiOptions,
                                                  final Set<String> capabilities) {
+        this(timer, additionalHeader, connectionTimeoutMillis, exiOptions, capabilities, false);
+    }
+
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final EXIParameters exiOptions,
+                                                 final Set<String> capabilities, final boolean lazyMessageDecoding) {
+        this(timer, additionalHeader, connectionTimeoutMillis, exiOptions, capabilities, lazyMessageDecoding, 0);
+    }
+
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final EXIParameters exiOptions,
+                                                 final Set<String> capabilities, final boolean lazyMessageDecoding,
+                                                 final int decodingOffloadThreshold) {
+        this(timer, additionalHeader, connectionTimeoutMillis, exiOptions, capabilities, lazyMessageDecoding,
+            decodingOffloadThreshold, NetconfChunkAggregator.DEFAULT_MAXIMUM_MESSAGE_SIZE);
+    }
+
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final EXIParameters exiOptions,
+                                                 final Set<String> capabilities, final boolean lazyMessageDecoding,
+                                                 final int decodingOffloadThreshold, final int maxMessageSize) {
         this.timer = Preconditions.checkNotNull(timer);
         this.additionalHeader = additionalHeader;
         this.connectionTimeoutMillis = connectionTimeoutMillis;
         this.options = exiOptions;
         this.clientCapabilities = capabilities;
+        this.lazyMessageDecoding = lazyMessageDecoding;
+        this.decodingOffloadThreshold = decodingOffloadThreshold;
+        this.maxMessageSize = maxMessageSize;
     }
 
     @Override
@@ -122,6 +177,7 @@ public class NetconfClientSessionNegotiatorFactory implements SessionNegotiatorF
 
         NetconfClientSessionPreferences proposal = new NetconfClientSessionPreferences(helloMessage, startExiMessage);
         return new NetconfClientSessionNegotiator(proposal, promise, channel, timer,
-                sessionListenerFactory.getSessionListener(), connectionTimeoutMillis);
+                sessionListenerFactory.getSessionListener(), connectionTimeoutMillis, lazyMessageDecoding,
+                decodingOffloadThreshold, maxMessageSize);
     }
 }
@@ -39,6 +39,10 @@ public class NetconfClientConfiguration {
     private final SslHandlerFactory sslHandlerFactory;
 
     private final List<Uri> odlHelloCapabilities;
+    private final boolean lazyMessageDecoding;
+    private final boolean exiNegotiation;
+    private final int decodingOffloadThreshold;
+    private final int maxMessageSize;
 
     NetconfClientConfiguration(final NetconfClientProtocol protocol, final InetSocketAddress address,
                                final Long connectionTimeoutMillis,
@@ -46,7 +50,9 @@ public class NetconfClientConfiguration {
                                final NetconfClientSessionListener sessionListener,
                                final ReconnectStrategy reconnectStrategy, final AuthenticationHandler authHandler,
                                final SslHandlerFactory sslHandlerFactory,
-                               final List<Uri> odlHelloCapabilities) {
+                               final List<Uri> odlHelloCapabilities, final boolean lazyMessageDecoding,
+                               final boolean exiNegotiation, final int decodingOffloadThreshold,
+                               final int maxMessageSize) {
         this.address = address;
         this.connectionTimeoutMillis = connectionTimeoutMillis;
         this.additionalHeader = additionalHeader;
@@ -56,6 +62,10 @@ public class NetconfClientConfiguration {
         this.authHandler = authHandler;
         this.sslHandlerFactory = sslHandlerFactory;
         this.odlHelloCapabilities = odlHelloCapabilities;
+        this.lazyMessageDecoding = lazyMessageDecoding;
+        this.exiNegotiation = exiNegotiation;
+        this.decodingOffloadThreshold = decodingOffloadThreshold;
+        this.maxMessageSize = maxMessageSize;
         validateConfiguration();
     }
 
@@ -95,6 +105,22 @@ public class NetconfClientConfiguration {
         return odlHelloCapabilities;
     }
 
+    public boolean isLazyMessageDecoding() {
+        return lazyMessageDecoding;
+    }
+
+    public boolean isExiNegotiation() {
+        return exiNegotiation;
+    }
+
+    public int getDecodingOffloadThreshold() {
+        return decodingOffloadThreshold;
+    }
+
+    public int getMaxMessageSize() {
+        return maxMessageSize;
+    }
+
     private void validateConfiguration() {
         Preconditions.checkNotNull(clientProtocol, " ");
         switch (clientProtocol) {
@@ -144,7 +170,11 @@ public class NetconfClientConfiguration {
                 .add("reconnectStrategy", reconnectStrategy)
                 .add("clientProtocol", clientProtocol)
                 .add("authHandler", authHandler)
-                .add("sslHandlerFactory", sslHandlerFactory);
+                .add("sslHandlerFactory", sslHandlerFactory)
+                .add("lazyMessageDecoding", lazyMessageDecoding)
+                .add("exiNegotiation", exiNegotiation)
+                .add("decodingOffloadThreshold", decodingOffloadThreshold)
+                .add("maxMessageSize", maxMessageSize);
     }
 
     public enum NetconfClientProtocol {
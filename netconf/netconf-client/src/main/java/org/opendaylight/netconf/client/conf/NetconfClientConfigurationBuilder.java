@@ -12,6 +12,7 @@ import java.util.List;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessageAdditionalHeader;
 import org.opendaylight.netconf.client.NetconfClientSessionListener;
 import org.opendaylight.netconf.client.SslHandlerFactory;
+import org.opendaylight.netconf.nettyutil.handler.NetconfChunkAggregator;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
 import org.opendaylight.protocol.framework.ReconnectStrategy;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Uri;
@@ -31,7 +32,10 @@ public class NetconfClientConfigurationBuilder {
     private NetconfClientConfiguration.NetconfClientProtocol clientProtocol = DEFAULT_CLIENT_PROTOCOL;
     private SslHandlerFactory sslHandlerFactory;
     private List<Uri> odlHelloCapabilities;
-
+    private boolean lazyMessageDecoding;
+    private boolean exiNegotiation = true;
+    private int decodingOffloadThreshold;
+    private int maxMessageSize = NetconfChunkAggregator.DEFAULT_MAXIMUM_MESSAGE_SIZE;
 
     protected NetconfClientConfigurationBuilder() {
     }
@@ -96,6 +100,30 @@ public class NetconfClientConfigurationBuilder {
         return this;
     }
 
+    @SuppressWarnings("checkstyle:hiddenField")
+    public NetconfClientConfigurationBuilder withLazyMessageDecoding(final boolean lazyMessageDecoding) {
+        this.lazyMessageDecoding = lazyMessageDecoding;
+        return this;
+    }
+
+    @SuppressWarnings("checkstyle:hiddenField")
+    public NetconfClientConfigurationBuilder withExiNegotiation(final boolean exiNegotiation) {
+        this.exiNegotiation = exiNegotiation;
+        return this;
+    }
+
+    @SuppressWarnings("checkstyle:hiddenField")
+    public NetconfClientConfigurationBuilder withDecodingOffloadThreshold(final int decodingOffloadThreshold) {
+        this.decodingOffloadThreshold = decodingOffloadThreshold;
+        return this;
+    }
+
+    @SuppressWarnings("checkstyle:hiddenField")
+    public NetconfClientConfigurationBuilder withMaxMessageSize(final int maxMessageSize) {
+        this.maxMessageSize = maxMessageSize;
+        return this;
+    }
+
     final InetSocketAddress getAddress() {
         return address;
     }
@@ -132,8 +160,25 @@ public class NetconfClientConfigurationBuilder {
         return odlHelloCapabilities;
     }
 
+    final boolean isLazyMessageDecoding() {
+        return lazyMessageDecoding;
+    }
+
+    final boolean isExiNegotiation() {
+        return exiNegotiation;
+    }
+
+    final int getDecodingOffloadThreshold() {
+        return decodingOffloadThreshold;
+    }
+
+    final int getMaxMessageSize() {
+        return maxMessageSize;
+    }
+
     public NetconfClientConfiguration build() {
         return new NetconfClientConfiguration(clientProtocol, address, connectionTimeoutMillis, additionalHeader,
-                sessionListener, reconnectStrategy, authHandler, sslHandlerFactory, odlHelloCapabilities);
+                sessionListener, reconnectStrategy, authHandler, sslHandlerFactory, odlHelloCapabilities,
+                lazyMessageDecoding, exiNegotiation, decodingOffloadThreshold, maxMessageSize);
     }
 }
@@ -31,9 +31,14 @@ public final class NetconfReconnectingClientConfiguration extends NetconfClientC
                                            final ReconnectStrategyFactory connectStrategyFactory,
                                            final AuthenticationHandler authHandler,
                                            final SslHandlerFactory sslHandlerFactory,
-                                           final List<Uri> odlHelloCapabilities) {
+                                           final List<Uri> odlHelloCapabilities,
+                                           final boolean lazyMessageDecoding,
+                                           final boolean exiNegotiation,
+                                           final int decodingOffloadThreshold,
+                                           final int maxMessageSize) {
         super(clientProtocol, address, connectionTimeoutMillis, additionalHeader, sessionListener, reconnectStrategy,
-                authHandler, sslHandlerFactory, odlHelloCapabilities);
+                authHandler, sslHandlerFactory, odlHelloCapabilities, lazyMessageDecoding,
+                exiNegotiation, decodingOffloadThreshold, maxMessageSize);
         this.connectStrategyFactory = connectStrategyFactory;
         validateReconnectConfiguration();
     }
@@ -39,7 +39,8 @@ public final class NetconfReconnectingClientConfigurationBuilder extends Netconf
     public NetconfReconnectingClientConfiguration build() {
         return new NetconfReconnectingClientConfiguration(getProtocol(), getAddress(), getConnectionTimeoutMillis(),
                 getAdditionalHeader(), getSessionListener(), getReconnectStrategy(), connectStrategyFactory,
-                getAuthHandler(), getSslHandlerFactory(), getOdlHelloCapabilities());
+                getAuthHandler(), getSslHandlerFactory(), getOdlHelloCapabilities(), isLazyMessageDecoding(),
+                isExiNegotiation(), getDecodingOffloadThreshold(), getMaxMessageSize());
     }
 
     // Override setter methods to return subtype
@@ -95,4 +96,26 @@ public final class NetconfReconnectingClientConfigurationBuilder extends Netconf
     public NetconfReconnectingClientConfigurationBuilder withOdlHelloCapabilities(List<Uri> odlHelloCapabilities) {
         return (NetconfReconnectingClientConfigurationBuilder) super.withOdlHelloCapabilities(odlHelloCapabilities);
     }
+
+    @Override
+    public NetconfReconnectingClientConfigurationBuilder withLazyMessageDecoding(final boolean lazyMessageDecoding) {
+        return (NetconfReconnectingClientConfigurationBuilder) super.withLazyMessageDecoding(lazyMessageDecoding);
+    }
+
+    @Override
+    public NetconfReconnectingClientConfigurationBuilder withExiNegotiation(final boolean exiNegotiation) {
+        return (NetconfReconnectingClientConfigurationBuilder) super.withExiNegotiation(exiNegotiation);
+    }
+
+    @Override
+    public NetconfReconnectingClientConfigurationBuilder withDecodingOffloadThreshold(
+            final int decodingOffloadThreshold) {
+        return (NetconfReconnectingClientConfigurationBuilder) super.withDecodingOffloadThreshold(
+            decodingOffloadThreshold);
+    }
+
+    @Override
+    public NetconfReconnectingClientConfigurationBuilder withMaxMessageSize(final int maxMessageSize) {
+        return (NetconfReconnectingClientConfigurationBuilder) super.withMaxMessageSize(maxMessageSize);
+    }
 }
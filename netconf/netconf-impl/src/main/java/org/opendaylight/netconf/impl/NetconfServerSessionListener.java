@@ -8,6 +8,7 @@
 
 package org.opendaylight.netconf.impl;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import org.opendaylight.netconf.api.DocumentedException;
@@ -22,6 +23,7 @@ import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.impl.osgi.NetconfOperationRouter;
 import org.opendaylight.netconf.notifications.NetconfNotification;
 import org.opendaylight.netconf.util.messages.SendErrorExceptionUtil;
+import org.opendaylight.netconf.util.messages.StreamedReplyContent;
 import org.opendaylight.netconf.util.messages.SubtreeFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -127,6 +129,13 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
 
             session.onIncommingRpcSuccess();
 
+            // Replies carrying NormalizedNode content, such as get, are streamed without building a DOM copy
+            final Optional<NetconfMessage> streamedReply = StreamedReplyContent.toStreamingMessage(rpcReply);
+            if (streamedReply.isPresent()) {
+                return streamedReply.get();
+            }
+            StreamedReplyContent.materialize(rpcReply);
+
             responseDocument.appendChild(responseDocument.importNode(rpcReply.getDocumentElement(), true));
             return new NetconfMessage(responseDocument);
         } else {
@@ -43,6 +43,12 @@ public class NetconfServerSessionNegotiator
                 connectionTimeoutMillis);
     }
 
+    @Override
+    protected boolean isSegmentedMessageWriting() {
+        // Replies to get and get-config may be arbitrarily large
+        return true;
+    }
+
     @Override
     protected void handleMessage(NetconfHelloMessage netconfMessage)
             throws NetconfDocumentedException {
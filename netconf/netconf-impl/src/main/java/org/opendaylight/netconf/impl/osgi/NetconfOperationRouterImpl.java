@@ -7,17 +7,27 @@
  */
 package org.opendaylight.netconf.impl.osgi;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
+import javax.xml.namespace.QName;
 import org.opendaylight.netconf.api.DocumentedException;
 import org.opendaylight.netconf.api.monitoring.NetconfMonitoringService;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.impl.NetconfServerSession;
 import org.opendaylight.netconf.impl.mapping.operations.DefaultCloseSession;
@@ -25,6 +35,7 @@ import org.opendaylight.netconf.impl.mapping.operations.DefaultNetconfOperation;
 import org.opendaylight.netconf.impl.mapping.operations.DefaultStartExi;
 import org.opendaylight.netconf.impl.mapping.operations.DefaultStopExi;
 import org.opendaylight.netconf.mapping.api.HandlingPriority;
+import org.opendaylight.netconf.mapping.api.IndexableNetconfOperation;
 import org.opendaylight.netconf.mapping.api.NetconfOperation;
 import org.opendaylight.netconf.mapping.api.NetconfOperationChainedExecution;
 import org.opendaylight.netconf.mapping.api.NetconfOperationService;
@@ -32,12 +43,22 @@ import org.opendaylight.netconf.mapping.api.SessionAwareNetconfOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 
 public class NetconfOperationRouterImpl implements NetconfOperationRouter {
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfOperationRouterImpl.class);
     private final NetconfOperationService netconfOperationServiceSnapshot;
     private final Collection<NetconfOperation> allNetconfOperations;
+    // Operations which have to be asked whether they can handle each message
+    private final Collection<NetconfOperation> dynamicNetconfOperations;
+    // Operations handling a single operation element, indexed by its name and namespace
+    private final Map<QName, NavigableMap<HandlingPriority, NetconfOperation>> indexedNetconfOperations;
+    // Execution chains of indexed operations, used as long as no dynamic operation can handle a message
+    private final Map<QName, NetconfOperationExecution> indexedExecutions;
+    // Operation elements handled by multiple indexed operations with the same priority
+    private final Set<QName> conflictingOperations;
 
     public NetconfOperationRouterImpl(final NetconfOperationService netconfOperationServiceSnapshot,
                                       final NetconfMonitoringService netconfMonitoringService, final String sessionId) {
@@ -51,6 +72,39 @@ public class NetconfOperationRouterImpl implements NetconfOperationRouter {
         ops.addAll(netconfOperationServiceSnapshot.getNetconfOperations());
 
         allNetconfOperations = ImmutableSet.copyOf(ops);
+
+        final List<NetconfOperation> dynamicOps = new ArrayList<>();
+        final Map<QName, NavigableMap<HandlingPriority, NetconfOperation>> indexedOps = new HashMap<>();
+        final Set<QName> conflicting = new HashSet<>();
+        for (final NetconfOperation netconfOperation : allNetconfOperations) {
+            final Optional<QName> handledOperation = netconfOperation instanceof IndexableNetconfOperation
+                    ? ((IndexableNetconfOperation) netconfOperation).getHandledOperation() : Optional.absent();
+            final HandlingPriority priority = handledOperation.isPresent()
+                    ? ((IndexableNetconfOperation) netconfOperation).getHandledOperationPriority()
+                    : HandlingPriority.CANNOT_HANDLE;
+            if (priority.isCannotHandle()) {
+                dynamicOps.add(netconfOperation);
+                continue;
+            }
+
+            final NavigableMap<HandlingPriority, NetconfOperation> sortedByPriority =
+                    indexedOps.computeIfAbsent(handledOperation.get(), key -> new TreeMap<>());
+            if (sortedByPriority.put(priority, netconfOperation) != null) {
+                // Reported when the operation is invoked
+                conflicting.add(handledOperation.get());
+            }
+        }
+
+        final Map<QName, NetconfOperationExecution> executions = new HashMap<>();
+        indexedOps.forEach((operation, sortedByPriority) -> executions.put(operation,
+            NetconfOperationExecution.createExecutionChain(sortedByPriority, sortedByPriority.lastKey())));
+
+        dynamicNetconfOperations = ImmutableList.copyOf(dynamicOps);
+        indexedNetconfOperations = ImmutableMap.copyOf(indexedOps);
+        indexedExecutions = ImmutableMap.copyOf(executions);
+        conflictingOperations = ImmutableSet.copyOf(conflicting);
+        LOG.debug("Session {}: indexed {} operations, {} operations are dispatched dynamically", sessionId,
+            indexedOps.size(), dynamicOps.size());
     }
 
     @SuppressWarnings("checkstyle:IllegalCatch")
@@ -116,11 +170,32 @@ public class NetconfOperationRouterImpl implements NetconfOperationRouter {
 
     private NetconfOperationExecution getNetconfOperationWithHighestPriority(
             final Document message, final NetconfServerSession session) throws DocumentedException {
+        final QName operation = getOperation(message);
+        if (operation == null || conflictingOperations.contains(operation)) {
+            // Let the operations report malformed messages and conflicts
+            return createExecutionChain(message,
+                getSortedNetconfOperationsWithCanHandle(message, session, allNetconfOperations, Maps.newTreeMap()));
+        }
 
-        final NavigableMap<HandlingPriority, NetconfOperation> sortedByPriority =
-                getSortedNetconfOperationsWithCanHandle(
-                message, session);
+        final TreeMap<HandlingPriority, NetconfOperation> sortedByPriority = Maps.newTreeMap();
+        final NavigableMap<HandlingPriority, NetconfOperation> indexed = indexedNetconfOperations.get(operation);
+        if (indexed != null) {
+            for (final NetconfOperation netconfOperation : indexed.values()) {
+                setSession(netconfOperation, session);
+            }
+            sortedByPriority.putAll(indexed);
+        }
+
+        getSortedNetconfOperationsWithCanHandle(message, session, dynamicNetconfOperations, sortedByPriority);
+        if (indexed != null && sortedByPriority.size() == indexed.size()) {
+            // No dynamic operation can handle the message, the precomputed chain applies
+            return indexedExecutions.get(operation);
+        }
+        return createExecutionChain(message, sortedByPriority);
+    }
 
+    private static NetconfOperationExecution createExecutionChain(final Document message,
+            final NavigableMap<HandlingPriority, NetconfOperation> sortedByPriority) {
         if (sortedByPriority.isEmpty()) {
             throw new IllegalArgumentException(String.format("No %s available to handle message %s",
                     NetconfOperation.class.getName(), XmlUtil.toString(message)));
@@ -129,18 +204,48 @@ public class NetconfOperationRouterImpl implements NetconfOperationRouter {
         return NetconfOperationExecution.createExecutionChain(sortedByPriority, sortedByPriority.lastKey());
     }
 
-    private TreeMap<HandlingPriority, NetconfOperation> getSortedNetconfOperationsWithCanHandle(
-            final Document message, final NetconfServerSession session) throws DocumentedException {
-        final TreeMap<HandlingPriority, NetconfOperation> sortedPriority = Maps.newTreeMap();
+    /**
+     * Returns name and namespace of the operation element of a message, or null if the message is not a well-formed
+     * rpc.
+     */
+    private static QName getOperation(final Document message) {
+        final Element rpc = message.getDocumentElement();
+        if (rpc == null || !XmlNetconfConstants.RPC_KEY.equals(rpc.getLocalName())
+                || !XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0.equals(rpc.getNamespaceURI())) {
+            return null;
+        }
 
-        for (final NetconfOperation netconfOperation : allNetconfOperations) {
-            final HandlingPriority handlingPriority = netconfOperation.canHandle(message);
-            if (netconfOperation instanceof DefaultNetconfOperation) {
-                ((DefaultNetconfOperation) netconfOperation).setNetconfSession(session);
-            }
-            if (netconfOperation instanceof SessionAwareNetconfOperation) {
-                ((SessionAwareNetconfOperation) netconfOperation).setSession(session);
+        Element operation = null;
+        for (Node child = rpc.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                if (operation != null) {
+                    return null;
+                }
+                operation = (Element) child;
             }
+        }
+        if (operation == null || Strings.isNullOrEmpty(operation.getNamespaceURI())
+                || Strings.isNullOrEmpty(operation.getLocalName())) {
+            return null;
+        }
+        return new QName(operation.getNamespaceURI(), operation.getLocalName());
+    }
+
+    private static void setSession(final NetconfOperation netconfOperation, final NetconfServerSession session) {
+        if (netconfOperation instanceof DefaultNetconfOperation) {
+            ((DefaultNetconfOperation) netconfOperation).setNetconfSession(session);
+        }
+        if (netconfOperation instanceof SessionAwareNetconfOperation) {
+            ((SessionAwareNetconfOperation) netconfOperation).setSession(session);
+        }
+    }
+
+    private static TreeMap<HandlingPriority, NetconfOperation> getSortedNetconfOperationsWithCanHandle(
+            final Document message, final NetconfServerSession session, final Collection<NetconfOperation> operations,
+            final TreeMap<HandlingPriority, NetconfOperation> sortedPriority) throws DocumentedException {
+        for (final NetconfOperation netconfOperation : operations) {
+            final HandlingPriority handlingPriority = netconfOperation.canHandle(message);
+            setSession(netconfOperation, session);
             if (!handlingPriority.equals(HandlingPriority.CANNOT_HANDLE)) {
 
                 Preconditions.checkState(!sortedPriority.containsKey(handlingPriority),
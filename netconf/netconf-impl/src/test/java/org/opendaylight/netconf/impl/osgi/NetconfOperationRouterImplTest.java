@@ -10,12 +10,15 @@ package org.opendaylight.netconf.impl.osgi;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
+import com.google.common.base.Optional;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import javax.xml.namespace.QName;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -24,8 +27,10 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.netconf.api.DocumentedException;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.mapping.api.HandlingPriority;
+import org.opendaylight.netconf.mapping.api.IndexableNetconfOperation;
 import org.opendaylight.netconf.mapping.api.NetconfOperation;
 import org.opendaylight.netconf.mapping.api.NetconfOperationChainedExecution;
 import org.opendaylight.netconf.mapping.api.NetconfOperationService;
@@ -49,6 +54,8 @@ public class NetconfOperationRouterImplTest {
     private NetconfOperation maxPrioMock;
     @Mock
     private NetconfOperation defaultPrioMock;
+    @Mock
+    private IndexableNetconfOperation indexedMock;
 
     private NetconfOperationRouterImpl operationRouter;
     private NetconfOperationRouterImpl emptyOperationRouter;
@@ -106,6 +113,34 @@ public class NetconfOperationRouterImplTest {
         Assert.assertEquals(MAX_PRIORITY_REPLY, XmlUtil.toString(document).trim());
     }
 
+    @Test
+    public void testIndexedDispatch() throws Exception {
+        final QName testOperation = new QName(XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0, "test");
+        doReturn(Optional.of(testOperation)).when(indexedMock).getHandledOperation();
+        doReturn(HandlingPriority.HANDLE_WITH_DEFAULT_PRIORITY).when(indexedMock).getHandledOperationPriority();
+        doReturn(XmlUtil.readXmlToDocument(DEFAULT_PRIORITY_REPLY)).when(indexedMock).handle(any(Document.class),
+                any(NetconfOperationChainedExecution.class));
+
+        final Set<NetconfOperation> operations = new HashSet<>();
+        operations.add(indexedMock);
+        operations.add(maxPrioMock);
+        doReturn(operations).when(operationService2).getNetconfOperations();
+        final NetconfOperationRouterImpl router = new NetconfOperationRouterImpl(operationService2, null, "session-1");
+
+        // dynamic operation takes precedence, indexed operation follows in the chain
+        Assert.assertEquals(MAX_PRIORITY_REPLY, XmlUtil.toString(router.onNetconfMessage(TEST_RPC_DOC, null)).trim());
+        final ArgumentCaptor<NetconfOperationChainedExecution> chainEx =
+                ArgumentCaptor.forClass(NetconfOperationChainedExecution.class);
+        verify(maxPrioMock).handle(any(Document.class), chainEx.capture());
+        Assert.assertEquals(DEFAULT_PRIORITY_REPLY, XmlUtil.toString(chainEx.getValue().execute(TEST_RPC_DOC)).trim());
+
+        // once the dynamic operation cannot handle the message, the indexed chain is used
+        doReturn(HandlingPriority.CANNOT_HANDLE).when(maxPrioMock).canHandle(any(Document.class));
+        Assert.assertEquals(DEFAULT_PRIORITY_REPLY,
+                XmlUtil.toString(router.onNetconfMessage(TEST_RPC_DOC, null)).trim());
+        verify(indexedMock, never()).canHandle(any(Document.class));
+    }
+
     @Test
     public void testOnNetconfMessageFail() throws Exception {
         try {
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.mapping.api;
+
+import com.google.common.base.Optional;
+import javax.xml.namespace.QName;
+
+/**
+ * A {@link NetconfOperation}, which may handle requests of a single operation only, identified by the name and
+ * namespace of the operation element. Routers dispatch requests to such operations by an index built up front,
+ * instead of asking every operation whether it can handle each request.
+ */
+public interface IndexableNetconfOperation extends NetconfOperation {
+
+    /**
+     * Return the operation handled by this operation. If present, {@link #canHandle(org.w3c.dom.Document)} must
+     * return {@link #getHandledOperationPriority()} for requests of this operation and
+     * {@link HandlingPriority#CANNOT_HANDLE} for any other request.
+     *
+     * @return name and namespace of the operation element, or absent if canHandle has to be asked for every request
+     */
+    Optional<QName> getHandledOperation();
+
+    /**
+     * Return the priority, with which requests of the {@link #getHandledOperation() handled operation} are handled.
+     *
+     * @return handling priority
+     */
+    HandlingPriority getHandledOperationPriority();
+}
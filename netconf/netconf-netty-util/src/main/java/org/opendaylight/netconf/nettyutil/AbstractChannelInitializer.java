@@ -23,6 +23,7 @@ public abstract class AbstractChannelInitializer<S extends NetconfSession> {
     public static final String NETCONF_MESSAGE_AGGREGATOR = "aggregator";
     public static final String NETCONF_MESSAGE_ENCODER = "netconfMessageEncoder";
     public static final String NETCONF_MESSAGE_FRAME_ENCODER = "frameEncoder";
+    public static final String NETCONF_MESSAGE_CHUNKED_WRITER = "chunkedWriter";
     public static final String NETCONF_SESSION_NEGOTIATOR = "negotiator";
 
     public void initialize(Channel ch, Promise<S> promise) {
@@ -22,9 +22,12 @@ import org.opendaylight.netconf.api.NetconfSession;
 import org.opendaylight.netconf.api.NetconfSessionListener;
 import org.opendaylight.netconf.api.NetconfTerminationReason;
 import org.opendaylight.netconf.api.xml.XmlElement;
+import org.opendaylight.netconf.nettyutil.handler.NetconfChunkAggregator;
+import org.opendaylight.netconf.nettyutil.handler.NetconfChunkStreamDecoder;
 import org.opendaylight.netconf.nettyutil.handler.NetconfEXICodec;
 import org.opendaylight.netconf.nettyutil.handler.NetconfEXIToMessageDecoder;
 import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToEXIEncoder;
+import org.opendaylight.netconf.nettyutil.handler.NetconfXMLToLazyMessageDecoder;
 import org.opendaylight.netconf.nettyutil.handler.exi.EXIParameters;
 import org.opendaylight.protocol.framework.AbstractProtocolSession;
 import org.slf4j.Logger;
@@ -148,6 +151,17 @@ public abstract class AbstractNetconfSession<S extends NetconfSession,L extends
             throw new IllegalStateException("Cannot instantiate encoder for options", e);
         }
 
+        // EXI decoder works with whole messages only
+        if (channel.pipeline().get(AbstractChannelInitializer.NETCONF_MESSAGE_AGGREGATOR)
+                instanceof NetconfChunkStreamDecoder) {
+            // Keep the message size bound enforced by the lazy decoder
+            final NetconfXMLToLazyMessageDecoder lazyDecoder = channel.pipeline()
+                    .get(NetconfXMLToLazyMessageDecoder.class);
+            replaceChannelHandler(AbstractChannelInitializer.NETCONF_MESSAGE_AGGREGATOR, new NetconfChunkAggregator(
+                lazyDecoder != null ? lazyDecoder.getMaxMessageSize()
+                        : NetconfChunkAggregator.DEFAULT_MAXIMUM_MESSAGE_SIZE));
+        }
+
         addExiHandlers(exiDecoder, exiEncoder);
         LOG.debug("Session {} EXI handlers added to pipeline", this);
     }
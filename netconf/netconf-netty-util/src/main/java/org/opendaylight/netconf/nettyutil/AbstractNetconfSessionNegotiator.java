@@ -16,6 +16,7 @@ import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.util.Timeout;
 import io.netty.util.Timer;
 import io.netty.util.TimerTask;
@@ -30,10 +31,14 @@ import org.opendaylight.netconf.api.NetconfSessionPreferences;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessage;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.nettyutil.handler.FramingMechanismHandlerFactory;
+import org.opendaylight.netconf.nettyutil.handler.MessageDecodingPool;
 import org.opendaylight.netconf.nettyutil.handler.NetconfChunkAggregator;
+import org.opendaylight.netconf.nettyutil.handler.NetconfChunkStreamDecoder;
 import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToXMLEncoder;
 import org.opendaylight.netconf.nettyutil.handler.NetconfXMLToHelloMessageDecoder;
+import org.opendaylight.netconf.nettyutil.handler.NetconfXMLToLazyMessageDecoder;
 import org.opendaylight.netconf.nettyutil.handler.NetconfXMLToMessageDecoder;
+import org.opendaylight.netconf.nettyutil.handler.OffloadingNetconfXMLToMessageDecoder;
 import org.opendaylight.netconf.util.messages.FramingMechanism;
 import org.opendaylight.protocol.framework.AbstractSessionNegotiator;
 import org.slf4j.Logger;
@@ -178,6 +183,9 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
         if (shouldUseChunkFraming(doc)) {
             insertChunkFramingToPipeline();
         }
+        if (isSegmentedMessageWriting()) {
+            insertChunkedWriterToPipeline();
+        }
 
         changeState(State.ESTABLISHED);
         return getSession(sessionListener, channel, netconfMessage);
@@ -190,7 +198,74 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
         replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_FRAME_ENCODER,
                 FramingMechanismHandlerFactory.createHandler(FramingMechanism.CHUNK));
         replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_AGGREGATOR,
-                new NetconfChunkAggregator());
+                isLazyMessageDecoding() ? new NetconfChunkStreamDecoder()
+                        : new NetconfChunkAggregator(getMaximumMessageSize()));
+    }
+
+    /**
+     * Insert a chunked writer between the framing encoder and the transport, which writes large messages in
+     * segments as the channel becomes writable.
+     */
+    private void insertChunkedWriterToPipeline() {
+        channel.pipeline().addBefore(AbstractChannelInitializer.NETCONF_MESSAGE_FRAME_ENCODER,
+                AbstractChannelInitializer.NETCONF_MESSAGE_CHUNKED_WRITER, new ChunkedWriteHandler());
+    }
+
+    /**
+     * Indicate whether outgoing messages marked as
+     * {@link org.opendaylight.netconf.api.StreamingNetconfMessage#isSegmented() segmented} should
+     * be encoded in bounded segments, which are written to the channel as it becomes writable, rather than into a
+     * single buffer holding the entire message.
+     *
+     * @return True if segmented message writing should be used, false by default
+     */
+    protected boolean isSegmentedMessageWriting() {
+        return false;
+    }
+
+    /**
+     * Indicate whether incoming messages should be decoded into
+     * {@link org.opendaylight.netconf.api.LazyNetconfMessage}s instead of being parsed into a DOM document on the
+     * I/O thread. When chunked framing is negotiated, chunks are also passed to the decoder as they arrive.
+     *
+     * @return True if lazy message decoding should be used, false by default
+     */
+    protected boolean isLazyMessageDecoding() {
+        return false;
+    }
+
+    /**
+     * Return the size of a message, in bytes, at or above which the message is parsed in the shared
+     * {@link MessageDecodingPool} rather than on the I/O thread. Does not apply to lazy message decoding, which does
+     * not parse messages on the I/O thread.
+     *
+     * @return Offload threshold, 0 to disable offloading, which is the default
+     */
+    protected int getMessageDecodingOffloadThreshold() {
+        return 0;
+    }
+
+    /**
+     * Return the maximum size of a message, in bytes, received with chunked framing or decoded lazily. Larger messages
+     * are discarded.
+     *
+     * @return Maximum message size, {@link NetconfChunkAggregator#DEFAULT_MAXIMUM_MESSAGE_SIZE} by default
+     */
+    protected int getMaximumMessageSize() {
+        return NetconfChunkAggregator.DEFAULT_MAXIMUM_MESSAGE_SIZE;
+    }
+
+    private ChannelHandler createMessageDecoder() {
+        if (!isLazyMessageDecoding()) {
+            final int offloadThreshold = getMessageDecodingOffloadThreshold();
+            return offloadThreshold > 0
+                    ? new OffloadingNetconfXMLToMessageDecoder(MessageDecodingPool.getDefault(), offloadThreshold)
+                    : new NetconfXMLToMessageDecoder();
+        }
+
+        final boolean streaming = channel.pipeline().get(AbstractChannelInitializer.NETCONF_MESSAGE_AGGREGATOR)
+                instanceof NetconfChunkStreamDecoder;
+        return new NetconfXMLToLazyMessageDecoder(streaming, getMaximumMessageSize());
     }
 
     private boolean shouldUseChunkFraming(final Document doc) {
@@ -207,7 +282,7 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
      */
     protected final void replaceHelloMessageInboundHandler(final S session) {
         ChannelHandler helloMessageHandler = replaceChannelHandler(channel,
-                AbstractChannelInitializer.NETCONF_MESSAGE_DECODER, new NetconfXMLToMessageDecoder());
+                AbstractChannelInitializer.NETCONF_MESSAGE_DECODER, createMessageDecoder());
 
         Preconditions.checkState(helloMessageHandler instanceof NetconfXMLToHelloMessageDecoder,
                 "Pipeline handlers misplaced on session: %s, pipeline: %s", session, channel.pipeline());
@@ -10,16 +10,35 @@ package org.opendaylight.netconf.nettyutil.handler;
 
 import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.MessageToMessageEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
-public class ChunkedFramingMechanismEncoder extends MessageToByteEncoder<ByteBuf> {
+/**
+ * Chunked framing encoder. The framed message is emitted as a {@link CompositeByteBuf}, where slices of a single
+ * buffer holding all chunk headers and the end-of-chunks footer are interleaved with retained slices of the original
+ * message, hence the message payload is never copied. Messages written in segments are framed segment by segment.
+ *
+ * <p>
+ * Large messages are framed in larger chunks than configured, so that the number of chunks, and hence of buffer
+ * components, stays bounded. Chunks grow up to {@link #MAX_ADAPTIVE_CHUNK_SIZE} only, though.
+ */
+public class ChunkedFramingMechanismEncoder extends MessageToMessageEncoder<ByteBuf> {
     public static final int DEFAULT_CHUNK_SIZE = 8192;
     public static final int MIN_CHUNK_SIZE = 128;
     public static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
+    public static final int MAX_ADAPTIVE_CHUNK_SIZE = 1024 * 1024;
+
+    private static final int MAX_CHUNKS_PER_MESSAGE = 64;
+    private static final byte[] EMPTY_FOOTER = new byte[0];
 
     private final int chunkSize;
+    // Header of a full-size chunk, which is all chunks but the last one
+    private final byte[] chunkHeader;
 
     public ChunkedFramingMechanismEncoder() {
         this(DEFAULT_CHUNK_SIZE);
@@ -29,6 +48,7 @@ public class ChunkedFramingMechanismEncoder extends MessageToByteEncoder<ByteBuf
         Preconditions.checkArgument(chunkSize >= MIN_CHUNK_SIZE && chunkSize <= MAX_CHUNK_SIZE,
                 "Unsupported chunk size %s", chunkSize);
         this.chunkSize = chunkSize;
+        this.chunkHeader = chunkHeader(chunkSize);
     }
 
     public final int getChunkSize() {
@@ -36,17 +56,77 @@ public class ChunkedFramingMechanismEncoder extends MessageToByteEncoder<ByteBuf
     }
 
     @Override
-    protected void encode(final ChannelHandlerContext ctx, final ByteBuf msg, final ByteBuf out)  {
-        do {
-            final int xfer = Math.min(chunkSize, msg.readableBytes());
+    public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise)
+            throws Exception {
+        if (msg instanceof StreamedMessageInput) {
+            // Each segment is framed as it is pulled, the end-of-chunks footer follows the last one
+            ((StreamedMessageInput) msg).setFraming(segment -> {
+                try {
+                    return frame(ctx.alloc(), segment, false);
+                } finally {
+                    segment.release();
+                }
+            }, MessageParts.END_OF_CHUNK);
+            ctx.write(msg, promise);
+            return;
+        }
+
+        super.write(ctx, msg, promise);
+    }
+
+    @Override
+    protected void encode(final ChannelHandlerContext ctx, final ByteBuf msg, final List<Object> out) {
+        out.add(frame(ctx.alloc(), msg, true));
+    }
+
+    private CompositeByteBuf frame(final ByteBufAllocator alloc, final ByteBuf msg, final boolean endOfMessage) {
+        final int size = msg.readableBytes();
+        final int messageChunkSize = chunkSizeFor(size);
+        final int chunks = Math.max(1, (size + messageChunkSize - 1) / messageChunkSize);
+        final int lastChunkSize = size - (chunks - 1) * messageChunkSize;
+        final byte[] header = messageChunkSize == chunkSize ? chunkHeader : chunkHeader(messageChunkSize);
+        final byte[] lastHeader = lastChunkSize == messageChunkSize ? header : chunkHeader(lastChunkSize);
+        final byte[] footer = endOfMessage ? MessageParts.END_OF_CHUNK : EMPTY_FOOTER;
 
-            out.writeBytes(MessageParts.START_OF_CHUNK);
-            out.writeBytes(String.valueOf(xfer).getBytes(StandardCharsets.US_ASCII));
-            out.writeByte('\n');
+        final ByteBuf headers = alloc.buffer(header.length * (chunks - 1) + lastHeader.length + footer.length);
+        final CompositeByteBuf framed = alloc.compositeBuffer(chunks * 2 + 1);
+        try {
+            for (int i = 1; i <= chunks; ++i) {
+                final byte[] current = i == chunks ? lastHeader : header;
+                final int headerIndex = headers.writerIndex();
+                headers.writeBytes(current);
+                framed.addComponent(true, headers.retainedSlice(headerIndex, current.length));
+                framed.addComponent(true, msg.readRetainedSlice(i == chunks ? lastChunkSize : messageChunkSize));
+            }
 
-            out.writeBytes(msg, xfer);
-        } while (msg.isReadable());
+            if (endOfMessage) {
+                final int footerIndex = headers.writerIndex();
+                headers.writeBytes(footer);
+                framed.addComponent(true, headers.retainedSlice(footerIndex, footer.length));
+            }
+        } catch (RuntimeException e) {
+            framed.release();
+            throw e;
+        } finally {
+            headers.release();
+        }
+        return framed;
+    }
+
+    private int chunkSizeFor(final int messageSize) {
+        if (messageSize <= (long) chunkSize * MAX_CHUNKS_PER_MESSAGE) {
+            return chunkSize;
+        }
+        final int bounded = (messageSize + MAX_CHUNKS_PER_MESSAGE - 1) / MAX_CHUNKS_PER_MESSAGE;
+        return Math.min(bounded, Math.max(chunkSize, MAX_ADAPTIVE_CHUNK_SIZE));
+    }
 
-        out.writeBytes(MessageParts.END_OF_CHUNK);
+    private static byte[] chunkHeader(final int size) {
+        final byte[] length = Integer.toString(size).getBytes(StandardCharsets.US_ASCII);
+        final byte[] header = new byte[MessageParts.START_OF_CHUNK.length + length.length + 1];
+        System.arraycopy(MessageParts.START_OF_CHUNK, 0, header, 0, MessageParts.START_OF_CHUNK.length);
+        System.arraycopy(length, 0, header, MessageParts.START_OF_CHUNK.length, length.length);
+        header[header.length - 1] = '\n';
+        return header;
     }
 }
@@ -10,9 +10,24 @@ package org.opendaylight.netconf.nettyutil.handler;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToByteEncoder;
+import java.util.function.Function;
 
 public class EOMFramingMechanismEncoder extends MessageToByteEncoder<ByteBuf> {
+    @Override
+    public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise)
+            throws Exception {
+        if (msg instanceof StreamedMessageInput) {
+            // Segments are passed through as they are, the end-of-message marker follows the last one
+            ((StreamedMessageInput) msg).setFraming(Function.identity(), MessageParts.END_OF_MESSAGE);
+            ctx.write(msg, promise);
+            return;
+        }
+
+        super.write(ctx, msg, promise);
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) {
         out.writeBytes(msg);
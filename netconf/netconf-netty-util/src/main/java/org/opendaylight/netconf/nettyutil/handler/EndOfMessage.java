@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+/**
+ * Marker object emitted by streaming framing decoders, such as {@link NetconfChunkStreamDecoder}, after the last
+ * piece of message content has been passed on.
+ */
+public final class EndOfMessage {
+    public static final EndOfMessage INSTANCE = new EndOfMessage();
+
+    private EndOfMessage() {
+        // Hidden on purpose
+    }
+
+    @Override
+    public String toString() {
+        return "EndOfMessage";
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pool of threads decoding large messages away from Netty I/O threads, shared by any number of sessions. Each
+ * session submits its messages through its own {@link #newSessionExecutor() sequential executor}, so that a session
+ * occupies at most one worker at a time and its messages are decoded in the order they were received. Idle workers
+ * steal work from busy ones.
+ *
+ * <p>
+ * The pool keeps track of the time messages spend waiting for a worker. Its size can be changed at runtime, messages
+ * already waiting are decoded by the workers they were submitted to.
+ */
+public final class MessageDecodingPool {
+    private static final Logger LOG = LoggerFactory.getLogger(MessageDecodingPool.class);
+
+    private static final Supplier<MessageDecodingPool> DEFAULT = Suppliers.memoize(
+        () -> new MessageDecodingPool(Runtime.getRuntime().availableProcessors()));
+
+    private final LongAdder decodedMessages = new LongAdder();
+    private final LongAdder totalQueueNanos = new LongAdder();
+    private final AtomicLong maxQueueNanos = new AtomicLong();
+
+    private volatile ExecutorService executor;
+    private int parallelism;
+
+    public MessageDecodingPool(final int parallelism) {
+        this(newForkJoinPool(parallelism));
+        this.parallelism = parallelism;
+    }
+
+    @VisibleForTesting
+    MessageDecodingPool(final ExecutorService executor) {
+        this.executor = Preconditions.checkNotNull(executor);
+    }
+
+    private static ExecutorService newForkJoinPool(final int parallelism) {
+        return new ForkJoinPool(parallelism, pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("netconf-message-decoder-" + thread.getPoolIndex());
+            return thread;
+        }, null, true);
+    }
+
+    /**
+     * Return the pool shared by default, sized to the number of available processors unless configured otherwise.
+     *
+     * @return Default pool
+     */
+    public static MessageDecodingPool getDefault() {
+        return DEFAULT.get();
+    }
+
+    /**
+     * Change the number of workers of this pool.
+     *
+     * @param newParallelism Number of workers, values smaller than 1 select the number of available processors
+     */
+    public synchronized void setParallelism(final int newParallelism) {
+        final int effective = newParallelism > 0 ? newParallelism : Runtime.getRuntime().availableProcessors();
+        if (effective == parallelism) {
+            return;
+        }
+
+        final ExecutorService previous = executor;
+        executor = newForkJoinPool(effective);
+        parallelism = effective;
+        // Lets already submitted messages complete
+        previous.shutdown();
+        LOG.info("Message decoding pool resized to {} workers", effective);
+    }
+
+    /**
+     * Create an executor for a single session. Tasks submitted to it are executed one at a time, in submission order.
+     *
+     * @return A sequential executor backed by this pool
+     */
+    Executor newSessionExecutor() {
+        return MoreExecutors.newSequentialExecutor(this::execute);
+    }
+
+    private void execute(final Runnable command) {
+        while (true) {
+            final ExecutorService current = executor;
+            try {
+                current.execute(command);
+                return;
+            } catch (RejectedExecutionException e) {
+                if (current == executor) {
+                    throw e;
+                }
+                // The pool has been resized in the meantime, retry with the new workers
+            }
+        }
+    }
+
+    void recordQueueLatency(final long nanos) {
+        totalQueueNanos.add(nanos);
+        maxQueueNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    void messageDecoded() {
+        decodedMessages.increment();
+    }
+
+    /**
+     * Return the number of workers of this pool.
+     *
+     * @return Number of workers
+     */
+    public synchronized int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Return the number of messages decoded by this pool.
+     *
+     * @return Number of decoded messages
+     */
+    public long getDecodedMessageCount() {
+        return decodedMessages.sum();
+    }
+
+    /**
+     * Return the average time messages waited for a worker.
+     *
+     * @param unit Time unit of the result
+     * @return Average queue latency, 0 if no message has been decoded yet
+     */
+    public long getAverageQueueLatency(final TimeUnit unit) {
+        final long count = decodedMessages.sum();
+        return count == 0 ? 0 : unit.convert(totalQueueNanos.sum() / count, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Return the longest time a message waited for a worker.
+     *
+     * @param unit Time unit of the result
+     * @return Maximum queue latency
+     */
+    public long getMaxQueueLatency(final TimeUnit unit) {
+        return unit.convert(maxQueueNanos.get(), TimeUnit.NANOSECONDS);
+    }
+}
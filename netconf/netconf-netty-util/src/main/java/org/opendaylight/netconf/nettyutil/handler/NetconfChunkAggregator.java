@@ -8,194 +8,88 @@
 
 package org.opendaylight.netconf.nettyutil.handler;
 
+import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
-import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.TooLongFrameException;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class NetconfChunkAggregator extends ByteToMessageDecoder {
+/**
+ * Chunked framing decoder which gathers all chunks of a message into a single {@link ByteBuf}, which is passed on
+ * once the whole message has been received. Messages larger than the maximum message size are discarded.
+ *
+ * @see NetconfChunkStreamDecoder for a variant which passes data on as it arrives
+ */
+public class NetconfChunkAggregator extends AbstractNetconfChunkDecoder {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfChunkAggregator.class);
-    private static final String GOT_PARAM_WHILE_WAITING_FOR_PARAM = "Got byte {} while waiting for {}";
-    private static final String GOT_PARAM_WHILE_WAITING_FOR_PARAM_PARAM = "Got byte {} while waiting for {}-{}";
-    public static final int DEFAULT_MAXIMUM_CHUNK_SIZE = 16 * 1024 * 1024;
 
-    private enum State {
-        HEADER_ONE, // \n
-        HEADER_TWO, // #
-        HEADER_LENGTH_FIRST, // [1-9]
-        HEADER_LENGTH_OTHER, // [0-9]*\n
-        DATA,
-        FOOTER_ONE, // \n
-        FOOTER_TWO, // #
-        FOOTER_THREE, // #
-        FOOTER_FOUR, // \n
-    }
+    /**
+     * Default maximum size of a message received with chunked framing or decoded lazily, in bytes.
+     */
+    public static final int DEFAULT_MAXIMUM_MESSAGE_SIZE = 512 * 1024 * 1024;
 
-    private final int maxChunkSize = DEFAULT_MAXIMUM_CHUNK_SIZE;
-    private State state = State.HEADER_ONE;
-    private long chunkSize;
+    // Components are consolidated once there is more of them, bounding the overhead of small chunk pieces
+    private static final int MAX_COMPONENTS = 1024;
+
+    private final int maxMessageSize;
     private CompositeByteBuf chunk;
+    // Whether the rest of the current message is being discarded
+    private boolean discarding;
 
-    private static void checkNewLine(final byte byteToCheck, final String errorMessage) {
-        if (byteToCheck != '\n') {
-            LOG.debug(GOT_PARAM_WHILE_WAITING_FOR_PARAM, byteToCheck, (byte)'\n');
-            throw new IllegalStateException(errorMessage);
-        }
+    public NetconfChunkAggregator() {
+        this(DEFAULT_MAXIMUM_MESSAGE_SIZE);
     }
 
-    private static void checkHash(final byte byteToCheck, final String errorMessage) {
-        if (byteToCheck != '#') {
-            LOG.debug(GOT_PARAM_WHILE_WAITING_FOR_PARAM, byteToCheck, (byte)'#');
-            throw new IllegalStateException(errorMessage);
-        }
+    public NetconfChunkAggregator(final int maxMessageSize) {
+        Preconditions.checkArgument(maxMessageSize > 0, "Invalid maximum message size %s", maxMessageSize);
+        this.maxMessageSize = maxMessageSize;
     }
 
-    private void checkChunkSize() {
-        if (chunkSize > maxChunkSize) {
-            LOG.debug("Parsed chunk size {}, maximum allowed is {}", chunkSize, maxChunkSize);
-            throw new IllegalStateException("Maximum chunk size exceeded");
-        }
+    @Override
+    void messageStarted() {
+        discardMessage();
+        discarding = false;
+        chunk = Unpooled.compositeBuffer(MAX_COMPONENTS);
     }
 
     @Override
-    protected void decode(final ChannelHandlerContext ctx,
-                          final ByteBuf in, final List<Object> out) throws IllegalStateException {
-        while (in.isReadable()) {
-            switch (state) {
-                case HEADER_ONE:
-                {
-                    final byte b = in.readByte();
-                    checkNewLine(b, "Malformed chunk header encountered (byte 0)");
-                    state = State.HEADER_TWO;
-                    initChunk();
-                    break;
-                }
-                case HEADER_TWO:
-                {
-                    final byte b = in.readByte();
-                    checkHash(b, "Malformed chunk header encountered (byte 1)");
-                    state = State.HEADER_LENGTH_FIRST;
-                    break;
-                }
-                case HEADER_LENGTH_FIRST:
-                {
-                    final byte b = in.readByte();
-                    chunkSize = processHeaderLengthFirst(b);
-                    state = State.HEADER_LENGTH_OTHER;
-                    break;
-                }
-                case HEADER_LENGTH_OTHER:
-                {
-                    final byte b = in.readByte();
-                    if (b == '\n') {
-                        state = State.DATA;
-                        break;
-                    }
-                    if (b < '0' || b > '9') {
-                        LOG.debug(GOT_PARAM_WHILE_WAITING_FOR_PARAM_PARAM, b, (byte)'0', (byte)'9');
-                        throw new IllegalStateException("Invalid chunk size encountered");
-                    }
-                    chunkSize *= 10;
-                    chunkSize += b - '0';
-                    checkChunkSize();
-                    break;
-                }
-                case DATA:
-                    /*
-                     * FIXME: this gathers all data into one big chunk before passing
-                     *        it on. Make sure the pipeline can work with partial data
-                     *        and then change this piece to pass the data on as it
-                     *        comes through.
-                     */
-                    if (in.readableBytes() < chunkSize) {
-                        LOG.debug("Buffer has {} bytes, need {} to complete chunk", in.readableBytes(), chunkSize);
-                        in.discardReadBytes();
-                        return;
-                    }
-                    aggregateChunks(in.readBytes((int) chunkSize));
-                    state = State.FOOTER_ONE;
-                    break;
-                case FOOTER_ONE:
-                {
-                    final byte b = in.readByte();
-                    checkNewLine(b,"Malformed chunk footer encountered (byte 0)");
-                    state = State.FOOTER_TWO;
-                    chunkSize = 0;
-                    break;
-                }
-                case FOOTER_TWO:
-                {
-                    final byte b = in.readByte();
-                    checkHash(b,"Malformed chunk footer encountered (byte 1)");
-                    state = State.FOOTER_THREE;
-                    break;
-                }
-                case FOOTER_THREE:
-                {
-                    final byte b = in.readByte();
-                    // In this state, either header-of-new-chunk or message-end is expected
-                    // Depends on the next character
-                    extractNewChunkOrMessageEnd(b);
-                    break;
-                }
-                case FOOTER_FOUR:
-                {
-                    final byte b = in.readByte();
-                    checkNewLine(b,"Malformed chunk footer encountered (byte 3)");
-                    state = State.HEADER_ONE;
-                    out.add(chunk);
-                    chunk = null;
-                    break;
-                }
-                default :
-                {
-                    LOG.info("Unknown state.");
-                }
-            }
+    void chunkData(final ByteBuf data, final List<Object> out) {
+        if (discarding) {
+            data.release();
+            return;
         }
-
-        in.discardReadBytes();
-    }
-
-    private void extractNewChunkOrMessageEnd(final byte byteToCheck) {
-        if (isHeaderLengthFirst(byteToCheck)) {
-            // Extract header length#1 from new chunk
-            chunkSize = processHeaderLengthFirst(byteToCheck);
-            // Proceed with next chunk processing
-            state = State.HEADER_LENGTH_OTHER;
-        } else if (byteToCheck == '#') {
-            state = State.FOOTER_FOUR;
-        } else {
-            LOG.debug(GOT_PARAM_WHILE_WAITING_FOR_PARAM_PARAM, byteToCheck, (byte) '#', (byte) '1', (byte) '9');
-            throw new IllegalStateException("Malformed chunk footer encountered (byte 2)");
+        if (data.readableBytes() > maxMessageSize - chunk.readableBytes()) {
+            final int size = chunk.readableBytes();
+            data.release();
+            discardMessage();
+            discarding = true;
+            LOG.debug("Message exceeds maximum size {}, discarding it", maxMessageSize);
+            throw new TooLongFrameException("Message size exceeds " + maxMessageSize + " bytes, " + size
+                + " bytes received so far");
         }
-    }
-
-    private void initChunk() {
-        chunk = Unpooled.compositeBuffer();
-    }
-
-    private void aggregateChunks(final ByteBuf newChunk) {
-        chunk.addComponent(chunk.numComponents(), newChunk);
 
-        // Update writer index, addComponent does not update it
-        chunk.writerIndex(chunk.writerIndex() + newChunk.readableBytes());
+        // addComponent() with increaseWriterIndex takes care of updating writer index
+        chunk.addComponent(true, data);
     }
 
-    private static int processHeaderLengthFirst(final byte byteToCheck) {
-        if (!isHeaderLengthFirst(byteToCheck)) {
-            LOG.debug(GOT_PARAM_WHILE_WAITING_FOR_PARAM_PARAM, byteToCheck, (byte)'1', (byte)'9');
-            throw new IllegalStateException("Invalid chunk size encountered (byte 0)");
+    @Override
+    void messageEnded(final List<Object> out) {
+        if (discarding) {
+            discarding = false;
+            return;
         }
-
-        return byteToCheck - '0';
+        out.add(chunk);
+        chunk = null;
     }
 
-    private static boolean isHeaderLengthFirst(final byte byteToCheck) {
-        return byteToCheck >= '1' && byteToCheck <= '9';
+    @Override
+    void discardMessage() {
+        if (chunk != null) {
+            chunk.release();
+            chunk = null;
+        }
     }
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import io.netty.buffer.ByteBuf;
+import java.util.List;
+
+/**
+ * Chunked framing decoder which does not aggregate messages. Chunk data is passed on as {@link ByteBuf} slices as
+ * soon as it arrives and each message is terminated by {@link EndOfMessage#INSTANCE}. This allows downstream
+ * handlers to process messages incrementally, without holding the entire message in memory.
+ */
+public final class NetconfChunkStreamDecoder extends AbstractNetconfChunkDecoder {
+    @Override
+    void messageStarted() {
+        // No-op
+    }
+
+    @Override
+    void chunkData(final ByteBuf data, final List<Object> out) {
+        out.add(data);
+    }
+
+    @Override
+    void messageEnded(final List<Object> out) {
+        out.add(EndOfMessage.INSTANCE);
+    }
+}
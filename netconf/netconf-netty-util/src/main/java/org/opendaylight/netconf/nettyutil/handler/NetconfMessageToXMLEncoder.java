@@ -9,41 +9,108 @@ package org.opendaylight.netconf.nettyutil.handler;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.StreamingNetconfMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Comment;
 
 public class NetconfMessageToXMLEncoder extends MessageToByteEncoder<NetconfMessage> {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfMessageToXMLEncoder.class);
+    private static final XMLOutputFactory XML_FACTORY;
+
+    static {
+        XML_FACTORY = XMLOutputFactory.newFactory();
+        XML_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, false);
+    }
 
     private final Optional<String> clientId;
+    private final boolean indentStreamedMessages;
+    private final Executor segmentExecutor;
+    private final long writeTimeoutMillis;
 
     public NetconfMessageToXMLEncoder() {
         this(Optional.<String>absent());
     }
 
     public NetconfMessageToXMLEncoder(final Optional<String> clientId) {
+        this(clientId, false);
+    }
+
+    /**
+     * Create a new encoder.
+     *
+     * @param clientId Client identifier to be attached to each message as a comment
+     * @param indentStreamedMessages Whether {@link StreamingNetconfMessage}s should be indented. Indenting requires
+     *                               the message to be converted to a DOM document first, hence it is recommended
+     *                               for debugging only.
+     */
+    public NetconfMessageToXMLEncoder(final Optional<String> clientId, final boolean indentStreamedMessages) {
+        this(clientId, indentStreamedMessages, StreamedMessageInput.DEFAULT_EXECUTOR,
+            StreamedMessageInput.DEFAULT_WRITE_TIMEOUT_MILLIS);
+    }
+
+    @VisibleForTesting
+    NetconfMessageToXMLEncoder(final Optional<String> clientId, final boolean indentStreamedMessages,
+            final Executor segmentExecutor, final long writeTimeoutMillis) {
         this.clientId = clientId;
+        this.indentStreamedMessages = indentStreamedMessages;
+        this.segmentExecutor = Preconditions.checkNotNull(segmentExecutor);
+        this.writeTimeoutMillis = writeTimeoutMillis;
+    }
+
+    @Override
+    public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise)
+            throws Exception {
+        if (msg instanceof StreamingNetconfMessage && ((StreamingNetconfMessage) msg).isSegmented()
+                && !indentStreamedMessages) {
+            final ChunkedWriteHandler chunkedWriter = ctx.pipeline().get(ChunkedWriteHandler.class);
+            if (chunkedWriter != null) {
+                LOG.trace("Sent to encode in segments : {}", msg.getClass());
+                final Channel channel = ctx.channel();
+                final StreamedMessageInput input = new StreamedMessageInput(ctx.alloc(), chunkedWriter::resumeTransfer,
+                    channel::close, ctx.executor(), writeTimeoutMillis,
+                    new SegmentedMessageWriter((StreamingNetconfMessage) msg));
+                ctx.write(input, promise);
+                input.start(segmentExecutor);
+                return;
+            }
+        }
+
+        super.write(ctx, msg, promise);
     }
 
     @Override
     @VisibleForTesting
     public void encode(final ChannelHandlerContext ctx, final NetconfMessage msg, final ByteBuf out)
-            throws IOException, TransformerException {
+            throws IOException, TransformerException, XMLStreamException {
         LOG.trace("Sent to encode : {}", msg);
 
+        if (msg instanceof StreamingNetconfMessage && !indentStreamedMessages) {
+            encodeStreaming((StreamingNetconfMessage) msg, out);
+            return;
+        }
+
         if (clientId.isPresent()) {
             Comment comment = msg.getDocument().createComment("clientId:" + clientId.get());
             msg.getDocument().appendChild(comment);
@@ -60,4 +127,59 @@ public class NetconfMessageToXMLEncoder extends MessageToByteEncoder<NetconfMess
             ThreadLocalTransformers.getPrettyTransformer().transform(source, result);
         }
     }
+
+    private void encodeStreaming(final StreamingNetconfMessage msg, final ByteBuf out)
+            throws IOException, XMLStreamException {
+        try (Writer os = new BufferedWriter(new OutputStreamWriter(new ByteBufOutputStream(out),
+                StandardCharsets.UTF_8))) {
+            final XMLStreamWriter writer = XML_FACTORY.createXMLStreamWriter(os);
+            try {
+                writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+                msg.writeTo(writer);
+                if (clientId.isPresent()) {
+                    writer.writeComment("clientId:" + clientId.get());
+                }
+                writer.writeEndDocument();
+                writer.flush();
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * Writes a message in the parts written by its {@link StreamingNetconfMessage.WriteCursor}, the first part being
+     * the start of the document.
+     */
+    private final class SegmentedMessageWriter implements StreamedMessageInput.MessageWriter {
+        private final StreamingNetconfMessage msg;
+        private XMLStreamWriter writer;
+        private StreamingNetconfMessage.WriteCursor cursor;
+
+        SegmentedMessageWriter(final StreamingNetconfMessage msg) {
+            this.msg = msg;
+        }
+
+        @Override
+        public boolean writeNext(final OutputStream out) throws XMLStreamException {
+            if (writer == null) {
+                writer = XML_FACTORY.createXMLStreamWriter(
+                    new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+                writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+                cursor = msg.newWriteCursor(writer);
+            } else if (!cursor.writeNext()) {
+                if (clientId.isPresent()) {
+                    writer.writeComment("clientId:" + clientId.get());
+                }
+                writer.writeEndDocument();
+                writer.flush();
+                writer.close();
+                return false;
+            }
+
+            // Push the part to the output stream, so that the producer knows how many segments are pending
+            writer.flush();
+            return true;
+        }
+    }
 }
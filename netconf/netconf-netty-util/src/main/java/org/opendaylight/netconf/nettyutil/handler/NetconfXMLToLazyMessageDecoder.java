@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageDecoder;
+import io.netty.handler.codec.TooLongFrameException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.xml.stream.XMLStreamException;
+import org.opendaylight.netconf.api.FailedNetconfMessage;
+import org.opendaylight.netconf.api.LazyNetconfMessage;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decoder producing {@link LazyNetconfMessage}s. Unlike {@link NetconfXMLToMessageDecoder}, this decoder does not
+ * build a DOM document, it only copies the frame out of the channel buffers and inspects the root element. The
+ * content is parsed later, typically straight into NormalizedNodes.
+ *
+ * <p>
+ * In streaming mode this decoder expects to be fed by a streaming framing decoder, such as
+ * {@link NetconfChunkStreamDecoder}, and gathers message content until {@link EndOfMessage} is received. Otherwise
+ * each incoming {@link ByteBuf} is expected to hold a complete message. Either way, content is copied into heap
+ * segments of {@link #SEGMENT_SIZE} bytes as it arrives and channel buffers are released right away, hence a message
+ * occupies its size in memory once. Messages larger than the maximum message size are replaced by
+ * a {@link FailedNetconfMessage}.
+ */
+public final class NetconfXMLToLazyMessageDecoder extends MessageToMessageDecoder<Object> {
+    private static final Logger LOG = LoggerFactory.getLogger(NetconfXMLToLazyMessageDecoder.class);
+
+    @VisibleForTesting
+    static final int SEGMENT_SIZE = 64 * 1024;
+
+    private final boolean streaming;
+    private final int maxMessageSize;
+
+    // Content of the message being received, null if none
+    private List<byte[]> segments;
+    private int lastSegmentLength;
+    private long messageSize;
+    // Whether the rest of the current message is being discarded
+    private boolean discarding;
+
+    public NetconfXMLToLazyMessageDecoder() {
+        this(false);
+    }
+
+    public NetconfXMLToLazyMessageDecoder(final boolean streaming) {
+        this(streaming, NetconfChunkAggregator.DEFAULT_MAXIMUM_MESSAGE_SIZE);
+    }
+
+    public NetconfXMLToLazyMessageDecoder(final boolean streaming, final int maxMessageSize) {
+        Preconditions.checkArgument(maxMessageSize > 0, "Invalid maximum message size %s", maxMessageSize);
+        this.streaming = streaming;
+        this.maxMessageSize = maxMessageSize;
+    }
+
+    public int getMaxMessageSize() {
+        return maxMessageSize;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    @Override
+    public boolean acceptInboundMessage(final Object msg) {
+        return msg instanceof ByteBuf || msg instanceof EndOfMessage;
+    }
+
+    @Override
+    protected void decode(final ChannelHandlerContext ctx, final Object msg, final List<Object> out) {
+        if (msg instanceof EndOfMessage) {
+            endMessage(out);
+            return;
+        }
+
+        // Our caller releases the buffer once we return
+        final ByteBuf buf = (ByteBuf) msg;
+        if (discarding) {
+            return;
+        }
+        if (segments == null) {
+            NetconfXMLToMessageDecoder.stripLeadingWhitespace(buf);
+            if (!buf.isReadable()) {
+                LOG.debug("No more content in incoming buffer.");
+                return;
+            }
+        }
+
+        if (buf.readableBytes() > maxMessageSize - messageSize) {
+            LOG.debug("Message exceeds maximum size {}, discarding it", maxMessageSize);
+            final long size = messageSize + buf.readableBytes();
+            discardMessage();
+            if (streaming) {
+                // Report the failure once the rest of the message has been skipped
+                discarding = true;
+                return;
+            }
+            out.add(new FailedNetconfMessage(new TooLongFrameException("Message size exceeds " + maxMessageSize
+                + " bytes, " + size + " bytes received")));
+            return;
+        }
+
+        append(buf);
+        if (!streaming) {
+            endMessage(out);
+        }
+    }
+
+    @Override
+    public void handlerRemoved(final ChannelHandlerContext ctx) throws Exception {
+        discardMessage();
+        discarding = false;
+        super.handlerRemoved(ctx);
+    }
+
+    private void append(final ByteBuf buf) {
+        if (segments == null) {
+            segments = new ArrayList<>();
+        }
+        messageSize += buf.readableBytes();
+        while (buf.isReadable()) {
+            byte[] segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (segment == null || lastSegmentLength == segment.length) {
+                // Segments grow with the message up to the segment size, as most messages are small
+                segment = new byte[(int) Math.min(SEGMENT_SIZE, messageSize)];
+                segments.add(segment);
+                lastSegmentLength = 0;
+            }
+            final int xfer = Math.min(buf.readableBytes(), segment.length - lastSegmentLength);
+            buf.readBytes(segment, lastSegmentLength, xfer);
+            lastSegmentLength += xfer;
+        }
+    }
+
+    private void endMessage(final List<Object> out) {
+        if (discarding) {
+            discarding = false;
+            out.add(new FailedNetconfMessage(new TooLongFrameException("Message size exceeds " + maxMessageSize
+                + " bytes")));
+            return;
+        }
+
+        final List<byte[]> content = segments;
+        final int lastLength = lastSegmentLength;
+        discardMessage();
+        if (content == null) {
+            LOG.debug("No content received for message");
+            return;
+        }
+
+        // Trim the last segment
+        final int last = content.size() - 1;
+        if (content.get(last).length != lastLength) {
+            content.set(last, Arrays.copyOf(content.get(last), lastLength));
+        }
+
+        NetconfMessage msg;
+        try {
+            msg = LazyNetconfMessage.create(content);
+        } catch (XMLStreamException e) {
+            LOG.error("Failed to parse received message", e);
+            msg = new FailedNetconfMessage(e);
+        }
+        out.add(msg);
+    }
+
+    private void discardMessage() {
+        segments = null;
+        lastSegmentLength = 0;
+        messageSize = 0;
+    }
+}
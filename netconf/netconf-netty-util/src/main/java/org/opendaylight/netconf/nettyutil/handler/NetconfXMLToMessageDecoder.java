@@ -29,6 +29,40 @@ public final class NetconfXMLToMessageDecoder extends ByteToMessageDecoder {
     @Override
     public void decode(final ChannelHandlerContext ctx, final ByteBuf in,
                        final List<Object> out) throws IOException, SAXException {
+        final NetconfMessage msg = decodeMessage(in);
+        if (msg != null) {
+            out.add(msg);
+        }
+    }
+
+    /**
+     * Parse a complete message into a DOM-backed {@link NetconfMessage}.
+     *
+     * @param in Buffer holding a complete message
+     * @return Decoded message, {@link FailedNetconfMessage} if the message is not well-formed, null if the buffer
+     *         holds only whitespace
+     */
+    static NetconfMessage decodeMessage(final ByteBuf in) throws IOException, SAXException {
+        stripLeadingWhitespace(in);
+        if (!in.isReadable()) {
+            LOG.debug("No more content in incoming buffer.");
+            return null;
+        }
+
+        try {
+            return new NetconfMessage(XmlUtil.readXmlToDocument(new ByteBufInputStream(in)));
+        } catch (SAXParseException exception) {
+            LOG.error("Failed to parse received message", exception);
+            return new FailedNetconfMessage(exception);
+        }
+    }
+
+    /**
+     * Skip any whitespace preceding the XML content of a message.
+     *
+     * @param in Buffer holding a complete message
+     */
+    static void stripLeadingWhitespace(final ByteBuf in) {
         if (in.isReadable()) {
             if (LOG.isTraceEnabled()) {
                 LOG.trace("Received to decode: {}", ByteBufUtil.hexDump(in));
@@ -69,20 +103,6 @@ public final class NetconfXMLToMessageDecoder extends ByteToMessageDecoder {
                         in.readerIndex(), ByteBufUtil.hexDump(Unpooled.wrappedBuffer(strippedBytes)));
             }
         }
-        if (in.isReadable()) {
-            NetconfMessage msg;
-
-            try {
-                msg = new NetconfMessage(XmlUtil.readXmlToDocument(new ByteBufInputStream(in)));
-            } catch (SAXParseException exception) {
-                LOG.error("Failed to parse received message", exception);
-                msg = new FailedNetconfMessage(exception);
-            }
-
-            out.add(msg);
-        } else {
-            LOG.debug("No more content in incoming buffer.");
-        }
     }
 
     /**
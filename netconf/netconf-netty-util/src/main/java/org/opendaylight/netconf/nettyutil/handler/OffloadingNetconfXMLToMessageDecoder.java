@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.DecoderException;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+
+/**
+ * Variant of {@link NetconfXMLToMessageDecoder}, which parses messages at or above a size threshold in a
+ * {@link MessageDecodingPool} instead of the I/O thread, so a single large message does not stall all other channels
+ * served by the same event loop. Messages are passed on in the order they were received: once a message has been
+ * offloaded, all following messages are offloaded as well until the pool catches up. If too many messages are
+ * waiting to be decoded, reading from the channel is suspended until the backlog drains. Once the handler is removed
+ * or the channel becomes inactive, messages still waiting to be decoded are discarded and reading is resumed.
+ *
+ * <p>
+ * Expects complete messages, i.e. has to be placed after a framing aggregator.
+ */
+public final class OffloadingNetconfXMLToMessageDecoder extends ChannelInboundHandlerAdapter {
+    private static final Logger LOG = LoggerFactory.getLogger(OffloadingNetconfXMLToMessageDecoder.class);
+
+    static final int MAX_PENDING_MESSAGES = 16;
+
+    private final MessageDecodingPool pool;
+    private final Executor executor;
+    private final int threshold;
+
+    // Accessed from the event loop only
+    private int pendingMessages;
+    private boolean readSuspended;
+
+    // Set from the event loop, read by decoding tasks
+    private volatile boolean discarding;
+
+    public OffloadingNetconfXMLToMessageDecoder(final MessageDecodingPool pool, final int threshold) {
+        Preconditions.checkArgument(threshold >= 0, "Threshold has to be non-negative, was %s", threshold);
+        this.pool = Preconditions.checkNotNull(pool);
+        this.executor = pool.newSessionExecutor();
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws IOException, SAXException {
+        if (!(msg instanceof ByteBuf)) {
+            ctx.fireChannelRead(msg);
+            return;
+        }
+
+        final ByteBuf in = (ByteBuf) msg;
+        if (pendingMessages == 0 && in.readableBytes() < threshold) {
+            final NetconfMessage decoded;
+            try {
+                decoded = NetconfXMLToMessageDecoder.decodeMessage(in);
+            } finally {
+                in.release();
+            }
+            if (decoded != null) {
+                ctx.fireChannelRead(decoded);
+            }
+            return;
+        }
+
+        LOG.trace("Offloading decoding of {} bytes on channel {}", in.readableBytes(), ctx.channel());
+        pendingMessages++;
+        if (pendingMessages >= MAX_PENDING_MESSAGES && !readSuspended) {
+            LOG.debug("{} messages waiting to be decoded on channel {}, suspending reads", pendingMessages,
+                ctx.channel());
+            readSuspended = true;
+            ctx.channel().config().setAutoRead(false);
+        }
+
+        final long enqueued = System.nanoTime();
+        executor.execute(() -> {
+            if (discarding) {
+                in.release();
+                return;
+            }
+            pool.recordQueueLatency(System.nanoTime() - enqueued);
+
+            Object result;
+            try {
+                result = NetconfXMLToMessageDecoder.decodeMessage(in);
+            } catch (IOException | SAXException | RuntimeException e) {
+                result = new DecoderException(e);
+            } finally {
+                in.release();
+            }
+            pool.messageDecoded();
+
+            final Object decoded = result;
+            ctx.executor().execute(() -> messageDecoded(ctx, decoded));
+        });
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) {
+        discardPending(ctx);
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void handlerRemoved(final ChannelHandlerContext ctx) {
+        discardPending(ctx);
+    }
+
+    private void discardPending(final ChannelHandlerContext ctx) {
+        if (discarding) {
+            return;
+        }
+
+        discarding = true;
+        if (pendingMessages != 0) {
+            LOG.debug("Discarding {} messages waiting to be decoded on channel {}", pendingMessages, ctx.channel());
+            pendingMessages = 0;
+        }
+        if (readSuspended) {
+            readSuspended = false;
+            ctx.channel().config().setAutoRead(true);
+        }
+    }
+
+    private void messageDecoded(final ChannelHandlerContext ctx, final Object decoded) {
+        if (discarding) {
+            LOG.trace("Dropping message decoded after channel {} went away", ctx.channel());
+            return;
+        }
+
+        pendingMessages--;
+        if (readSuspended && pendingMessages <= MAX_PENDING_MESSAGES / 2) {
+            LOG.debug("Decoding backlog on channel {} drained, resuming reads", ctx.channel());
+            readSuspended = false;
+            ctx.channel().config().setAutoRead(true);
+        }
+
+        if (decoded instanceof Throwable) {
+            ctx.fireExceptionCaught((Throwable) decoded);
+        } else if (decoded != null) {
+            ctx.fireChannelRead(decoded);
+        }
+    }
+}
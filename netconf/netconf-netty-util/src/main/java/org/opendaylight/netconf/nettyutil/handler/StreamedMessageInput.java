@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import javax.xml.stream.XMLStreamException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A message encoded in bounded segments. The message is written by a producer into a queue of segments, in the parts
+ * its {@link MessageWriter} writes. Segments are pulled from the queue by a
+ * {@link io.netty.handler.stream.ChunkedWriteHandler} as the channel becomes writable, hence at most a few segments of
+ * the message are held in memory, regardless of its size, and a slow peer does not delay other channels served by the
+ * same event loop.
+ *
+ * <p>
+ * Once {@link #MAX_PENDING_SEGMENTS} segments are queued, the producer parks and returns its thread to the executor.
+ * It is resumed by the consumer once the queue has been drained down to {@link #RESUME_PENDING_SEGMENTS}, so that a
+ * peer which does not read does not hold on to any thread. If the peer does not read the message, so that the
+ * producer stays parked for the write timeout, the transfer is aborted, which is expected to close the channel.
+ *
+ * <p>
+ * Framing encoders do not see the segments, they set up the {@link #setFraming(Function, byte[]) framing} of the
+ * segments and the trailer to append to the message instead.
+ */
+final class StreamedMessageInput implements ChunkedInput<ByteBuf> {
+    private static final Logger LOG = LoggerFactory.getLogger(StreamedMessageInput.class);
+
+    @VisibleForTesting
+    static final int SEGMENT_SIZE = ChunkedFramingMechanismEncoder.DEFAULT_CHUNK_SIZE;
+    @VisibleForTesting
+    static final int MAX_PENDING_SEGMENTS = 16;
+    @VisibleForTesting
+    static final int RESUME_PENDING_SEGMENTS = MAX_PENDING_SEGMENTS / 2;
+
+    private static final int MAX_PRODUCER_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int MAX_QUEUED_PRODUCERS = 1024;
+
+    /**
+     * Pool of producer threads shared by all channels. Producers never wait for the peer while holding a thread.
+     * Both the number of threads and the number of producers waiting for a thread are bounded, messages whose
+     * producer cannot be queued fail.
+     */
+    static final Executor DEFAULT_EXECUTOR;
+
+    static {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_PRODUCER_THREADS, MAX_PRODUCER_THREADS,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(MAX_QUEUED_PRODUCERS), new ThreadFactoryBuilder()
+                .setNameFormat("netconf-message-encoder-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        DEFAULT_EXECUTOR = executor;
+    }
+
+    /**
+     * Default time a producer stays parked, waiting for the peer to read segments of the message.
+     */
+    static final long DEFAULT_WRITE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(60);
+    private static final byte[] EMPTY_TRAILER = new byte[0];
+
+    /**
+     * Writer of the message content, in parts.
+     */
+    @FunctionalInterface
+    interface MessageWriter {
+        /**
+         * Write the next part of the message. The producer checks whether it should park between parts only, hence
+         * parts should be small compared to a segment.
+         *
+         * @param out Stream to write to, the same one for all parts
+         * @return True if there are more parts to write, false if the message has been written completely
+         */
+        boolean writeNext(OutputStream out) throws IOException, XMLStreamException;
+    }
+
+    private final Queue<ByteBuf> segments = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSegments = new AtomicInteger();
+    private final AtomicBoolean parked = new AtomicBoolean();
+    private final AtomicInteger parkGeneration = new AtomicInteger();
+    private final SegmentOutputStream out = new SegmentOutputStream();
+    private final ByteBufAllocator alloc;
+    private final Runnable resumeTransfer;
+    private final Runnable abortTransfer;
+    private final ScheduledExecutorService timer;
+    private final long writeTimeoutNanos;
+    private final MessageWriter writer;
+
+    private volatile Executor executor;
+    private volatile ScheduledFuture<?> writeTimeout;
+    private volatile boolean produced;
+    private volatile boolean closed;
+    private volatile Throwable failure;
+
+    // Accessed from the event loop only
+    private Function<ByteBuf, ByteBuf> framing = Function.identity();
+    private byte[] trailer = EMPTY_TRAILER;
+    private boolean endOfInput;
+    private long progress;
+
+    /**
+     * Create a new input.
+     *
+     * @param alloc Allocator of segments
+     * @param resumeTransfer Invoked by the producer whenever a segment becomes available
+     * @param abortTransfer Invoked if the peer did not read the message within the write timeout
+     * @param timer Executor scheduling the write timeout
+     * @param writeTimeoutMillis Time the producer stays parked, waiting for segments to be read, in milliseconds
+     * @param writer Writer of the message content
+     */
+    StreamedMessageInput(final ByteBufAllocator alloc, final Runnable resumeTransfer, final Runnable abortTransfer,
+            final ScheduledExecutorService timer, final long writeTimeoutMillis, final MessageWriter writer) {
+        Preconditions.checkArgument(writeTimeoutMillis > 0, "Write timeout has to be positive, was %s",
+            writeTimeoutMillis);
+        this.alloc = requireNonNull(alloc);
+        this.resumeTransfer = requireNonNull(resumeTransfer);
+        this.abortTransfer = requireNonNull(abortTransfer);
+        this.timer = requireNonNull(timer);
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        this.writer = requireNonNull(writer);
+    }
+
+    /**
+     * Start writing the message. If the executor rejects the producer, the message fails.
+     *
+     * @param producerExecutor Executor running the producer, both initially and whenever it is resumed
+     */
+    void start(final Executor producerExecutor) {
+        this.executor = requireNonNull(producerExecutor);
+        try {
+            producerExecutor.execute(this::produce);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("No producer available to encode message", e);
+            failure = e;
+            produced = true;
+            resumeTransfer.run();
+        }
+    }
+
+    /**
+     * Set up framing of this message. Must be invoked before the message reaches the
+     * {@link io.netty.handler.stream.ChunkedWriteHandler}.
+     *
+     * @param segmentFraming Function framing a single segment, responsible for releasing it
+     * @param messageTrailer Bytes appended to the message
+     */
+    void setFraming(final Function<ByteBuf, ByteBuf> segmentFraming, final byte[] messageTrailer) {
+        this.framing = requireNonNull(segmentFraming);
+        this.trailer = requireNonNull(messageTrailer);
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void produce() {
+        try {
+            while (true) {
+                if (closed) {
+                    throw new IOException("Channel closed while encoding message");
+                }
+                if (pendingSegments.get() >= MAX_PENDING_SEGMENTS) {
+                    if (park()) {
+                        // The consumer resumes the producer
+                        return;
+                    }
+                } else if (!writer.writeNext(out)) {
+                    out.close();
+                    break;
+                }
+            }
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            if (!closed) {
+                LOG.warn("Failed to encode message", e);
+            }
+            out.discard();
+            failure = e;
+        }
+
+        produced = true;
+        resumeTransfer.run();
+    }
+
+    /**
+     * Park the producer until the consumer drains the queue or the write timeout expires.
+     *
+     * @return True if the producer has been parked, false if it should continue right away
+     */
+    private boolean park() {
+        final int generation = parkGeneration.incrementAndGet();
+        writeTimeout = timer.schedule(() -> writeTimedOut(generation), writeTimeoutNanos, TimeUnit.NANOSECONDS);
+        parked.set(true);
+        // The queue may have been drained or the input closed before the consumer could see the producer parked
+        return !((closed || pendingSegments.get() <= RESUME_PENDING_SEGMENTS) && unpark());
+    }
+
+    private boolean unpark() {
+        if (!parked.compareAndSet(true, false)) {
+            return false;
+        }
+        parkGeneration.incrementAndGet();
+        writeTimeout.cancel(false);
+        return true;
+    }
+
+    private void resume() {
+        if (!unpark()) {
+            return;
+        }
+        try {
+            executor.execute(this::produce);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("No producer available to continue encoding message", e);
+            out.discard();
+            failure = e;
+            produced = true;
+        }
+    }
+
+    private void writeTimedOut(final int generation) {
+        if (parkGeneration.get() != generation || !parked.compareAndSet(true, false)) {
+            // The producer has been resumed in the meantime
+            return;
+        }
+
+        out.discard();
+        // The channel is not writable, hence the failure would not be noticed by the consumer
+        LOG.warn("Message was not read within {}ms, aborting transfer",
+            TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos));
+        failure = new IOException("Timed out while writing message");
+        produced = true;
+        abortTransfer.run();
+        resumeTransfer.run();
+    }
+
+    @Override
+    public boolean isEndOfInput() {
+        return endOfInput;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        releaseSegments();
+        if (unpark()) {
+            // The producer will not run again, release its incomplete segment
+            out.discard();
+        }
+    }
+
+    @Override
+    @Deprecated
+    public ByteBuf readChunk(final ChannelHandlerContext ctx) throws Exception {
+        return readChunk(ctx.alloc());
+    }
+
+    @Override
+    public ByteBuf readChunk(final ByteBufAllocator allocator) throws Exception {
+        if (endOfInput) {
+            return null;
+        }
+
+        // Completion has to be checked before polling, as the last segment is queued before completion is signalled
+        final boolean complete = produced;
+        final ByteBuf segment = segments.poll();
+        if (segment != null) {
+            if (pendingSegments.decrementAndGet() <= RESUME_PENDING_SEGMENTS) {
+                resume();
+            }
+            progress += segment.readableBytes();
+            return framing.apply(segment);
+        }
+        if (!complete) {
+            // Wait for the producer to resume the transfer
+            return null;
+        }
+
+        final Throwable cause = failure;
+        if (cause != null) {
+            throw new IOException("Failed to encode message", cause);
+        }
+        endOfInput = true;
+        return allocator.buffer(trailer.length).writeBytes(trailer);
+    }
+
+    @Override
+    public long length() {
+        return -1;
+    }
+
+    @Override
+    public long progress() {
+        return progress;
+    }
+
+    private void releaseSegments() {
+        for (ByteBuf segment = segments.poll(); segment != null; segment = segments.poll()) {
+            segment.release();
+        }
+    }
+
+    /**
+     * Output stream cutting the message into segments. Used by one producer thread at a time.
+     */
+    private final class SegmentOutputStream extends OutputStream {
+        private ByteBuf current;
+
+        @Override
+        public void write(final int value) throws IOException {
+            ensureSegment().writeByte(value);
+            if (!current.isWritable()) {
+                emit();
+            }
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            int off = offset;
+            int remaining = length;
+            while (remaining > 0) {
+                final ByteBuf segment = ensureSegment();
+                final int xfer = Math.min(remaining, segment.writableBytes());
+                segment.writeBytes(bytes, off, xfer);
+                off += xfer;
+                remaining -= xfer;
+                if (!segment.isWritable()) {
+                    emit();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (current != null) {
+                if (current.isReadable()) {
+                    emit();
+                } else {
+                    discard();
+                }
+            }
+        }
+
+        void discard() {
+            if (current != null) {
+                current.release();
+                current = null;
+            }
+        }
+
+        private ByteBuf ensureSegment() throws IOException {
+            if (closed) {
+                throw new IOException("Channel closed while encoding message");
+            }
+            if (current == null) {
+                current = alloc.buffer(SEGMENT_SIZE, SEGMENT_SIZE);
+            }
+            return current;
+        }
+
+        private void emit() throws IOException {
+            final ByteBuf segment = current;
+            current = null;
+            // Counted before being queued, so that the consumer never sees a negative count
+            pendingSegments.incrementAndGet();
+            segments.add(segment);
+            if (closed) {
+                // The consumer has gone away in the meantime and will not release the segment
+                releaseSegments();
+                throw new IOException("Channel closed while encoding message");
+            }
+            resumeTransfer.run();
+        }
+    }
+}
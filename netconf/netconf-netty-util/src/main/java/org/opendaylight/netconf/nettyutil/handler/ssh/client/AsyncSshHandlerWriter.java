@@ -10,12 +10,19 @@ package org.opendaylight.netconf.nettyutil.handler.ssh.client;
 
 import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundBuffer;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoop;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.Queue;
+import java.util.List;
 import org.apache.sshd.common.io.IoOutputStream;
 import org.apache.sshd.common.io.WritePendingException;
 import org.apache.sshd.common.util.buffer.Buffer;
@@ -26,27 +33,74 @@ import org.slf4j.LoggerFactory;
 /**
  * Async Ssh writer. Takes messages(byte arrays) and sends them encrypted to remote server.
  * Also handles pending writes by caching requests until pending state is over.
+ *
+ * <p>
+ * Pending writes are bounded in two ways. Once the amount of pending bytes exceeds the channel's high write buffer
+ * watermark, the channel is marked as not writable until the amount drops below the low watermark, so that
+ * well-behaved producers can back off. Exceeding the maximum number of pending writes fails the channel: all queued
+ * and subsequent writes are failed and the channel is closed, as dropping a single write would corrupt the message
+ * stream. Small pending writes are coalesced into a single SSH write once the pending state is over.
  */
 public final class AsyncSshHandlerWriter implements AutoCloseable {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(AsyncSshHandlerWriter.class);
 
-    // public static final int MAX_PENDING_WRITES = 1000;
-    // TODO implement Limiting mechanism for pending writes
-    // But there is a possible issue with limiting:
-    // 1. What to do when queue is full ? Immediate Fail for every request ?
-    // 2. At this level we might be dealing with Chunks of messages(not whole messages)
-    // and unexpected behavior might occur when we send/queue 1 chunk and fail the other chunks
+    public static final int DEFAULT_MAX_PENDING_WRITES = 1000;
+
+    // Maximum size of a write coalesced from pending writes, matches the default SSH channel packet size
+    static final int MAX_COALESCED_WRITE_SIZE = 32 * 1024;
+
+    // Index of the user-defined writability bit we control on the channel's outbound buffer
+    private static final int WRITABILITY_INDEX = 1;
+
+    private static final int DEFAULT_HIGH_WATERMARK = 64 * 1024;
+    private static final int DEFAULT_LOW_WATERMARK = 32 * 1024;
 
     private final Object asyncInLock = new Object();
+    private final int maxPendingWrites;
     private volatile IoOutputStream asyncIn;
 
     // Order has to be preserved for queued writes
     private final Deque<PendingWriteRequest> pending = new LinkedList<>();
 
+    // Number of requests at the head of pending which are being written right now, guarded by asyncInLock
+    private int inFlightPending;
+    // Set once pending writes overflowed, guarded by asyncInLock
+    private Throwable failure;
+
+    // Written with asyncInLock held, volatile for lock-free reads
+    private volatile int pendingWrites;
+    private volatile long pendingBytes;
+    private volatile boolean writable = true;
+
     public AsyncSshHandlerWriter(final IoOutputStream asyncIn) {
+        this(asyncIn, DEFAULT_MAX_PENDING_WRITES);
+    }
+
+    public AsyncSshHandlerWriter(final IoOutputStream asyncIn, final int maxPendingWrites) {
+        Preconditions.checkArgument(maxPendingWrites > 0, "Maximum pending writes has to be positive, was %s",
+            maxPendingWrites);
         this.asyncIn = asyncIn;
+        this.maxPendingWrites = maxPendingWrites;
+    }
+
+    /**
+     * Return the number of writes waiting for a previous write to finish.
+     *
+     * @return Number of pending writes
+     */
+    public int getPendingWriteCount() {
+        return pendingWrites;
+    }
+
+    /**
+     * Return the number of bytes waiting for a previous write to finish.
+     *
+     * @return Number of pending bytes
+     */
+    public long getPendingWriteBytes() {
+        return pendingBytes;
     }
 
     public void write(final ChannelHandlerContext ctx,
@@ -64,28 +118,34 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
             // If we are closed/closing, set immediate fail
             if (asyncIn.isClosed() || asyncIn.isClosing()) {
                 promise.setFailure(new IllegalStateException("Channel closed"));
+            } else if (failure != null) {
+                ((ByteBuf) msg).release();
+                promise.setFailure(failure);
             } else {
                 final ByteBuf byteBufMsg = (ByteBuf) msg;
                 if (!pending.isEmpty()) {
-                    queueRequest(ctx, byteBufMsg, promise);
+                    queueRequest(new PendingWriteRequest(ctx, byteBufMsg, promise));
                     return;
                 }
 
-                writeWithPendingDetection(ctx, promise, byteBufMsg, false);
+                writeWithPendingDetection(Collections.singletonList(new PendingWriteRequest(ctx, byteBufMsg, promise)),
+                    false);
             }
         }
     }
 
-    //sending message with pending
-    //if resending message not succesfull, then attribute wasPending is true
-    private void writeWithPendingDetection(final ChannelHandlerContext ctx, final ChannelPromise promise,
-                                           final ByteBuf byteBufMsg, final boolean wasPending) {
+    //sending messages with pending
+    //if resending messages not succesfull, then attribute wasPending is true
+    private void writeWithPendingDetection(final List<PendingWriteRequest> requests, final boolean wasPending) {
+        final PendingWriteRequest first = requests.get(0);
+        final ChannelHandlerContext ctx = first.ctx;
         try {
 
             if (LOG.isTraceEnabled()) {
-                LOG.trace("Writing request on channel: {}, message: {}", ctx.channel(), byteBufToString(byteBufMsg));
+                LOG.trace("Writing {} request(s) on channel: {}, first message: {}", requests.size(), ctx.channel(),
+                    byteBufToString(first.msg));
             }
-            asyncIn.write(toBuffer(byteBufMsg)).addListener(future -> {
+            asyncIn.write(toBuffer(requests)).addListener(future -> {
                 // synchronized block due to deadlock that happens on ssh window resize
                 // writes and pending writes would lock the underlyinch channel session
                 // window resize write would try to write the message on an already locked channelSession,
@@ -93,26 +153,30 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
                 synchronized (asyncInLock) {
                     if (LOG.isTraceEnabled()) {
                         LOG.trace(
-                            "Ssh write request finished on channel: {} with result: {}: and ex:{}, message: {}",
-                            ctx.channel(), future.isWritten(), future.getException(), byteBufToString(byteBufMsg));
+                            "Ssh write request finished on channel: {} with result: {}: and ex:{}, requests: {}",
+                            ctx.channel(), future.isWritten(), future.getException(), requests.size());
                     }
 
-                    // Notify success or failure
-                    if (future.isWritten()) {
-                        promise.setSuccess();
-                    } else {
-                        LOG.warn("Ssh write request failed on channel: {} for message: {}", ctx.channel(),
-                                byteBufToString(byteBufMsg), future.getException());
-                        promise.setFailure(future.getException());
-                    }
+                    for (PendingWriteRequest request : requests) {
+                        // Notify success or failure
+                        if (future.isWritten()) {
+                            request.promise.setSuccess();
+                        } else {
+                            LOG.warn("Ssh write request failed on channel: {} for message: {}", ctx.channel(),
+                                    byteBufToString(request.msg), future.getException());
+                            request.promise.setFailure(future.getException());
+                        }
 
-                    // Not needed anymore, release
-                    byteBufMsg.release();
+                        // Not needed anymore, release
+                        request.msg.release();
+                    }
 
-                    //rescheduling message from queue after successfully sent
+                    //rescheduling messages from queue after successfully sent
                     if (wasPending) {
-                        byteBufMsg.resetReaderIndex();
-                        pending.remove();
+                        for (int i = 0; i < requests.size(); ++i) {
+                            dequeueRequest(pending.remove());
+                        }
+                        inFlightPending = 0;
                     }
                 }
 
@@ -124,8 +188,10 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
 
         } catch (final WritePendingException e) {
 
-            if (!wasPending) {
-                queueRequest(ctx, byteBufMsg, promise);
+            if (wasPending) {
+                inFlightPending = 0;
+            } else {
+                queueRequest(first);
             }
         }
     }
@@ -136,14 +202,23 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
                 return;
             }
 
-            final PendingWriteRequest pendingWrite = pending.peek();
-            final ByteBuf msg = pendingWrite.msg;
-            if (LOG.isTraceEnabled()) {
-                LOG.trace("Writing pending request on channel: {}, message: {}",
-                        pendingWrite.ctx.channel(), byteBufToString(msg));
+            // Coalesce as many pending writes as fit into a single write
+            final List<PendingWriteRequest> requests = new ArrayList<>();
+            int size = 0;
+            final Iterator<PendingWriteRequest> it = pending.iterator();
+            while (it.hasNext()) {
+                final PendingWriteRequest request = it.next();
+                if (!requests.isEmpty() && size + request.size > MAX_COALESCED_WRITE_SIZE) {
+                    break;
+                }
+                requests.add(request);
+                size += request.size;
             }
 
-            writeWithPendingDetection(pendingWrite.ctx, pendingWrite.promise, msg, true);
+            LOG.trace("Writing {} pending request(s) of {} bytes on channel: {}", requests.size(), size,
+                requests.get(0).ctx.channel());
+            inFlightPending = requests.size();
+            writeWithPendingDetection(requests, true);
         }
     }
 
@@ -153,19 +228,91 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
         return s;
     }
 
-    private void queueRequest(final ChannelHandlerContext ctx, final ByteBuf msg, final ChannelPromise promise) {
-//        try {
+    private void queueRequest(final PendingWriteRequest request) {
+        final ChannelHandlerContext ctx = request.ctx;
+        if (pending.size() >= maxPendingWrites) {
+            LOG.warn("Too many pending writes ({}) on channel: {}, remote window is not getting read or is too small,"
+                + " closing channel", pending.size(), ctx.channel());
+            failure = new IllegalStateException("Too many pending writes (" + pending.size() + ") on channel "
+                + ctx.channel());
+            request.msg.release();
+            request.promise.setFailure(failure);
+            failPending();
+            closeChannel(ctx.channel());
+            return;
+        }
+
         LOG.debug("Write pending on channel: {}, queueing, current queue size: {}", ctx.channel(), pending.size());
         if (LOG.isTraceEnabled()) {
-            LOG.trace("Queueing request due to pending: {}", byteBufToString(msg));
+            LOG.trace("Queueing request due to pending: {}", byteBufToString(request.msg));
+        }
+        pending.add(request);
+        pendingWrites = pending.size();
+        pendingBytes += request.size;
+
+        if (writable && pendingBytes > highWatermark(ctx.channel())) {
+            LOG.debug("Pending writes on channel: {} reached {} bytes, marking channel as not writable",
+                ctx.channel(), pendingBytes);
+            writable = false;
+            updateChannelWritability(ctx.channel());
         }
-        new PendingWriteRequest(ctx, msg, promise).pend(pending);
-//        } catch (final Exception ex) {
-//            LOG.warn("Unable to queue write request on channel: {}. Setting fail for the request: {}",
-//                    ctx.channel(), ex, byteBufToString(msg));
-//            msg.release();
-//            promise.setFailure(ex);
-//        }
+    }
+
+    private void failPending() {
+        // Requests being written are completed by the write listener
+        while (pending.size() > inFlightPending) {
+            final PendingWriteRequest request = pending.removeLast();
+            request.msg.release();
+            request.promise.setFailure(failure);
+            dequeueRequest(request);
+        }
+    }
+
+    private static void closeChannel(final Channel channel) {
+        // Close listeners may end up writing to this handler, hence close the channel from the event loop rather
+        // than with asyncInLock held
+        final EventLoop eventLoop = channel.eventLoop();
+        if (eventLoop != null) {
+            eventLoop.execute(channel::close);
+        }
+    }
+
+    private void dequeueRequest(final PendingWriteRequest request) {
+        pendingWrites = pending.size();
+        pendingBytes -= request.size;
+
+        final Channel channel = request.ctx.channel();
+        if (!writable && pendingBytes < lowWatermark(channel)) {
+            LOG.debug("Pending writes on channel: {} dropped to {} bytes, marking channel as writable", channel,
+                pendingBytes);
+            writable = true;
+            updateChannelWritability(channel);
+        }
+    }
+
+    private void updateChannelWritability(final Channel channel) {
+        // Writability change listeners may end up writing to this handler, hence we need to notify them from
+        // the event loop rather than with asyncInLock held
+        final EventLoop eventLoop = channel.eventLoop();
+        if (eventLoop != null) {
+            eventLoop.execute(() -> {
+                final Channel.Unsafe unsafe = channel.unsafe();
+                final ChannelOutboundBuffer outboundBuffer = unsafe == null ? null : unsafe.outboundBuffer();
+                if (outboundBuffer != null) {
+                    outboundBuffer.setUserDefinedWritability(WRITABILITY_INDEX, writable);
+                }
+            });
+        }
+    }
+
+    private static int highWatermark(final Channel channel) {
+        final ChannelConfig config = channel.config();
+        return config == null ? DEFAULT_HIGH_WATERMARK : config.getWriteBufferHighWaterMark();
+    }
+
+    private static int lowWatermark(final Channel channel) {
+        final ChannelConfig config = channel.config();
+        return config == null ? DEFAULT_LOW_WATERMARK : config.getWriteBufferLowWaterMark();
     }
 
     @Override
@@ -173,11 +320,20 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
         asyncIn = null;
     }
 
-    private static Buffer toBuffer(final ByteBuf msg) {
+    private static Buffer toBuffer(final List<PendingWriteRequest> requests) {
         // TODO Buffer vs ByteBuf translate, Can we handle that better ?
-        msg.resetReaderIndex();
-        final byte[] temp = new byte[msg.readableBytes()];
-        msg.readBytes(temp, 0, msg.readableBytes());
+        int size = 0;
+        for (PendingWriteRequest request : requests) {
+            size += request.size;
+        }
+
+        final byte[] temp = new byte[size];
+        int offset = 0;
+        for (PendingWriteRequest request : requests) {
+            final ByteBuf msg = request.msg;
+            msg.getBytes(msg.readerIndex(), temp, offset, request.size);
+            offset += request.size;
+        }
         return new ByteArrayBuffer(temp);
     }
 
@@ -185,6 +341,7 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
         private final ChannelHandlerContext ctx;
         private final ByteBuf msg;
         private final ChannelPromise promise;
+        private final int size;
 
         PendingWriteRequest(final ChannelHandlerContext ctx, final ByteBuf msg, final ChannelPromise promise) {
             this.ctx = ctx;
@@ -192,14 +349,7 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
             msg.resetReaderIndex();
             this.msg = msg;
             this.promise = promise;
-        }
-
-        public void pend(final Queue<PendingWriteRequest> pending) {
-            // Preconditions.checkState(pending.size() < MAX_PENDING_WRITES,
-            // "Too much pending writes(%s) on channel: %s, remote window is not getting read or is too small",
-            // pending.size(), ctx.channel());
-            Preconditions.checkState(pending.offer(this),
-                "Cannot pend another request write (pending count: %s) on channel: %s", pending.size(), ctx.channel());
+            this.size = msg.readableBytes();
         }
     }
 }
@@ -10,12 +10,17 @@ package org.opendaylight.netconf.nettyutil.handler;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.ChannelHandlerContext;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -30,6 +35,7 @@ public class ChunkedFramingMechanismEncoderTest {
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        doReturn(UnpooledByteBufAllocator.DEFAULT).when(ctx).alloc();
         chunkSize = 256;
     }
 
@@ -48,9 +54,11 @@ public class ChunkedFramingMechanismEncoderTest {
         final ChunkedFramingMechanismEncoder encoder = new ChunkedFramingMechanismEncoder(chunkSize);
         final int lastChunkSize = 20;
         final ByteBuf src = Unpooled.wrappedBuffer(getByteArray(chunkSize * 4 + lastChunkSize));
-        final ByteBuf destination = Unpooled.buffer();
-        encoder.encode(ctx, src, destination);
+        final List<Object> out = new ArrayList<>();
+        encoder.encode(ctx, src, out);
 
+        assertEquals(1, out.size());
+        final ByteBuf destination = (ByteBuf) out.get(0);
         assertEquals(1077, destination.readableBytes());
 
         byte[] buf = new byte[destination.readableBytes()];
@@ -59,6 +67,49 @@ public class ChunkedFramingMechanismEncoderTest {
 
         assertTrue(string.startsWith("\n#256\na"));
         assertTrue(string.endsWith("\n#20\naaaaaaaaaaaaaaaaaaaa\n##\n"));
+        destination.release();
+    }
+
+    @Test
+    public void testEncodeZeroCopy() throws Exception {
+        final ChunkedFramingMechanismEncoder encoder = new ChunkedFramingMechanismEncoder(chunkSize);
+        final ByteBuf src = Unpooled.wrappedBuffer(getByteArray(chunkSize * 2 + 10));
+        final List<Object> out = new ArrayList<>();
+        encoder.encode(ctx, src, out);
+
+        // three chunks, each with a header, and the footer
+        final CompositeByteBuf destination = (CompositeByteBuf) out.get(0);
+        assertEquals(7, destination.numComponents());
+
+        // payload is shared with the source message, each chunk holds a reference
+        assertEquals(4, src.refCnt());
+        src.setByte(0, 'b');
+        assertEquals('b', destination.getByte("\n#256\n".length()));
+
+        destination.release();
+        assertEquals(1, src.refCnt());
+    }
+
+    @Test
+    public void testEncodeLargeMessage() throws Exception {
+        final ChunkedFramingMechanismEncoder encoder = new ChunkedFramingMechanismEncoder(chunkSize);
+        final ByteBuf src = Unpooled.wrappedBuffer(getByteArray(chunkSize * 256));
+        final List<Object> out = new ArrayList<>();
+        encoder.encode(ctx, src, out);
+
+        // chunks grow, so that there are 64 of them rather than 256
+        final CompositeByteBuf destination = (CompositeByteBuf) out.get(0);
+        assertEquals(129, destination.numComponents());
+        assertEquals(chunkSize * 256 + 64 * "\n#1024\n".length() + 4, destination.readableBytes());
+
+        byte[] buf = new byte[destination.readableBytes()];
+        destination.readBytes(buf);
+        String string = StandardCharsets.US_ASCII.decode(ByteBuffer.wrap(buf)).toString();
+        assertTrue(string.startsWith("\n#1024\na"));
+        assertTrue(string.endsWith("a\n##\n"));
+
+        destination.release();
+        assertEquals(1, src.refCnt());
     }
 
     private static byte[] getByteArray(final int size) {
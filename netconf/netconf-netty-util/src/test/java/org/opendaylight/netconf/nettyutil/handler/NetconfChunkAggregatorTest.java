@@ -8,10 +8,12 @@
 package org.opendaylight.netconf.nettyutil.handler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import com.google.common.collect.Lists;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.TooLongFrameException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import org.junit.BeforeClass;
@@ -67,5 +69,24 @@ public class NetconfChunkAggregatorTest {
         assertEquals(EXPECTED_MESSAGE, chunk.toString(StandardCharsets.UTF_8));
     }
 
-
+    @Test
+    public void testMaximumMessageSize() throws Exception {
+        final NetconfChunkAggregator limited = new NetconfChunkAggregator(EXPECTED_MESSAGE.length() - 1);
+        final List<Object> output = Lists.newArrayList();
+        final ByteBuf input = Unpooled.copiedBuffer((CHUNKED_MESSAGE + "\n#4\n<rpc\n##\n")
+            .getBytes(StandardCharsets.UTF_8));
+        try {
+            limited.decode(null, input, output);
+            fail("Message exceeding maximum size should be rejected");
+        } catch (TooLongFrameException e) {
+            assertEquals(0, output.size());
+        }
+
+        // Rest of the oversized message is skipped, the next message is decoded
+        limited.decode(null, input, output);
+        assertEquals(1, output.size());
+        final ByteBuf chunk = (ByteBuf) output.get(0);
+        assertEquals("<rpc", chunk.toString(StandardCharsets.UTF_8));
+        chunk.release();
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NetconfChunkStreamDecoderTest {
+    private static final String CHUNKED_MESSAGE = "\n#4\n"
+            + "<rpc"
+            + "\n#18\n"
+            + " message-id=\"102\"\n"
+            + "\n#79\n"
+            + "     xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">\n"
+            + "  <close-session/>\n"
+            + "</rpc>"
+            + "\n##\n";
+
+    private NetconfChunkStreamDecoder decoder;
+
+    @Before
+    public void setUp() {
+        decoder = new NetconfChunkStreamDecoder();
+    }
+
+    @Test
+    public void testMultipleChunks() throws Exception {
+        final List<Object> output = new ArrayList<>();
+        decoder.decode(null, Unpooled.copiedBuffer(CHUNKED_MESSAGE, StandardCharsets.UTF_8), output);
+
+        assertEquals(4, output.size());
+        assertSame(EndOfMessage.INSTANCE, output.get(3));
+        assertEquals(NetconfChunkAggregatorTest.EXPECTED_MESSAGE, concat(output));
+    }
+
+    @Test
+    public void testPartialChunks() throws Exception {
+        final List<Object> output = new ArrayList<>();
+        final byte[] bytes = CHUNKED_MESSAGE.getBytes(StandardCharsets.UTF_8);
+
+        // Feed the message in small pieces, splitting chunks across reads
+        final ByteBuf input = Unpooled.buffer();
+        for (int i = 0; i < bytes.length; i += 7) {
+            input.writeBytes(bytes, i, Math.min(7, bytes.length - i));
+            decoder.decode(null, input, output);
+        }
+
+        assertTrue(output.size() > 4);
+        assertSame(EndOfMessage.INSTANCE, output.get(output.size() - 1));
+        assertEquals(NetconfChunkAggregatorTest.EXPECTED_MESSAGE, concat(output));
+    }
+
+    private static String concat(final List<Object> output) {
+        final StringBuilder sb = new StringBuilder();
+        for (Object obj : output) {
+            if (obj instanceof ByteBuf) {
+                final ByteBuf buf = (ByteBuf) obj;
+                sb.append(buf.toString(StandardCharsets.UTF_8));
+                buf.release();
+            } else {
+                assertSame(EndOfMessage.INSTANCE, obj);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.junit.Test;
+import org.opendaylight.netconf.api.StreamingNetconfMessage;
+
+public class NetconfMessageToXMLEncoderTest {
+    private static final String NS = "urn:ietf:params:xml:ns:netconf:base:1.0";
+
+    private static final class TestMessage extends StreamingNetconfMessage {
+        @Override
+        public void writeTo(final XMLStreamWriter writer) throws XMLStreamException {
+            writer.writeStartElement("", "rpc-reply", NS);
+            writer.writeDefaultNamespace(NS);
+            writer.writeAttribute("message-id", "m-1");
+            writer.writeStartElement("", "ok", NS);
+            writer.writeEndElement();
+            writer.writeEndElement();
+        }
+    }
+
+    @Test
+    public void testEncodeStreaming() throws Exception {
+        final TestMessage msg = new TestMessage();
+        final ByteBuf out = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder(Optional.of("client")).encode(null, msg, out);
+
+        final String encoded = out.toString(StandardCharsets.UTF_8);
+        assertThat(encoded, containsString(
+            "<rpc-reply xmlns=\"" + NS + "\" message-id=\"m-1\"><ok></ok></rpc-reply><!--clientId:client-->"));
+        assertFalse(encoded.contains("\n"));
+        assertFalse(msg.isDocumentBuilt());
+    }
+
+    @Test
+    public void testEncodeStreamingIndented() throws Exception {
+        final TestMessage msg = new TestMessage();
+        final ByteBuf out = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder(Optional.absent(), true).encode(null, msg, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8), containsString("message-id=\"m-1\""));
+        assertTrue(msg.isDocumentBuilt());
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.TooLongFrameException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.opendaylight.netconf.api.FailedNetconfMessage;
+import org.opendaylight.netconf.api.LazyNetconfMessage;
+
+public class NetconfXMLToLazyMessageDecoderTest {
+    private static final String REPLY = "\r\n<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<rpc-reply message-id=\"m-1\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+            + "<data><top xmlns=\"urn:test\"/></data></rpc-reply>";
+
+    @Test
+    public void testDecodeNoMoreContent() throws Exception {
+        final List<Object> out = new ArrayList<>();
+        new NetconfXMLToLazyMessageDecoder().decode(null, Unpooled.wrappedBuffer("\r\n".getBytes()), out);
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    public void testDecode() throws Exception {
+        final List<Object> out = new ArrayList<>();
+        new NetconfXMLToLazyMessageDecoder().decode(null, buffer(REPLY), out);
+        assertEquals(1, out.size());
+
+        final LazyNetconfMessage msg = (LazyNetconfMessage) out.get(0);
+        assertEquals("rpc-reply", msg.getRootName());
+        assertEquals("urn:ietf:params:xml:ns:netconf:base:1.0", msg.getRootNamespace());
+        assertEquals("m-1", msg.getMessageId());
+        assertEquals("data", msg.getFirstChildName());
+        assertFalse(msg.isDocumentParsed());
+
+        assertEquals("m-1", msg.getDocument().getDocumentElement().getAttribute("message-id"));
+        assertTrue(msg.isDocumentParsed());
+    }
+
+    @Test
+    public void testDecodeGibberish() throws Exception {
+        final List<Object> out = new ArrayList<>();
+        new NetconfXMLToLazyMessageDecoder().decode(null, buffer("\r\n?xml version>"), out);
+        assertEquals(1, out.size());
+        assertTrue(out.get(0) instanceof FailedNetconfMessage);
+    }
+
+    @Test
+    public void testStreamingDecode() {
+        final EmbeddedChannel channel = new EmbeddedChannel(new NetconfXMLToLazyMessageDecoder(true));
+        for (int i = 0; i < REPLY.length(); i += 7) {
+            channel.writeInbound(buffer(REPLY.substring(i, Math.min(REPLY.length(), i + 7))));
+        }
+        assertTrue(channel.inboundMessages().isEmpty());
+
+        channel.writeInbound(EndOfMessage.INSTANCE);
+        final LazyNetconfMessage msg = channel.readInbound();
+        assertEquals("m-1", msg.getMessageId());
+        assertEquals("data", msg.getFirstChildName());
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    public void testStreamingDecodeMultipleSegments() {
+        final StringBuilder sb = new StringBuilder("<rpc-reply message-id=\"m-2\" "
+            + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><data>");
+        while (sb.length() < 3 * NetconfXMLToLazyMessageDecoder.SEGMENT_SIZE) {
+            sb.append("<entry xmlns=\"urn:test\">\u00e9l\u00e9ment</entry>");
+        }
+        final String reply = sb.append("</data></rpc-reply>").toString();
+        final byte[] bytes = reply.getBytes(StandardCharsets.UTF_8);
+
+        final EmbeddedChannel channel = new EmbeddedChannel(new NetconfXMLToLazyMessageDecoder(true));
+        for (int i = 0; i < bytes.length; i += 1000) {
+            final ByteBuf buf = Unpooled.wrappedBuffer(bytes, i, Math.min(1000, bytes.length - i));
+            channel.writeInbound(buf);
+            // Content is copied out right away
+            assertEquals(0, buf.refCnt());
+        }
+        channel.writeInbound(EndOfMessage.INSTANCE);
+
+        final LazyNetconfMessage msg = channel.readInbound();
+        assertEquals("m-2", msg.getMessageId());
+        assertEquals(reply, msg.toString());
+        assertEquals("rpc-reply", msg.getDocument().getDocumentElement().getLocalName());
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    public void testStreamingDecodeTooLong() {
+        final EmbeddedChannel channel = new EmbeddedChannel(new NetconfXMLToLazyMessageDecoder(true, 16));
+        for (int i = 0; i < REPLY.length(); i += 7) {
+            channel.writeInbound(buffer(REPLY.substring(i, Math.min(REPLY.length(), i + 7))));
+        }
+        channel.writeInbound(EndOfMessage.INSTANCE);
+        final Object failed = channel.readInbound();
+        assertTrue(failed instanceof FailedNetconfMessage);
+        assertTrue(((FailedNetconfMessage) failed).getException() instanceof TooLongFrameException);
+
+        // Next message is decoded
+        channel.writeInbound(buffer("<hello xmlns=\"urn:test\"/>"));
+        channel.writeInbound(EndOfMessage.INSTANCE);
+        final LazyNetconfMessage msg = channel.readInbound();
+        assertEquals("hello", msg.getRootName());
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    public void testDecodeTooLong() throws Exception {
+        final List<Object> out = new ArrayList<>();
+        new NetconfXMLToLazyMessageDecoder(false, 16).decode(null, buffer(REPLY), out);
+        assertEquals(1, out.size());
+        assertTrue(out.get(0) instanceof FailedNetconfMessage);
+    }
+
+    private static ByteBuf buffer(final String str) {
+        return Unpooled.wrappedBuffer(str.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.netconf.api.NetconfMessage;
+
+public class OffloadingNetconfXMLToMessageDecoderTest {
+    private static final String SMALL = "<rpc-reply message-id=\"m-1\"/>";
+    private static final String LARGE = "<rpc-reply message-id=\"m-2\"><data>"
+            + "<top xmlns=\"urn:test\"><name>0123456789012345678901234567890123456789</name></top>"
+            + "</data></rpc-reply>";
+
+    private MessageDecodingPool pool;
+    private EmbeddedChannel channel;
+
+    @Before
+    public void setUp() {
+        // Direct executor decodes in the calling thread, results are still delivered through the event loop
+        pool = new MessageDecodingPool(MoreExecutors.newDirectExecutorService());
+        channel = new EmbeddedChannel(new OffloadingNetconfXMLToMessageDecoder(pool, 64));
+    }
+
+    @Test
+    public void testSmallMessageDecodedInline() {
+        channel.writeInbound(buffer(SMALL));
+        assertEquals("m-1", messageId(channel.readInbound()));
+        assertEquals(0, pool.getDecodedMessageCount());
+    }
+
+    @Test
+    public void testOrderPreserved() {
+        final ByteBuf large = buffer(LARGE);
+        // Results are delivered once the event loop runs, the small message has to wait for the large one
+        channel.pipeline().fireChannelRead(large);
+        channel.pipeline().fireChannelRead(buffer(SMALL));
+        assertEquals(0, large.refCnt());
+        assertNull(channel.readInbound());
+
+        channel.runPendingTasks();
+        assertEquals("m-2", messageId(channel.readInbound()));
+        assertEquals("m-1", messageId(channel.readInbound()));
+        assertEquals(2, pool.getDecodedMessageCount());
+
+        // Backlog is gone, small messages are decoded inline again
+        channel.writeInbound(buffer(SMALL));
+        assertEquals("m-1", messageId(channel.readInbound()));
+        assertEquals(2, pool.getDecodedMessageCount());
+    }
+
+    @Test
+    public void testReadSuspended() {
+        for (int i = 0; i < OffloadingNetconfXMLToMessageDecoder.MAX_PENDING_MESSAGES; ++i) {
+            channel.pipeline().fireChannelRead(buffer(LARGE));
+        }
+        assertFalse(channel.config().isAutoRead());
+
+        channel.runPendingTasks();
+        assertTrue(channel.config().isAutoRead());
+        for (int i = 0; i < OffloadingNetconfXMLToMessageDecoder.MAX_PENDING_MESSAGES; ++i) {
+            assertEquals("m-2", messageId(channel.readInbound()));
+        }
+    }
+
+    @Test
+    public void testReadResumedOnInactive() {
+        for (int i = 0; i < OffloadingNetconfXMLToMessageDecoder.MAX_PENDING_MESSAGES; ++i) {
+            channel.pipeline().fireChannelRead(buffer(LARGE));
+        }
+        assertFalse(channel.config().isAutoRead());
+
+        channel.pipeline().fireChannelInactive();
+        assertTrue(channel.config().isAutoRead());
+
+        // Messages decoded in the meantime are not passed on
+        channel.runPendingTasks();
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void testPendingDiscardedOnRemoval() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        pool = new MessageDecodingPool(executor);
+        final OffloadingNetconfXMLToMessageDecoder decoder = new OffloadingNetconfXMLToMessageDecoder(pool, 64);
+        channel = new EmbeddedChannel(decoder);
+        final ByteBuf large = buffer(LARGE);
+        channel.pipeline().fireChannelRead(large);
+        channel.pipeline().remove(decoder);
+
+        blocked.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // The message was released without being decoded
+        assertEquals(0, large.refCnt());
+        assertEquals(0, pool.getDecodedMessageCount());
+        channel.runPendingTasks();
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void testQueueLatencyRecorded() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        pool = new MessageDecodingPool(executor);
+        channel = new EmbeddedChannel(new OffloadingNetconfXMLToMessageDecoder(pool, 64));
+        channel.pipeline().fireChannelRead(buffer(LARGE));
+        Thread.sleep(10);
+
+        blocked.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(1, pool.getDecodedMessageCount());
+        assertTrue(pool.getMaxQueueLatency(TimeUnit.MILLISECONDS) >= 10);
+        assertEquals(pool.getMaxQueueLatency(TimeUnit.NANOSECONDS),
+            pool.getAverageQueueLatency(TimeUnit.NANOSECONDS));
+        channel.runPendingTasks();
+        assertEquals("m-2", messageId(channel.readInbound()));
+    }
+
+    @Test
+    public void testPoolResized() throws Exception {
+        pool = new MessageDecodingPool(1);
+        final Executor sessionExecutor = pool.newSessionExecutor();
+        final CountDownLatch before = new CountDownLatch(1);
+        sessionExecutor.execute(before::countDown);
+        assertTrue(before.await(5, TimeUnit.SECONDS));
+
+        pool.setParallelism(2);
+        assertEquals(2, pool.getParallelism());
+
+        // Executors created before the resize use the new workers
+        final CountDownLatch after = new CountDownLatch(1);
+        sessionExecutor.execute(after::countDown);
+        assertTrue(after.await(5, TimeUnit.SECONDS));
+    }
+
+    private static String messageId(final Object msg) {
+        assertNotNull(msg);
+        return ((NetconfMessage) msg).getDocument().getDocumentElement().getAttribute("message-id");
+    }
+
+    private static ByteBuf buffer(final String str) {
+        return Unpooled.wrappedBuffer(str.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.netconf.api.StreamingNetconfMessage;
+
+public class StreamedMessageInputTest {
+    private static final String NAMESPACE = "urn:ietf:params:xml:ns:netconf:base:1.0";
+    // Enough for several segments
+    private static final int ENTRIES = 3000;
+
+    private ScheduledExecutorService timer;
+
+    @Before
+    public void setUp() {
+        timer = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    public void testChunkedFraming() throws Exception {
+        final byte[] framed = writeSegmented(new ChunkedFramingMechanismEncoder());
+        final String tail = new String(framed, framed.length - 4, 4, StandardCharsets.US_ASCII);
+        assertEquals("\n##\n", tail);
+        assertArrayEquals(encodeWhole(), unframeChunks(framed));
+    }
+
+    @Test
+    public void testEomFraming() throws Exception {
+        final byte[] framed = writeSegmented(new EOMFramingMechanismEncoder());
+        final byte[] expected = encodeWhole();
+        assertEquals(expected.length + MessageParts.END_OF_MESSAGE.length, framed.length);
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals(expected[i], framed[i]);
+        }
+    }
+
+    @Test
+    public void testBoundedBuffering() throws Exception {
+        final AtomicInteger available = new AtomicInteger();
+        final AtomicInteger parts = new AtomicInteger();
+        final AtomicInteger runs = new AtomicInteger();
+        final StreamedMessageInput input = new StreamedMessageInput(UnpooledByteBufAllocator.DEFAULT,
+            available::incrementAndGet, () -> { }, timer, StreamedMessageInput.DEFAULT_WRITE_TIMEOUT_MILLIS, out -> {
+                out.write(new byte[StreamedMessageInput.SEGMENT_SIZE]);
+                return parts.incrementAndGet() < StreamedMessageInput.MAX_PENDING_SEGMENTS * 4;
+            });
+
+        // The producer parks once the queue is full, returning the thread it ran on
+        input.start(command -> {
+            runs.incrementAndGet();
+            command.run();
+        });
+        assertEquals(1, runs.get());
+        assertEquals(StreamedMessageInput.MAX_PENDING_SEGMENTS, available.get());
+        assertEquals(StreamedMessageInput.MAX_PENDING_SEGMENTS, parts.get());
+
+        // Consuming a segment does not resume it until the queue is drained far enough
+        final int drained = StreamedMessageInput.MAX_PENDING_SEGMENTS - StreamedMessageInput.RESUME_PENDING_SEGMENTS;
+        for (int i = 1; i < drained; ++i) {
+            final ByteBuf segment = input.readChunk(UnpooledByteBufAllocator.DEFAULT);
+            assertEquals(StreamedMessageInput.SEGMENT_SIZE, segment.readableBytes());
+            segment.release();
+        }
+        assertEquals(1, runs.get());
+        assertEquals(StreamedMessageInput.MAX_PENDING_SEGMENTS, parts.get());
+
+        input.readChunk(UnpooledByteBufAllocator.DEFAULT).release();
+        assertEquals(2, runs.get());
+        assertEquals(StreamedMessageInput.MAX_PENDING_SEGMENTS + drained, parts.get());
+
+        // Closing the input stops the parked producer
+        input.close();
+        assertNull(input.readChunk(UnpooledByteBufAllocator.DEFAULT));
+        assertEquals(2, runs.get());
+        assertEquals(StreamedMessageInput.MAX_PENDING_SEGMENTS + drained, parts.get());
+    }
+
+    @Test
+    public void testWaitsForProducer() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final StreamedMessageInput input = new StreamedMessageInput(UnpooledByteBufAllocator.DEFAULT, () -> { },
+            () -> { }, timer, StreamedMessageInput.DEFAULT_WRITE_TIMEOUT_MILLIS, out -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                out.write(1);
+                return false;
+            });
+        input.setFraming(segment -> segment, new byte[] { 2 });
+        input.start(command -> new Thread(command).start());
+
+        assertNull(input.readChunk(UnpooledByteBufAllocator.DEFAULT));
+        assertFalse(input.isEndOfInput());
+        release.countDown();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        while (!input.isEndOfInput()) {
+            final ByteBuf chunk = input.readChunk(UnpooledByteBufAllocator.DEFAULT);
+            if (chunk == null) {
+                Thread.sleep(10);
+                continue;
+            }
+            chunk.readBytes(out, chunk.readableBytes());
+            chunk.release();
+        }
+        assertArrayEquals(new byte[] { 1, 2 }, out.toByteArray());
+    }
+
+    @Test
+    public void testWriteTimeout() throws Exception {
+        final CountDownLatch aborted = new CountDownLatch(1);
+        final AtomicInteger parts = new AtomicInteger();
+        final StreamedMessageInput input = new StreamedMessageInput(UnpooledByteBufAllocator.DEFAULT, () -> { },
+            aborted::countDown, timer, 200, out -> {
+                out.write(new byte[StreamedMessageInput.SEGMENT_SIZE]);
+                parts.incrementAndGet();
+                return true;
+            });
+        input.start(MoreExecutors.directExecutor());
+
+        // Nobody reads the message, hence the parked producer gives up and aborts the transfer
+        assertTrue(aborted.await(5, TimeUnit.SECONDS));
+        assertEquals(StreamedMessageInput.MAX_PENDING_SEGMENTS, parts.get());
+
+        for (int i = 0; i < StreamedMessageInput.MAX_PENDING_SEGMENTS; ++i) {
+            input.readChunk(UnpooledByteBufAllocator.DEFAULT).release();
+        }
+        // Reading segments after the timeout does not resume the producer
+        assertEquals(StreamedMessageInput.MAX_PENDING_SEGMENTS, parts.get());
+        try {
+            input.readChunk(UnpooledByteBufAllocator.DEFAULT);
+            fail("Expected the message to fail");
+        } catch (IOException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testRejectedProducer() throws Exception {
+        final AtomicInteger resumed = new AtomicInteger();
+        final StreamedMessageInput input = new StreamedMessageInput(UnpooledByteBufAllocator.DEFAULT,
+            resumed::incrementAndGet, () -> { }, timer, StreamedMessageInput.DEFAULT_WRITE_TIMEOUT_MILLIS, out -> {
+                throw new IllegalStateException("Producer should not run");
+            });
+        input.start(command -> {
+            throw new RejectedExecutionException();
+        });
+
+        assertEquals(1, resumed.get());
+        try {
+            input.readChunk(UnpooledByteBufAllocator.DEFAULT);
+            fail("Expected the message to fail");
+        } catch (IOException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    private static byte[] writeSegmented(final ChannelHandler frameEncoder) throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new ChunkedWriteHandler(), frameEncoder,
+            new NetconfMessageToXMLEncoder(Optional.absent(), false, MoreExecutors.directExecutor(),
+                StreamedMessageInput.DEFAULT_WRITE_TIMEOUT_MILLIS));
+        final ChannelFuture future = channel.writeAndFlush(new TestMessage());
+
+        channel.runPendingTasks();
+        assertTrue(future.isSuccess());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int buffers = 0;
+        for (ByteBuf buf = channel.readOutbound(); buf != null; buf = channel.readOutbound()) {
+            // No single buffer holds more than a segment of the message
+            assertTrue(buf.readableBytes() <= StreamedMessageInput.SEGMENT_SIZE + 16);
+            buf.readBytes(out, buf.readableBytes());
+            buf.release();
+            buffers++;
+        }
+        assertTrue(buffers > 2);
+        channel.finishAndReleaseAll();
+        return out.toByteArray();
+    }
+
+    private static byte[] encodeWhole() throws Exception {
+        final ByteBuf buf = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder().encode(null, new TestMessage(), buf);
+        final byte[] bytes = new byte[buf.readableBytes()];
+        buf.readBytes(bytes);
+        buf.release();
+        return bytes;
+    }
+
+    private static byte[] unframeChunks(final byte[] framed) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int pos = 0;
+        while (true) {
+            assertEquals('\n', framed[pos++]);
+            assertEquals('#', framed[pos++]);
+            if (framed[pos] == '#') {
+                return out.toByteArray();
+            }
+            int size = 0;
+            while (framed[pos] != '\n') {
+                size = size * 10 + framed[pos++] - '0';
+            }
+            pos++;
+            out.write(framed, pos, size);
+            pos += size;
+        }
+    }
+
+    private static final class TestMessage extends StreamingNetconfMessage {
+        @Override
+        public boolean isSegmented() {
+            return true;
+        }
+
+        @Override
+        public void writeTo(final XMLStreamWriter writer) throws XMLStreamException {
+            writer.writeStartElement("", "rpc-reply", NAMESPACE);
+            writer.writeDefaultNamespace(NAMESPACE);
+            writer.writeAttribute("message-id", "101");
+            writer.writeStartElement(NAMESPACE, "data");
+            for (int i = 0; i < ENTRIES; ++i) {
+                writer.writeStartElement(NAMESPACE, "entry");
+                writer.writeCharacters("value-" + i);
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+            writer.writeEndElement();
+        }
+    }
+}
@@ -8,6 +8,8 @@
 
 package org.opendaylight.netconf.nettyutil.handler.ssh.client;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyObject;
@@ -37,6 +39,8 @@ import io.netty.channel.DefaultChannelPromise;
 import io.netty.channel.EventLoop;
 import java.io.IOException;
 import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.sshd.client.SshClient;
 import org.apache.sshd.client.channel.ChannelSubsystem;
 import org.apache.sshd.client.channel.ClientChannel;
@@ -55,8 +59,8 @@ import org.apache.sshd.common.util.buffer.Buffer;
 import org.apache.sshd.common.util.buffer.ByteArrayBuffer;
 import org.junit.After;
 import org.junit.Before;
-import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -369,7 +373,49 @@ public class AsyncSshHandlerTest {
         verify(secondWritePromise).setSuccess();
     }
 
-    @Ignore("Pending queue is not limited")
+    @Test
+    public void testWritePendingCoalesced() throws Exception {
+        asyncSshHandler.connect(ctx, remoteAddress, localAddress, promise);
+
+        final IoInputStream asyncOut = getMockedIoInputStream();
+        final IoOutputStream asyncIn = getMockedIoOutputStream();
+        final IoWriteFuture ioWriteFuture = asyncIn.write(null);
+
+        final ChannelSubsystem subsystemChannel = getMockedSubsystemChannel(asyncOut, asyncIn);
+        final ClientSession sshSession = getMockedSshSession(subsystemChannel);
+        final ConnectFuture connectFuture = getSuccessConnectFuture(sshSession);
+
+        sshConnectListener.operationComplete(connectFuture);
+        sshAuthListener.operationComplete(getSuccessAuthFuture());
+        sshChannelOpenListener.operationComplete(getSuccessOpenFuture());
+
+        final ChannelPromise firstWritePromise = getMockedPromise();
+        final ListenableFuture<SshFutureListener<IoWriteFuture>> firstWriteListenerFuture =
+                stubAddListener(ioWriteFuture);
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0, 1, 2, 3, 4, 5}), firstWritePromise);
+        final SshFutureListener<IoWriteFuture> firstWriteListener = firstWriteListenerFuture.get();
+        final ListenableFuture<SshFutureListener<IoWriteFuture>> pendingListener = stubAddListener(ioWriteFuture);
+
+        // queue two writes while the first one is pending
+        final ChannelPromise secondWritePromise = getMockedPromise();
+        final ChannelPromise thirdWritePromise = getMockedPromise();
+        doThrow(org.apache.sshd.common.io.WritePendingException.class).when(asyncIn).write(any(Buffer.class));
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{6, 7, 8}), secondWritePromise);
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{9, 10}), thirdWritePromise);
+        doReturn(ioWriteFuture).when(asyncIn).write(any(Buffer.class));
+
+        // both queued writes are sent in a single write once pending state is over
+        firstWriteListener.operationComplete(ioWriteFuture);
+        final ArgumentCaptor<Buffer> captor = ArgumentCaptor.forClass(Buffer.class);
+        verify(asyncIn, times(4)).write(captor.capture());
+        assertEquals(5, captor.getValue().available());
+
+        pendingListener.get().operationComplete(ioWriteFuture);
+        verify(firstWritePromise).setSuccess();
+        verify(secondWritePromise).setSuccess();
+        verify(thirdWritePromise).setSuccess();
+    }
+
     @Test
     public void testWritePendingMax() throws Exception {
         asyncSshHandler.connect(ctx, remoteAddress, localAddress, promise);
@@ -394,14 +440,38 @@ public class AsyncSshHandlerTest {
                 stubAddListener(ioWriteFuture);
         asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0,1,2,3,4,5}), firstWritePromise);
 
-        final ChannelPromise secondWritePromise = getMockedPromise();
         // now make write throw pending exception
         doThrow(org.apache.sshd.common.io.WritePendingException.class).when(asyncIn).write(any(Buffer.class));
-        for (int i = 0; i < 1001; i++) {
-            asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0, 1, 2, 3, 4, 5}), secondWritePromise);
+        final List<ChannelPromise> pendingWritePromises = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            final ChannelPromise pendingWritePromise = getMockedPromise();
+            pendingWritePromises.add(pendingWritePromise);
+            asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0, 1, 2, 3, 4, 5}), pendingWritePromise);
+        }
+        for (ChannelPromise pendingWritePromise : pendingWritePromises) {
+            assertFalse(pendingWritePromise.isDone());
         }
 
-        verify(secondWritePromise, times(1)).setFailure(any(Throwable.class));
+        // overflowing the queue fails all queued writes as well as the overflowing one and closes the channel
+        final ChannelPromise overflowWritePromise = getMockedPromise();
+        final ByteBuf overflowMsg = Unpooled.copiedBuffer(new byte[]{0, 1, 2, 3, 4, 5});
+        asyncSshHandler.write(ctx, overflowMsg, overflowWritePromise);
+        verify(overflowWritePromise).setFailure(any(Throwable.class));
+        for (ChannelPromise pendingWritePromise : pendingWritePromises) {
+            verify(pendingWritePromise).setFailure(any(Throwable.class));
+        }
+        assertEquals(0, overflowMsg.refCnt());
+
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(eventLoop).execute(captor.capture());
+        captor.getValue().run();
+        verify(channel).close();
+
+        // subsequent writes fail immediately
+        final ChannelPromise laterWritePromise = getMockedPromise();
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0, 1, 2, 3, 4, 5}), laterWritePromise);
+        verify(laterWritePromise).setFailure(any(Throwable.class));
+        verifyZeroInteractions(firstWritePromise);
     }
 
     @Test
@@ -20,4 +20,12 @@ public interface NetconfNotificationListener {
      */
     void onNotification(StreamNameType stream, NetconfNotification notification);
 
+    /**
+     * Callback used to notify the listener that it has been unregistered, because it did not keep up with the rate
+     * of notifications. Invoked by the publishing thread, hence it must not block.
+     */
+    default void onDisconnected() {
+        // No-op by default
+    }
+
 }
@@ -8,16 +8,27 @@
 
 package org.opendaylight.netconf.notifications.impl;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import org.opendaylight.netconf.notifications.BaseNotificationPublisherRegistration;
@@ -43,6 +54,12 @@ import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Notification bus of the netconf server. Notifications are delivered to each listener from a bounded queue of its
+ * own, drained by an executor shared by all listeners. Listeners are therefore invoked in parallel, each listener
+ * sees the notifications in the order they were queued, and a slow listener delays neither the publishers nor other
+ * listeners. Once the queue of a listener is full, the {@link OverflowPolicy} of the manager applies.
+ */
 @ThreadSafe
 public class NetconfNotificationManager implements NetconfNotificationCollector, NetconfNotificationRegistry,
         NetconfNotificationListener, AutoCloseable {
@@ -59,17 +76,45 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
                 .build();
     }
 
+    /**
+     * Default number of notifications queued for a single listener.
+     */
+    public static final int DEFAULT_QUEUE_DEPTH = 1024;
+
     private static final Logger LOG = LoggerFactory.getLogger(NetconfNotificationManager.class);
+    // Number of notifications delivered by a single task, so that busy listeners do not starve the others
+    private static final int MAX_DRAIN_BATCH = 64;
+    // Minimum interval between warnings about notifications dropped for a single listener
+    private static final long DROP_WARNING_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * Action taken when a notification is published to a listener, whose queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the oldest queued notification to make room for the new one. Dropped notifications are counted and
+         * reported by rate-limited warnings.
+         */
+        DROP_OLDEST,
+        /**
+         * Unregister the listener and notify it through {@link NetconfNotificationListener#onDisconnected()}.
+         */
+        DISCONNECT
+    }
 
-    // TODO excessive synchronization provides thread safety but is most likely not optimal
-    // (combination of concurrent collections might improve performance)
-    // And also calling callbacks from a synchronized block is dangerous
-    // since the listeners/publishers can block the whole notification processing
+    private final Executor executor;
+    // Executor created by this manager, shut down on close
+    private final ExecutorService ownedExecutor;
+    private final int queueDepth;
+    private final OverflowPolicy overflowPolicy;
 
     @GuardedBy("this")
     private final Multimap<StreamNameType, GenericNotificationListenerReg> notificationListeners =
             HashMultimap.create();
 
+    // Snapshot of listeners of the base stream, iterated by publishers without holding the lock
+    private volatile List<GenericNotificationListenerReg> baseStreamListeners = ImmutableList.of();
+
     @GuardedBy("this")
     private final Set<NetconfNotificationStreamListener> streamListeners = Sets.newHashSet();
 
@@ -82,15 +127,55 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
     @GuardedBy("this")
     private final Set<GenericNotificationPublisherReg> notificationPublishers = Sets.newHashSet();
 
+    /**
+     * Create a manager delivering notifications by a pool of its own, sized to the number of processors, with queues
+     * of {@link #DEFAULT_QUEUE_DEPTH} notifications, which drop the oldest notifications on overflow.
+     */
+    public NetconfNotificationManager() {
+        this(DEFAULT_QUEUE_DEPTH, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Create a manager delivering notifications by a pool of its own, sized to the number of processors.
+     *
+     * @param queueDepth Maximum number of notifications queued for a single listener
+     * @param overflowPolicy Action taken when the queue of a listener is full
+     */
+    public NetconfNotificationManager(final int queueDepth, final OverflowPolicy overflowPolicy) {
+        this(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactoryBuilder()
+            .setNameFormat("netconf-notification-%d").setDaemon(true).build()), queueDepth, overflowPolicy, true);
+    }
+
+    /**
+     * Create a manager delivering notifications by the supplied executor.
+     *
+     * @param executor Executor running the deliveries, owned by the caller
+     * @param queueDepth Maximum number of notifications queued for a single listener
+     * @param overflowPolicy Action taken when the queue of a listener is full
+     */
+    public NetconfNotificationManager(final Executor executor, final int queueDepth,
+            final OverflowPolicy overflowPolicy) {
+        this(executor, queueDepth, overflowPolicy, false);
+    }
+
+    private NetconfNotificationManager(final Executor executor, final int queueDepth,
+            final OverflowPolicy overflowPolicy, final boolean ownsExecutor) {
+        Preconditions.checkArgument(queueDepth > 0, "Invalid queue depth %s", queueDepth);
+        this.executor = Preconditions.checkNotNull(executor);
+        this.ownedExecutor = ownsExecutor ? (ExecutorService) executor : null;
+        this.queueDepth = queueDepth;
+        this.overflowPolicy = Preconditions.checkNotNull(overflowPolicy);
+    }
+
     @Override
-    public synchronized void onNotification(final StreamNameType stream, final NetconfNotification notification) {
+    public void onNotification(final StreamNameType stream, final NetconfNotification notification) {
         LOG.debug("Notification of type {} detected", stream);
         if (LOG.isTraceEnabled()) {
             LOG.debug("Notification of type {} detected: {}", stream, notification);
         }
 
-        for (final GenericNotificationListenerReg listenerReg : notificationListeners.get(BASE_STREAM_NAME)) {
-            listenerReg.getListener().onNotification(BASE_STREAM_NAME, notification);
+        for (final GenericNotificationListenerReg listenerReg : baseStreamListeners) {
+            listenerReg.enqueue(notification);
         }
     }
 
@@ -107,17 +192,44 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
                 new GenericNotificationListenerReg(listener) {
             @Override
             public void close() {
-                synchronized (NetconfNotificationManager.this) {
-                    LOG.trace("Notification listener unregistered for stream: {}", stream);
-                    super.close();
-                }
+                super.close();
+                LOG.trace("Notification listener unregistered for stream: {}", stream);
             }
         };
 
         notificationListeners.put(BASE_STREAM_NAME, genericNotificationListenerReg);
+        updateBaseStreamListeners();
         return genericNotificationListenerReg;
     }
 
+    private synchronized void unregisterNotificationListener(final GenericNotificationListenerReg listenerReg) {
+        if (notificationListeners.remove(BASE_STREAM_NAME, listenerReg)) {
+            updateBaseStreamListeners();
+        }
+    }
+
+    @GuardedBy("this")
+    private void updateBaseStreamListeners() {
+        baseStreamListeners = ImmutableList.copyOf(notificationListeners.get(BASE_STREAM_NAME));
+    }
+
+    @VisibleForTesting
+    int getQueuedNotifications(final NotificationListenerRegistration registration) {
+        return ((GenericNotificationListenerReg) registration).getQueued();
+    }
+
+    /**
+     * Return the number of notifications dropped for a listener, because its queue was full.
+     *
+     * @param registration Registration of the listener
+     * @return Number of dropped notifications
+     */
+    public long getDroppedNotifications(final NotificationListenerRegistration registration) {
+        Preconditions.checkArgument(registration instanceof GenericNotificationListenerReg,
+            "Unexpected registration %s", registration);
+        return ((GenericNotificationListenerReg) registration).getDropped();
+    }
+
     @Override
     public synchronized Streams getNotificationPublishers() {
         return new StreamsBuilder().setStream(Lists.newArrayList(streamMetadata.values())).build();
@@ -148,10 +260,12 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
     @Override
     public synchronized void close() {
         // Unregister all listeners
-        for (final GenericNotificationListenerReg genericNotificationListenerReg : notificationListeners.values()) {
+        for (final GenericNotificationListenerReg genericNotificationListenerReg :
+                ImmutableList.copyOf(notificationListeners.values())) {
             genericNotificationListenerReg.close();
         }
         notificationListeners.clear();
+        updateBaseStreamListeners();
 
         // Unregister all publishers
         for (final GenericNotificationPublisherReg notificationPublisher : notificationPublishers) {
@@ -161,6 +275,10 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
 
         // Clear stream Listeners
         streamListeners.clear();
+
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
     }
 
     @Override
@@ -299,6 +417,21 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
     private class GenericNotificationListenerReg implements NotificationListenerRegistration {
         private final NetconfNotificationListener listener;
 
+        @GuardedBy("this")
+        private final Deque<NetconfNotification> queue = new ArrayDeque<>();
+        // Whether a task draining the queue is scheduled or running
+        @GuardedBy("this")
+        private boolean scheduled;
+        @GuardedBy("this")
+        private boolean closed;
+        @GuardedBy("this")
+        private long droppedNotifications;
+        // Dropped notifications not reported yet
+        @GuardedBy("this")
+        private long unreportedDrops;
+        @GuardedBy("this")
+        private long lastDropWarning;
+
         GenericNotificationListenerReg(final NetconfNotificationListener listener) {
             this.listener = listener;
         }
@@ -307,9 +440,109 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
             return listener;
         }
 
+        synchronized int getQueued() {
+            return queue.size();
+        }
+
+        synchronized long getDropped() {
+            return droppedNotifications;
+        }
+
+        void enqueue(final NetconfNotification notification) {
+            final boolean disconnect;
+            boolean scheduleDrain = false;
+            long dropsToReport = 0;
+            long totalDrops = 0;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                disconnect = queue.size() >= queueDepth && overflowPolicy == OverflowPolicy.DISCONNECT;
+                if (disconnect) {
+                    // Closed right away, so that the listener is disconnected only once
+                    closed = true;
+                } else {
+                    if (queue.size() >= queueDepth) {
+                        queue.poll();
+                        droppedNotifications++;
+                        unreportedDrops++;
+                        final long now = System.nanoTime();
+                        if (lastDropWarning == 0 || now - lastDropWarning >= DROP_WARNING_INTERVAL_NANOS) {
+                            lastDropWarning = now;
+                            dropsToReport = unreportedDrops;
+                            totalDrops = droppedNotifications;
+                            unreportedDrops = 0;
+                        }
+                    }
+                    queue.add(notification);
+                    // Otherwise the running drain task delivers the notification
+                    scheduleDrain = !scheduled;
+                    scheduled = true;
+                }
+            }
+
+            if (disconnect) {
+                LOG.warn("Notification queue of listener {} is full, disconnecting the listener", listener);
+                close();
+                listener.onDisconnected();
+                return;
+            }
+            if (dropsToReport != 0) {
+                LOG.warn("Notification queue of listener {} is full, dropped {} oldest notifications ({} in total)",
+                    listener, dropsToReport, totalDrops);
+            }
+            if (!scheduleDrain) {
+                return;
+            }
+
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                LOG.debug("Notification manager closed, notification for listener {} not delivered", listener, e);
+                synchronized (this) {
+                    scheduled = false;
+                }
+            }
+        }
+
+        @SuppressWarnings("checkstyle:IllegalCatch")
+        private void drain() {
+            for (int i = 0; i < MAX_DRAIN_BATCH; i++) {
+                final NetconfNotification notification;
+                synchronized (this) {
+                    notification = queue.poll();
+                    if (notification == null) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+
+                try {
+                    listener.onNotification(BASE_STREAM_NAME, notification);
+                } catch (RuntimeException e) {
+                    LOG.warn("Listener {} failed to process notification {}", listener, notification, e);
+                }
+            }
+
+            // Leave the executor to other listeners, continue with the rest of the queue later
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                LOG.debug("Notification manager closed, dropping notifications for listener {}", listener, e);
+                synchronized (this) {
+                    queue.clear();
+                    scheduled = false;
+                }
+            }
+        }
+
         @Override
         public void close() {
-            notificationListeners.remove(BASE_STREAM_NAME, this);
+            synchronized (this) {
+                closed = true;
+                queue.clear();
+            }
+            unregisterNotificationListener(this);
         }
     }
 }
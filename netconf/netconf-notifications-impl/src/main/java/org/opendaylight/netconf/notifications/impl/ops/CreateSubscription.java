@@ -8,11 +8,17 @@
 
 package org.opendaylight.netconf.notifications.impl.ops;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import org.opendaylight.netconf.api.DocumentedException;
 import org.opendaylight.netconf.api.NetconfSession;
 import org.opendaylight.netconf.api.xml.XmlElement;
@@ -45,14 +51,27 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation
 
     static final String CREATE_SUBSCRIPTION = "create-subscription";
 
+    // Closes sessions of disconnected subscriptions away from the threads publishing notifications
+    private static final Supplier<Executor> DEFAULT_CLOSE_EXECUTOR = Suppliers.memoize(
+        () -> Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("netconf-subscription-close-%d").setDaemon(true).build()));
+
     private final NetconfNotificationRegistry notifications;
+    private final Executor closeExecutor;
     private final List<NotificationListenerRegistration> subscriptions = Lists.newArrayList();
     private NetconfSession netconfSession;
 
     public CreateSubscription(final String netconfSessionIdForReporting,
                               final NetconfNotificationRegistry notifications) {
+        this(netconfSessionIdForReporting, notifications, DEFAULT_CLOSE_EXECUTOR.get());
+    }
+
+    @VisibleForTesting
+    CreateSubscription(final String netconfSessionIdForReporting, final NetconfNotificationRegistry notifications,
+            final Executor closeExecutor) {
         super(netconfSessionIdForReporting);
         this.notifications = notifications;
+        this.closeExecutor = Preconditions.checkNotNull(closeExecutor);
     }
 
     @Override
@@ -86,7 +105,8 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation
         }
 
         final NotificationListenerRegistration notificationListenerRegistration = notifications
-                .registerNotificationListener(streamNameType, new NotificationSubscription(netconfSession, filter));
+                .registerNotificationListener(streamNameType, new NotificationSubscription(netconfSession, filter,
+                    closeExecutor));
         subscriptions.add(notificationListenerRegistration);
 
         return XmlUtil.createElement(document, XmlNetconfConstants.OK, Optional.<String>absent());
@@ -125,18 +145,34 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation
     private static class NotificationSubscription implements NetconfNotificationListener {
         private final NetconfSession currentSession;
         private final Optional<XmlElement> filter;
+        private final Executor closeExecutor;
 
-        NotificationSubscription(final NetconfSession currentSession, final Optional<XmlElement> filter) {
+        NotificationSubscription(final NetconfSession currentSession, final Optional<XmlElement> filter,
+                final Executor closeExecutor) {
             this.currentSession = currentSession;
-            this.filter = filter;
+            this.closeExecutor = closeExecutor;
+            this.filter = filter.isPresent() && SubtreeFilter.isSupported(filter.get())
+                    ? Optional.of(compileFilter(filter.get())) : Optional.absent();
+        }
+
+        /**
+         * Prepare the filter for repeated use by detaching it from the request, which is not retained. Filters other
+         * than subtree filters do not change the notification and are dropped by the constructor.
+         */
+        private static XmlElement compileFilter(final XmlElement filter) {
+            final Document filterDocument = XmlUtil.newDocument();
+            filterDocument.appendChild(filterDocument.importNode(filter.getDomElement(), true));
+            return XmlElement.fromDomDocument(filterDocument);
         }
 
         @Override
         public void onNotification(final StreamNameType stream, final NetconfNotification notification) {
             if (filter.isPresent()) {
                 try {
-                    final Optional<Document> filtered =
-                            SubtreeFilter.applySubtreeNotificationFilter(this.filter.get(), notification.getDocument());
+                    // Filtering modifies the document, which is shared by all subscriptions
+                    final Document copy = (Document) notification.getDocument().cloneNode(true);
+                    final Optional<Document> filtered = SubtreeFilter.applySubtreeNotificationFilter(filter.get(),
+                        copy);
                     if (filtered.isPresent()) {
                         final Date eventTime = notification.getEventTime();
                         currentSession.sendMessage(new NetconfNotification(filtered.get(), eventTime));
@@ -149,5 +185,12 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation
                 currentSession.sendMessage(notification);
             }
         }
+
+        @Override
+        public void onDisconnected() {
+            LOG.warn("Session {} does not keep up with notifications, closing it", currentSession);
+            // Closing the session may block, the publishing thread must not
+            closeExecutor.execute(currentSession::close);
+        }
     }
 }
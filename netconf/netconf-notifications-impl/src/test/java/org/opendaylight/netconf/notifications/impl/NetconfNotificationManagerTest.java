@@ -12,7 +12,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -23,11 +26,14 @@ import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.notifications.BaseNotificationPublisherRegistration;
 import org.opendaylight.netconf.notifications.NetconfNotification;
 import org.opendaylight.netconf.notifications.NetconfNotificationCollector;
@@ -153,7 +159,7 @@ public class NetconfNotificationManagerTest {
         final NetconfCapabilityChange notification = capabilityChangedBuilder.build();
         baseNotificationPublisherRegistration.onCapabilityChanged(notification);
 
-        verify(listener).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
+        verify(listener, timeout(5000)).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
 
         notificationListenerRegistration.close();
 
@@ -161,6 +167,68 @@ public class NetconfNotificationManagerTest {
         verifyNoMoreInteractions(listener);
     }
 
+    @Test
+    public void testOverflowDropOldest() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final NetconfNotificationManager netconfNotificationManager = new NetconfNotificationManager(tasks::add, 2,
+            NetconfNotificationManager.OverflowPolicy.DROP_OLDEST);
+        final NetconfNotificationListener listener = mock(NetconfNotificationListener.class);
+        final NotificationListenerRegistration registration = netconfNotificationManager
+                .registerNotificationListener(NetconfNotificationManager.BASE_STREAM_NAME, listener);
+
+        final NetconfNotification first = createNotification("first");
+        final NetconfNotification second = createNotification("second");
+        final NetconfNotification third = createNotification("third");
+        netconfNotificationManager.onNotification(NetconfNotificationManager.BASE_STREAM_NAME, first);
+        netconfNotificationManager.onNotification(NetconfNotificationManager.BASE_STREAM_NAME, second);
+        netconfNotificationManager.onNotification(NetconfNotificationManager.BASE_STREAM_NAME, third);
+
+        // Publishing does not wait for the listener, a single task drains the queue
+        verifyNoMoreInteractions(listener);
+        assertEquals(1, tasks.size());
+        assertEquals(2, netconfNotificationManager.getQueuedNotifications(registration));
+        assertEquals(1, netconfNotificationManager.getDroppedNotifications(registration));
+
+        tasks.remove(0).run();
+        final InOrder inOrder = inOrder(listener);
+        inOrder.verify(listener).onNotification(NetconfNotificationManager.BASE_STREAM_NAME, second);
+        inOrder.verify(listener).onNotification(NetconfNotificationManager.BASE_STREAM_NAME, third);
+        verify(listener, never()).onNotification(NetconfNotificationManager.BASE_STREAM_NAME, first);
+        verify(listener, never()).onDisconnected();
+    }
+
+    @Test
+    public void testOverflowDisconnect() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final NetconfNotificationManager netconfNotificationManager = new NetconfNotificationManager(tasks::add, 1,
+            NetconfNotificationManager.OverflowPolicy.DISCONNECT);
+        final NetconfNotificationListener slowListener = mock(NetconfNotificationListener.class);
+        netconfNotificationManager.registerNotificationListener(NetconfNotificationManager.BASE_STREAM_NAME,
+            slowListener);
+        final NetconfNotification first = createNotification("first");
+        netconfNotificationManager.onNotification(NetconfNotificationManager.BASE_STREAM_NAME, first);
+
+        final NetconfNotificationListener listener = mock(NetconfNotificationListener.class);
+        netconfNotificationManager.registerNotificationListener(NetconfNotificationManager.BASE_STREAM_NAME,
+            listener);
+        final NetconfNotification second = createNotification("second");
+        netconfNotificationManager.onNotification(NetconfNotificationManager.BASE_STREAM_NAME, second);
+
+        // The queue of the slow listener overflows, the other listener is not affected
+        verify(slowListener).onDisconnected();
+        for (final Runnable task : tasks) {
+            task.run();
+        }
+        verify(listener).onNotification(NetconfNotificationManager.BASE_STREAM_NAME, second);
+        verify(listener, never()).onDisconnected();
+        verify(slowListener, never()).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
+
+        // Disconnected listener is unregistered
+        netconfNotificationManager.onNotification(NetconfNotificationManager.BASE_STREAM_NAME, first);
+        verify(slowListener).onDisconnected();
+        verifyNoMoreInteractions(slowListener);
+    }
+
     @Test
     public void testClose() throws Exception {
         final NetconfNotificationManager netconfNotificationManager = new NetconfNotificationManager();
@@ -217,4 +285,8 @@ public class NetconfNotificationManagerTest {
 
         verify(streamListener).onStreamUnregistered(NetconfNotificationManager.BASE_STREAM_NAME);
     }
+
+    private static NetconfNotification createNotification(final String name) throws Exception {
+        return new NetconfNotification(XmlUtil.readXmlToDocument("<" + name + " xmlns=\"urn:test\"/>"));
+    }
 }
\ No newline at end of file
@@ -11,16 +11,25 @@ package org.opendaylight.netconf.notifications.impl.ops;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfSession;
 import org.opendaylight.netconf.api.xml.XmlElement;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.netconf.notifications.NetconfNotification;
 import org.opendaylight.netconf.notifications.NetconfNotificationListener;
 import org.opendaylight.netconf.notifications.NetconfNotificationRegistry;
 import org.opendaylight.netconf.notifications.NotificationListenerRegistration;
@@ -35,6 +44,12 @@ public class CreateSubscriptionTest {
             + "<stream>TESTSTREAM</stream>"
             + "</create-subscription>";
 
+    private static final String CREATE_FILTERED_SUBSCRIPTION_XML = "<create-subscription\n"
+            + "xmlns=\"urn:ietf:params:xml:ns:netconf:notification:1.0\" "
+            + "xmlns:netconf=\"urn:ietf:params:xml:ns:netconf:base:1.0\">\n"
+            + "<filter netconf:type=\"subtree\"><test-notification xmlns=\"urn:test\"/></filter>"
+            + "</create-subscription>";
+
     @Mock
     private NetconfNotificationRegistry notificationRegistry;
 
@@ -59,4 +74,61 @@ public class CreateSubscriptionTest {
 
         Assert.assertThat(XmlUtil.toString(element), CoreMatchers.containsString("ok"));
     }
+
+    @Test
+    public void testFilteredSubscriptionsShareNotification() throws Exception {
+        final NetconfSession session = mock(NetconfSession.class);
+        final CreateSubscription createSubscription = new CreateSubscription("id", notificationRegistry);
+        createSubscription.setSession(session);
+
+        // Two subscriptions with subtree filters receive the same notification
+        final XmlElement operationElement = XmlElement.fromDomElement(
+            XmlUtil.readXmlToElement(CREATE_FILTERED_SUBSCRIPTION_XML));
+        createSubscription.handleWithNoSubsequentOperations(XmlUtil.newDocument(), operationElement);
+        createSubscription.handleWithNoSubsequentOperations(XmlUtil.newDocument(), operationElement);
+
+        final ArgumentCaptor<NetconfNotificationListener> listeners =
+                ArgumentCaptor.forClass(NetconfNotificationListener.class);
+        verify(notificationRegistry, times(2)).registerNotificationListener(any(StreamNameType.class),
+            listeners.capture());
+
+        final NetconfNotification notification = new NetconfNotification(
+            XmlUtil.readXmlToDocument("<test-notification xmlns=\"urn:test\"><value>1</value></test-notification>"));
+        for (final NetconfNotificationListener listener : listeners.getAllValues()) {
+            listener.onNotification(new StreamNameType("NETCONF"), notification);
+        }
+
+        final ArgumentCaptor<NetconfMessage> sent = ArgumentCaptor.forClass(NetconfMessage.class);
+        verify(session, times(2)).sendMessage(sent.capture());
+        for (final NetconfMessage message : sent.getAllValues()) {
+            Assert.assertThat(XmlUtil.toString(message.getDocument()),
+                CoreMatchers.containsString("test-notification"));
+        }
+
+        // The published notification is left intact
+        Assert.assertEquals(1, notification.getDocument().getElementsByTagNameNS(
+            XmlNetconfConstants.URN_IETF_PARAMS_NETCONF_CAPABILITY_NOTIFICATION_1_0, XmlNetconfConstants.EVENT_TIME)
+            .getLength());
+    }
+
+    @Test
+    public void testDisconnectClosesSessionAsynchronously() throws Exception {
+        final NetconfSession session = mock(NetconfSession.class);
+        final List<Runnable> tasks = new ArrayList<>();
+        final CreateSubscription createSubscription = new CreateSubscription("id", notificationRegistry, tasks::add);
+        createSubscription.setSession(session);
+        createSubscription.handleWithNoSubsequentOperations(XmlUtil.newDocument(),
+            XmlElement.fromDomElement(XmlUtil.readXmlToElement(CREATE_SUBSCRIPTION_XML)));
+
+        final ArgumentCaptor<NetconfNotificationListener> listener =
+                ArgumentCaptor.forClass(NetconfNotificationListener.class);
+        verify(notificationRegistry).registerNotificationListener(any(StreamNameType.class), listener.capture());
+
+        listener.getValue().onDisconnected();
+        verify(session, never()).close();
+
+        Assert.assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        verify(session).close();
+    }
 }
@@ -25,6 +25,7 @@ import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCapabilities;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.netconf.sal.DeviceDataBrokerConfiguration;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceDataBroker;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceNotificationService;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceSalProvider;
@@ -47,6 +48,7 @@ class MasterSalFacade implements AutoCloseable, RemoteDeviceHandler<NetconfSessi
     private final NetconfDeviceSalProvider salProvider;
     private final ActorRef masterActorRef;
     private final ActorSystem actorSystem;
+    private final DeviceDataBrokerConfiguration dataBrokerConfiguration;
 
     private SchemaContext currentSchemaContext = null;
     private NetconfSessionPreferences netconfSessionPreferences = null;
@@ -59,7 +61,19 @@ class MasterSalFacade implements AutoCloseable, RemoteDeviceHandler<NetconfSessi
                     final Timeout actorResponseWaitTime,
                     final DOMMountPointService mountService,
                     final DataBroker dataBroker) {
+        this(id, actorSystem, masterActorRef, actorResponseWaitTime, mountService, dataBroker,
+            DeviceDataBrokerConfiguration.DEFAULT);
+    }
+
+    MasterSalFacade(final RemoteDeviceId id,
+                    final ActorSystem actorSystem,
+                    final ActorRef masterActorRef,
+                    final Timeout actorResponseWaitTime,
+                    final DOMMountPointService mountService,
+                    final DataBroker dataBroker,
+                    final DeviceDataBrokerConfiguration dataBrokerConfiguration) {
         this.id = id;
+        this.dataBrokerConfiguration = dataBrokerConfiguration;
         this.salProvider = new NetconfDeviceSalProvider(id, mountService, dataBroker);
         this.actorSystem = actorSystem;
         this.masterActorRef = masterActorRef;
@@ -107,6 +121,9 @@ class MasterSalFacade implements AutoCloseable, RemoteDeviceHandler<NetconfSessi
 
     @Override
     public void onNotification(final DOMNotification domNotification) {
+        if (deviceDataBroker instanceof NetconfDeviceDataBroker) {
+            ((NetconfDeviceDataBroker) deviceDataBroker).onNotification(domNotification);
+        }
         salProvider.getMountInstance().publish(domNotification);
     }
 
@@ -136,7 +153,9 @@ class MasterSalFacade implements AutoCloseable, RemoteDeviceHandler<NetconfSessi
     }
 
     protected DOMDataBroker newDeviceDataBroker() {
-        return new NetconfDeviceDataBroker(id, currentSchemaContext, deviceRpc, netconfSessionPreferences);
+        return new NetconfDeviceDataBroker(id, currentSchemaContext, deviceRpc, netconfSessionPreferences,
+            dataBrokerConfiguration, (cacheHits, cacheMisses, mergedReads) -> salProvider.getTopologyDatastoreAdapter()
+                .updateReadStatistics(cacheHits, cacheMisses, mergedReads));
     }
 
     private Future<Object> sendInitialDataToActor() {
@@ -162,6 +181,9 @@ class MasterSalFacade implements AutoCloseable, RemoteDeviceHandler<NetconfSessi
 
     private void unregisterMasterMountPoint() {
         salProvider.getMountInstance().onTopologyDeviceDisconnected();
+        if (deviceDataBroker instanceof AutoCloseable) {
+            closeGracefully((AutoCloseable) deviceDataBroker);
+        }
     }
 
     @SuppressWarnings("checkstyle:IllegalCatch")
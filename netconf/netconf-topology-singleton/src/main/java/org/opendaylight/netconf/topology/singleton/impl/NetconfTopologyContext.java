@@ -16,6 +16,7 @@ import akka.dispatch.OnComplete;
 import akka.pattern.Patterns;
 import akka.util.Timeout;
 import com.google.common.base.Preconditions;
+import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -23,6 +24,7 @@ import javax.annotation.Nonnull;
 import org.opendaylight.controller.md.sal.dom.api.DOMMountPointService;
 import org.opendaylight.mdsal.singleton.common.api.ClusterSingletonService;
 import org.opendaylight.mdsal.singleton.common.api.ServiceGroupIdentifier;
+import org.opendaylight.netconf.sal.connect.netconf.sal.DeviceDataBrokerConfiguration;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.topology.singleton.api.RemoteDeviceConnector;
 import org.opendaylight.netconf.topology.singleton.impl.actors.NetconfNodeActor;
@@ -181,7 +183,25 @@ class NetconfTopologyContext implements ClusterSingletonService, AutoCloseable {
     }
 
     protected MasterSalFacade newMasterSalFacade() {
+        final NetconfNode netconfNode = netconfTopologyDeviceSetup.getNode().augmentation(NetconfNode.class);
+        final boolean coalesceEdits = netconfNode.isCoalesceEdits() == null
+                ? NetconfTopologyUtils.DEFAULT_COALESCE_EDITS : netconfNode.isCoalesceEdits();
+        final boolean readDeduplication = netconfNode.isReadDeduplication() == null
+                ? NetconfTopologyUtils.DEFAULT_READ_DEDUPLICATION : netconfNode.isReadDeduplication();
+        final long operationalReadCacheTtlMillis = netconfNode.getOperationalReadCacheTtlMillis() == null
+                ? NetconfTopologyUtils.DEFAULT_OPERATIONAL_READ_CACHE_TTL_MILLIS
+                        : netconfNode.getOperationalReadCacheTtlMillis();
+        final long operationalReadCacheSize = netconfNode.getOperationalReadCacheSize() == null
+                ? NetconfTopologyUtils.DEFAULT_OPERATIONAL_READ_CACHE_SIZE : netconfNode.getOperationalReadCacheSize();
+        final boolean configReplica = netconfNode.isConfigReplica() == null
+                ? NetconfTopologyUtils.DEFAULT_CONFIG_REPLICA : netconfNode.isConfigReplica();
+        final long configReplicaResyncIntervalMillis = netconfNode.getConfigReplicaResyncIntervalMillis() == null
+                ? NetconfTopologyUtils.DEFAULT_CONFIG_REPLICA_RESYNC_INTERVAL_MILLIS
+                        : netconfNode.getConfigReplicaResyncIntervalMillis();
         return new MasterSalFacade(remoteDeviceId, netconfTopologyDeviceSetup.getActorSystem(), masterActorRef,
-                actorResponseWaitTime, mountService, netconfTopologyDeviceSetup.getDataBroker());
+                actorResponseWaitTime, mountService, netconfTopologyDeviceSetup.getDataBroker(),
+                new DeviceDataBrokerConfiguration(coalesceEdits, readDeduplication, operationalReadCacheTtlMillis,
+                    Ints.saturatedCast(operationalReadCacheSize), configReplica, configReplicaResyncIntervalMillis,
+                    netconfTopologyDeviceSetup.getConfigReplicaExecutor()));
     }
 }
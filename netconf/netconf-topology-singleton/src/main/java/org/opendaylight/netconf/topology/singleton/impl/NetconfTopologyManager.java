@@ -9,16 +9,21 @@
 package org.opendaylight.netconf.topology.singleton.impl;
 
 import akka.actor.ActorSystem;
+import akka.cluster.Cluster;
 import akka.util.Timeout;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.netty.util.concurrent.EventExecutor;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 import org.opendaylight.aaa.encrypt.AAAEncryptionService;
@@ -38,6 +43,11 @@ import org.opendaylight.mdsal.singleton.common.api.ClusterSingletonServiceProvid
 import org.opendaylight.mdsal.singleton.common.api.ClusterSingletonServiceRegistration;
 import org.opendaylight.mdsal.singleton.common.api.ServiceGroupIdentifier;
 import org.opendaylight.netconf.client.NetconfClientDispatcher;
+import org.opendaylight.netconf.nettyutil.handler.MessageDecodingPool;
+import org.opendaylight.netconf.sal.connect.netconf.admission.AdmissionStatisticsPublisher;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission.Phase;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaSourceFetcher.FetchLimiter;
 import org.opendaylight.netconf.topology.singleton.api.NetconfTopologySingletonService;
 import org.opendaylight.netconf.topology.singleton.impl.utils.NetconfTopologySetup;
 import org.opendaylight.netconf.topology.singleton.impl.utils.NetconfTopologySetup.NetconfTopologySetupBuilder;
@@ -82,6 +92,13 @@ public class NetconfTopologyManager
     private ListenerRegistration<NetconfTopologyManager> dataChangeListenerRegistration;
     private String privateKeyPath;
     private String privateKeyPassphrase;
+    private final Map<Phase, Integer> admissionLimits = new EnumMap<>(Phase.class);
+    private ConnectionAdmission connectionAdmission;
+    private AdmissionStatisticsPublisher admissionStatistics;
+    private final FetchLimiter schemaFetchLimiter =
+            new FetchLimiter(NetconfTopologyUtils.DEFAULT_SCHEMA_FETCH_GLOBAL_LIMIT);
+    // Maintains configuration replicas of the devices of this topology, threads are started on demand
+    private final ScheduledExecutorService configReplicaExecutor;
 
     public NetconfTopologyManager(final DataBroker dataBroker, final RpcProviderRegistry rpcProviderRegistry,
                                   final ClusterSingletonServiceProvider clusterSingletonServiceProvider,
@@ -104,7 +121,13 @@ public class NetconfTopologyManager
         this.writeTxIdleTimeout = Duration.apply(config.getWriteTransactionIdleTimeout(), TimeUnit.SECONDS);
         this.mountPointService = mountPointService;
         this.encryptionService = Preconditions.checkNotNull(encryptionService);
+        this.configReplicaExecutor = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("netconf-config-replica-" + topologyId + "-%d")
+                .build());
 
+        admissionLimits.put(Phase.CONNECT, NetconfTopologyUtils.DEFAULT_CONNECT_ADMISSION_LIMIT);
+        admissionLimits.put(Phase.SCHEMA_RESOLUTION, NetconfTopologyUtils.DEFAULT_SCHEMA_ADMISSION_LIMIT);
+        admissionLimits.put(Phase.MOUNT, NetconfTopologyUtils.DEFAULT_MOUNT_ADMISSION_LIMIT);
     }
 
     // Blueprint init method
@@ -216,6 +239,14 @@ public class NetconfTopologyManager
 
         contexts.clear();
         clusterRegistrations.clear();
+
+        synchronized (this) {
+            if (admissionStatistics != null) {
+                admissionStatistics.close();
+                admissionStatistics = null;
+            }
+        }
+        configReplicaExecutor.shutdown();
     }
 
     @SuppressWarnings("checkstyle:IllegalCatch")
@@ -241,6 +272,70 @@ public class NetconfTopologyManager
         this.privateKeyPassphrase = privateKeyPassphrase;
     }
 
+    /**
+     * Sets the number of devices which may be connecting at the same time, using blueprint.
+     */
+    public void setConnectAdmissionLimit(final int limit) {
+        setAdmissionLimit(Phase.CONNECT, limit);
+    }
+
+    /**
+     * Sets the number of devices which may be resolving their schemas at the same time, using blueprint.
+     */
+    public void setSchemaAdmissionLimit(final int limit) {
+        setAdmissionLimit(Phase.SCHEMA_RESOLUTION, limit);
+    }
+
+    /**
+     * Sets the number of devices which may be mounting at the same time, using blueprint.
+     */
+    public void setMountAdmissionLimit(final int limit) {
+        setAdmissionLimit(Phase.MOUNT, limit);
+    }
+
+    /**
+     * Sets the number of YANG sources which may be requested from devices mastered by this node at the same time,
+     * using blueprint.
+     */
+    public void setSchemaFetchGlobalLimit(final int limit) {
+        schemaFetchLimiter.setLimit(limit);
+    }
+
+    /**
+     * Sets the number of threads parsing large messages of all devices, using blueprint. Values smaller than 1 select
+     * the number of available processors.
+     */
+    public void setDecodingPoolSize(final int size) {
+        MessageDecodingPool.getDefault().setParallelism(size);
+    }
+
+    private synchronized void setAdmissionLimit(final Phase phase, final int limit) {
+        admissionLimits.put(phase, limit);
+        if (connectionAdmission != null) {
+            connectionAdmission.setLimit(phase, limit);
+        }
+    }
+
+    /**
+     * Returns the admission control of connection setup of devices mastered by this node, which also reports how
+     * many devices are in, or waiting for, each phase of the setup. The progress is published in the operational
+     * datastore as well, keyed by the address of this node.
+     */
+    public synchronized ConnectionAdmission getConnectionAdmission() {
+        if (connectionAdmission == null) {
+            connectionAdmission = new ConnectionAdmission(processingExecutor.getExecutor(),
+                keepaliveExecutor.getExecutor(), admissionLimits);
+            admissionStatistics = newAdmissionStatisticsPublisher(connectionAdmission);
+        }
+        return connectionAdmission;
+    }
+
+    @VisibleForTesting
+    protected AdmissionStatisticsPublisher newAdmissionStatisticsPublisher(final ConnectionAdmission admission) {
+        return new AdmissionStatisticsPublisher(admission, dataBroker, topologyId,
+            Cluster.get(actorSystem).selfAddress().toString());
+    }
+
     private ListenerRegistration<NetconfTopologyManager> registerDataTreeChangeListener() {
         final WriteTransaction wtx = dataBroker.newWriteOnlyTransaction();
         initTopology(wtx, LogicalDatastoreType.CONFIGURATION);
@@ -290,7 +385,10 @@ public class NetconfTopologyManager
                 .setIdleTimeout(writeTxIdleTimeout)
                 .setPrivateKeyPath(privateKeyPath)
                 .setPrivateKeyPassphrase(privateKeyPassphrase)
-                .setEncryptionService(encryptionService);
+                .setEncryptionService(encryptionService)
+                .setConnectionAdmission(getConnectionAdmission())
+                .setSchemaFetchLimiter(schemaFetchLimiter)
+                .setConfigReplicaExecutor(configReplicaExecutor);
 
         return builder.build();
     }
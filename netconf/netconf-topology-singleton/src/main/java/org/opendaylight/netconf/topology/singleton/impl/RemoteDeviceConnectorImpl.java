@@ -11,6 +11,7 @@ package org.opendaylight.netconf.topology.singleton.impl;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -39,6 +40,8 @@ import org.opendaylight.netconf.sal.connect.netconf.LibraryModulesSchemas;
 import org.opendaylight.netconf.sal.connect.netconf.NetconfDevice;
 import org.opendaylight.netconf.sal.connect.netconf.NetconfDeviceBuilder;
 import org.opendaylight.netconf.sal.connect.netconf.SchemalessNetconfDevice;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission;
+import org.opendaylight.netconf.sal.connect.netconf.admission.DeviceAdmission;
 import org.opendaylight.netconf.sal.connect.netconf.auth.DatastoreBackedPublicKeyAuth;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCapabilities;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommunicator;
@@ -59,6 +62,7 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Uri;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionParameters.KeepaliveRpc;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.parameters.OdlHelloMessageCapabilities;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.available.capabilities.AvailableCapability.CapabilityOrigin;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.credentials.Credentials;
@@ -116,8 +120,14 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
         final NetconfClientSessionListener netconfClientSessionListener = deviceCommunicatorDTO.getSessionListener();
         final NetconfReconnectingClientConfiguration clientConfig =
                 getClientConfig(netconfClientSessionListener, netconfNode);
-        final ListenableFuture<NetconfDeviceCapabilities> future = deviceCommunicator
-                .initializeRemoteConnection(netconfTopologyDeviceSetup.getNetconfClientDispatcher(), clientConfig);
+        final long connectionTimeoutMillis = netconfNode.getConnectionTimeoutMillis() == null
+                ? NetconfTopologyUtils.DEFAULT_CONNECTION_TIMEOUT_MILLIS : netconfNode.getConnectionTimeoutMillis();
+        final DeviceAdmission admission = deviceCommunicatorDTO.getAdmission();
+        final ListenableFuture<NetconfDeviceCapabilities> future = admission == null
+                ? deviceCommunicator.initializeRemoteConnection(
+                    netconfTopologyDeviceSetup.getNetconfClientDispatcher(), clientConfig)
+                : admission.connect(() -> deviceCommunicator.initializeRemoteConnection(
+                    netconfTopologyDeviceSetup.getNetconfClientDispatcher(), clientConfig), connectionTimeoutMillis);
 
         Futures.addCallback(future, new FutureCallback<NetconfDeviceCapabilities>() {
             @Override
@@ -152,15 +162,31 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
                 ? NetconfTopologyUtils.DEFAULT_REQUEST_TIMEOUT_MILLIS : node.getDefaultRequestTimeoutMillis();
         final long keepaliveDelay = node.getKeepaliveDelay() == null
                 ? NetconfTopologyUtils.DEFAULT_KEEPALIVE_DELAY : node.getKeepaliveDelay();
+        final KeepaliveRpc keepaliveRpc = node.getKeepaliveRpc() == null
+                ? NetconfTopologyUtils.DEFAULT_KEEPALIVE_RPC : node.getKeepaliveRpc();
         final boolean reconnectOnChangedSchema = node.isReconnectOnChangedSchema() == null
                 ? NetconfTopologyUtils.DEFAULT_RECONNECT_ON_CHANGED_SCHEMA : node.isReconnectOnChangedSchema();
+        final int schemaFetchConcurrency = node.getSchemaFetchConcurrency() == null
+                ? NetconfTopologyUtils.DEFAULT_SCHEMA_FETCH_CONCURRENCY : node.getSchemaFetchConcurrency();
+        final long schemaFetchTimeoutMillis = node.getSchemaFetchTimeoutMillis() == null
+                ? NetconfTopologyUtils.DEFAULT_SCHEMA_FETCH_TIMEOUT_MILLIS : node.getSchemaFetchTimeoutMillis();
 
         RemoteDeviceHandler<NetconfSessionPreferences> salFacade = deviceHandler;
         if (keepaliveDelay > 0) {
             LOG.info("{}: Adding keepalive facade.", remoteDeviceId);
             salFacade = new KeepaliveSalFacade(remoteDeviceId, salFacade,
                     netconfTopologyDeviceSetup.getKeepaliveExecutor().getExecutor(), keepaliveDelay,
-                    defaultRequestTimeoutMillis);
+                    defaultRequestTimeoutMillis, keepaliveRpc);
+        }
+
+        // hold back the setup phases of the device until admitted, see ConnectionAdmission
+        final ConnectionAdmission connectionAdmission = netconfTopologyDeviceSetup.getConnectionAdmission();
+        final int connectionPriority = node.getConnectionPriority() == null
+                ? NetconfTopologyUtils.DEFAULT_CONNECTION_PRIORITY : node.getConnectionPriority();
+        final DeviceAdmission admission = connectionAdmission == null ? null
+                : new DeviceAdmission(connectionAdmission, remoteDeviceId, connectionPriority);
+        if (admission != null) {
+            salFacade = admission.wrapFacade(salFacade);
         }
 
         final NetconfDevice.SchemaResourcesDTO schemaResourcesDTO = netconfTopologyDeviceSetup.getSchemaResourcesDTO();
@@ -193,17 +219,26 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
             }
         }
 
-        final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> device;
+        RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> device;
         if (node.isSchemaless()) {
             device = new SchemalessNetconfDevice(remoteDeviceId, salFacade);
         } else {
-            device = new NetconfDeviceBuilder()
+            final NetconfDeviceBuilder deviceBuilder = new NetconfDeviceBuilder()
                     .setReconnectOnSchemasChange(reconnectOnChangedSchema)
                     .setSchemaResourcesDTO(schemaResourcesDTO)
                     .setGlobalProcessingExecutor(netconfTopologyDeviceSetup.getProcessingExecutor().getExecutor())
                     .setId(remoteDeviceId)
                     .setSalFacade(salFacade)
-                    .build();
+                    .setSchemaFetchConcurrency(schemaFetchConcurrency)
+                    .setSchemaFetchTimeoutMillis(schemaFetchTimeoutMillis);
+            if (netconfTopologyDeviceSetup.getSchemaFetchLimiter() != null) {
+                deviceBuilder.setSchemaFetchLimiter(netconfTopologyDeviceSetup.getSchemaFetchLimiter());
+            }
+            device = deviceBuilder.build();
+        }
+
+        if (admission != null) {
+            device = admission.wrapDevice(device);
         }
 
         final Optional<NetconfSessionPreferences> userCapabilities = getUserCapabilities(node);
@@ -215,14 +250,19 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
             LOG.info("{}: Concurrent rpc limit is smaller than 1, no limit will be enforced.", remoteDeviceId);
         }
 
+        final int rpcQueueLimit = node.getConcurrentRpcQueueLimit() == null
+                ? NetconfTopologyUtils.DEFAULT_CONCURRENT_RPC_QUEUE_LIMIT : node.getConcurrentRpcQueueLimit();
+
         return new NetconfConnectorDTO(
                 userCapabilities.isPresent() ? new NetconfDeviceCommunicator(remoteDeviceId, device,
                         new UserPreferences(userCapabilities.get(),
                                 Objects.isNull(node.getYangModuleCapabilities())
                                         ? false : node.getYangModuleCapabilities().isOverride(),
                                 Objects.isNull(node.getNonModuleCapabilities())
-                                        ? false : node.getNonModuleCapabilities().isOverride()), rpcMessageLimit)
-                        : new NetconfDeviceCommunicator(remoteDeviceId, device, rpcMessageLimit), salFacade);
+                                        ? false : node.getNonModuleCapabilities().isOverride()), rpcMessageLimit,
+                                rpcQueueLimit)
+                        : new NetconfDeviceCommunicator(remoteDeviceId, device, rpcMessageLimit, rpcQueueLimit),
+                salFacade, admission);
     }
 
     private Optional<NetconfSessionPreferences> getUserCapabilities(final NetconfNode node) {
@@ -273,6 +313,14 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
                 ? NetconfTopologyUtils.DEFAULT_BETWEEN_ATTEMPTS_TIMEOUT_MILLIS : node.getBetweenAttemptsTimeoutMillis();
         final BigDecimal sleepFactor = node.getSleepFactor() == null
                 ? NetconfTopologyUtils.DEFAULT_SLEEP_FACTOR : node.getSleepFactor();
+        final boolean lazyMessageDecoding = node.isLazyMessageDecoding() == null
+                ? NetconfTopologyUtils.DEFAULT_LAZY_MESSAGE_DECODING : node.isLazyMessageDecoding();
+        final boolean exiNegotiation = node.isExiNegotiation() == null
+                ? NetconfTopologyUtils.DEFAULT_EXI_NEGOTIATION : node.isExiNegotiation();
+        final long decodingOffloadThreshold = node.getDecodingOffloadThreshold() == null
+                ? NetconfTopologyUtils.DEFAULT_DECODING_OFFLOAD_THRESHOLD : node.getDecodingOffloadThreshold();
+        final long maxMessageSize = node.getMaxMessageSize() == null
+                ? NetconfTopologyUtils.DEFAULT_MAX_MESSAGE_SIZE : node.getMaxMessageSize();
 
         final InetSocketAddress socketAddress = getSocketAddress(node.getHost(), node.getPort().getValue());
 
@@ -293,7 +341,11 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
                                 ? NetconfClientConfiguration.NetconfClientProtocol.TCP
                                 : NetconfClientConfiguration.NetconfClientProtocol.SSH)
                         .withConnectStrategyFactory(sf)
-                        .withSessionListener(listener);
+                        .withSessionListener(listener)
+                        .withLazyMessageDecoding(lazyMessageDecoding)
+                        .withExiNegotiation(exiNegotiation)
+                        .withDecodingOffloadThreshold(Ints.saturatedCast(decodingOffloadThreshold))
+                        .withMaxMessageSize(Ints.saturatedCast(maxMessageSize));
 
         final List<Uri> odlHelloCapabilities = getOdlHelloCapabilities(node);
         if (odlHelloCapabilities != null) {
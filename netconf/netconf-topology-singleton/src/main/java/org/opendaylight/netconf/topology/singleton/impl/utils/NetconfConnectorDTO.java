@@ -10,6 +10,7 @@ package org.opendaylight.netconf.topology.singleton.impl.utils;
 
 import org.opendaylight.netconf.client.NetconfClientSessionListener;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
+import org.opendaylight.netconf.sal.connect.netconf.admission.DeviceAdmission;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommunicator;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 
@@ -17,11 +18,19 @@ public class NetconfConnectorDTO implements AutoCloseable {
 
     private final NetconfDeviceCommunicator communicator;
     private final RemoteDeviceHandler<NetconfSessionPreferences> facade;
+    private final DeviceAdmission admission;
 
     public NetconfConnectorDTO(final NetconfDeviceCommunicator communicator,
                                final RemoteDeviceHandler<NetconfSessionPreferences> facade) {
+        this(communicator, facade, null);
+    }
+
+    public NetconfConnectorDTO(final NetconfDeviceCommunicator communicator,
+                               final RemoteDeviceHandler<NetconfSessionPreferences> facade,
+                               final DeviceAdmission admission) {
         this.communicator = communicator;
         this.facade = facade;
+        this.admission = admission;
     }
 
     public NetconfDeviceCommunicator getCommunicator() {
@@ -36,6 +45,10 @@ public class NetconfConnectorDTO implements AutoCloseable {
         return communicator;
     }
 
+    public DeviceAdmission getAdmission() {
+        return admission;
+    }
+
     @Override
     public void close() throws Exception {
         if (communicator != null) {
@@ -44,5 +57,8 @@ public class NetconfConnectorDTO implements AutoCloseable {
         if (facade != null) {
             facade.close();
         }
+        if (admission != null) {
+            admission.close();
+        }
     }
 }
\ No newline at end of file
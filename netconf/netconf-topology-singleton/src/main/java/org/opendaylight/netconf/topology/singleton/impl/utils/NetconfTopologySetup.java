@@ -10,6 +10,7 @@ package org.opendaylight.netconf.topology.singleton.impl.utils;
 
 import akka.actor.ActorSystem;
 import io.netty.util.concurrent.EventExecutor;
+import java.util.concurrent.ScheduledExecutorService;
 import org.opendaylight.aaa.encrypt.AAAEncryptionService;
 import org.opendaylight.controller.config.threadpool.ScheduledThreadPool;
 import org.opendaylight.controller.config.threadpool.ThreadPool;
@@ -18,6 +19,8 @@ import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
 import org.opendaylight.mdsal.singleton.common.api.ClusterSingletonServiceProvider;
 import org.opendaylight.netconf.client.NetconfClientDispatcher;
 import org.opendaylight.netconf.sal.connect.netconf.NetconfDevice;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaSourceFetcher.FetchLimiter;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import scala.concurrent.duration.Duration;
@@ -40,6 +43,9 @@ public class NetconfTopologySetup {
     private final String privateKeyPath;
     private final String privateKeyPassphrase;
     private final AAAEncryptionService encryptionService;
+    private final ConnectionAdmission connectionAdmission;
+    private final FetchLimiter schemaFetchLimiter;
+    private final ScheduledExecutorService configReplicaExecutor;
 
     NetconfTopologySetup(final NetconfTopologySetupBuilder builder) {
         this.clusterSingletonServiceProvider = builder.getClusterSingletonServiceProvider();
@@ -58,6 +64,9 @@ public class NetconfTopologySetup {
         this.privateKeyPath = builder.getPrivateKeyPath();
         this.privateKeyPassphrase = builder.getPrivateKeyPassphrase();
         this.encryptionService = builder.getEncryptionService();
+        this.connectionAdmission = builder.getConnectionAdmission();
+        this.schemaFetchLimiter = builder.getSchemaFetchLimiter();
+        this.configReplicaExecutor = builder.getConfigReplicaExecutor();
     }
 
     public ClusterSingletonServiceProvider getClusterSingletonServiceProvider() {
@@ -124,6 +133,18 @@ public class NetconfTopologySetup {
         return encryptionService;
     }
 
+    public ConnectionAdmission getConnectionAdmission() {
+        return connectionAdmission;
+    }
+
+    public FetchLimiter getSchemaFetchLimiter() {
+        return schemaFetchLimiter;
+    }
+
+    public ScheduledExecutorService getConfigReplicaExecutor() {
+        return configReplicaExecutor;
+    }
+
     public static class NetconfTopologySetupBuilder {
 
         private ClusterSingletonServiceProvider clusterSingletonServiceProvider;
@@ -142,6 +163,9 @@ public class NetconfTopologySetup {
         private String privateKeyPath;
         private String privateKeyPassphrase;
         private AAAEncryptionService encryptionService;
+        private ConnectionAdmission connectionAdmission;
+        private FetchLimiter schemaFetchLimiter;
+        private ScheduledExecutorService configReplicaExecutor;
 
         public NetconfTopologySetupBuilder() {
         }
@@ -296,6 +320,34 @@ public class NetconfTopologySetup {
             return this;
         }
 
+        private ConnectionAdmission getConnectionAdmission() {
+            return this.connectionAdmission;
+        }
+
+        public NetconfTopologySetupBuilder setConnectionAdmission(final ConnectionAdmission connectionAdmission) {
+            this.connectionAdmission = connectionAdmission;
+            return this;
+        }
+
+        private FetchLimiter getSchemaFetchLimiter() {
+            return this.schemaFetchLimiter;
+        }
+
+        public NetconfTopologySetupBuilder setSchemaFetchLimiter(final FetchLimiter schemaFetchLimiter) {
+            this.schemaFetchLimiter = schemaFetchLimiter;
+            return this;
+        }
+
+        private ScheduledExecutorService getConfigReplicaExecutor() {
+            return this.configReplicaExecutor;
+        }
+
+        public NetconfTopologySetupBuilder setConfigReplicaExecutor(
+                final ScheduledExecutorService configReplicaExecutor) {
+            this.configReplicaExecutor = configReplicaExecutor;
+            return this;
+        }
+
         public static NetconfTopologySetupBuilder create() {
             return new NetconfTopologySetupBuilder();
         }
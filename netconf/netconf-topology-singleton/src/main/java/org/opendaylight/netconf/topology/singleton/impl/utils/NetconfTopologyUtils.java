@@ -19,9 +19,11 @@ import java.util.concurrent.TimeUnit;
 import org.opendaylight.netconf.api.DocumentedException;
 import org.opendaylight.netconf.sal.connect.netconf.NetconfDevice;
 import org.opendaylight.netconf.sal.connect.netconf.NetconfStateSchemasResolverImpl;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaSetSnapshots;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionParameters.KeepaliveRpc;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
@@ -52,12 +54,31 @@ public final class NetconfTopologyUtils {
 
     public static final long DEFAULT_REQUEST_TIMEOUT_MILLIS = 60000L;
     public static final int DEFAULT_KEEPALIVE_DELAY = 0;
+    public static final KeepaliveRpc DEFAULT_KEEPALIVE_RPC = KeepaliveRpc.GetConfig;
     public static final boolean DEFAULT_RECONNECT_ON_CHANGED_SCHEMA = false;
     public static final int DEFAULT_CONCURRENT_RPC_LIMIT = 0;
+    public static final int DEFAULT_CONCURRENT_RPC_QUEUE_LIMIT = 0;
     public static final int DEFAULT_MAX_CONNECTION_ATTEMPTS = 0;
     public static final int DEFAULT_BETWEEN_ATTEMPTS_TIMEOUT_MILLIS = 2000;
     public static final long DEFAULT_CONNECTION_TIMEOUT_MILLIS = 20000L;
     public static final BigDecimal DEFAULT_SLEEP_FACTOR = new BigDecimal(1.5);
+    public static final boolean DEFAULT_LAZY_MESSAGE_DECODING = false;
+    public static final boolean DEFAULT_EXI_NEGOTIATION = true;
+    public static final long DEFAULT_DECODING_OFFLOAD_THRESHOLD = 0L;
+    public static final long DEFAULT_MAX_MESSAGE_SIZE = 536870912L;
+    public static final boolean DEFAULT_COALESCE_EDITS = false;
+    public static final boolean DEFAULT_READ_DEDUPLICATION = false;
+    public static final long DEFAULT_OPERATIONAL_READ_CACHE_TTL_MILLIS = 0L;
+    public static final long DEFAULT_OPERATIONAL_READ_CACHE_SIZE = 1000L;
+    public static final boolean DEFAULT_CONFIG_REPLICA = false;
+    public static final long DEFAULT_CONFIG_REPLICA_RESYNC_INTERVAL_MILLIS = 300000L;
+    public static final int DEFAULT_CONNECT_ADMISSION_LIMIT = 64;
+    public static final int DEFAULT_SCHEMA_ADMISSION_LIMIT = 16;
+    public static final int DEFAULT_MOUNT_ADMISSION_LIMIT = 32;
+    public static final int DEFAULT_CONNECTION_PRIORITY = 0;
+    public static final int DEFAULT_SCHEMA_FETCH_CONCURRENCY = 4;
+    public static final long DEFAULT_SCHEMA_FETCH_TIMEOUT_MILLIS = 60000L;
+    public static final int DEFAULT_SCHEMA_FETCH_GLOBAL_LIMIT = 32;
 
 
     // The default cache directory relative to <code>CACHE_DIRECTORY</code>
@@ -71,6 +92,9 @@ public final class NetconfTopologyUtils {
     public static final String QUALIFIED_DEFAULT_CACHE_DIRECTORY =
             CACHE_DIRECTORY + File.separator + DEFAULT_CACHE_DIRECTORY;
 
+    // Snapshots of resolved schema sets, in a subdirectory named after the schema cache directory
+    public static final String SNAPSHOT_DIRECTORY = CACHE_DIRECTORY + File.separator + "schema-snapshots";
+
     // The default schema repository in the case that one is not specified.
     public static final SharedSchemaRepository DEFAULT_SCHEMA_REPOSITORY =
             new SharedSchemaRepository(DEFAULT_SCHEMA_REPOSITORY_NAME);
@@ -97,7 +121,9 @@ public final class NetconfTopologyUtils {
     static {
         SCHEMA_RESOURCES_DTO_MAP.put(DEFAULT_CACHE_DIRECTORY,
                 new NetconfDevice.SchemaResourcesDTO(DEFAULT_SCHEMA_REPOSITORY, DEFAULT_SCHEMA_REPOSITORY,
-                        DEFAULT_SCHEMA_CONTEXT_FACTORY, new NetconfStateSchemasResolverImpl()));
+                        DEFAULT_SCHEMA_CONTEXT_FACTORY, new NetconfStateSchemasResolverImpl(),
+                        new SchemaSetSnapshots(new File(SNAPSHOT_DIRECTORY, DEFAULT_CACHE_DIRECTORY),
+                            DEFAULT_SCHEMA_REPOSITORY)));
         DEFAULT_SCHEMA_REPOSITORY.registerSchemaSourceListener(DEFAULT_AST_CACHE);
         DEFAULT_SCHEMA_REPOSITORY.registerSchemaSourceListener(
                 TextToASTTransformer.create(DEFAULT_SCHEMA_REPOSITORY, DEFAULT_SCHEMA_REPOSITORY));
@@ -192,7 +218,8 @@ public final class NetconfTopologyUtils {
         repository.registerSchemaSourceListener(InMemorySchemaSourceCache.createSoftCache(repository,
                 ASTSchemaSource.class));
         return new NetconfDevice.SchemaResourcesDTO(repository, repository, schemaContextFactory,
-                new NetconfStateSchemasResolverImpl());
+                new NetconfStateSchemasResolverImpl(),
+                new SchemaSetSnapshots(new File(SNAPSHOT_DIRECTORY, moduleSchemaCacheDirectory), repository));
     }
 
     /**
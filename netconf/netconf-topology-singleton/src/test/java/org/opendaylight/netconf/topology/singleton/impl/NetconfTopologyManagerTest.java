@@ -33,6 +33,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import javax.annotation.Nonnull;
@@ -57,6 +59,8 @@ import org.opendaylight.mdsal.singleton.common.api.ClusterSingletonServiceProvid
 import org.opendaylight.mdsal.singleton.common.api.ClusterSingletonServiceRegistration;
 import org.opendaylight.mdsal.singleton.common.api.ServiceGroupIdentifier;
 import org.opendaylight.netconf.client.NetconfClientDispatcher;
+import org.opendaylight.netconf.sal.connect.netconf.admission.AdmissionStatisticsPublisher;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission;
 import org.opendaylight.netconf.topology.singleton.impl.utils.NetconfTopologySetup;
 import org.opendaylight.netconf.topology.singleton.impl.utils.NetconfTopologyUtils;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Host;
@@ -113,6 +117,8 @@ public class NetconfTopologyManagerTest {
         final RpcProviderRegistry rpcProviderRegistry = mock(RpcProviderRegistry.class);
         final ScheduledThreadPool keepaliveExecutor = mock(ScheduledThreadPool.class);
         final ThreadPool processingExecutor = mock(ThreadPool.class);
+        doReturn(mock(ScheduledExecutorService.class)).when(keepaliveExecutor).getExecutor();
+        doReturn(mock(ExecutorService.class)).when(processingExecutor).getExecutor();
         final ActorSystemProvider actorSystemProvider = mock(ActorSystemProvider.class);
         final EventExecutor eventExecutor = mock(EventExecutor.class);
         final NetconfClientDispatcher clientDispatcher = mock(NetconfClientDispatcher.class);
@@ -131,6 +137,13 @@ public class NetconfTopologyManagerTest {
                 return Objects.requireNonNull(mockContextMap.get(setup.getInstanceIdentifier()),
                         "No mock context for " + setup.getInstanceIdentifier()).apply(setup);
             }
+
+            @Override
+            protected AdmissionStatisticsPublisher newAdmissionStatisticsPublisher(
+                    final ConnectionAdmission admission) {
+                // No cluster to take the address of
+                return new AdmissionStatisticsPublisher(admission, dataBroker, TOPOLOGY_ID, "member");
+            }
         };
 
         doNothing().when(mockListenerReg).close();
@@ -13,10 +13,12 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.common.util.concurrent.Uninterruptibles;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.EventExecutor;
@@ -28,10 +30,13 @@ import java.net.URL;
 import java.security.GeneralSecurityException;
 import java.security.KeyStore;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
@@ -49,6 +54,7 @@ import org.opendaylight.netconf.client.SslHandlerFactory;
 import org.opendaylight.netconf.client.conf.NetconfClientConfiguration;
 import org.opendaylight.netconf.client.conf.NetconfReconnectingClientConfiguration;
 import org.opendaylight.netconf.client.conf.NetconfReconnectingClientConfigurationBuilder;
+import org.opendaylight.netconf.nettyutil.handler.MessageDecodingPool;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.LoginPasswordHandler;
 import org.opendaylight.netconf.sal.connect.api.RemoteDevice;
@@ -58,13 +64,20 @@ import org.opendaylight.netconf.sal.connect.netconf.NetconfDevice;
 import org.opendaylight.netconf.sal.connect.netconf.NetconfDeviceBuilder;
 import org.opendaylight.netconf.sal.connect.netconf.NetconfStateSchemasResolverImpl;
 import org.opendaylight.netconf.sal.connect.netconf.SchemalessNetconfDevice;
+import org.opendaylight.netconf.sal.connect.netconf.admission.AdmissionStatisticsPublisher;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission.Phase;
+import org.opendaylight.netconf.sal.connect.netconf.admission.DeviceAdmission;
 import org.opendaylight.netconf.sal.connect.netconf.auth.DatastoreBackedPublicKeyAuth;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCapabilities;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommunicator;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 import org.opendaylight.netconf.sal.connect.netconf.listener.UserPreferences;
+import org.opendaylight.netconf.sal.connect.netconf.sal.DeviceDataBrokerConfiguration;
 import org.opendaylight.netconf.sal.connect.netconf.sal.KeepaliveSalFacade;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfKeystoreAdapter;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaSetSnapshots;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaSourceFetcher.FetchLimiter;
 import org.opendaylight.netconf.sal.connect.netconf.schema.YangLibrarySchemaYangSourceProvider;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.topology.api.NetconfTopology;
@@ -75,6 +88,7 @@ import org.opendaylight.protocol.framework.TimedReconnectStrategy;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Host;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionParameters.KeepaliveRpc;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.parameters.Protocol.Name;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.parameters.protocol.Specification;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.parameters.protocol.specification.TlsCase;
@@ -110,12 +124,32 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
 
     protected static final long DEFAULT_REQUEST_TIMEOUT_MILLIS = 60000L;
     protected static final int DEFAULT_KEEPALIVE_DELAY = 0;
+    private static final KeepaliveRpc DEFAULT_KEEPALIVE_RPC = KeepaliveRpc.GetConfig;
     protected static final boolean DEFAULT_RECONNECT_ON_CHANGED_SCHEMA = false;
     protected static final int DEFAULT_CONCURRENT_RPC_LIMIT = 0;
+    protected static final int DEFAULT_CONCURRENT_RPC_QUEUE_LIMIT = 0;
     private static final int DEFAULT_MAX_CONNECTION_ATTEMPTS = 0;
     private static final int DEFAULT_BETWEEN_ATTEMPTS_TIMEOUT_MILLIS = 2000;
     private static final long DEFAULT_CONNECTION_TIMEOUT_MILLIS = 20000L;
     private static final BigDecimal DEFAULT_SLEEP_FACTOR = new BigDecimal(1.5);
+    private static final boolean DEFAULT_LAZY_MESSAGE_DECODING = false;
+    private static final boolean DEFAULT_EXI_NEGOTIATION = true;
+    private static final long DEFAULT_DECODING_OFFLOAD_THRESHOLD = 0L;
+    private static final long DEFAULT_MAX_MESSAGE_SIZE = 536870912L;
+    private static final boolean DEFAULT_COALESCE_EDITS = false;
+    private static final boolean DEFAULT_READ_DEDUPLICATION = false;
+    private static final long DEFAULT_OPERATIONAL_READ_CACHE_TTL_MILLIS = 0L;
+    private static final long DEFAULT_OPERATIONAL_READ_CACHE_SIZE = 1000L;
+    private static final boolean DEFAULT_CONFIG_REPLICA = false;
+    private static final long DEFAULT_CONFIG_REPLICA_RESYNC_INTERVAL_MILLIS = 300000L;
+    private static final int DEFAULT_CONNECT_ADMISSION_LIMIT = 64;
+    private static final int DEFAULT_SCHEMA_ADMISSION_LIMIT = 16;
+    private static final int DEFAULT_MOUNT_ADMISSION_LIMIT = 32;
+    private static final int DEFAULT_CONNECTION_PRIORITY = 0;
+    private static final int DEFAULT_SCHEMA_FETCH_CONCURRENCY = 4;
+    private static final long DEFAULT_SCHEMA_FETCH_TIMEOUT_MILLIS = 60000L;
+    private static final int DEFAULT_SCHEMA_FETCH_GLOBAL_LIMIT = 32;
+    private static final String ADMISSION_STATISTICS_CONTROLLER = "local";
 
     // constants related to Schema Cache(s)
     /**
@@ -134,6 +168,12 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
     private static final String QUALIFIED_DEFAULT_CACHE_DIRECTORY =
             CACHE_DIRECTORY + File.separator + DEFAULT_CACHE_DIRECTORY;
 
+    /**
+     * Snapshots of resolved schema sets are stored in <code>cache/schema-snapshots</code>, in a subdirectory named
+     * after the schema cache directory they refer to.
+     */
+    private static final String SNAPSHOT_DIRECTORY = CACHE_DIRECTORY + File.separator + "schema-snapshots";
+
     /**
      * The name for the default schema repository.
      */
@@ -154,6 +194,12 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
     private static final SchemaContextFactory DEFAULT_SCHEMA_CONTEXT_FACTORY =
             DEFAULT_SCHEMA_REPOSITORY.createSchemaContextFactory(SchemaSourceFilter.ALWAYS_ACCEPT);
 
+    /**
+     * Snapshots of schema sets resolved from the default schema repository.
+     */
+    private static final SchemaSetSnapshots DEFAULT_SCHEMA_SNAPSHOTS =
+            new SchemaSetSnapshots(new File(SNAPSHOT_DIRECTORY, DEFAULT_CACHE_DIRECTORY), DEFAULT_SCHEMA_REPOSITORY);
+
     /**
      * Keeps track of initialized Schema resources.  A Map is maintained in which the key represents the name
      * of the schema cache directory, and the value is a corresponding <code>SchemaResourcesDTO</code>.  The
@@ -170,7 +216,7 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         SCHEMA_RESOURCES_DTO_MAP.put(DEFAULT_CACHE_DIRECTORY,
                 new NetconfDevice.SchemaResourcesDTO(DEFAULT_SCHEMA_REPOSITORY, DEFAULT_SCHEMA_REPOSITORY,
                         DEFAULT_SCHEMA_CONTEXT_FACTORY,
-                        new NetconfStateSchemasResolverImpl()));
+                        new NetconfStateSchemasResolverImpl(), DEFAULT_SCHEMA_SNAPSHOTS));
         DEFAULT_SCHEMA_REPOSITORY.registerSchemaSourceListener(DEFAULT_AST_CACHE);
         DEFAULT_SCHEMA_REPOSITORY.registerSchemaSourceListener(
                 TextToASTTransformer.create(DEFAULT_SCHEMA_REPOSITORY, DEFAULT_SCHEMA_REPOSITORY));
@@ -217,6 +263,13 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
     protected final AAAEncryptionService encryptionService;
     protected final HashMap<NodeId, NetconfConnectorDTO> activeConnectors = new HashMap<>();
 
+    private final Map<Phase, Integer> admissionLimits = new EnumMap<>(Phase.class);
+    private ConnectionAdmission connectionAdmission;
+    private AdmissionStatisticsPublisher admissionStatistics;
+    private final FetchLimiter schemaFetchLimiter = new FetchLimiter(DEFAULT_SCHEMA_FETCH_GLOBAL_LIMIT);
+    // Maintains configuration replicas of the devices of this topology, threads are started on demand
+    private final ScheduledExecutorService configReplicaExecutor;
+
     protected AbstractNetconfTopology(final String topologyId, final NetconfClientDispatcher clientDispatcher,
                                       final EventExecutor eventExecutor, final ScheduledThreadPool keepaliveExecutor,
                                       final ThreadPool processingExecutor,
@@ -234,6 +287,13 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         this.encryptionService = encryptionService;
 
         this.keystoreAdapter = new NetconfKeystoreAdapter(dataBroker);
+        this.configReplicaExecutor = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("netconf-config-replica-" + topologyId + "-%d")
+                .build());
+
+        admissionLimits.put(Phase.CONNECT, DEFAULT_CONNECT_ADMISSION_LIMIT);
+        admissionLimits.put(Phase.SCHEMA_RESOLUTION, DEFAULT_SCHEMA_ADMISSION_LIMIT);
+        admissionLimits.put(Phase.MOUNT, DEFAULT_MOUNT_ADMISSION_LIMIT);
     }
 
     public void setSchemaRegistry(final SchemaSourceRegistry schemaRegistry) {
@@ -278,8 +338,13 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         final NetconfClientSessionListener netconfClientSessionListener = deviceCommunicatorDTO.getSessionListener();
         final NetconfReconnectingClientConfiguration clientConfig =
                 getClientConfig(netconfClientSessionListener, netconfNode);
-        final ListenableFuture<NetconfDeviceCapabilities> future =
-                deviceCommunicator.initializeRemoteConnection(clientDispatcher, clientConfig);
+        final long connectionTimeoutMillis = netconfNode.getConnectionTimeoutMillis() == null
+                ? DEFAULT_CONNECTION_TIMEOUT_MILLIS : netconfNode.getConnectionTimeoutMillis();
+        final DeviceAdmission admission = deviceCommunicatorDTO.getAdmission();
+        final ListenableFuture<NetconfDeviceCapabilities> future = admission == null
+                ? deviceCommunicator.initializeRemoteConnection(clientDispatcher, clientConfig)
+                : admission.connect(() -> deviceCommunicator.initializeRemoteConnection(clientDispatcher, clientConfig),
+                    connectionTimeoutMillis);
 
         activeConnectors.put(nodeId, deviceCommunicatorDTO);
 
@@ -306,8 +371,22 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
                 ? DEFAULT_REQUEST_TIMEOUT_MILLIS : node.getDefaultRequestTimeoutMillis();
         final long keepaliveDelay = node.getKeepaliveDelay() == null
                 ? DEFAULT_KEEPALIVE_DELAY : node.getKeepaliveDelay();
+        final KeepaliveRpc keepaliveRpc = node.getKeepaliveRpc() == null
+                ? DEFAULT_KEEPALIVE_RPC : node.getKeepaliveRpc();
         final boolean reconnectOnChangedSchema = node.isReconnectOnChangedSchema() == null
                 ? DEFAULT_RECONNECT_ON_CHANGED_SCHEMA : node.isReconnectOnChangedSchema();
+        final boolean coalesceEdits = node.isCoalesceEdits() == null
+                ? DEFAULT_COALESCE_EDITS : node.isCoalesceEdits();
+        final boolean readDeduplication = node.isReadDeduplication() == null
+                ? DEFAULT_READ_DEDUPLICATION : node.isReadDeduplication();
+        final long operationalReadCacheTtlMillis = node.getOperationalReadCacheTtlMillis() == null
+                ? DEFAULT_OPERATIONAL_READ_CACHE_TTL_MILLIS : node.getOperationalReadCacheTtlMillis();
+        final long operationalReadCacheSize = node.getOperationalReadCacheSize() == null
+                ? DEFAULT_OPERATIONAL_READ_CACHE_SIZE : node.getOperationalReadCacheSize();
+        final boolean configReplica = node.isConfigReplica() == null
+                ? DEFAULT_CONFIG_REPLICA : node.isConfigReplica();
+        final long configReplicaResyncIntervalMillis = node.getConfigReplicaResyncIntervalMillis() == null
+                ? DEFAULT_CONFIG_REPLICA_RESYNC_INTERVAL_MILLIS : node.getConfigReplicaResyncIntervalMillis();
 
         final IpAddress ipAddress = node.getHost().getIpAddress();
         final InetSocketAddress address = new InetSocketAddress(ipAddress.getIpv4Address() != null
@@ -316,14 +395,23 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         final RemoteDeviceId remoteDeviceId = new RemoteDeviceId(nodeId.getValue(), address);
 
         RemoteDeviceHandler<NetconfSessionPreferences> salFacade =
-                createSalFacade(remoteDeviceId);
+                createSalFacade(remoteDeviceId, new DeviceDataBrokerConfiguration(coalesceEdits, readDeduplication,
+                    operationalReadCacheTtlMillis, Ints.saturatedCast(operationalReadCacheSize), configReplica,
+                    configReplicaResyncIntervalMillis, configReplicaExecutor));
 
         if (keepaliveDelay > 0) {
             LOG.warn("Adding keepalive facade, for device {}", nodeId);
             salFacade = new KeepaliveSalFacade(remoteDeviceId, salFacade, keepaliveExecutor.getExecutor(),
-                    keepaliveDelay, defaultRequestTimeoutMillis);
+                    keepaliveDelay, defaultRequestTimeoutMillis, keepaliveRpc);
         }
 
+        // hold back the setup phases of the device until admitted, see ConnectionAdmission
+        final int connectionPriority = node.getConnectionPriority() == null
+                ? DEFAULT_CONNECTION_PRIORITY : node.getConnectionPriority();
+        final DeviceAdmission admission = new DeviceAdmission(getConnectionAdmission(), remoteDeviceId,
+            connectionPriority);
+        salFacade = admission.wrapFacade(salFacade);
+
         // pre register yang library sources as fallback schemas to schema registry
         final List<SchemaSourceRegistration<YangTextSchemaSource>> registeredYangLibSources = Lists.newArrayList();
         if (node.getYangLibrary() != null) {
@@ -356,12 +444,19 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         if (node.isSchemaless()) {
             device = new SchemalessNetconfDevice(remoteDeviceId, salFacade);
         } else {
+            final int schemaFetchConcurrency = node.getSchemaFetchConcurrency() == null
+                    ? DEFAULT_SCHEMA_FETCH_CONCURRENCY : node.getSchemaFetchConcurrency();
+            final long schemaFetchTimeoutMillis = node.getSchemaFetchTimeoutMillis() == null
+                    ? DEFAULT_SCHEMA_FETCH_TIMEOUT_MILLIS : node.getSchemaFetchTimeoutMillis();
             device = new NetconfDeviceBuilder()
                     .setReconnectOnSchemasChange(reconnectOnChangedSchema)
                     .setSchemaResourcesDTO(schemaResourcesDTO)
                     .setGlobalProcessingExecutor(processingExecutor.getExecutor())
                     .setId(remoteDeviceId)
                     .setSalFacade(salFacade)
+                    .setSchemaFetchLimiter(schemaFetchLimiter)
+                    .setSchemaFetchConcurrency(schemaFetchConcurrency)
+                    .setSchemaFetchTimeoutMillis(schemaFetchTimeoutMillis)
                     .build();
         }
 
@@ -373,9 +468,16 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
             LOG.info("Concurrent rpc limit is smaller than 1, no limit will be enforced for device {}", remoteDeviceId);
         }
 
+        final int rpcQueueLimit = node.getConcurrentRpcQueueLimit() == null
+                ? DEFAULT_CONCURRENT_RPC_QUEUE_LIMIT : node.getConcurrentRpcQueueLimit();
+
+        final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> admittedDevice =
+                admission.wrapDevice(device);
         return new NetconfConnectorDTO(userCapabilities.isPresent()
-                ? new NetconfDeviceCommunicator(remoteDeviceId, device, userCapabilities.get(), rpcMessageLimit)
-                : new NetconfDeviceCommunicator(remoteDeviceId, device, rpcMessageLimit), salFacade);
+                ? new NetconfDeviceCommunicator(remoteDeviceId, admittedDevice, userCapabilities.get(),
+                    rpcMessageLimit, rpcQueueLimit)
+                : new NetconfDeviceCommunicator(remoteDeviceId, admittedDevice, rpcMessageLimit, rpcQueueLimit),
+                salFacade, admission);
     }
 
     protected NetconfDevice.SchemaResourcesDTO setupSchemaCacheDTO(final NodeId nodeId, final NetconfNode node) {
@@ -413,7 +515,8 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
 
         if (schemaResourcesDTO == null) {
             schemaResourcesDTO = new NetconfDevice.SchemaResourcesDTO(schemaRegistry, schemaRepository,
-                    schemaContextFactory, new NetconfStateSchemasResolverImpl());
+                    schemaContextFactory, new NetconfStateSchemasResolverImpl(),
+                    schemaRepository == DEFAULT_SCHEMA_REPOSITORY ? DEFAULT_SCHEMA_SNAPSHOTS : null);
         }
 
         return schemaResourcesDTO;
@@ -437,7 +540,8 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         repository.registerSchemaSourceListener(
             InMemorySchemaSourceCache.createSoftCache(repository, ASTSchemaSource.class));
         return new NetconfDevice.SchemaResourcesDTO(repository, repository, contextFactory,
-                new NetconfStateSchemasResolverImpl());
+                new NetconfStateSchemasResolverImpl(),
+                new SchemaSetSnapshots(new File(SNAPSHOT_DIRECTORY, moduleSchemaCacheDirectory), repository));
     }
 
     /**
@@ -467,6 +571,77 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         this.privateKeyPassphrase = privateKeyPassphrase;
     }
 
+    /**
+     * Sets the number of devices which may be connecting at the same time, using blueprint.
+     */
+    public void setConnectAdmissionLimit(final int limit) {
+        setAdmissionLimit(Phase.CONNECT, limit);
+    }
+
+    /**
+     * Sets the number of devices which may be resolving their schemas at the same time, using blueprint.
+     */
+    public void setSchemaAdmissionLimit(final int limit) {
+        setAdmissionLimit(Phase.SCHEMA_RESOLUTION, limit);
+    }
+
+    /**
+     * Sets the number of devices which may be mounting at the same time, using blueprint.
+     */
+    public void setMountAdmissionLimit(final int limit) {
+        setAdmissionLimit(Phase.MOUNT, limit);
+    }
+
+    /**
+     * Sets the number of YANG sources which may be requested from devices at the same time, using blueprint.
+     */
+    public void setSchemaFetchGlobalLimit(final int limit) {
+        schemaFetchLimiter.setLimit(limit);
+    }
+
+    /**
+     * Sets the number of threads parsing large messages of all devices, using blueprint. Values smaller than 1 select
+     * the number of available processors.
+     */
+    public void setDecodingPoolSize(final int size) {
+        MessageDecodingPool.getDefault().setParallelism(size);
+    }
+
+    private synchronized void setAdmissionLimit(final Phase phase, final int limit) {
+        admissionLimits.put(phase, limit);
+        if (connectionAdmission != null) {
+            connectionAdmission.setLimit(phase, limit);
+        }
+    }
+
+    /**
+     * Returns the admission control of connection setup, which also reports how many devices are in, or waiting for,
+     * each phase of the setup. The progress is published in the operational datastore as well.
+     */
+    public synchronized ConnectionAdmission getConnectionAdmission() {
+        if (connectionAdmission == null) {
+            connectionAdmission = new ConnectionAdmission(processingExecutor.getExecutor(),
+                keepaliveExecutor.getExecutor(), admissionLimits);
+            admissionStatistics = new AdmissionStatisticsPublisher(connectionAdmission, dataBroker, topologyId,
+                ADMISSION_STATISTICS_CONTROLLER);
+        }
+        return connectionAdmission;
+    }
+
+    /**
+     * Stops publishing the progress of the admission control of connection setup.
+     */
+    protected void closeConfigReplicaExecutor() {
+        configReplicaExecutor.shutdown();
+    }
+
+    protected synchronized void closeAdmissionStatistics() {
+        if (admissionStatistics != null) {
+            admissionStatistics.close();
+            admissionStatistics = null;
+        }
+    }
+
     public NetconfReconnectingClientConfiguration getClientConfig(final NetconfClientSessionListener listener,
                                                                   final NetconfNode node) {
 
@@ -478,6 +653,14 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         final int betweenAttemptsTimeoutMillis = node.getBetweenAttemptsTimeoutMillis() == null
                 ? DEFAULT_BETWEEN_ATTEMPTS_TIMEOUT_MILLIS : node.getBetweenAttemptsTimeoutMillis();
         final BigDecimal sleepFactor = node.getSleepFactor() == null ? DEFAULT_SLEEP_FACTOR : node.getSleepFactor();
+        final boolean lazyMessageDecoding = node.isLazyMessageDecoding() == null
+                ? DEFAULT_LAZY_MESSAGE_DECODING : node.isLazyMessageDecoding();
+        final boolean exiNegotiation = node.isExiNegotiation() == null
+                ? DEFAULT_EXI_NEGOTIATION : node.isExiNegotiation();
+        final long decodingOffloadThreshold = node.getDecodingOffloadThreshold() == null
+                ? DEFAULT_DECODING_OFFLOAD_THRESHOLD : node.getDecodingOffloadThreshold();
+        final long maxMessageSize = node.getMaxMessageSize() == null
+                ? DEFAULT_MAX_MESSAGE_SIZE : node.getMaxMessageSize();
 
         final InetSocketAddress socketAddress = getSocketAddress(node.getHost(), node.getPort().getValue());
 
@@ -510,6 +693,10 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
                 .withReconnectStrategy(strategy)
                 .withConnectStrategyFactory(sf)
                 .withSessionListener(listener)
+                .withLazyMessageDecoding(lazyMessageDecoding)
+                .withExiNegotiation(exiNegotiation)
+                .withDecodingOffloadThreshold(Ints.saturatedCast(decodingOffloadThreshold))
+                .withMaxMessageSize(Ints.saturatedCast(maxMessageSize))
                 .build();
     }
 
@@ -542,6 +729,19 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
 
     protected abstract RemoteDeviceHandler<NetconfSessionPreferences> createSalFacade(RemoteDeviceId id);
 
+    /**
+     * Create the SAL facade of a device. Subclasses which support tuning of the mount point data broker should
+     * override this method, the default implementation ignores the data broker configuration.
+     *
+     * @param id Remote device id
+     * @param dataBrokerConfiguration Configuration of the mount point data broker
+     * @return SAL facade
+     */
+    protected RemoteDeviceHandler<NetconfSessionPreferences> createSalFacade(final RemoteDeviceId id,
+            final DeviceDataBrokerConfiguration dataBrokerConfiguration) {
+        return createSalFacade(id);
+    }
+
     private InetSocketAddress getSocketAddress(final Host host, final int port) {
         if (host.getDomainName() != null) {
             return new InetSocketAddress(host.getDomainName().getValue(), port);
@@ -614,11 +814,19 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
 
         private final NetconfDeviceCommunicator communicator;
         private final RemoteDeviceHandler<NetconfSessionPreferences> facade;
+        private final DeviceAdmission admission;
 
         public NetconfConnectorDTO(final NetconfDeviceCommunicator communicator,
                                    final RemoteDeviceHandler<NetconfSessionPreferences> facade) {
+            this(communicator, facade, null);
+        }
+
+        public NetconfConnectorDTO(final NetconfDeviceCommunicator communicator,
+                                   final RemoteDeviceHandler<NetconfSessionPreferences> facade,
+                                   final DeviceAdmission admission) {
             this.communicator = communicator;
             this.facade = facade;
+            this.admission = admission;
         }
 
         public NetconfDeviceCommunicator getCommunicator() {
@@ -633,6 +841,10 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
             return communicator;
         }
 
+        public DeviceAdmission getAdmission() {
+            return admission;
+        }
+
         @Override
         public void close() {
             communicator.close();
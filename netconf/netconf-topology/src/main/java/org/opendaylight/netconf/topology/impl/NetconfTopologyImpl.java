@@ -28,6 +28,7 @@ import org.opendaylight.controller.md.sal.dom.api.DOMMountPointService;
 import org.opendaylight.netconf.client.NetconfClientDispatcher;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.netconf.sal.DeviceDataBrokerConfiguration;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceSalFacade;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.topology.AbstractNetconfTopology;
@@ -68,6 +69,8 @@ public class NetconfTopologyImpl extends AbstractNetconfTopology
             connectorDTO.close();
         }
         activeConnectors.clear();
+        closeAdmissionStatistics();
+        closeConfigReplicaExecutor();
 
         if (datastoreListenerRegistration != null) {
             datastoreListenerRegistration.close();
@@ -80,6 +83,12 @@ public class NetconfTopologyImpl extends AbstractNetconfTopology
         return new NetconfDeviceSalFacade(id, mountPointService, dataBroker);
     }
 
+    @Override
+    protected RemoteDeviceHandler<NetconfSessionPreferences> createSalFacade(final RemoteDeviceId id,
+            final DeviceDataBrokerConfiguration dataBrokerConfiguration) {
+        return new NetconfDeviceSalFacade(id, mountPointService, dataBroker, dataBrokerConfiguration);
+    }
+
     /**
      * Invoked by blueprint.
      */
@@ -10,19 +10,20 @@ package org.opendaylight.netconf.util.mapping;
 
 import com.google.common.base.Optional;
 import java.util.Map;
+import javax.xml.namespace.QName;
 import org.opendaylight.netconf.api.DocumentedException;
 import org.opendaylight.netconf.api.xml.XmlElement;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.mapping.api.HandlingPriority;
-import org.opendaylight.netconf.mapping.api.NetconfOperation;
+import org.opendaylight.netconf.mapping.api.IndexableNetconfOperation;
 import org.opendaylight.netconf.mapping.api.NetconfOperationChainedExecution;
 import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
-public abstract class AbstractNetconfOperation implements NetconfOperation {
+public abstract class AbstractNetconfOperation implements IndexableNetconfOperation {
     private final String netconfSessionIdForReporting;
 
     protected AbstractNetconfOperation(final String netconfSessionIdForReporting) {
@@ -40,12 +41,30 @@ public abstract class AbstractNetconfOperation implements NetconfOperation {
         return canHandle(operationNameAndNamespace.getOperationName(), operationNameAndNamespace.getNamespace());
     }
 
+    /**
+     * Decide whether an operation can be handled. Subclasses overriding this method have to override
+     * {@link #getHandledOperation()} as well.
+     *
+     * @param operationName name of the operation element
+     * @param operationNamespace namespace of the operation element
+     * @return handling priority
+     */
     protected HandlingPriority canHandle(final String operationName, final String operationNamespace) {
         return operationName.equals(getOperationName()) && operationNamespace.equals(getOperationNamespace())
                 ? getHandlingPriority()
                 : HandlingPriority.CANNOT_HANDLE;
     }
 
+    @Override
+    public Optional<QName> getHandledOperation() {
+        return Optional.of(new QName(getOperationNamespace(), getOperationName()));
+    }
+
+    @Override
+    public HandlingPriority getHandledOperationPriority() {
+        return getHandlingPriority();
+    }
+
     public static final class OperationNameAndNamespace {
         private final String operationName;
         private final String namespace;
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.util.messages;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.opendaylight.netconf.api.StreamingNetconfMessage;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.codec.xml.XMLStreamNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+
+/**
+ * A {@link StreamingNetconfMessage} carrying a NormalizedNode payload. The message consists of a root element, such
+ * as {@code rpc-reply}, with a set of attributes, a chain of nested wrapper elements, such as {@code data}, and the
+ * payload nodes, which are written to the innermost element straight from their NormalizedNode form.
+ */
+public final class NormalizedNodeNetconfMessage extends StreamingNetconfMessage {
+    private final QName rootElement;
+    private final Map<String, String> attributes;
+    private final List<QName> wrapperElements;
+    private final Collection<? extends NormalizedNode<?, ?>> payload;
+    private final SchemaContext schemaContext;
+    private final SchemaPath payloadParent;
+    private final boolean segmented;
+
+    /**
+     * Create a new message.
+     *
+     * @param rootElement Root element name, only namespace and local name are used
+     * @param attributes Unqualified attributes of the root element, for example {@code message-id}
+     * @param wrapperElements Elements nested in the root element, outermost first
+     * @param payload Payload nodes
+     * @param schemaContext Schema context of the payload
+     * @param payloadParent Schema path of the parent of the payload nodes
+     */
+    public NormalizedNodeNetconfMessage(final QName rootElement, final Map<String, String> attributes,
+            final List<QName> wrapperElements, final Collection<? extends NormalizedNode<?, ?>> payload,
+            final SchemaContext schemaContext, final SchemaPath payloadParent) {
+        this(rootElement, attributes, wrapperElements, payload, schemaContext, payloadParent, false);
+    }
+
+    /**
+     * Create a new message.
+     *
+     * @param rootElement Root element name, only namespace and local name are used
+     * @param attributes Unqualified attributes of the root element, for example {@code message-id}
+     * @param wrapperElements Elements nested in the root element, outermost first
+     * @param payload Payload nodes
+     * @param schemaContext Schema context of the payload
+     * @param payloadParent Schema path of the parent of the payload nodes
+     * @param segmented Whether the payload may be large, see {@link #isSegmented()}
+     */
+    public NormalizedNodeNetconfMessage(final QName rootElement, final Map<String, String> attributes,
+            final List<QName> wrapperElements, final Collection<? extends NormalizedNode<?, ?>> payload,
+            final SchemaContext schemaContext, final SchemaPath payloadParent, final boolean segmented) {
+        this.rootElement = requireNonNull(rootElement);
+        this.attributes = ImmutableMap.copyOf(attributes);
+        this.wrapperElements = ImmutableList.copyOf(wrapperElements);
+        this.payload = ImmutableList.copyOf(payload);
+        this.schemaContext = requireNonNull(schemaContext);
+        this.payloadParent = requireNonNull(payloadParent);
+        this.segmented = segmented;
+    }
+
+    public QName getRootElement() {
+        return rootElement;
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    public List<QName> getWrapperElements() {
+        return wrapperElements;
+    }
+
+    public Collection<? extends NormalizedNode<?, ?>> getPayload() {
+        return payload;
+    }
+
+    @Override
+    public boolean isSegmented() {
+        return segmented;
+    }
+
+    @Override
+    public void writeTo(final XMLStreamWriter writer) throws XMLStreamException {
+        final WriteCursor cursor = newWriteCursor(writer);
+        while (cursor.writeNext()) {
+            // Keep writing
+        }
+    }
+
+    /**
+     * Return a cursor writing this message in parts. The first part is the start of the root and wrapper elements.
+     * Containers, lists, list entries, choices and augmentations in the payload are entered, so that each of their
+     * children is a part of its own, along with the start and the end of the node itself. Other nodes are written
+     * as a single part each.
+     */
+    @Override
+    public WriteCursor newWriteCursor(final XMLStreamWriter writer) {
+        return new PayloadCursor(requireNonNull(writer));
+    }
+
+    private void writeStart(final XMLStreamWriter writer) throws XMLStreamException {
+        String namespace = rootElement.getNamespace().toString();
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, rootElement.getLocalName(), namespace);
+        writer.writeDefaultNamespace(namespace);
+        for (Entry<String, String> attribute : attributes.entrySet()) {
+            writer.writeAttribute(attribute.getKey(), attribute.getValue());
+        }
+
+        for (QName wrapper : wrapperElements) {
+            final String wrapperNamespace = wrapper.getNamespace().toString();
+            writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, wrapper.getLocalName(), wrapperNamespace);
+            if (!wrapperNamespace.equals(namespace)) {
+                writer.writeDefaultNamespace(wrapperNamespace);
+                namespace = wrapperNamespace;
+            }
+        }
+    }
+
+    private void writeEnd(final XMLStreamWriter writer) throws XMLStreamException {
+        for (int i = 0; i < wrapperElements.size(); ++i) {
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+    }
+
+    private final class PayloadCursor implements WriteCursor {
+        private final Deque<Iterator<? extends NormalizedNode<?, ?>>> children = new ArrayDeque<>();
+        private final XMLStreamWriter writer;
+        private NormalizedNodeStreamWriter nnStreamWriter;
+        private NormalizedNodeWriter nnWriter;
+
+        PayloadCursor(final XMLStreamWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public boolean writeNext() throws XMLStreamException {
+            if (nnWriter == null) {
+                writeStart(writer);
+                // The stream writer is deliberately not closed, as that would close the underlying writer as well
+                nnStreamWriter = XMLStreamNormalizedNodeStreamWriter.create(writer, schemaContext, payloadParent);
+                nnWriter = NormalizedNodeWriter.forStreamWriter(nnStreamWriter);
+                children.push(payload.iterator());
+                return true;
+            }
+
+            try {
+                final Iterator<? extends NormalizedNode<?, ?>> current = children.peek();
+                if (current.hasNext()) {
+                    final NormalizedNode<?, ?> child = current.next();
+                    if (!enter(child)) {
+                        nnWriter.write(child);
+                    }
+                    return true;
+                }
+
+                children.pop();
+                if (!children.isEmpty()) {
+                    nnStreamWriter.endNode();
+                    return true;
+                }
+                nnWriter.flush();
+            } catch (IOException e) {
+                throw new XMLStreamException("Failed to write payload of " + rootElement, e);
+            }
+
+            writeEnd(writer);
+            return false;
+        }
+
+        /**
+         * Start a node whose children are to be written one by one.
+         *
+         * @return True if the node has been entered, false if it has to be written as a whole
+         */
+        private boolean enter(final NormalizedNode<?, ?> node) throws IOException {
+            if (node instanceof ContainerNode) {
+                final ContainerNode container = (ContainerNode) node;
+                nnStreamWriter.startContainerNode(container.getIdentifier(), container.getValue().size());
+                children.push(container.getValue().iterator());
+            } else if (node instanceof MapEntryNode) {
+                final MapEntryNode entry = (MapEntryNode) node;
+                nnStreamWriter.startMapEntryNode(entry.getIdentifier(), entry.getValue().size());
+                // Key leaves have to be written first
+                final Set<QName> keys = entry.getIdentifier().getKeyValues().keySet();
+                for (QName key : keys) {
+                    final Optional<? extends NormalizedNode<?, ?>> keyLeaf = entry.getChild(new NodeIdentifier(key));
+                    if (keyLeaf.isPresent()) {
+                        nnWriter.write(keyLeaf.get());
+                    }
+                }
+                children.push(Iterators.filter(entry.getValue().iterator(),
+                    child -> child instanceof AugmentationNode || !keys.contains(child.getNodeType())));
+            } else if (node instanceof OrderedMapNode) {
+                final OrderedMapNode map = (OrderedMapNode) node;
+                nnStreamWriter.startOrderedMapNode(map.getIdentifier(), map.getValue().size());
+                children.push(map.getValue().iterator());
+            } else if (node instanceof MapNode) {
+                final MapNode map = (MapNode) node;
+                nnStreamWriter.startMapNode(map.getIdentifier(), map.getValue().size());
+                children.push(map.getValue().iterator());
+            } else if (node instanceof ChoiceNode) {
+                final ChoiceNode choice = (ChoiceNode) node;
+                nnStreamWriter.startChoiceNode(choice.getIdentifier(), choice.getValue().size());
+                children.push(choice.getValue().iterator());
+            } else if (node instanceof AugmentationNode) {
+                final AugmentationNode augmentation = (AugmentationNode) node;
+                nnStreamWriter.startAugmentationNode(augmentation.getIdentifier());
+                children.push(augmentation.getValue().iterator());
+            } else {
+                return false;
+            }
+            return true;
+        }
+    }
+}
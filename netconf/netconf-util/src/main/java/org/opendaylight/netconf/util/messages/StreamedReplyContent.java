@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.util.messages;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.dom.DOMResult;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.codec.xml.XMLStreamNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Content of an {@code rpc-reply}, which is kept in its NormalizedNode form instead of being serialized into the
+ * reply document. Operations return an empty element carrying the content, for example the {@code data} element of
+ * a {@code get} reply. If nothing needs to inspect the reply document, the reply is sent as a
+ * {@link NormalizedNodeNetconfMessage}, which is streamed to the channel without a DOM copy of the content ever
+ * being built. Otherwise the content has to be written into its element by {@link #materialize(Document)} first.
+ */
+public final class StreamedReplyContent {
+    private static final String USER_DATA_KEY = StreamedReplyContent.class.getName();
+    private static final XMLOutputFactory XML_FACTORY;
+
+    static {
+        XML_FACTORY = XMLOutputFactory.newFactory();
+        XML_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+    }
+
+    private final Collection<? extends NormalizedNode<?, ?>> payload;
+    private final SchemaContext schemaContext;
+    private final SchemaPath payloadParent;
+
+    private StreamedReplyContent(final Collection<? extends NormalizedNode<?, ?>> payload,
+            final SchemaContext schemaContext, final SchemaPath payloadParent) {
+        this.payload = ImmutableList.copyOf(payload);
+        this.schemaContext = requireNonNull(schemaContext);
+        this.payloadParent = requireNonNull(payloadParent);
+    }
+
+    /**
+     * Create an empty element carrying NormalizedNode content. The element has to be a direct child of the
+     * {@code rpc-reply} element.
+     *
+     * @param document Document of the reply
+     * @param namespace Namespace of the element
+     * @param localName Local name of the element
+     * @param payload Content nodes
+     * @param schemaContext Schema context of the content
+     * @param payloadParent Schema path of the parent of the content nodes
+     * @return Element carrying the content
+     */
+    public static Element createElement(final Document document, final String namespace, final String localName,
+            final Collection<? extends NormalizedNode<?, ?>> payload, final SchemaContext schemaContext,
+            final SchemaPath payloadParent) {
+        final Element element = document.createElementNS(requireNonNull(namespace), localName);
+        element.setUserData(USER_DATA_KEY, new StreamedReplyContent(payload, schemaContext, payloadParent), null);
+        return element;
+    }
+
+    /**
+     * Create a streaming message out of a reply, whose only element is one carrying NormalizedNode content and
+     * nothing else.
+     *
+     * @param reply Reply document
+     * @return Streaming message, or absent if the reply does not carry content or cannot be streamed
+     */
+    public static Optional<NetconfMessage> toStreamingMessage(final Document reply) {
+        final Element root = reply.getDocumentElement();
+        if (root == null || root.getNamespaceURI() == null) {
+            return Optional.absent();
+        }
+
+        Element contentElement = null;
+        for (Node child = root.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                if (contentElement != null) {
+                    return Optional.absent();
+                }
+                contentElement = (Element) child;
+            }
+        }
+        if (contentElement == null || contentElement.getNamespaceURI() == null) {
+            return Optional.absent();
+        }
+        final Object content = contentElement.getUserData(USER_DATA_KEY);
+        if (!(content instanceof StreamedReplyContent)) {
+            return Optional.absent();
+        }
+        if (contentElement.hasChildNodes()) {
+            // Chained operations, such as the monitoring get, may have appended DOM content next to ours, which the
+            // streaming message would not carry
+            return Optional.absent();
+        }
+
+        final Map<String, String> attributes = new LinkedHashMap<>();
+        final NamedNodeMap rootAttributes = root.getAttributes();
+        for (int i = 0; i < rootAttributes.getLength(); ++i) {
+            final Attr attribute = (Attr) rootAttributes.item(i);
+            final String namespace = attribute.getNamespaceURI();
+            if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(namespace)) {
+                // Namespace declarations are written by the stream writer as needed
+                continue;
+            }
+            if (namespace != null && !namespace.isEmpty()) {
+                // Qualified attributes copied from the request are not supported by the streaming message
+                return Optional.absent();
+            }
+            attributes.put(attribute.getName(), attribute.getValue());
+        }
+
+        final StreamedReplyContent streamed = (StreamedReplyContent) content;
+        return Optional.of(new NormalizedNodeNetconfMessage(
+            QName.create(root.getNamespaceURI(), root.getLocalName()), attributes,
+            ImmutableList.of(QName.create(contentElement.getNamespaceURI(), contentElement.getLocalName())),
+            streamed.payload, streamed.schemaContext, streamed.payloadParent, true));
+    }
+
+    /**
+     * Write NormalizedNode content of a reply into the elements carrying it, so that the reply document is complete.
+     * The content is appended after any children the elements already have. Does nothing if the reply does not carry
+     * such content.
+     *
+     * @param reply Reply document
+     */
+    public static void materialize(final Document reply) {
+        final Element root = reply.getDocumentElement();
+        if (root == null) {
+            return;
+        }
+
+        for (Node child = root.getFirstChild(); child != null; child = child.getNextSibling()) {
+            final Object content = child.getUserData(USER_DATA_KEY);
+            if (content instanceof StreamedReplyContent) {
+                child.setUserData(USER_DATA_KEY, null, null);
+                ((StreamedReplyContent) content).writeTo((Element) child);
+            }
+        }
+    }
+
+    private void writeTo(final Element element) {
+        try {
+            final XMLStreamWriter writer = XML_FACTORY.createXMLStreamWriter(new DOMResult(element));
+            final NormalizedNodeWriter nnWriter = NormalizedNodeWriter.forStreamWriter(
+                XMLStreamNormalizedNodeStreamWriter.create(writer, schemaContext, payloadParent), true);
+            for (NormalizedNode<?, ?> node : payload) {
+                nnWriter.write(node);
+            }
+            nnWriter.flush();
+            writer.flush();
+        } catch (XMLStreamException | IOException e) {
+            throw new IllegalStateException("Failed to write content of " + element.getLocalName(), e);
+        }
+    }
+}
@@ -48,8 +48,8 @@ public final class SubtreeFilter {
             }
             XmlElement filter = maybeFilter.get();
             if (isSupported(filter)) {
-
-                // do
+                // Filtering works on the reply document, hence it has to be complete
+                StreamedReplyContent.materialize(rpcReply);
                 return filtered(maybeFilter.get(), rpcReply);
             }
         }
@@ -80,7 +80,12 @@ public final class SubtreeFilter {
         document.getDocumentElement().removeChild(eventTimeNode);
     }
 
-    private static boolean isSupported(XmlElement filter) {
+    /**
+     * Check whether a filter is a subtree filter, which is the only filter type supported by this class.
+     * @param filter filter
+     * @return true if the filter is of type "subtree"
+     */
+    public static boolean isSupported(XmlElement filter) {
         return "subtree".equals(filter.getAttribute("type"))
                 || "subtree".equals(filter.getAttribute("type",
                 XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0));
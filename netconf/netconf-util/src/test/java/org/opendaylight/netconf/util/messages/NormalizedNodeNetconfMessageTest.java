@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.util.messages;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.StringWriter;
+import java.util.Collections;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+import org.custommonkey.xmlunit.Diff;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.mdsal.binding.generator.impl.ModuleInfoBackedContext;
+import org.opendaylight.netconf.api.StreamingNetconfMessage.WriteCursor;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.$YangModuleInfoImpl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.NetconfState;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.netconf.state.Sessions;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.netconf.state.sessions.Session;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.w3c.dom.Document;
+
+public class NormalizedNodeNetconfMessageTest {
+    private static final QName RPC_REPLY =
+            QName.create("urn:ietf:params:xml:ns:netconf:base:1.0", "rpc-reply");
+    private static final QName DATA = QName.create(RPC_REPLY, "data");
+
+    private static SchemaContext context;
+    private static Document expected;
+
+    @BeforeClass
+    public static void classSetUp() throws Exception {
+        XMLUnit.setIgnoreWhitespace(true);
+        expected = XmlUtil.readXmlToDocument(
+            "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" message-id=\"101\"><data>"
+                + "<sessions xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\"><session>"
+                + "<session-id>1</session-id><username>admin</username></session></sessions>"
+                + "</data></rpc-reply>");
+        final ModuleInfoBackedContext moduleInfoBackedContext = ModuleInfoBackedContext.create();
+        moduleInfoBackedContext.addModuleInfos(Collections.singletonList($YangModuleInfoImpl.getInstance()));
+        context = moduleInfoBackedContext.getSchemaContext();
+    }
+
+    @Test
+    public void testWriteAndDocument() throws Exception {
+        final NormalizedNodeNetconfMessage msg = createMessage();
+
+        // Serialization does not need the document
+        final Diff streamDiff = XMLUnit.compareXML(expected, XmlUtil.readXmlToDocument(msg.toString()));
+        assertTrue(streamDiff.toString(), streamDiff.similar());
+        assertFalse(msg.isDocumentBuilt());
+
+        final Document actual = msg.getDocument();
+        assertTrue(msg.isDocumentBuilt());
+        assertEquals("101", actual.getDocumentElement().getAttribute("message-id"));
+        final Diff domDiff = XMLUnit.compareXML(expected, actual);
+        assertTrue(domDiff.toString(), domDiff.similar());
+    }
+
+    @Test
+    public void testWriteInParts() throws Exception {
+        final StringWriter out = new StringWriter();
+        final XMLStreamWriter writer = XMLOutputFactory.newFactory().createXMLStreamWriter(out);
+        final WriteCursor cursor = createMessage().newWriteCursor(writer);
+
+        int parts = 0;
+        while (cursor.writeNext()) {
+            parts++;
+        }
+        writer.close();
+
+        // Start of the message, start and end of each of sessions, session list and its entry and the username
+        assertEquals(8, parts);
+        final Diff diff = XMLUnit.compareXML(expected, XmlUtil.readXmlToDocument(out.toString()));
+        assertTrue(diff.toString(), diff.similar());
+    }
+
+    private static NormalizedNodeNetconfMessage createMessage() {
+        final ContainerNode sessions = Builders.containerBuilder()
+                .withNodeIdentifier(new NodeIdentifier(Sessions.QNAME))
+                .withChild(Builders.mapBuilder()
+                    .withNodeIdentifier(new NodeIdentifier(Session.QNAME))
+                    .withChild(Builders.mapEntryBuilder()
+                        .withNodeIdentifier(new NodeIdentifierWithPredicates(Session.QNAME,
+                            QName.create(Session.QNAME, "session-id"), 1L))
+                        .withChild(Builders.leafBuilder()
+                            .withNodeIdentifier(new NodeIdentifier(QName.create(Session.QNAME, "username")))
+                            .withValue("admin")
+                            .build())
+                        .build())
+                    .build())
+                .build();
+
+        return new NormalizedNodeNetconfMessage(RPC_REPLY, ImmutableMap.of("message-id", "101"),
+            ImmutableList.of(DATA), Collections.singletonList(sessions), context,
+            SchemaPath.create(true, NetconfState.QNAME));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.util.messages;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import java.util.Collections;
+import org.custommonkey.xmlunit.Diff;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.mdsal.binding.generator.impl.ModuleInfoBackedContext;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.$YangModuleInfoImpl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.NetconfState;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.netconf.state.Sessions;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+public class StreamedReplyContentTest {
+    private static final String NAMESPACE = "urn:ietf:params:xml:ns:netconf:base:1.0";
+    private static final String EXPECTED_REPLY = "<rpc-reply xmlns=\"" + NAMESPACE + "\" message-id=\"101\"><data>"
+            + "<netconf-state xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\"><sessions/>"
+            + "</netconf-state></data></rpc-reply>";
+
+    private static SchemaContext context;
+
+    @BeforeClass
+    public static void classSetUp() {
+        XMLUnit.setIgnoreWhitespace(true);
+        final ModuleInfoBackedContext moduleInfoBackedContext = ModuleInfoBackedContext.create();
+        moduleInfoBackedContext.addModuleInfos(Collections.singletonList($YangModuleInfoImpl.getInstance()));
+        context = moduleInfoBackedContext.getSchemaContext();
+    }
+
+    @Test
+    public void testToStreamingMessage() throws Exception {
+        final Document reply = createReply();
+
+        final Optional<NetconfMessage> streamed = StreamedReplyContent.toStreamingMessage(reply);
+        assertTrue(streamed.isPresent());
+        assertTrue(streamed.get() instanceof NormalizedNodeNetconfMessage);
+        final Diff diff = XMLUnit.compareXML(XmlUtil.readXmlToDocument(EXPECTED_REPLY),
+            XmlUtil.readXmlToDocument(streamed.get().toString()));
+        assertTrue(diff.toString(), diff.similar());
+    }
+
+    @Test
+    public void testMaterialize() throws Exception {
+        final Document reply = createReply();
+        StreamedReplyContent.materialize(reply);
+
+        final Diff diff = XMLUnit.compareXML(XmlUtil.readXmlToDocument(EXPECTED_REPLY), reply);
+        assertTrue(diff.toString(), diff.similar());
+        // Content is written only once
+        assertFalse(StreamedReplyContent.toStreamingMessage(reply).isPresent());
+    }
+
+    @Test
+    public void testContentWithDomChildren() throws Exception {
+        final Document reply = createReply();
+        final Element data = (Element) reply.getDocumentElement().getFirstChild();
+        data.appendChild(reply.createElementNS("urn:test", "extra"));
+
+        // Appended DOM content would be lost by streaming
+        assertFalse(StreamedReplyContent.toStreamingMessage(reply).isPresent());
+
+        StreamedReplyContent.materialize(reply);
+        final Diff diff = XMLUnit.compareXML(XmlUtil.readXmlToDocument("<rpc-reply xmlns=\"" + NAMESPACE
+            + "\" message-id=\"101\"><data><extra xmlns=\"urn:test\"/>"
+            + "<netconf-state xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\"><sessions/>"
+            + "</netconf-state></data></rpc-reply>"), reply);
+        assertTrue(diff.toString(), diff.similar());
+    }
+
+    @Test
+    public void testNotStreamable() throws Exception {
+        final Document plain = XmlUtil.readXmlToDocument("<rpc-reply xmlns=\"" + NAMESPACE
+            + "\" message-id=\"101\"><data/></rpc-reply>");
+        assertFalse(StreamedReplyContent.toStreamingMessage(plain).isPresent());
+
+        final Document sibling = createReply();
+        sibling.getDocumentElement().appendChild(sibling.createElementNS(NAMESPACE, "ok"));
+        assertFalse(StreamedReplyContent.toStreamingMessage(sibling).isPresent());
+
+        final Document qualifiedAttribute = createReply();
+        qualifiedAttribute.getDocumentElement().setAttributeNS("urn:test", "test:attr", "value");
+        assertFalse(StreamedReplyContent.toStreamingMessage(qualifiedAttribute).isPresent());
+    }
+
+    private static Document createReply() {
+        final ContainerNode netconfState = Builders.containerBuilder()
+                .withNodeIdentifier(new NodeIdentifier(NetconfState.QNAME))
+                .withChild(Builders.containerBuilder()
+                    .withNodeIdentifier(new NodeIdentifier(Sessions.QNAME))
+                    .build())
+                .build();
+
+        final Document reply = XmlUtil.newDocument();
+        final Element root = reply.createElementNS(NAMESPACE, "rpc-reply");
+        root.setAttribute("message-id", "101");
+        reply.appendChild(root);
+        root.appendChild(StreamedReplyContent.createElement(reply, NAMESPACE, "data",
+            Collections.singletonList(netconfState), context, SchemaPath.ROOT));
+        return reply;
+    }
+}
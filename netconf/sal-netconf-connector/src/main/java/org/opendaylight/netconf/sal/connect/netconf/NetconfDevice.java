@@ -11,6 +11,7 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicates;
 import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.CheckedFuture;
@@ -22,14 +23,17 @@ import com.google.common.util.concurrent.MoreExecutors;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcException;
@@ -47,6 +51,11 @@ import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommun
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceRpc;
 import org.opendaylight.netconf.sal.connect.netconf.schema.NetconfRemoteSchemaYangSourceProvider;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaSetSnapshots;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaSourceFetcher;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaSourceFetcher.FetchLimiter;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SharedSchemaContexts;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SourceDependencyGraph;
 import org.opendaylight.netconf.sal.connect.netconf.schema.YangLibrarySchemaYangSourceProvider;
 import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.BaseSchema;
 import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.NetconfMessageTransformer;
@@ -89,7 +98,11 @@ public class NetconfDevice
     protected final SchemaSourceRegistry schemaRegistry;
     protected final SchemaRepository schemaRepository;
     private final NetconfDeviceSchemasResolver stateSchemasResolver;
+    private final SchemaSetSnapshots schemaSnapshots;
     private final NotificationHandler notificationHandler;
+    private final FetchLimiter schemaFetchLimiter;
+    private final int schemaFetchConcurrency;
+    private final long schemaFetchTimeoutMillis;
     protected final List<SchemaSourceRegistration<? extends SchemaSourceRepresentation>> sourceRegistrations =
             new ArrayList<>();
     @GuardedBy("this")
@@ -115,6 +128,16 @@ public class NetconfDevice
     public NetconfDevice(final SchemaResourcesDTO schemaResourcesDTO, final RemoteDeviceId id,
                          final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
                          final ExecutorService globalProcessingExecutor, final boolean reconnectOnSchemasChange) {
+        this(schemaResourcesDTO, id, salFacade, globalProcessingExecutor, reconnectOnSchemasChange,
+            SchemaSourceFetcher.defaultGlobalLimiter(), SchemaSourceFetcher.DEFAULT_DEVICE_LIMIT,
+            SchemaSourceFetcher.DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public NetconfDevice(final SchemaResourcesDTO schemaResourcesDTO, final RemoteDeviceId id,
+                         final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
+                         final ExecutorService globalProcessingExecutor, final boolean reconnectOnSchemasChange,
+                         final FetchLimiter schemaFetchLimiter, final int schemaFetchConcurrency,
+                         final long schemaFetchTimeoutMillis) {
         this.id = id;
         this.reconnectOnSchemasChange = reconnectOnSchemasChange;
         this.schemaRegistry = schemaResourcesDTO.getSchemaRegistry();
@@ -122,8 +145,14 @@ public class NetconfDevice
         this.schemaContextFactory = schemaResourcesDTO.getSchemaContextFactory();
         this.salFacade = salFacade;
         this.stateSchemasResolver = schemaResourcesDTO.getStateSchemasResolver();
+        this.schemaSnapshots = schemaResourcesDTO.getSchemaSnapshots();
         this.processingExecutor = MoreExecutors.listeningDecorator(globalProcessingExecutor);
         this.notificationHandler = new NotificationHandler(salFacade, id);
+        this.schemaFetchLimiter = Preconditions.checkNotNull(schemaFetchLimiter);
+        Preconditions.checkArgument(schemaFetchConcurrency > 0, "Schema fetch concurrency must be positive, %s",
+            schemaFetchConcurrency);
+        this.schemaFetchConcurrency = schemaFetchConcurrency;
+        this.schemaFetchTimeoutMillis = schemaFetchTimeoutMillis;
     }
 
     @Override
@@ -299,15 +328,25 @@ public class NetconfDevice
         private final SchemaRepository schemaRepository;
         private final SchemaContextFactory schemaContextFactory;
         private final NetconfDeviceSchemasResolver stateSchemasResolver;
+        private final SchemaSetSnapshots schemaSnapshots;
 
         public SchemaResourcesDTO(final SchemaSourceRegistry schemaRegistry,
                                   final SchemaRepository schemaRepository,
                                   final SchemaContextFactory schemaContextFactory,
                                   final NetconfDeviceSchemasResolver deviceSchemasResolver) {
+            this(schemaRegistry, schemaRepository, schemaContextFactory, deviceSchemasResolver, null);
+        }
+
+        public SchemaResourcesDTO(final SchemaSourceRegistry schemaRegistry,
+                                  final SchemaRepository schemaRepository,
+                                  final SchemaContextFactory schemaContextFactory,
+                                  final NetconfDeviceSchemasResolver deviceSchemasResolver,
+                                  @Nullable final SchemaSetSnapshots schemaSnapshots) {
             this.schemaRegistry = Preconditions.checkNotNull(schemaRegistry);
             this.schemaRepository = Preconditions.checkNotNull(schemaRepository);
             this.schemaContextFactory = Preconditions.checkNotNull(schemaContextFactory);
             this.stateSchemasResolver = Preconditions.checkNotNull(deviceSchemasResolver);
+            this.schemaSnapshots = schemaSnapshots;
         }
 
         public SchemaSourceRegistry getSchemaRegistry() {
@@ -325,6 +364,11 @@ public class NetconfDevice
         public NetconfDeviceSchemasResolver getStateSchemasResolver() {
             return stateSchemasResolver;
         }
+
+        @Nullable
+        public SchemaSetSnapshots getSchemaSnapshots() {
+            return schemaSnapshots;
+        }
     }
 
     /**
@@ -443,6 +487,8 @@ public class NetconfDevice
         private final NetconfSessionPreferences remoteSessionCapabilities;
         private final RemoteDeviceCommunicator<NetconfMessage> listener;
         private final NetconfDeviceCapabilities capabilities;
+        private Collection<SourceIdentifier> originalSources;
+        private SchemaSetSnapshots.Snapshot snapshot;
 
         SchemaSetup(final DeviceSources deviceSources, final NetconfSessionPreferences remoteSessionCapabilities,
                            final RemoteDeviceCommunicator<NetconfMessage> listener) {
@@ -456,24 +502,65 @@ public class NetconfDevice
         public void run() {
 
             final Collection<SourceIdentifier> requiredSources = deviceSources.getRequiredSources();
+            originalSources = ImmutableList.copyOf(requiredSources);
+            snapshot = schemaSnapshots == null ? null : schemaSnapshots.lookup(originalSources);
+            if (snapshot != null) {
+                // Same set of sources was resolved before, skip straight to the sources which are known to work
+                LOG.debug("{}: Using schema snapshot, resolved sources {}, unresolved sources {}", id,
+                    snapshot.getResolvedSources(), snapshot.getUnresolvedSources());
+                snapshot.getUnresolvedSources().forEach((source, reason) -> capabilities.addUnresolvedCapabilities(
+                    getQNameFromSourceIdentifiers(Collections.singleton(source)), reason));
+                setUpSchema(snapshot.getResolvedSources());
+                return;
+            }
+
             final Collection<SourceIdentifier> missingSources = filterMissingSources(requiredSources);
 
             capabilities.addUnresolvedCapabilities(getQNameFromSourceIdentifiers(missingSources),
                     UnavailableCapability.FailureReason.MissingSource);
 
             requiredSources.removeAll(missingSources);
-            setUpSchema(requiredSources);
+            setUpSchema(pruneUnresolvableSources(requiredSources));
         }
 
         private Collection<SourceIdentifier> filterMissingSources(final Collection<SourceIdentifier> requiredSources) {
-            return requiredSources.parallelStream().filter(sourceIdentifier -> {
-                try {
-                    schemaRepository.getSchemaSource(sourceIdentifier, YangTextSchemaSource.class).get();
-                    return false;
-                } catch (InterruptedException | ExecutionException e) {
-                    return true;
-                }
-            }).collect(Collectors.toList());
+            try {
+                return new SchemaSourceFetcher(id, schemaRepository, schemaFetchLimiter, schemaFetchConcurrency,
+                    schemaFetchTimeoutMillis).findMissingSources(requiredSources).get();
+            } catch (final InterruptedException e) {
+                LOG.warn("{}: Interrupted while fetching sources, considering them missing", id, e);
+                Thread.currentThread().interrupt();
+                return ImmutableList.copyOf(requiredSources);
+            } catch (final ExecutionException e) {
+                throw new IllegalStateException(id + ": Fetching sources failed unexpectedly", e);
+            }
+        }
+
+        /**
+         * Remove sources whose imports or includes cannot be satisfied, so that the schema context does not have to
+         * be rebuilt for each of them.
+         */
+        private Collection<SourceIdentifier> pruneUnresolvableSources(final Collection<SourceIdentifier> sources) {
+            final SourceDependencyGraph graph;
+            try {
+                graph = SourceDependencyGraph.resolve(schemaRepository, sources);
+            } catch (final InterruptedException e) {
+                LOG.debug("{}: Interrupted while analyzing source dependencies", id, e);
+                Thread.currentThread().interrupt();
+                return sources;
+            }
+            if (graph == null) {
+                return sources;
+            }
+
+            final Map<SourceIdentifier, String> unresolvedSources = graph.getUnresolvedSources();
+            if (!unresolvedSources.isEmpty()) {
+                LOG.warn("{}: Unable to resolve sources {}, building schema context without them", id,
+                    unresolvedSources);
+                capabilities.addUnresolvedCapabilities(getQNameFromSourceIdentifiers(unresolvedSources.keySet()),
+                    UnavailableCapability.FailureReason.UnableToResolve);
+            }
+            return graph.getResolvedSources();
         }
 
         /**
@@ -484,8 +571,8 @@ public class NetconfDevice
             while (!requiredSources.isEmpty()) {
                 LOG.trace("{}: Trying to build schema context from {}", id, requiredSources);
                 try {
-                    final ListenableFuture<SchemaContext> schemaBuilderFuture = schemaContextFactory
-                            .createSchemaContext(requiredSources);
+                    final ListenableFuture<SchemaContext> schemaBuilderFuture = SharedSchemaContexts
+                            .getSchemaContext(schemaContextFactory, requiredSources);
                     final SchemaContext result = schemaBuilderFuture.get();
                     LOG.debug("{}: Schema context built successfully from {}", id, requiredSources);
                     final Collection<QName> filteredQNames = Sets.difference(deviceSources.getRequiredSourcesQName(),
@@ -501,6 +588,7 @@ public class NetconfDevice
                                             remoteSessionCapabilities.getNonModuleBasedCapsOrigin().get(entry)).build())
                             .collect(Collectors.toList()));
 
+                    storeSnapshot(requiredSources);
                     handleSalInitializationSuccess(result, remoteSessionCapabilities, getDeviceSpecificRpc(result));
                     return;
                 } catch (final ExecutionException e) {
@@ -533,6 +621,26 @@ public class NetconfDevice
             salFacade.onDeviceFailed(cause);
         }
 
+        private void storeSnapshot(final Collection<SourceIdentifier> resolvedSources) {
+            // Sources are only ever removed while building, same size means the snapshot was still accurate
+            if (schemaSnapshots == null
+                    || snapshot != null && snapshot.getResolvedSources().size() == resolvedSources.size()) {
+                return;
+            }
+
+            final Map<SourceIdentifier, UnavailableCapability.FailureReason> unresolvedSources = new HashMap<>();
+            for (final SourceIdentifier source : originalSources) {
+                if (!resolvedSources.contains(source)) {
+                    final QName qname = getQNameFromSourceIdentifier(source);
+                    final UnavailableCapability.FailureReason reason = qname == null ? null
+                            : capabilities.getUnresolvedCapabilites().get(qname);
+                    unresolvedSources.put(source,
+                        reason != null ? reason : UnavailableCapability.FailureReason.UnableToResolve);
+                }
+            }
+            schemaSnapshots.store(originalSources, resolvedSources, unresolvedSources);
+        }
+
         private Collection<SourceIdentifier> handleMissingSchemaSourceException(
                 final Collection<SourceIdentifier> requiredSources, final MissingSchemaSourceException exception) {
             // In case source missing, try without it
@@ -12,6 +12,8 @@ import com.google.common.base.Preconditions;
 import java.util.concurrent.ExecutorService;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaSourceFetcher;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaSourceFetcher.FetchLimiter;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 
 public class NetconfDeviceBuilder {
@@ -21,6 +23,9 @@ public class NetconfDeviceBuilder {
     private RemoteDeviceId id;
     private RemoteDeviceHandler<NetconfSessionPreferences> salFacade;
     private ExecutorService globalProcessingExecutor;
+    private FetchLimiter schemaFetchLimiter = SchemaSourceFetcher.defaultGlobalLimiter();
+    private int schemaFetchConcurrency = SchemaSourceFetcher.DEFAULT_DEVICE_LIMIT;
+    private long schemaFetchTimeoutMillis = SchemaSourceFetcher.DEFAULT_TIMEOUT_MILLIS;
 
     public NetconfDeviceBuilder() {
     }
@@ -50,9 +55,25 @@ public class NetconfDeviceBuilder {
         return this;
     }
 
+    public NetconfDeviceBuilder setSchemaFetchLimiter(FetchLimiter schemaFetchLimiter) {
+        this.schemaFetchLimiter = schemaFetchLimiter;
+        return this;
+    }
+
+    public NetconfDeviceBuilder setSchemaFetchConcurrency(int schemaFetchConcurrency) {
+        this.schemaFetchConcurrency = schemaFetchConcurrency;
+        return this;
+    }
+
+    public NetconfDeviceBuilder setSchemaFetchTimeoutMillis(long schemaFetchTimeoutMillis) {
+        this.schemaFetchTimeoutMillis = schemaFetchTimeoutMillis;
+        return this;
+    }
+
     public NetconfDevice build() {
         validation();
-        return new NetconfDevice(schemaResourcesDTO, id, salFacade, globalProcessingExecutor, reconnectOnSchemasChange);
+        return new NetconfDevice(schemaResourcesDTO, id, salFacade, globalProcessingExecutor, reconnectOnSchemasChange,
+            schemaFetchLimiter, schemaFetchConcurrency, schemaFetchTimeoutMillis);
     }
 
     private void validation() {
@@ -60,5 +81,6 @@ public class NetconfDeviceBuilder {
         Preconditions.checkNotNull(salFacade, "RemoteDeviceHandler is not initialized");
         Preconditions.checkNotNull(globalProcessingExecutor, "ExecutorService is not initialized");
         Preconditions.checkNotNull(schemaResourcesDTO, "SchemaResourceDTO is not initialized");
+        Preconditions.checkNotNull(schemaFetchLimiter, "FetchLimiter is not initialized");
     }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.admission;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission.Phase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfTopologyAdmission;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.network.topology.topology.AdmissionStatistics;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.network.topology.topology.AdmissionStatisticsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.network.topology.topology.AdmissionStatisticsKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.network.topology.topology.admission.statistics.PhaseStatistics;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.network.topology.topology.admission.statistics.PhaseStatisticsBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.TopologyKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the progress of a {@link ConnectionAdmission} in the operational datastore, as an
+ * {@code admission-statistics} entry of the topology. The counters are sampled periodically from a shared scheduler,
+ * so that admission itself does not write to the datastore, and written only when they changed. The entry is removed
+ * once the publisher is closed.
+ */
+public final class AdmissionStatisticsPublisher implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(AdmissionStatisticsPublisher.class);
+
+    private static final Supplier<ScheduledExecutorService> STATISTICS_EXECUTOR = Suppliers.memoize(
+        () -> Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("netconf-admission-statistics-%d").build()));
+    private static final long STATISTICS_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private final ConnectionAdmission admission;
+    private final DataBroker dataBroker;
+    private final String controller;
+    private final InstanceIdentifier<AdmissionStatistics> path;
+    private final ScheduledExecutorService executor;
+    private final ScheduledFuture<?> publisher;
+
+    // Accessed from the executor only
+    private List<PhaseStatistics> published;
+
+    /**
+     * Start publishing the progress of an admission control.
+     *
+     * @param admission Admission control to publish
+     * @param dataBroker Data broker to write to
+     * @param topologyId Topology of the devices, whose connections are admitted
+     * @param controller Identifier of this controller, unique within the topology
+     */
+    public AdmissionStatisticsPublisher(final ConnectionAdmission admission, final DataBroker dataBroker,
+            final String topologyId, final String controller) {
+        this(admission, dataBroker, topologyId, controller, STATISTICS_EXECUTOR.get());
+    }
+
+    @VisibleForTesting
+    AdmissionStatisticsPublisher(final ConnectionAdmission admission, final DataBroker dataBroker,
+            final String topologyId, final String controller, final ScheduledExecutorService executor) {
+        this.admission = requireNonNull(admission);
+        this.dataBroker = requireNonNull(dataBroker);
+        this.controller = requireNonNull(controller);
+        this.executor = requireNonNull(executor);
+        this.path = InstanceIdentifier.create(NetworkTopology.class)
+                .child(Topology.class, new TopologyKey(new TopologyId(requireNonNull(topologyId))))
+                .augmentation(NetconfTopologyAdmission.class)
+                .child(AdmissionStatistics.class, new AdmissionStatisticsKey(controller));
+        this.publisher = executor.scheduleWithFixedDelay(this::publish, STATISTICS_INTERVAL_MILLIS,
+            STATISTICS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void publish() {
+        try {
+            final List<PhaseStatistics> current = sample();
+            if (current.equals(published)) {
+                return;
+            }
+
+            final WriteTransaction tx = dataBroker.newWriteOnlyTransaction();
+            tx.merge(LogicalDatastoreType.OPERATIONAL, path, new AdmissionStatisticsBuilder()
+                .setController(controller).setPhaseStatistics(current).build(), true);
+            submit(tx, "update");
+            published = current;
+        } catch (RuntimeException e) {
+            // Do not let the failure cancel further updates
+            LOG.warn("Failed to publish admission statistics of {}", controller, e);
+        }
+    }
+
+    private List<PhaseStatistics> sample() {
+        final ImmutableList.Builder<PhaseStatistics> builder = ImmutableList.builder();
+        for (Phase phase : Phase.values()) {
+            builder.add(new PhaseStatisticsBuilder()
+                .setPhase(toYang(phase))
+                .setLimit((long) Math.max(admission.getLimit(phase), 0))
+                .setActive((long) admission.getActive(phase))
+                .setQueued((long) admission.getQueued(phase))
+                .setAdmitted(BigInteger.valueOf(admission.getAdmitted(phase))).build());
+        }
+        return builder.build();
+    }
+
+    private static PhaseStatistics.Phase toYang(final Phase phase) {
+        switch (phase) {
+            case CONNECT:
+                return PhaseStatistics.Phase.Connect;
+            case SCHEMA_RESOLUTION:
+                return PhaseStatistics.Phase.SchemaResolution;
+            case MOUNT:
+                return PhaseStatistics.Phase.Mount;
+            default:
+                throw new IllegalArgumentException("Unhandled phase " + phase);
+        }
+    }
+
+    private void remove() {
+        final WriteTransaction tx = dataBroker.newWriteOnlyTransaction();
+        tx.delete(LogicalDatastoreType.OPERATIONAL, path);
+        submit(tx, "removal");
+    }
+
+    private void submit(final WriteTransaction tx, final String operation) {
+        Futures.addCallback(tx.submit(), new FutureCallback<Void>() {
+            @Override
+            public void onSuccess(final Void result) {
+                LOG.trace("Admission statistics {} of {} committed", operation, controller);
+            }
+
+            @Override
+            public void onFailure(final Throwable throwable) {
+                LOG.warn("Admission statistics {} of {} failed", operation, controller, throwable);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public void close() {
+        publisher.cancel(false);
+        try {
+            // Runs after an update in progress, if any
+            executor.execute(this::remove);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Failed to schedule removal of admission statistics of {}", controller, e);
+        }
+    }
+}
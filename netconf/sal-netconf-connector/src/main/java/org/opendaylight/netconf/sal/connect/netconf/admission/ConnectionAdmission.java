@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.admission;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admission control for the connection setup of devices. When many devices connect at once, e.g. after a controller
+ * restart, starting all SSH handshakes, schema downloads and SchemaContext builds at the same time saturates the
+ * controller, devices time out and retry, and the topology takes longer to converge than with fewer devices being
+ * set up in parallel.
+ *
+ * <p>
+ * Each {@link Phase} of the setup has its own budget of devices which may be in it at the same time. Devices exceeding
+ * the budget wait in a queue ordered by their priority. Devices with equal priority are admitted in the order they
+ * asked, so a device is only ever overtaken by devices with higher priority. Budgets are separate, hence devices which
+ * got further in the setup are not held up by a backlog in earlier phases. Admitted work is run on the supplied
+ * executor.
+ */
+public final class ConnectionAdmission {
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionAdmission.class);
+
+    /**
+     * Phases of the connection setup.
+     */
+    public enum Phase {
+        /**
+         * TCP and SSH/TLS connection, including the exchange of hello messages and hence capabilities.
+         */
+        CONNECT,
+        /**
+         * Resolution of the device's schema sources and assembly of its SchemaContext.
+         */
+        SCHEMA_RESOLUTION,
+        /**
+         * Registration of the mount point and of the device's operational state.
+         */
+        MOUNT
+    }
+
+    private static final int INITIAL_QUEUE_CAPACITY = 16;
+    // Higher priority first, then in the order of requests
+    private static final Comparator<Ticket> TICKET_ORDER = Comparator.<Ticket>comparingInt(ticket -> -ticket.priority)
+            .thenComparingLong(ticket -> ticket.sequence);
+
+    private static final int QUEUED = 0;
+    private static final int ADMITTED = 1;
+    private static final int DONE = 2;
+
+    /**
+     * A request of a single device to enter a phase. Closing the ticket either withdraws the request, or, once
+     * admitted, returns the device's slot to the budget of the phase. Tickets can be closed multiple times.
+     */
+    public final class Ticket implements AutoCloseable, Runnable {
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private final Stage stage;
+        private final RemoteDeviceId id;
+        private final int priority;
+        private final long sequence;
+        private final long leaseMillis;
+        private final boolean closeOnCompletion;
+        private final Runnable task;
+
+        Ticket(final Stage stage, final RemoteDeviceId id, final int priority, final long leaseMillis,
+                final boolean closeOnCompletion, final Runnable task) {
+            this.stage = stage;
+            this.id = id;
+            this.priority = priority;
+            this.sequence = stage.sequence.getAndIncrement();
+            this.leaseMillis = leaseMillis;
+            this.closeOnCompletion = closeOnCompletion;
+            this.task = task;
+        }
+
+        @Override
+        @SuppressWarnings("checkstyle:IllegalCatch")
+        public void run() {
+            if (state.get() != ADMITTED) {
+                // Closed between admission and execution
+                return;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOG.warn("{}: {} failed, releasing admission", id, stage.phase, e);
+                close();
+                return;
+            }
+            if (closeOnCompletion) {
+                close();
+            }
+        }
+
+        @Override
+        public void close() {
+            final int previous = state.getAndSet(DONE);
+            if (previous == QUEUED) {
+                // Withdrawn tickets would otherwise be retained until the queue reaches them
+                stage.queue.remove(this);
+                stage.queued.decrementAndGet();
+                LOG.debug("{}: Withdrawn from {} queue", id, stage.phase);
+            } else if (previous == ADMITTED) {
+                stage.release();
+            }
+        }
+
+        boolean admit() {
+            return state.compareAndSet(QUEUED, ADMITTED);
+        }
+
+        @Override
+        public String toString() {
+            return id + " " + stage.phase;
+        }
+    }
+
+    private final class Stage {
+        private final Queue<Ticket> queue = new PriorityBlockingQueue<>(INITIAL_QUEUE_CAPACITY,
+            TICKET_ORDER);
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicLong admitted = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final Phase phase;
+
+        private volatile int limit;
+
+        Stage(final Phase phase, final int limit) {
+            this.phase = phase;
+            this.limit = limit;
+        }
+
+        void submit(final Ticket ticket) {
+            queued.incrementAndGet();
+            queue.add(ticket);
+            drain();
+        }
+
+        void release() {
+            active.decrementAndGet();
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                // Another thread is draining and will pick up the change
+                return;
+            }
+
+            int missed = 1;
+            do {
+                while (limit <= 0 || active.get() < limit) {
+                    final Ticket ticket = queue.poll();
+                    if (ticket == null) {
+                        break;
+                    }
+                    if (ticket.admit()) {
+                        queued.decrementAndGet();
+                        active.incrementAndGet();
+                        admitted.incrementAndGet();
+                        LOG.debug("{}: Admitted to {}, {} active, {} queued", ticket.id, phase, active.get(),
+                            queued.get());
+                        dispatch(ticket);
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void dispatch(final Ticket ticket) {
+            if (ticket.leaseMillis > 0) {
+                try {
+                    scheduler.schedule(ticket::close, ticket.leaseMillis, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    LOG.warn("{}: Failed to schedule expiry of {} admission", ticket.id, phase, e);
+                }
+            }
+            try {
+                executor.execute(ticket);
+            } catch (RejectedExecutionException e) {
+                LOG.warn("{}: Failed to run {}, releasing admission", ticket.id, phase, e);
+                // Will be picked up by the current drain loop
+                ticket.close();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return phase + "{active=" + active.get() + ", queued=" + queued.get() + ", admitted=" + admitted.get()
+                + ", limit=" + limit + "}";
+        }
+    }
+
+    private final Map<Phase, Stage> stages = new EnumMap<>(Phase.class);
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Create admission control with the specified budgets.
+     *
+     * @param executor Executor running admitted work
+     * @param scheduler Scheduler expiring admission leases
+     * @param limits Number of devices which may be in a phase at the same time, phases which are not present or
+     *               have a value smaller than 1 are not limited
+     */
+    public ConnectionAdmission(final Executor executor, final ScheduledExecutorService scheduler,
+            final Map<Phase, Integer> limits) {
+        this.executor = requireNonNull(executor);
+        this.scheduler = requireNonNull(scheduler);
+        for (Phase phase : Phase.values()) {
+            final Integer limit = limits.get(phase);
+            stages.put(phase, new Stage(phase, limit == null ? 0 : limit));
+        }
+    }
+
+    /**
+     * Request admission of a device to a phase. The task is run on the executor once the device is admitted.
+     *
+     * @param phase Phase to enter
+     * @param id Device identifier
+     * @param priority Priority of the device, devices with higher priority are admitted first
+     * @param leaseMillis Time after which the slot is returned even if the ticket is not closed, values smaller than
+     *                    1 mean the slot is held until the ticket is closed
+     * @param task Work to run once admitted
+     * @return Ticket, which needs to be closed once the device leaves the phase
+     */
+    public Ticket admit(final Phase phase, final RemoteDeviceId id, final int priority, final long leaseMillis,
+            final Runnable task) {
+        return submit(phase, id, priority, leaseMillis, false, task);
+    }
+
+    /**
+     * Request admission of a device to a phase, which consists only of running a synchronous task. The device leaves
+     * the phase once the task completes.
+     *
+     * @param phase Phase to enter
+     * @param id Device identifier
+     * @param priority Priority of the device, devices with higher priority are admitted first
+     * @param task Work to run once admitted
+     * @return Ticket, which can be closed to withdraw the request
+     */
+    public Ticket admitTask(final Phase phase, final RemoteDeviceId id, final int priority, final Runnable task) {
+        return submit(phase, id, priority, 0, true, task);
+    }
+
+    private Ticket submit(final Phase phase, final RemoteDeviceId id, final int priority, final long leaseMillis,
+            final boolean closeOnCompletion, final Runnable task) {
+        final Stage stage = stages.get(phase);
+        final Ticket ticket = new Ticket(stage, requireNonNull(id), priority, leaseMillis, closeOnCompletion,
+            requireNonNull(task));
+        stage.submit(ticket);
+        return ticket;
+    }
+
+    /**
+     * Change the budget of a phase. Raising the budget admits waiting devices immediately, lowering it takes effect
+     * as admitted devices leave the phase.
+     *
+     * @param phase Phase
+     * @param limit New limit, values smaller than 1 disable the limit
+     */
+    public void setLimit(final Phase phase, final int limit) {
+        final Stage stage = stages.get(phase);
+        stage.limit = limit;
+        LOG.info("Admission limit of {} set to {}", phase, limit);
+        stage.drain();
+    }
+
+    /**
+     * Return the budget of a phase.
+     *
+     * @param phase Phase
+     * @return Number of devices which may be in the phase at the same time, values smaller than 1 mean no limit
+     */
+    public int getLimit(final Phase phase) {
+        return stages.get(Preconditions.checkNotNull(phase)).limit;
+    }
+
+    /**
+     * Return the number of devices currently in a phase.
+     *
+     * @param phase Phase
+     * @return Number of admitted devices
+     */
+    public int getActive(final Phase phase) {
+        return stages.get(Preconditions.checkNotNull(phase)).active.get();
+    }
+
+    /**
+     * Return the number of devices waiting for admission to a phase.
+     *
+     * @param phase Phase
+     * @return Number of waiting devices
+     */
+    public int getQueued(final Phase phase) {
+        return stages.get(Preconditions.checkNotNull(phase)).queued.get();
+    }
+
+    @VisibleForTesting
+    int getQueueSize(final Phase phase) {
+        return stages.get(Preconditions.checkNotNull(phase)).queue.size();
+    }
+
+    /**
+     * Return the number of admissions to a phase since creation.
+     *
+     * @param phase Phase
+     * @return Total number of admissions
+     */
+    public long getAdmitted(final Phase phase) {
+        return stages.get(Preconditions.checkNotNull(phase)).admitted.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionAdmission" + stages.values();
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.admission;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.sal.connect.api.RemoteDevice;
+import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission.Phase;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission.Ticket;
+import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCapabilities;
+import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommunicator;
+import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks a single device through the phases of {@link ConnectionAdmission}. The device enters
+ * {@link Phase#CONNECT} through {@link #connect(Supplier, long)} and leaves it once its session is up. The remote
+ * device and the SAL facade wrapped by this class then hold back session-up until the device is admitted to
+ * {@link Phase#SCHEMA_RESOLUTION}, and device-connected until the device is admitted to {@link Phase#MOUNT}.
+ * Notifications received from the device while it waits for the mount are buffered, up to a limit, and delivered
+ * once it is mounted.
+ */
+public final class DeviceAdmission implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(DeviceAdmission.class);
+    private static final int MAX_PENDING_NOTIFICATIONS = 1000;
+
+    private final AtomicReference<Ticket> connectTicket = new AtomicReference<>();
+    private final AtomicReference<Ticket> schemaTicket = new AtomicReference<>();
+    private final AtomicReference<Ticket> mountTicket = new AtomicReference<>();
+    private final ConnectionAdmission admission;
+    private final RemoteDeviceId id;
+    private final int priority;
+
+    public DeviceAdmission(final ConnectionAdmission admission, final RemoteDeviceId id) {
+        this(admission, id, 0);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param admission Admission control
+     * @param id Device identifier
+     * @param priority Priority of the device in all phases, devices with higher priority are admitted first
+     */
+    public DeviceAdmission(final ConnectionAdmission admission, final RemoteDeviceId id, final int priority) {
+        this.admission = requireNonNull(admission);
+        this.id = requireNonNull(id);
+        this.priority = priority;
+    }
+
+    /**
+     * Start the connection once admitted to {@link Phase#CONNECT}.
+     *
+     * @param initializer Starts the connection and returns a future completing once the first session is up
+     * @param leaseMillis Time after which the slot is returned if the session is not up yet, so that unreachable
+     *                    devices retrying in the background do not hold the budget
+     * @return Future returned by the initializer
+     */
+    public ListenableFuture<NetconfDeviceCapabilities> connect(
+            final Supplier<ListenableFuture<NetconfDeviceCapabilities>> initializer, final long leaseMillis) {
+        final SettableFuture<NetconfDeviceCapabilities> result = SettableFuture.create();
+        replace(connectTicket, admission.admit(Phase.CONNECT, id, priority, leaseMillis,
+            () -> result.setFuture(initializer.get())));
+        return result;
+    }
+
+    /**
+     * Wrap the remote device, so that session-up is delivered once admitted to {@link Phase#SCHEMA_RESOLUTION}.
+     *
+     * @param delegate Device to wrap
+     * @return Wrapped device
+     */
+    public RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> wrapDevice(
+            final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> delegate) {
+        return new AdmittedDevice(delegate);
+    }
+
+    /**
+     * Wrap the SAL facade, so that device-connected is delivered once admitted to {@link Phase#MOUNT}.
+     *
+     * @param delegate Facade to wrap
+     * @return Wrapped facade
+     */
+    public RemoteDeviceHandler<NetconfSessionPreferences> wrapFacade(
+            final RemoteDeviceHandler<NetconfSessionPreferences> delegate) {
+        return new AdmittedFacade(delegate);
+    }
+
+    @Override
+    public void close() {
+        release(connectTicket);
+        release(schemaTicket);
+        release(mountTicket);
+    }
+
+    private static void replace(final AtomicReference<Ticket> ref, final Ticket ticket) {
+        final Ticket previous = ref.getAndSet(ticket);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    private static void release(final AtomicReference<Ticket> ref) {
+        final Ticket ticket = ref.getAndSet(null);
+        if (ticket != null) {
+            ticket.close();
+        }
+    }
+
+    private final class AdmittedDevice
+            implements RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> {
+        private final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> delegate;
+
+        AdmittedDevice(
+                final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> delegate) {
+            this.delegate = requireNonNull(delegate);
+        }
+
+        @Override
+        public void onRemoteSessionUp(final NetconfSessionPreferences remoteSessionCapabilities,
+                final NetconfDeviceCommunicator listener) {
+            release(connectTicket);
+            LOG.debug("{}: Session up, waiting for admission to schema resolution", id);
+            replace(schemaTicket, admission.admit(Phase.SCHEMA_RESOLUTION, id, priority, 0,
+                () -> delegate.onRemoteSessionUp(remoteSessionCapabilities, listener)));
+        }
+
+        @Override
+        public void onRemoteSessionDown() {
+            release(connectTicket);
+            release(schemaTicket);
+            delegate.onRemoteSessionDown();
+        }
+
+        @Override
+        public void onRemoteSessionFailed(final Throwable throwable) {
+            release(connectTicket);
+            release(schemaTicket);
+            delegate.onRemoteSessionFailed(throwable);
+        }
+
+        @Override
+        public void onNotification(final NetconfMessage notification) {
+            delegate.onNotification(notification);
+        }
+    }
+
+    private final class AdmittedFacade implements RemoteDeviceHandler<NetconfSessionPreferences> {
+        private final RemoteDeviceHandler<NetconfSessionPreferences> delegate;
+
+        // Notifications received while waiting for admission to mount, delivered once mounted
+        @GuardedBy("this")
+        private final Queue<DOMNotification> pendingNotifications = new ArrayDeque<>();
+        @GuardedBy("this")
+        private boolean mounted;
+        @GuardedBy("this")
+        private int droppedNotifications;
+
+        AdmittedFacade(final RemoteDeviceHandler<NetconfSessionPreferences> delegate) {
+            this.delegate = requireNonNull(delegate);
+        }
+
+        @Override
+        public void onDeviceConnected(final SchemaContext remoteSchemaContext,
+                final NetconfSessionPreferences netconfSessionPreferences, final DOMRpcService deviceRpc) {
+            release(schemaTicket);
+            LOG.debug("{}: Schema resolved, waiting for admission to mount", id);
+            replace(mountTicket, admission.admitTask(Phase.MOUNT, id, priority, () -> {
+                delegate.onDeviceConnected(remoteSchemaContext, netconfSessionPreferences, deviceRpc);
+                onMounted();
+            }));
+        }
+
+        @Override
+        public void onDeviceDisconnected() {
+            release(schemaTicket);
+            release(mountTicket);
+            onUnmounted();
+            delegate.onDeviceDisconnected();
+        }
+
+        @Override
+        public void onDeviceFailed(final Throwable throwable) {
+            release(schemaTicket);
+            release(mountTicket);
+            onUnmounted();
+            delegate.onDeviceFailed(throwable);
+        }
+
+        @Override
+        public void onNotification(final DOMNotification domNotification) {
+            synchronized (this) {
+                if (!mounted) {
+                    if (pendingNotifications.size() < MAX_PENDING_NOTIFICATIONS) {
+                        pendingNotifications.add(domNotification);
+                    } else {
+                        droppedNotifications++;
+                        LOG.debug("{}: Dropping notification {} received before mount", id, domNotification);
+                    }
+                    return;
+                }
+            }
+            delegate.onNotification(domNotification);
+        }
+
+        private synchronized void onMounted() {
+            // Delivered while holding the lock, so that notifications received meanwhile are not reordered
+            LOG.debug("{}: Mounted, delivering {} notifications received before mount", id,
+                pendingNotifications.size());
+            for (DOMNotification notification = pendingNotifications.poll(); notification != null;
+                    notification = pendingNotifications.poll()) {
+                delegate.onNotification(notification);
+            }
+            if (droppedNotifications != 0) {
+                LOG.warn("{}: Dropped {} notifications received while waiting for admission to mount", id,
+                    droppedNotifications);
+                droppedNotifications = 0;
+            }
+            mounted = true;
+        }
+
+        private synchronized void onUnmounted() {
+            pendingNotifications.clear();
+            droppedNotifications = 0;
+            mounted = false;
+        }
+
+        @Override
+        public void close() {
+            DeviceAdmission.this.close();
+            delegate.close();
+        }
+    }
+}
@@ -14,15 +14,22 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import io.netty.util.concurrent.Future;
-import java.util.ArrayDeque;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map.Entry;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import org.opendaylight.netconf.api.FailedNetconfMessage;
+import org.opendaylight.netconf.api.LazyNetconfMessage;
 import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfTerminationReason;
@@ -57,9 +64,23 @@ public class NetconfDeviceCommunicator
 
     private final Semaphore semaphore;
     private final int concurentRpcMsgs;
+    private final int rpcQueueLimit;
 
-    private final Queue<Request> requests = new ArrayDeque<>();
-    private NetconfClientSession currentSession;
+    /*
+     * Outstanding requests are tracked in two maps. The first one is indexed by message-id and is used to correlate
+     * replies, which may arrive out of order. The second one retains the order in which requests have been sent
+     * and is used to match replies which cannot be correlated, such as those which failed to parse. A request is
+     * claimed by whoever removes it from the second map.
+     */
+    private final ConcurrentMap<String, Request> requestsById = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, Request> requests = new ConcurrentSkipListMap<>();
+    private final AtomicLong requestSequence = new AtomicLong();
+
+    // Requests waiting for a permit when the concurrent rpc limit is reached
+    private final Queue<Request> queuedRequests = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedRequestCount = new AtomicInteger();
+
+    private volatile NetconfClientSession currentSession;
 
     private Future<?> initFuture;
     private final SettableFuture<NetconfDeviceCapabilities> firstConnectionFuture;
@@ -79,21 +100,48 @@ public class NetconfDeviceCommunicator
             final RemoteDeviceId id,
             final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
             final UserPreferences netconfSessionPreferences, final int rpcMessageLimit) {
-        this(id, remoteDevice, Optional.of(netconfSessionPreferences), rpcMessageLimit);
+        this(id, remoteDevice, netconfSessionPreferences, rpcMessageLimit, 0);
     }
 
     public NetconfDeviceCommunicator(
             final RemoteDeviceId id,
             final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
             final int rpcMessageLimit) {
-        this(id, remoteDevice, Optional.<UserPreferences>absent(), rpcMessageLimit);
+        this(id, remoteDevice, rpcMessageLimit, 0);
+    }
+
+    /**
+     * Create a new communicator.
+     *
+     * @param id Device identifier
+     * @param remoteDevice Device
+     * @param netconfSessionPreferences Capabilities overriding the ones advertised by the device
+     * @param rpcMessageLimit Maximum number of requests sent to the device before replies to them are received,
+     *                        no limit is enforced if value &lt;1 is provided
+     * @param rpcQueueLimit Maximum number of requests held back once rpcMessageLimit has been reached. Requests in
+     *                      excess of this limit are failed immediately.
+     */
+    public NetconfDeviceCommunicator(
+            final RemoteDeviceId id,
+            final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
+            final UserPreferences netconfSessionPreferences, final int rpcMessageLimit, final int rpcQueueLimit) {
+        this(id, remoteDevice, Optional.of(netconfSessionPreferences), rpcMessageLimit, rpcQueueLimit);
+    }
+
+    public NetconfDeviceCommunicator(
+            final RemoteDeviceId id,
+            final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
+            final int rpcMessageLimit, final int rpcQueueLimit) {
+        this(id, remoteDevice, Optional.<UserPreferences>absent(), rpcMessageLimit, rpcQueueLimit);
     }
 
     private NetconfDeviceCommunicator(
             final RemoteDeviceId id,
             final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
-            final Optional<UserPreferences> overrideNetconfCapabilities, final int rpcMessageLimit) {
+            final Optional<UserPreferences> overrideNetconfCapabilities, final int rpcMessageLimit,
+            final int rpcQueueLimit) {
         this.concurentRpcMsgs = rpcMessageLimit;
+        this.rpcQueueLimit = Math.max(rpcQueueLimit, 0);
         this.id = id;
         this.remoteDevice = remoteDevice;
         this.overrideNetconfCapabilities = overrideNetconfCapabilities;
@@ -183,18 +231,24 @@ public class NetconfDeviceCommunicator
             if (currentSession != null) {
                 currentSession = null;
                 /*
-                 * Walk all requests, check if they have been executing
-                 * or cancelled and remove them from the queue.
+                 * Walk all requests, claim them and collect those which have been executing.
                  */
-                final Iterator<Request> it = requests.iterator();
-                while (it.hasNext()) {
-                    final Request r = it.next();
-                    if (r.future.isUncancellable()) {
+                for (final Request r : requests.values()) {
+                    if (claimRequest(r)) {
+                        if (semaphore != null) {
+                            semaphore.release();
+                        }
+                        if (r.future.isUncancellable()) {
+                            futuresToCancel.add(r.future);
+                        }
+                    }
+                }
+
+                // Queued requests have not been sent yet, fail them unless they have been cancelled
+                for (Request r = queuedRequests.poll(); r != null; r = queuedRequests.poll()) {
+                    queuedRequestCount.decrementAndGet();
+                    if (r.future.setUncancellable()) {
                         futuresToCancel.add(r.future);
-                        it.remove();
-                    } else if (r.future.isCancelled()) {
-                        // This just does some house-cleaning
-                        it.remove();
                     }
                 }
 
@@ -269,97 +323,102 @@ public class NetconfDeviceCommunicator
     }
 
     private void processMessage(final NetconfMessage message) {
-        Request request = null;
-        sessionLock.lock();
-
-        try {
-            request = requests.peek();
-            if (request != null && request.future.isUncancellable()) {
-                request = requests.poll();
-                // we have just removed one request from the queue
-                // we can also release one permit
-                if (semaphore != null) {
-                    semaphore.release();
-                }
-            } else {
-                request = null;
-                LOG.warn("{}: Ignoring unsolicited message {}", id,
-                        msgToS(message));
-            }
-        } finally {
-            sessionLock.unlock();
+        final Request request = matchRequest(message);
+        if (request == null) {
+            LOG.warn("{}: Ignoring unsolicited message {}", id, msgToS(message));
+            return;
         }
 
-        if (request != null) {
-
-            if (FailedNetconfMessage.class.isInstance(message)) {
-                request.future.set(NetconfMessageTransformUtil.toRpcResult((FailedNetconfMessage) message));
-                return;
-            }
+        if (FailedNetconfMessage.class.isInstance(message)) {
+            request.future.set(NetconfMessageTransformUtil.toRpcResult((FailedNetconfMessage) message));
+            return;
+        }
 
-            LOG.debug("{}: Message received {}", id, message);
+        LOG.debug("{}: Message received {}", id, message);
 
-            if (LOG.isTraceEnabled()) {
-                LOG.trace("{}: Matched request: {} to response: {}", id, msgToS(request.request), msgToS(message));
-            }
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("{}: Matched request: {} to response: {}", id, msgToS(request.request), msgToS(message));
+        }
 
-            try {
-                NetconfMessageTransformUtil.checkValidReply(request.request, message);
-            } catch (final NetconfDocumentedException e) {
-                LOG.warn(
-                        "{}: Invalid request-reply match,"
-                                + "reply message contains different message-id, request: {}, response: {}",
-                        id, msgToS(request.request), msgToS(message), e);
+        try {
+            NetconfMessageTransformUtil.checkValidReply(request.request, message);
+        } catch (final NetconfDocumentedException e) {
+            LOG.warn(
+                    "{}: Invalid request-reply match,"
+                            + "reply message contains different message-id, request: {}, response: {}",
+                    id, msgToS(request.request), msgToS(message), e);
+
+            request.future.set(RpcResultBuilder.<NetconfMessage>failed()
+                    .withRpcError(NetconfMessageTransformUtil.toRpcError(e)).build());
+            return;
+        }
 
-                request.future.set(RpcResultBuilder.<NetconfMessage>failed()
-                        .withRpcError(NetconfMessageTransformUtil.toRpcError(e)).build());
+        try {
+            NetconfMessageTransformUtil.checkSuccessReply(message);
+        } catch (final NetconfDocumentedException e) {
+            LOG.warn(
+                    "{}: Error reply from remote device, request: {}, response: {}",
+                    id, msgToS(request.request), msgToS(message), e);
+
+            request.future.set(RpcResultBuilder.<NetconfMessage>failed()
+                    .withRpcError(NetconfMessageTransformUtil.toRpcError(e)).build());
+            return;
+        }
 
-                //recursively processing message to eventually find matching request
-                processMessage(message);
+        request.future.set(RpcResultBuilder.success(message).build());
+    }
 
-                return;
+    /**
+     * Find and claim the request a reply belongs to. Replies are matched by their message-id. Replies which cannot be
+     * matched that way are matched to the oldest outstanding request, which is then subject to reply validation.
+     *
+     * @param message Received reply
+     * @return Claimed request, or null if there is no outstanding request
+     */
+    private Request matchRequest(final NetconfMessage message) {
+        final String messageId = message instanceof FailedNetconfMessage ? ""
+                : NetconfMessageTransformUtil.getMessageId(message);
+
+        while (true) {
+            Request request = messageId.isEmpty() ? null : requestsById.get(messageId);
+            if (request == null) {
+                final Entry<Long, Request> oldest = requests.firstEntry();
+                if (oldest == null) {
+                    return null;
+                }
+                request = oldest.getValue();
             }
 
-            try {
-                NetconfMessageTransformUtil.checkSuccessReply(message);
-            } catch (final NetconfDocumentedException e) {
-                LOG.warn(
-                        "{}: Error reply from remote device, request: {}, response: {}",
-                        id, msgToS(request.request), msgToS(message), e);
-
-                request.future.set(RpcResultBuilder.<NetconfMessage>failed()
-                        .withRpcError(NetconfMessageTransformUtil.toRpcError(e)).build());
-                return;
+            if (claimRequest(request)) {
+                // We have just removed one request from the pipeline, we can also release one permit
+                if (semaphore != null) {
+                    semaphore.release();
+                    dispatchQueuedRequests();
+                }
+                if (request.future.isUncancellable()) {
+                    return request;
+                }
             }
+            // Somebody else claimed the request in the meantime or the request has been cancelled, try again
+        }
+    }
 
-            request.future.set(RpcResultBuilder.success(message).build());
+    private boolean claimRequest(final Request request) {
+        if (!requests.remove(request.sequence, request)) {
+            return false;
         }
+        if (!request.messageId.isEmpty()) {
+            requestsById.remove(request.messageId, request);
+        }
+        return true;
     }
 
     private static String msgToS(final NetconfMessage msg) {
-        return XmlUtil.toString(msg.getDocument());
+        return msg instanceof LazyNetconfMessage ? msg.toString() : XmlUtil.toString(msg.getDocument());
     }
 
     @Override
     public ListenableFuture<RpcResult<NetconfMessage>> sendRequest(final NetconfMessage message, final QName rpc) {
-        sessionLock.lock();
-        try {
-            if (semaphore != null && !semaphore.tryAcquire()) {
-                LOG.warn("Limit of concurrent rpc messages was reached (limit :" + concurentRpcMsgs
-                    + "). Rpc reply message is needed. Discarding request of Netconf device with id" + id.getName());
-                return Futures.immediateFailedFuture(new NetconfDocumentedException(
-                        "Limit of rpc messages was reached (Limit :" + concurentRpcMsgs
-                        + ") waiting for emptying the queue of Netconf device with id" + id.getName()));
-            }
-
-            return sendRequestWithLock(message, rpc);
-        } finally {
-            sessionLock.unlock();
-        }
-    }
-
-    private ListenableFuture<RpcResult<NetconfMessage>> sendRequestWithLock(final NetconfMessage message,
-                                                                            final QName rpc) {
         if (LOG.isTraceEnabled()) {
             LOG.trace("{}: Sending message {}", id, msgToS(message));
         }
@@ -370,15 +429,84 @@ public class NetconfDeviceCommunicator
             return Futures.immediateFuture(createSessionDownRpcResult());
         }
 
-        final Request req = new Request(new UncancellableFuture<>(true), message);
-        requests.add(req);
+        if (semaphore == null || semaphore.tryAcquire()) {
+            final Request req = new Request(new UncancellableFuture<>(true), message);
+            dispatchRequest(req);
+            return req.future;
+        }
+
+        if (queuedRequestCount.incrementAndGet() > rpcQueueLimit) {
+            queuedRequestCount.decrementAndGet();
+            LOG.warn("Limit of concurrent rpc messages was reached (limit :" + concurentRpcMsgs
+                + "). Rpc reply message is needed. Discarding request of Netconf device with id" + id.getName());
+            return Futures.immediateFailedFuture(new NetconfDocumentedException(
+                    "Limit of rpc messages was reached (Limit :" + concurentRpcMsgs
+                    + ") waiting for emptying the queue of Netconf device with id" + id.getName()));
+        }
+
+        // The request can be cancelled until it is actually sent
+        final Request req = new Request(new UncancellableFuture<>(false), message);
+        queuedRequests.add(req);
+        LOG.debug("{}: Concurrent rpc limit reached, request {} queued", id, req.messageId);
+
+        // A permit may have been released before we have queued the request
+        dispatchQueuedRequests();
+        return req.future;
+    }
+
+    private void dispatchQueuedRequests() {
+        while (!queuedRequests.isEmpty() && semaphore.tryAcquire()) {
+            final Request req = queuedRequests.poll();
+            if (req == null) {
+                // Raced with another thread, return the permit and re-check the queue
+                semaphore.release();
+                continue;
+            }
+
+            queuedRequestCount.decrementAndGet();
+            if (!req.future.setUncancellable()) {
+                LOG.debug("{}: Queued request {} has been cancelled", id, req.messageId);
+                semaphore.release();
+                continue;
+            }
+            if (currentSession == null) {
+                semaphore.release();
+                req.future.set(createSessionDownRpcResult());
+                continue;
+            }
+
+            dispatchRequest(req);
+        }
+    }
+
+    private void dispatchRequest(final Request req) {
+        req.sequence = requestSequence.getAndIncrement();
+        requests.put(req.sequence, req);
+        if (!req.messageId.isEmpty() && requestsById.putIfAbsent(req.messageId, req) != null) {
+            // The reply will be matched only if it arrives as the oldest outstanding one
+            LOG.warn("{}: Request with message-id {} is already outstanding", id, req.messageId);
+        }
 
-        currentSession.sendMessage(req.request).addListener(future -> {
+        final NetconfClientSession session = currentSession;
+        if (session == null) {
+            if (claimRequest(req)) {
+                if (semaphore != null) {
+                    semaphore.release();
+                }
+                req.future.set(createSessionDownRpcResult());
+            }
+            return;
+        }
+
+        session.sendMessage(req.request).addListener(future -> {
             if (!future.isSuccess()) {
                 // We expect that a session down will occur at this point
-                LOG.debug("{}: Failed to send request {}", id,
-                        XmlUtil.toString(req.request.getDocument()),
-                        future.cause());
+                LOG.debug("{}: Failed to send request {}", id, msgToS(req.request), future.cause());
+
+                if (claimRequest(req) && semaphore != null) {
+                    semaphore.release();
+                    dispatchQueuedRequests();
+                }
 
                 if (future.cause() != null) {
                     req.future.set(createErrorRpcResult(RpcError.ErrorType.TRANSPORT,
@@ -391,8 +519,6 @@ public class NetconfDeviceCommunicator
                 LOG.trace("Finished sending request {}", req.request);
             }
         });
-
-        return req.future;
     }
 
     private void processNotification(final NetconfMessage notification) {
@@ -404,6 +530,9 @@ public class NetconfDeviceCommunicator
     }
 
     private static boolean isNotification(final NetconfMessage message) {
+        if (message instanceof LazyNetconfMessage) {
+            return XmlNetconfConstants.NOTIFICATION_ELEMENT_NAME.equals(((LazyNetconfMessage) message).getRootName());
+        }
         if (message.getDocument() == null) {
             // We have no message, which mean we have a FailedNetconfMessage
             return false;
@@ -415,11 +544,16 @@ public class NetconfDeviceCommunicator
     private static final class Request {
         final UncancellableFuture<RpcResult<NetconfMessage>> future;
         final NetconfMessage request;
+        final String messageId;
+
+        // Assigned when the request is dispatched
+        long sequence;
 
         private Request(final UncancellableFuture<RpcResult<NetconfMessage>> future,
                         final NetconfMessage request) {
             this.future = future;
             this.request = request;
+            this.messageId = NetconfMessageTransformUtil.getMessageId(request);
         }
     }
 }
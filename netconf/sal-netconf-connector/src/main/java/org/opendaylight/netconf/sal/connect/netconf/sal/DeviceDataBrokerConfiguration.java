@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.annotation.Nullable;
+
+/**
+ * Per-device tunables of the {@link NetconfDeviceDataBroker} backing a mount point.
+ */
+public final class DeviceDataBrokerConfiguration {
+    public static final DeviceDataBrokerConfiguration DEFAULT =
+            new DeviceDataBrokerConfiguration(false, false, 0, 0, false, 0);
+
+    private final boolean coalesceEdits;
+    private final boolean readDeduplication;
+    private final long operationalReadCacheTtlMillis;
+    private final int operationalReadCacheSize;
+    private final boolean configReplica;
+    private final long configReplicaResyncIntervalMillis;
+    private final ScheduledExecutorService configReplicaExecutor;
+
+    /**
+     * Create a new configuration.
+     *
+     * @param coalesceEdits True if edits of a write transaction should be sent in as few edit-configs as possible
+     * @param readDeduplication True if concurrent identical operational reads should be merged into a single RPC
+     * @param operationalReadCacheTtlMillis Time for which operational reads are cached, 0 disables the cache
+     * @param operationalReadCacheSize Maximum number of cached operational reads
+     * @param configReplica True if configuration reads should be served from a local replica of the running datastore
+     * @param configReplicaResyncIntervalMillis Interval of full resynchronizations of the replica, 0 disables them
+     */
+    public DeviceDataBrokerConfiguration(final boolean coalesceEdits, final boolean readDeduplication,
+            final long operationalReadCacheTtlMillis, final int operationalReadCacheSize, final boolean configReplica,
+            final long configReplicaResyncIntervalMillis) {
+        this(coalesceEdits, readDeduplication, operationalReadCacheTtlMillis, operationalReadCacheSize, configReplica,
+            configReplicaResyncIntervalMillis, null);
+    }
+
+    /**
+     * Create a new configuration.
+     *
+     * @param coalesceEdits True if edits of a write transaction should be sent in as few edit-configs as possible
+     * @param readDeduplication True if concurrent identical operational reads should be merged into a single RPC
+     * @param operationalReadCacheTtlMillis Time for which operational reads are cached, 0 disables the cache
+     * @param operationalReadCacheSize Maximum number of cached operational reads
+     * @param configReplica True if configuration reads should be served from a local replica of the running datastore
+     * @param configReplicaResyncIntervalMillis Interval of full resynchronizations of the replica, 0 disables them
+     * @param configReplicaExecutor Executor maintaining the replica, typically one per topology, null selects
+     *                              an executor shared by all devices
+     */
+    public DeviceDataBrokerConfiguration(final boolean coalesceEdits, final boolean readDeduplication,
+            final long operationalReadCacheTtlMillis, final int operationalReadCacheSize, final boolean configReplica,
+            final long configReplicaResyncIntervalMillis,
+            @Nullable final ScheduledExecutorService configReplicaExecutor) {
+        Preconditions.checkArgument(operationalReadCacheTtlMillis >= 0, "Invalid cache TTL %s",
+            operationalReadCacheTtlMillis);
+        Preconditions.checkArgument(operationalReadCacheSize >= 0, "Invalid cache size %s", operationalReadCacheSize);
+        Preconditions.checkArgument(configReplicaResyncIntervalMillis >= 0, "Invalid resync interval %s",
+            configReplicaResyncIntervalMillis);
+        this.coalesceEdits = coalesceEdits;
+        this.readDeduplication = readDeduplication;
+        this.operationalReadCacheTtlMillis = operationalReadCacheTtlMillis;
+        this.operationalReadCacheSize = operationalReadCacheSize;
+        this.configReplica = configReplica;
+        this.configReplicaResyncIntervalMillis = configReplicaResyncIntervalMillis;
+        this.configReplicaExecutor = configReplicaExecutor;
+    }
+
+    public boolean isCoalesceEdits() {
+        return coalesceEdits;
+    }
+
+    public boolean isReadDeduplication() {
+        return readDeduplication;
+    }
+
+    public long getOperationalReadCacheTtlMillis() {
+        return operationalReadCacheTtlMillis;
+    }
+
+    public int getOperationalReadCacheSize() {
+        return operationalReadCacheSize;
+    }
+
+    public boolean isConfigReplica() {
+        return configReplica;
+    }
+
+    public long getConfigReplicaResyncIntervalMillis() {
+        return configReplicaResyncIntervalMillis;
+    }
+
+    @Nullable
+    public ScheduledExecutorService getConfigReplicaExecutor() {
+        return configReplicaExecutor;
+    }
+
+    /**
+     * Check whether reads need to go through a {@link org.opendaylight.netconf.sal.connect.netconf.sal.tx.SharedReads}
+     * instance.
+     *
+     * @return True if read deduplication or the operational read cache is enabled
+     */
+    public boolean isSharedReads() {
+        return readDeduplication || operationalReadCacheTtlMillis > 0 && operationalReadCacheSize > 0;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("coalesceEdits", coalesceEdits)
+                .add("readDeduplication", readDeduplication)
+                .add("operationalReadCacheTtlMillis", operationalReadCacheTtlMillis)
+                .add("operationalReadCacheSize", operationalReadCacheSize).add("configReplica", configReplica)
+                .add("configReplicaResyncIntervalMillis", configReplicaResyncIntervalMillis).toString();
+    }
+}
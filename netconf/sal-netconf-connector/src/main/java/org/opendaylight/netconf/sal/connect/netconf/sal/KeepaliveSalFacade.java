@@ -8,43 +8,60 @@
 package org.opendaylight.netconf.sal.connect.netconf.sal;
 
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps.getSourceNode;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_FILTER_QNAME;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_GET_QNAME;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_RUNNING_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_TYPE_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toId;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toPath;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.Collections;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.xml.transform.dom.DOMSource;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcAvailabilityListener;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcException;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
+import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommunicator;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.NetconfState;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionParameters.KeepaliveRpc;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 
 /**
  * SalFacade proxy that invokes keepalive RPCs to prevent session shutdown from remote device
  * and to detect incorrect session drops (netconf session is inactive, but TCP/SSH connection is still present).
- * The keepalive RPC is a get-config with empty filter.
+ * The keepalive RPC is a get-config with empty filter by default, see {@link KeepaliveRpc} for alternatives.
+ *
+ * <p>
+ * Keepalives of all devices sharing an executor are driven by a single {@link KeepaliveWheel}, RPC replies and
+ * notifications just record the time of the last activity, so that keepalives are only sent to idle sessions.
  */
 public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSessionPreferences> {
 
@@ -62,20 +79,40 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
     private final long keepaliveDelaySeconds;
     private final ResetKeepalive resetKeepaliveTask;
     private final long defaultRequestTimeoutMillis;
+    private final SchemaPath keepalivePath;
+    private final ContainerNode keepalivePayload;
 
     private volatile NetconfDeviceCommunicator listener;
-    private volatile ScheduledFuture<?> currentKeepalive;
+    private volatile KeepaliveWheel.Registration currentKeepalive;
     private volatile DOMRpcService currentDeviceRpc;
 
     public KeepaliveSalFacade(final RemoteDeviceId id, final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
                               final ScheduledExecutorService executor, final long keepaliveDelaySeconds,
-                              final long defaultRequestTimeoutMillis) {
+                              final long defaultRequestTimeoutMillis, final KeepaliveRpc keepaliveRpc) {
         this.id = id;
         this.salFacade = salFacade;
         this.executor = executor;
         this.keepaliveDelaySeconds = keepaliveDelaySeconds;
         this.defaultRequestTimeoutMillis = defaultRequestTimeoutMillis;
         this.resetKeepaliveTask = new ResetKeepalive();
+        switch (keepaliveRpc) {
+            case GetConfig:
+                keepalivePath = GET_CONFIG_PATH;
+                keepalivePayload = GET_CONFIG_PAYLOAD;
+                break;
+            case GetNetconfState:
+                keepalivePath = GET_PATH;
+                keepalivePayload = GET_NETCONF_STATE_PAYLOAD;
+                break;
+            default:
+                throw new IllegalArgumentException("Unhandled keepalive RPC " + keepaliveRpc);
+        }
+    }
+
+    public KeepaliveSalFacade(final RemoteDeviceId id, final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
+                              final ScheduledExecutorService executor, final long keepaliveDelaySeconds,
+                              final long defaultRequestTimeoutMillis) {
+        this(id, salFacade, executor, keepaliveDelaySeconds, defaultRequestTimeoutMillis, KeepaliveRpc.GetConfig);
     }
 
     public KeepaliveSalFacade(final RemoteDeviceId id, final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
@@ -93,26 +130,25 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
     }
 
     /**
-     * Just cancel current keepalive task.
-     * If its already started, let it finish ... not such a big deal.
-     *
-     * <p>
-     * Then schedule next keepalive.
+     * Record activity on the session, which postpones the next keepalive. This is just a timestamp update, the
+     * keepalive wheel picks it up once the previously expected keepalive time is reached.
      */
     void resetKeepalive() {
         LOG.trace("{}: Resetting netconf keepalive timer", id);
-        if (currentKeepalive != null) {
-            currentKeepalive.cancel(false);
+        final KeepaliveWheel.Registration keepalive = currentKeepalive;
+        if (keepalive != null) {
+            keepalive.markActive();
         }
-        scheduleKeepalive();
     }
 
     /**
      * Cancel current keepalive and also reset current deviceRpc.
      */
     private void stopKeepalives() {
-        if (currentKeepalive != null) {
-            currentKeepalive.cancel(false);
+        final KeepaliveWheel.Registration keepalive = currentKeepalive;
+        if (keepalive != null) {
+            keepalive.close();
+            currentKeepalive = null;
         }
         currentDeviceRpc = null;
     }
@@ -132,14 +168,14 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
                 new KeepaliveDOMRpcService(deviceRpc, resetKeepaliveTask, defaultRequestTimeoutMillis, executor);
         salFacade.onDeviceConnected(remoteSchemaContext, netconfSessionPreferences, deviceRpc1);
 
-        LOG.debug("{}: Netconf session initiated, starting keepalives", id);
-        scheduleKeepalive();
-    }
-
-    private void scheduleKeepalive() {
-        Preconditions.checkState(currentDeviceRpc != null);
-        LOG.trace("{}: Scheduling next keepalive in {} {}", id, keepaliveDelaySeconds, TimeUnit.SECONDS);
-        currentKeepalive = executor.schedule(new Keepalive(currentKeepalive), keepaliveDelaySeconds, TimeUnit.SECONDS);
+        LOG.debug("{}: Netconf session initiated, starting keepalives every {} {}", id, keepaliveDelaySeconds,
+            TimeUnit.SECONDS);
+        final KeepaliveWheel.Registration previous = currentKeepalive;
+        if (previous != null) {
+            previous.close();
+        }
+        currentKeepalive = KeepaliveWheel.register(executor, TimeUnit.SECONDS.toNanos(keepaliveDelaySeconds),
+            new Keepalive());
     }
 
     @Override
@@ -167,42 +203,67 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
     }
 
     // Keepalive RPC static resources
-    private static final SchemaPath PATH = toPath(NETCONF_GET_CONFIG_QNAME);
-    private static final ContainerNode KEEPALIVE_PAYLOAD = NetconfMessageTransformUtil.wrap(NETCONF_GET_CONFIG_QNAME,
+    private static final SchemaPath GET_CONFIG_PATH = toPath(NETCONF_GET_CONFIG_QNAME);
+    private static final ContainerNode GET_CONFIG_PAYLOAD = NetconfMessageTransformUtil.wrap(NETCONF_GET_CONFIG_QNAME,
             getSourceNode(NETCONF_RUNNING_QNAME), NetconfMessageTransformUtil.EMPTY_FILTER);
+    private static final SchemaPath GET_PATH = toPath(NETCONF_GET_QNAME);
+    private static final ContainerNode GET_NETCONF_STATE_PAYLOAD = NetconfMessageTransformUtil.wrap(NETCONF_GET_QNAME,
+            Builders.anyXmlBuilder().withNodeIdentifier(toId(NETCONF_FILTER_QNAME))
+                .withAttributes(Collections.singletonMap(NETCONF_TYPE_QNAME, "subtree"))
+                .withValue(new DOMSource(netconfStartTimeFilter())).build());
 
     /**
-     * Invoke keepalive RPC and check the response. In case of any received response the keepalive
-     * is considered successful and schedules next keepalive with a fixed delay. If the response is unsuccessful (no
-     * response received, or the rcp could not even be sent) immediate reconnect is triggered as netconf session
-     * is considered inactive/failed.
+     * Create a subtree filter selecting just the netconf-start-time leaf of ietf-netconf-monitoring, which makes for
+     * a keepalive reply of a few bytes. It is built directly, since the device schema may not contain the model.
      */
-    private class Keepalive implements Runnable, FutureCallback<DOMRpcResult> {
+    private static Element netconfStartTimeFilter() {
+        final Document document = XmlUtil.newDocument();
+        final Optional<String> netconfNamespace = Optional.of(NETCONF_FILTER_QNAME.getNamespace().toString());
+        final Optional<String> monitoringNamespace = Optional.of(NetconfState.QNAME.getNamespace().toString());
+
+        final Element filter = XmlUtil.createElement(document, NETCONF_FILTER_QNAME.getLocalName(), netconfNamespace);
+        filter.setAttributeNS(netconfNamespace.get(), NETCONF_TYPE_QNAME.getLocalName(), "subtree");
+        final Element state = XmlUtil.createElement(document, NetconfState.QNAME.getLocalName(), monitoringNamespace);
+        final Element statistics = XmlUtil.createElement(document, "statistics", monitoringNamespace);
+        statistics.appendChild(XmlUtil.createElement(document, "netconf-start-time", monitoringNamespace));
+        state.appendChild(statistics);
+        filter.appendChild(state);
+        return filter;
+    }
 
-        private final ScheduledFuture<?> previousKeepalive;
+    /**
+     * Invoke keepalive RPC once the session is idle and check the response. In case of any received response the
+     * keepalive is considered successful and counts as activity on the session. If the response is unsuccessful (no
+     * response received, or the rcp could not even be sent) immediate reconnect is triggered as netconf session
+     * is considered inactive/failed. Like any other RPC, a keepalive is cancelled once defaultRequestTimeoutMillis
+     * passes without a response, which triggers the reconnect. No new keepalive is sent while one is pending.
+     */
+    private class Keepalive implements KeepaliveWheel.IdleListener, FutureCallback<DOMRpcResult> {
 
-        Keepalive(final ScheduledFuture<?> previousKeepalive) {
-            this.previousKeepalive = previousKeepalive;
-        }
+        private volatile Future<DOMRpcResult> previousKeepalive;
 
         @Override
-        public void run() {
-            LOG.trace("{}: Invoking keepalive RPC", id);
-
-            try {
-                if (previousKeepalive != null && !previousKeepalive.isDone()) {
-                    onFailure(new IllegalStateException("Previous keepalive timed out"));
-                } else {
-                    Futures.addCallback(currentDeviceRpc.invokeRpc(PATH, KEEPALIVE_PAYLOAD), this,
-                                        MoreExecutors.directExecutor());
-                }
-            } catch (NullPointerException e) {
+        public void onIdle() {
+            final DOMRpcService deviceRpc = currentDeviceRpc;
+            if (deviceRpc == null) {
+                // We hit the reconnect window, keepalives will be started again after reconnect
                 LOG.debug("{}: Skipping keepalive while reconnecting", id);
-                // Empty catch block intentional
-                // Do nothing. The currentDeviceRpc was null and it means we hit the reconnect window and
-                // attempted to send keepalive while we were reconnecting. Next keepalive will be scheduled
-                // after reconnect so no action necessary here.
+                return;
+            }
+
+            final Future<DOMRpcResult> previous = previousKeepalive;
+            if (previous != null && !previous.isDone()) {
+                // Its request timeout decides whether the session is still alive
+                LOG.debug("{}: Previous keepalive still waiting for response, skipping keepalive", id);
+                return;
             }
+
+            LOG.trace("{}: Invoking keepalive RPC", id);
+            final CheckedFuture<DOMRpcResult, DOMRpcException> future =
+                    deviceRpc.invokeRpc(keepalivePath, keepalivePayload);
+            previousKeepalive = future;
+            Futures.addCallback(future, this, MoreExecutors.directExecutor());
+            executor.schedule(new RequestTimeoutTask(future), defaultRequestTimeoutMillis, TimeUnit.MILLISECONDS);
         }
 
         @SuppressFBWarnings(value = "RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE",
@@ -213,10 +274,10 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
             // we got it from device so the netconf session is OK
             if (result != null && result.getResult() != null) {
                 LOG.debug("{}: Keepalive RPC successful with response: {}", id, result.getResult());
-                scheduleKeepalive();
+                resetKeepalive();
             } else if (result != null && !result.getErrors().isEmpty()) {
                 LOG.warn("{}: Keepalive RPC failed with error: {}", id, result.getErrors());
-                scheduleKeepalive();
+                resetKeepalive();
             } else {
                 LOG.warn("{} Keepalive RPC returned null with response. Reconnecting netconf session", id);
                 reconnect();
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.concurrent.GuardedBy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timing wheel driving the keepalives of all devices sharing a keepalive executor. Instead of a timer task per
+ * device, which had to be cancelled and rescheduled on every RPC reply, the wheel runs a single periodic tick task.
+ * Devices mark activity by updating a timestamp. Each tick collects the registrations which became due in one batch
+ * and checks their timestamps: active ones are simply moved to the end of their new idle period, idle ones get
+ * notified and are rescheduled with a random jitter, so that keepalives of devices connected at the same time spread
+ * out over time.
+ */
+final class KeepaliveWheel {
+    private static final Logger LOG = LoggerFactory.getLogger(KeepaliveWheel.class);
+
+    @VisibleForTesting
+    static final long TICK_MILLIS = 100;
+
+    // Maximum jitter added to the delay of a rescheduled keepalive, as a percentage of the delay
+    @VisibleForTesting
+    static final int JITTER_PERCENT = 10;
+
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    @GuardedBy("WHEELS")
+    private static final Map<ScheduledExecutorService, KeepaliveWheel> WHEELS = new IdentityHashMap<>();
+
+    /**
+     * Listener notified once the session of a device has been idle for the keepalive delay.
+     */
+    @FunctionalInterface
+    interface IdleListener {
+        void onIdle();
+    }
+
+    /**
+     * Registration of a single device. Activity is recorded with {@link #markActive()}, which is a single volatile
+     * write and can be invoked from any thread.
+     */
+    final class Registration implements AutoCloseable {
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final IdleListener listener;
+        private final long delayNanos;
+
+        private volatile long lastActivity;
+
+        // Only accessed from the tick task
+        private long rounds;
+
+        Registration(final IdleListener listener, final long delayNanos) {
+            this.listener = requireNonNull(listener);
+            this.delayNanos = delayNanos;
+            this.lastActivity = ticker.read();
+        }
+
+        void markActive() {
+            lastActivity = ticker.read();
+        }
+
+        boolean isClosed() {
+            return closed.get();
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                unregister();
+            }
+        }
+    }
+
+    private final Queue<Registration> pending = new ConcurrentLinkedQueue<>();
+    private final List<List<Registration>> buckets = new ArrayList<>(WHEEL_SIZE);
+    private final ScheduledExecutorService executor;
+    private final Ticker ticker;
+    private final long tickNanos;
+    private final long startNanos;
+
+    @GuardedBy("WHEELS")
+    private ScheduledFuture<?> tickFuture;
+    @GuardedBy("WHEELS")
+    private int registrations;
+
+    // Only accessed from the tick task
+    private long currentTick;
+
+    @VisibleForTesting
+    KeepaliveWheel(final ScheduledExecutorService executor, final Ticker ticker) {
+        this.executor = requireNonNull(executor);
+        this.ticker = requireNonNull(ticker);
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+        this.startNanos = ticker.read();
+        for (int i = 0; i < WHEEL_SIZE; ++i) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Register a device with the wheel of an executor. The wheel is started with its first registration and stopped
+     * once all of its registrations are closed.
+     *
+     * @param executor Executor running the tick task
+     * @param delayNanos Idle time after which the listener is notified
+     * @param listener Listener to notify, invoked on the executor
+     * @return Registration, which needs to be closed once keepalives are not needed
+     */
+    static Registration register(final ScheduledExecutorService executor, final long delayNanos,
+            final IdleListener listener) {
+        synchronized (WHEELS) {
+            KeepaliveWheel wheel = WHEELS.get(executor);
+            if (wheel == null) {
+                wheel = new KeepaliveWheel(executor, Ticker.systemTicker());
+                WHEELS.put(executor, wheel);
+            }
+            return wheel.register(delayNanos, listener);
+        }
+    }
+
+    @VisibleForTesting
+    Registration register(final long delayNanos, final IdleListener listener) {
+        Preconditions.checkArgument(delayNanos > 0, "Delay must be positive, %s", delayNanos);
+        final Registration registration = new Registration(listener, delayNanos);
+        synchronized (WHEELS) {
+            if (registrations++ == 0) {
+                tickFuture = executor.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS,
+                    TimeUnit.MILLISECONDS);
+            }
+        }
+        pending.add(registration);
+        return registration;
+    }
+
+    private void unregister() {
+        synchronized (WHEELS) {
+            if (--registrations == 0) {
+                tickFuture.cancel(false);
+                tickFuture = null;
+                WHEELS.remove(executor, this);
+            }
+        }
+    }
+
+    @VisibleForTesting
+    void tick() {
+        final long now = ticker.read();
+        final long targetTick = (now - startNanos) / tickNanos;
+
+        for (Registration registration = pending.poll(); registration != null; registration = pending.poll()) {
+            schedule(registration, registration.lastActivity + registration.delayNanos
+                + jitter(registration.delayNanos));
+        }
+
+        final List<Registration> due = new ArrayList<>();
+        for (; currentTick <= targetTick; ++currentTick) {
+            expire(buckets.get((int) (currentTick & WHEEL_MASK)), due);
+        }
+
+        for (Registration registration : due) {
+            if (!registration.isClosed()) {
+                fire(registration, now);
+            }
+        }
+    }
+
+    private static void expire(final List<Registration> bucket, final List<Registration> due) {
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); ++i) {
+            final Registration registration = bucket.get(i);
+            if (registration.isClosed()) {
+                continue;
+            }
+            if (registration.rounds > 0) {
+                registration.rounds--;
+                bucket.set(kept++, registration);
+            } else {
+                due.add(registration);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void fire(final Registration registration, final long now) {
+        final long lastActivity = registration.lastActivity;
+        if (now - lastActivity < registration.delayNanos) {
+            // There was activity in the meantime, check again once it has been idle for the whole delay
+            schedule(registration, lastActivity + registration.delayNanos);
+            return;
+        }
+
+        schedule(registration, now + registration.delayNanos + jitter(registration.delayNanos));
+        try {
+            registration.listener.onIdle();
+        } catch (RuntimeException e) {
+            // Must not propagate, it would cancel the tick task of all devices
+            LOG.warn("Keepalive listener {} failed", registration.listener, e);
+        }
+    }
+
+    private void schedule(final Registration registration, final long deadline) {
+        final long ticks = Math.max((Math.max(deadline - startNanos, 0) + tickNanos - 1) / tickNanos, currentTick);
+        registration.rounds = (ticks - currentTick) / WHEEL_SIZE;
+        buckets.get((int) (ticks & WHEEL_MASK)).add(registration);
+    }
+
+    private static long jitter(final long delayNanos) {
+        return ThreadLocalRandom.current().nextLong(delayNanos / 100 * JITTER_PERCENT + 1);
+    }
+}
@@ -11,17 +11,22 @@ package org.opendaylight.netconf.sal.connect.netconf.sal;
 import com.google.common.base.Preconditions;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBrokerExtension;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadWriteTransaction;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
 import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.AbstractWriteTx;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ConfigReplica;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ReadOnlyTx;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ReadWriteTx;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.SharedReads;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.TxChain;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.WriteCandidateRunningTx;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.WriteCandidateTx;
@@ -30,18 +35,33 @@ import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
-public final class NetconfDeviceDataBroker implements DOMDataBroker {
+public final class NetconfDeviceDataBroker implements DOMDataBroker, AutoCloseable {
     private final RemoteDeviceId id;
     private final NetconfBaseOps netconfOps;
 
     private final boolean rollbackSupport;
     private final boolean candidateSupported;
     private final boolean runningWritable;
+    private final boolean coalesceEdits;
+    private final SharedReads sharedReads;
+    private final ConfigReplica configReplica;
 
     public NetconfDeviceDataBroker(final RemoteDeviceId id, final SchemaContext schemaContext,
                                    final DOMRpcService rpc, final NetconfSessionPreferences netconfSessionPreferences) {
+        this(id, schemaContext, rpc, netconfSessionPreferences, DeviceDataBrokerConfiguration.DEFAULT,
+            (cacheHits, cacheMisses, mergedReads) -> { });
+    }
+
+    public NetconfDeviceDataBroker(final RemoteDeviceId id, final SchemaContext schemaContext,
+                                   final DOMRpcService rpc, final NetconfSessionPreferences netconfSessionPreferences,
+                                   final DeviceDataBrokerConfiguration configuration,
+                                   final SharedReads.StatisticsListener statisticsListener) {
         this.id = id;
+        this.coalesceEdits = configuration.isCoalesceEdits();
         this.netconfOps = new NetconfBaseOps(rpc, schemaContext);
+        this.sharedReads = configuration.isSharedReads() ? new SharedReads(id, netconfOps,
+            configuration.isReadDeduplication(), configuration.getOperationalReadCacheTtlMillis(),
+            configuration.getOperationalReadCacheSize(), statisticsListener) : null;
         // get specific attributes from netconf preferences and get rid of it
         // no need to keep the entire preferences object, its quite big with all the capability QNames
         candidateSupported = netconfSessionPreferences.isCandidateSupported();
@@ -50,11 +70,21 @@ public final class NetconfDeviceDataBroker implements DOMDataBroker {
         Preconditions.checkArgument(candidateSupported || runningWritable,
             "Device %s has advertised neither :writable-running nor :candidate capability."
                     + "At least one of these should be advertised. Failed to establish a session.", id.getName());
+        this.configReplica = configuration.isConfigReplica() ? newConfigReplica(id, schemaContext, configuration)
+            : null;
+    }
+
+    private ConfigReplica newConfigReplica(final RemoteDeviceId deviceId, final SchemaContext schemaContext,
+            final DeviceDataBrokerConfiguration configuration) {
+        final long resyncIntervalMillis = configuration.getConfigReplicaResyncIntervalMillis();
+        final ScheduledExecutorService executor = configuration.getConfigReplicaExecutor();
+        return executor == null ? new ConfigReplica(deviceId, netconfOps, schemaContext, resyncIntervalMillis)
+            : new ConfigReplica(deviceId, netconfOps, schemaContext, resyncIntervalMillis, executor);
     }
 
     @Override
     public DOMDataReadOnlyTransaction newReadOnlyTransaction() {
-        return new ReadOnlyTx(netconfOps, id);
+        return new ReadOnlyTx(netconfOps, id, sharedReads, configReplica);
     }
 
     @Override
@@ -64,15 +94,20 @@ public final class NetconfDeviceDataBroker implements DOMDataBroker {
 
     @Override
     public DOMDataWriteTransaction newWriteOnlyTransaction() {
+        final AbstractWriteTx tx;
         if (candidateSupported) {
             if (runningWritable) {
-                return new WriteCandidateRunningTx(id, netconfOps, rollbackSupport);
+                tx = new WriteCandidateRunningTx(id, netconfOps, rollbackSupport, coalesceEdits);
             } else {
-                return new WriteCandidateTx(id, netconfOps, rollbackSupport);
+                tx = new WriteCandidateTx(id, netconfOps, rollbackSupport, coalesceEdits);
             }
         } else {
-            return new WriteRunningTx(id, netconfOps, rollbackSupport);
+            tx = new WriteRunningTx(id, netconfOps, rollbackSupport, coalesceEdits);
+        }
+        if (configReplica != null) {
+            configReplica.track(tx);
         }
+        return tx;
     }
 
     @Override
@@ -85,4 +120,25 @@ public final class NetconfDeviceDataBroker implements DOMDataBroker {
         return Collections.emptyMap();
     }
 
+    /**
+     * Process a notification received from the device, so that the configuration replica, if any, can be updated.
+     *
+     * @param notification Notification from the device
+     */
+    public void onNotification(final DOMNotification notification) {
+        if (configReplica != null) {
+            configReplica.onNotification(notification);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (sharedReads != null) {
+            sharedReads.close();
+        }
+        if (configReplica != null) {
+            configReplica.close();
+        }
+    }
+
 }
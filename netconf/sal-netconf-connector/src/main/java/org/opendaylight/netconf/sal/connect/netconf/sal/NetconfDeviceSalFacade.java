@@ -11,7 +11,6 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import java.util.List;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
-import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMMountPointService;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
@@ -30,21 +29,34 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
     private final RemoteDeviceId id;
     private final NetconfDeviceSalProvider salProvider;
     private final List<AutoCloseable> salRegistrations = Lists.newArrayList();
+    private final DeviceDataBrokerConfiguration dataBrokerConfiguration;
+    private NetconfDeviceDataBroker deviceDataBroker;
 
     public NetconfDeviceSalFacade(final RemoteDeviceId id, final DOMMountPointService mountPointService,
                                   final DataBroker dataBroker) {
+        this(id, mountPointService, dataBroker, DeviceDataBrokerConfiguration.DEFAULT);
+    }
+
+    public NetconfDeviceSalFacade(final RemoteDeviceId id, final DOMMountPointService mountPointService,
+                                  final DataBroker dataBroker,
+                                  final DeviceDataBrokerConfiguration dataBrokerConfiguration) {
         this.id = id;
         this.salProvider = new NetconfDeviceSalProvider(id, mountPointService, dataBroker);
+        this.dataBrokerConfiguration = dataBrokerConfiguration;
     }
 
     @VisibleForTesting
     NetconfDeviceSalFacade(final RemoteDeviceId id, final NetconfDeviceSalProvider salProvider) {
         this.id = id;
         this.salProvider = salProvider;
+        this.dataBrokerConfiguration = DeviceDataBrokerConfiguration.DEFAULT;
     }
 
     @Override
     public synchronized void onNotification(final DOMNotification domNotification) {
+        if (deviceDataBroker != null) {
+            deviceDataBroker.onNotification(domNotification);
+        }
         salProvider.getMountInstance().publish(domNotification);
     }
 
@@ -53,8 +65,12 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
                                                final NetconfSessionPreferences netconfSessionPreferences,
                                                final DOMRpcService deviceRpc) {
 
-        final DOMDataBroker domBroker =
-                new NetconfDeviceDataBroker(id, schemaContext, deviceRpc, netconfSessionPreferences);
+        closeDeviceDataBroker();
+        final NetconfDeviceDataBroker domBroker = new NetconfDeviceDataBroker(id, schemaContext, deviceRpc,
+            netconfSessionPreferences, dataBrokerConfiguration,
+            (cacheHits, cacheMisses, mergedReads) -> salProvider.getTopologyDatastoreAdapter()
+                .updateReadStatistics(cacheHits, cacheMisses, mergedReads));
+        deviceDataBroker = domBroker;
 
         final NetconfDeviceNotificationService notificationService = new NetconfDeviceNotificationService();
 
@@ -66,24 +82,34 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
 
     @Override
     public synchronized void onDeviceDisconnected() {
+        closeDeviceDataBroker();
         salProvider.getTopologyDatastoreAdapter().updateDeviceData(false, new NetconfDeviceCapabilities());
         salProvider.getMountInstance().onTopologyDeviceDisconnected();
     }
 
     @Override
     public synchronized void onDeviceFailed(final Throwable throwable) {
+        closeDeviceDataBroker();
         salProvider.getTopologyDatastoreAdapter().setDeviceAsFailed(throwable);
         salProvider.getMountInstance().onTopologyDeviceDisconnected();
     }
 
     @Override
     public synchronized void close() {
+        closeDeviceDataBroker();
         for (final AutoCloseable reg : Lists.reverse(salRegistrations)) {
             closeGracefully(reg);
         }
         closeGracefully(salProvider);
     }
 
+    private void closeDeviceDataBroker() {
+        if (deviceDataBroker != null) {
+            deviceDataBroker.close();
+            deviceDataBroker = null;
+        }
+    }
+
     @SuppressWarnings("checkstyle:IllegalCatch")
     private void closeGracefully(final AutoCloseable resource) {
         if (resource != null) {
@@ -10,6 +10,7 @@ package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.FutureCallback;
@@ -17,6 +18,7 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -51,14 +53,33 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
     protected final boolean rollbackSupport;
     protected final List<ListenableFuture<DOMRpcResult>> resultsFutures;
     private final List<TxListener> listeners = new CopyOnWriteArrayList<>();
+    // Edits buffered until commit, null if each edit is passed to editConfig() right away
+    private final EditConfigCoalescer pendingEdits;
+    // Paths of all edits done in this transaction
+    private final List<YangInstanceIdentifier> editedPaths = new ArrayList<>();
     // Allow commit to be called only once
     protected volatile boolean finished = false;
 
     public AbstractWriteTx(final NetconfBaseOps netOps, final RemoteDeviceId id, final boolean rollbackSupport) {
+        this(netOps, id, rollbackSupport, false);
+    }
+
+    /**
+     * Create a new transaction.
+     *
+     * @param netOps Netconf operations
+     * @param id Remote device id
+     * @param rollbackSupport True if the device supports rollback-on-error
+     * @param coalesceEdits True if edits should be buffered until commit and sent to the device in as few edit-config
+     *                      RPCs as possible, false if each edit should be sent as its own edit-config RPC
+     */
+    public AbstractWriteTx(final NetconfBaseOps netOps, final RemoteDeviceId id, final boolean rollbackSupport,
+                           final boolean coalesceEdits) {
         this.netOps = netOps;
         this.id = id;
         this.rollbackSupport = rollbackSupport;
         this.resultsFutures = Lists.newArrayList();
+        this.pendingEdits = coalesceEdits ? new EditConfigCoalescer() : null;
         init();
     }
 
@@ -109,7 +130,7 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
         final DataContainerChild<?, ?> editStructure =
                 netOps.createEditConfigStrcture(Optional.<NormalizedNode<?, ?>>fromNullable(data),
                         Optional.of(ModifyAction.REPLACE), path);
-        editConfig(path, Optional.fromNullable(data), editStructure, Optional.<ModifyAction>absent(), "put");
+        edit(path, Optional.fromNullable(data), editStructure, Optional.<ModifyAction>absent(), "put");
     }
 
     @Override
@@ -127,7 +148,7 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
         final DataContainerChild<?, ?> editStructure =
                 netOps.createEditConfigStrcture(Optional.<NormalizedNode<?, ?>>fromNullable(data),
                         Optional.<ModifyAction>absent(), path);
-        editConfig(path, Optional.fromNullable(data), editStructure, Optional.<ModifyAction>absent(), "merge");
+        edit(path, Optional.fromNullable(data), editStructure, Optional.<ModifyAction>absent(), "merge");
     }
 
     /**
@@ -146,7 +167,7 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
         final DataContainerChild<?, ?> editStructure =
                 netOps.createEditConfigStrcture(Optional.<NormalizedNode<?, ?>>absent(),
                         Optional.of(ModifyAction.DELETE), path);
-        editConfig(path, Optional.<NormalizedNode<?, ?>>absent(),
+        edit(path, Optional.<NormalizedNode<?, ?>>absent(),
                 editStructure, Optional.of(ModifyAction.NONE), "delete");
     }
 
@@ -181,6 +202,7 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
         listeners.forEach(listener -> listener.onTransactionSubmitted(this));
         checkNotFinished();
         finished = true;
+        flushPendingEdits();
         final ListenableFuture<RpcResult<Void>> result = performCommit();
         Futures.addCallback(result, new FutureCallback<RpcResult<Void>>() {
             @Override
@@ -211,6 +233,30 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
                 "Can edit only configuration data, not %s", store);
     }
 
+    private void edit(final YangInstanceIdentifier path, final Optional<NormalizedNode<?, ?>> data,
+                      final DataContainerChild<?, ?> editStructure, final Optional<ModifyAction> defaultOperation,
+                      final String operation) {
+        editedPaths.add(path);
+        listeners.forEach(listener -> listener.onTransactionEdited(this, path));
+        if (pendingEdits != null) {
+            pendingEdits.add(path, editStructure, defaultOperation);
+        } else {
+            editConfig(path, data, editStructure, defaultOperation, operation);
+        }
+    }
+
+    private synchronized void flushPendingEdits() {
+        if (pendingEdits != null && !pendingEdits.isEmpty()) {
+            final List<EditConfigCoalescer.Edit> edits = pendingEdits.drain();
+            LOG.debug("{}: Sending {} coalesced edit-config RPCs for transaction {}", id, edits.size(),
+                getIdentifier());
+            for (EditConfigCoalescer.Edit edit : edits) {
+                editConfig(edit.getPath(), Optional.absent(), edit.getEditStructure(), edit.getDefaultOperation(),
+                    "edit");
+            }
+        }
+    }
+
     protected abstract void editConfig(YangInstanceIdentifier path, Optional<NormalizedNode<?, ?>> data,
                                        DataContainerChild<?, ?> editStructure,
                                        Optional<ModifyAction> defaultOperation, String operation);
@@ -297,6 +343,15 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
         transformed.set(RpcResultBuilder.<Void>success().build());
     }
 
+    /**
+     * Return paths of all edits done in this transaction so far.
+     *
+     * @return Edited paths, in the order the edits were done
+     */
+    synchronized List<YangInstanceIdentifier> getEditedPaths() {
+        return ImmutableList.copyOf(editedPaths);
+    }
+
     AutoCloseable addListener(final TxListener listener) {
         listeners.add(listener);
         return () -> listeners.remove(listener);
@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfRpcFutureCallback;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfConfigChange;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.netconf.config.change.Edit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory replica of the running configuration of a device, used to serve configuration reads of a mount point
+ * without a round trip to the device.
+ *
+ * <p>
+ * The replica is seeded by a single get-config of the whole running datastore. Afterwards it is kept in sync by:
+ * <ul>
+ *     <li>re-reading the targets of netconf-config-change notifications received from the device,</li>
+ *     <li>re-reading the paths edited by transactions of the mount point, once they are committed or cancelled,</li>
+ *     <li>optionally re-reading the whole datastore periodically, for devices which do not send notifications.</li>
+ * </ul>
+ * NETCONF replies are processed in the order requests were sent and re-read data is applied to the replica in that
+ * order, one reply at a time, hence a re-read can never overwrite the result of a newer one. Replies are applied by
+ * an executor, typically shared by all devices of a topology, not by the thread delivering them. The data is
+ * validated without holding the lock checked by reads, only the validated result is swapped in under it.
+ *
+ * <p>
+ * Reads are served locally only once the replica has been seeded and only if the path does not overlap with
+ * a path edited by a transaction which is still open or being committed, or with a path being re-read. All other
+ * reads need to be sent to the device.
+ */
+public final class ConfigReplica implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ConfigReplica.class);
+
+    // Used by replicas created without an executor of their topology
+    private static final Supplier<ScheduledExecutorService> RESYNC_EXECUTOR = Suppliers.memoize(
+        () -> Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("netconf-config-replica-%d").build()));
+
+    private static final QName DATASTORE_QNAME = QName.create(NetconfConfigChange.QNAME, "datastore").intern();
+    private static final QName TARGET_QNAME = QName.create(Edit.QNAME, "target").intern();
+    private static final String RUNNING = "running";
+
+    private final TxListener txListener = new TxListener() {
+        @Override
+        public void onTransactionSuccessful(final AbstractWriteTx transaction) {
+            refresh(transaction.getEditedPaths());
+        }
+
+        @Override
+        public void onTransactionFailed(final AbstractWriteTx transaction, final Throwable cause) {
+            // Without rollback support some of the edits may have been applied
+            refresh(transaction.getEditedPaths());
+        }
+
+        @Override
+        public void onTransactionCancelled(final AbstractWriteTx transaction) {
+            // Edits of the running datastore are sent before the transaction is submitted, some of them may have been
+            // applied already
+            refresh(transaction.getEditedPaths());
+        }
+
+        @Override
+        public void onTransactionSubmitted(final AbstractWriteTx transaction) {
+            // Edited paths are already dirty
+        }
+
+        @Override
+        public void onTransactionEdited(final AbstractWriteTx transaction, final YangInstanceIdentifier path) {
+            markDirty(path);
+        }
+    };
+
+    private final RemoteDeviceId id;
+    private final NetconfBaseOps netconfOps;
+    private final SchemaContext schemaContext;
+    private final DataTree dataTree;
+    private final ScheduledExecutorService executor;
+    // Applies replies of this device one at a time, in the order they were received
+    private final Executor applyExecutor;
+    private final ScheduledFuture<?> periodicResync;
+
+    // Paths which are being modified or re-read. Reads overlapping with these are sent to the device.
+    @GuardedBy("this")
+    private final Multiset<YangInstanceIdentifier> dirtyPaths = HashMultiset.create();
+    private volatile boolean seeded;
+    private volatile boolean closed;
+
+    /**
+     * Create a new replica and start seeding it, using an executor shared by all replicas without an executor of
+     * their own.
+     *
+     * @param id Remote device id
+     * @param netconfOps Netconf operations used to read the running datastore
+     * @param schemaContext Schema context of the device
+     * @param resyncIntervalMillis Interval of full resynchronizations, 0 disables them
+     */
+    public ConfigReplica(final RemoteDeviceId id, final NetconfBaseOps netconfOps, final SchemaContext schemaContext,
+            final long resyncIntervalMillis) {
+        this(id, netconfOps, schemaContext, resyncIntervalMillis, RESYNC_EXECUTOR.get());
+    }
+
+    /**
+     * Create a new replica and start seeding it.
+     *
+     * @param id Remote device id
+     * @param netconfOps Netconf operations used to read the running datastore
+     * @param schemaContext Schema context of the device
+     * @param resyncIntervalMillis Interval of full resynchronizations, 0 disables them
+     * @param executor Executor scheduling resynchronizations and applying replies, typically one per topology
+     */
+    public ConfigReplica(final RemoteDeviceId id, final NetconfBaseOps netconfOps, final SchemaContext schemaContext,
+            final long resyncIntervalMillis, final ScheduledExecutorService executor) {
+        Preconditions.checkArgument(resyncIntervalMillis >= 0, "Invalid resync interval %s", resyncIntervalMillis);
+        this.id = requireNonNull(id);
+        this.netconfOps = requireNonNull(netconfOps);
+        this.schemaContext = requireNonNull(schemaContext);
+        this.executor = requireNonNull(executor);
+        this.applyExecutor = MoreExecutors.newSequentialExecutor(executor);
+        this.dataTree = InMemoryDataTreeFactory.getInstance().create(DataTreeConfiguration.DEFAULT_CONFIGURATION,
+            schemaContext);
+
+        resync();
+        periodicResync = resyncIntervalMillis == 0 ? null : executor.scheduleWithFixedDelay(this::resync,
+            resyncIntervalMillis, resyncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Start tracking a write transaction of the mount point. Paths edited by the transaction are served from
+     * the device from the moment they are edited and are re-read once the transaction completes or is cancelled.
+     * The transaction has to be tracked before it is edited.
+     *
+     * @param transaction Transaction to track
+     */
+    public void track(final AbstractWriteTx transaction) {
+        transaction.addListener(txListener);
+    }
+
+    /**
+     * Check whether a path can be read from the replica.
+     *
+     * @param path Path to read
+     * @return True if {@link #read(YangInstanceIdentifier)} returns up-to-date data
+     */
+    public synchronized boolean isReadable(final YangInstanceIdentifier path) {
+        if (!seeded || closed) {
+            return false;
+        }
+        for (YangInstanceIdentifier dirty : dirtyPaths.elementSet()) {
+            if (dirty.contains(path) || path.contains(dirty)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read data from the replica. The empty path returns the whole datastore, wrapped in the same data container
+     * as returned by the device.
+     *
+     * @param path Path to read
+     * @return Data at the path
+     */
+    public Optional<NormalizedNode<?, ?>> read(final YangInstanceIdentifier path) {
+        final Optional<NormalizedNode<?, ?>> data = Optional.fromJavaUtil(dataTree.takeSnapshot().readNode(path));
+        if (!path.isEmpty() || !data.isPresent()) {
+            return data;
+        }
+        return Optional.of(Builders.containerBuilder()
+            .withNodeIdentifier(NetconfMessageTransformUtil.toId(NetconfMessageTransformUtil.NETCONF_DATA_QNAME))
+            .withValue(((ContainerNode) data.get()).getValue()).build());
+    }
+
+    /**
+     * Process a notification received from the device. Targets of netconf-config-change notifications concerning
+     * the running datastore are re-read, other notifications are ignored.
+     *
+     * @param notification Notification from the device
+     */
+    public void onNotification(final DOMNotification notification) {
+        if (!NetconfConfigChange.QNAME.equals(notification.getType().getLastComponent())) {
+            return;
+        }
+
+        final ContainerNode body = notification.getBody();
+        final java.util.Optional<DataContainerChild<?, ?>> datastore =
+                body.getChild(new NodeIdentifier(DATASTORE_QNAME));
+        if (datastore.isPresent() && !RUNNING.equals(datastore.get().getValue())) {
+            return;
+        }
+
+        final java.util.Optional<DataContainerChild<?, ?>> edits = body.getChild(new NodeIdentifier(Edit.QNAME));
+        if (!edits.isPresent() || !(edits.get() instanceof UnkeyedListNode)) {
+            LOG.debug("{}: Configuration change without edits, resynchronizing configuration replica", id);
+            markDirty(YangInstanceIdentifier.EMPTY);
+            refresh(YangInstanceIdentifier.EMPTY, true);
+            return;
+        }
+
+        final List<YangInstanceIdentifier> paths = new ArrayList<>();
+        for (UnkeyedListEntryNode edit : ((UnkeyedListNode) edits.get()).getValue()) {
+            final Object target = edit.getChild(new NodeIdentifier(TARGET_QNAME)).map(DataContainerChild::getValue)
+                    .orElse(null);
+            if (!(target instanceof YangInstanceIdentifier)) {
+                LOG.debug("{}: Configuration change with unknown target {}, resynchronizing configuration replica",
+                    id, target);
+                markDirty(YangInstanceIdentifier.EMPTY);
+                refresh(YangInstanceIdentifier.EMPTY, true);
+                return;
+            }
+            paths.add((YangInstanceIdentifier) target);
+        }
+
+        markDirty(paths);
+        refresh(paths);
+    }
+
+    /**
+     * Re-read the whole running datastore and replace the content of the replica. The replica keeps serving reads
+     * while the datastore is being read.
+     */
+    public void resync() {
+        refresh(YangInstanceIdentifier.EMPTY, false);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (periodicResync != null) {
+            periodicResync.cancel(false);
+        }
+    }
+
+    /**
+     * Re-read dirty paths and clear them once done. Paths covered by another one are refreshed along with it.
+     */
+    private void refresh(final Collection<YangInstanceIdentifier> paths) {
+        for (YangInstanceIdentifier path : paths) {
+            if (hasAncestor(path, paths)) {
+                clearDirty(path);
+            } else {
+                refresh(path, true);
+            }
+        }
+    }
+
+    private void refresh(final YangInstanceIdentifier path, final boolean dirty) {
+        if (closed) {
+            if (dirty) {
+                clearDirty(path);
+            }
+            return;
+        }
+
+        Futures.addCallback(netconfOps.getConfigRunningData(new NetconfRpcFutureCallback("Replica read", id),
+            Optional.of(path)), new FutureCallback<Optional<NormalizedNode<?, ?>>>() {
+                @Override
+                public void onSuccess(final Optional<NormalizedNode<?, ?>> result) {
+                    try {
+                        apply(path, result);
+                    } finally {
+                        if (dirty) {
+                            clearDirty(path);
+                        }
+                    }
+                }
+
+                @Override
+                public void onFailure(final Throwable throwable) {
+                    LOG.warn("{}: Failed to read {} into configuration replica", id, path, throwable);
+                    if (dirty) {
+                        clearDirty(path);
+                    }
+                    if (!path.isEmpty()) {
+                        resync();
+                    }
+                }
+            }, applyExecutor);
+    }
+
+    /**
+     * Apply re-read data to the replica. Invoked by {@link #applyExecutor} only, hence modifications of the data tree
+     * never run concurrently.
+     */
+    private void apply(final YangInstanceIdentifier path, final Optional<NormalizedNode<?, ?>> data) {
+        if (closed) {
+            return;
+        }
+
+        final DataTreeModification modification = dataTree.takeSnapshot().newModification();
+        if (path.isEmpty()) {
+            if (!data.isPresent() || !(data.get() instanceof ContainerNode)) {
+                LOG.warn("{}: Unexpected running datastore content {}, configuration replica is not available", id,
+                    data);
+                seeded = false;
+                return;
+            }
+            modification.write(path, Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(
+                SchemaContext.NAME)).withValue(((ContainerNode) data.get()).getValue()).build());
+        } else if (data.isPresent()) {
+            if (path.getPathArguments().size() > 1) {
+                // Make sure ancestors exist, write of a node requires its parent to be present
+                modification.merge(YangInstanceIdentifier.create(path.getPathArguments().get(0)),
+                    ImmutableNodes.fromInstanceId(schemaContext, path.getParent()));
+            }
+            modification.write(path, data.get());
+        } else if (modification.readNode(path).isPresent()) {
+            modification.delete(path);
+        } else {
+            return;
+        }
+        modification.ready();
+
+        final DataTreeCandidate candidate;
+        try {
+            dataTree.validate(modification);
+            candidate = dataTree.prepare(modification);
+        } catch (DataValidationFailedException | RuntimeException e) {
+            LOG.warn("{}: Failed to apply {} to configuration replica", id, path, e);
+            if (path.isEmpty()) {
+                seeded = false;
+            } else {
+                executor.execute(this::resync);
+            }
+            return;
+        }
+
+        final ModificationType type = candidate.getRootNode().getModificationType();
+        final boolean wasSeeded;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            dataTree.commit(candidate);
+            wasSeeded = seeded;
+            if (path.isEmpty()) {
+                seeded = true;
+            }
+        }
+
+        if (path.isEmpty()) {
+            LOG.debug("{}: Configuration replica {}", id, wasSeeded ? "resynchronized, modification " + type
+                : "seeded");
+        } else {
+            LOG.trace("{}: Configuration replica updated at {}, modification {}", id, path, type);
+        }
+    }
+
+    private synchronized void markDirty(final YangInstanceIdentifier path) {
+        dirtyPaths.add(path);
+    }
+
+    private synchronized void markDirty(final Collection<YangInstanceIdentifier> paths) {
+        dirtyPaths.addAll(paths);
+    }
+
+    private synchronized void clearDirty(final YangInstanceIdentifier path) {
+        dirtyPaths.remove(path);
+    }
+
+    private static boolean hasAncestor(final YangInstanceIdentifier path,
+            final Collection<YangInstanceIdentifier> paths) {
+        for (YangInstanceIdentifier other : paths) {
+            if (!other.equals(path) && other.contains(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CONFIG_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_OPERATION_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toId;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.xml.transform.dom.DOMSource;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.base._1._0.rev110601.edit.config.input.EditContent;
+import org.opendaylight.yangtools.yang.data.api.ModifyAction;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Buffers the edits of a write transaction and merges them into as few edit-config documents as possible.
+ *
+ * <p>
+ * Consecutive edits are merged into a single document as long as they use the same default operation and none of
+ * their paths is an ancestor of another one. Such edits touch disjoint parts of the datastore, hence the merged
+ * document, in which each edit keeps its own operation attribute, has the same effect as the individual edits
+ * applied one after another. An edit which does not satisfy these conditions starts a new document, so that the order
+ * in which overlapping edits are applied is retained.
+ *
+ * <p>
+ * This class is not thread-safe, callers are expected to synchronize access to it.
+ */
+final class EditConfigCoalescer {
+    private static final String NETCONF_NAMESPACE = NETCONF_OPERATION_QNAME.getNamespace().toString();
+    private static final String OPERATION = NETCONF_OPERATION_QNAME.getLocalName();
+
+    /**
+     * A single edit-config to be sent to the device.
+     */
+    static final class Edit {
+        private final YangInstanceIdentifier path;
+        private final DataContainerChild<?, ?> editStructure;
+        private final Optional<ModifyAction> defaultOperation;
+
+        Edit(final YangInstanceIdentifier path, final DataContainerChild<?, ?> editStructure,
+                final Optional<ModifyAction> defaultOperation) {
+            this.path = path;
+            this.editStructure = editStructure;
+            this.defaultOperation = defaultOperation;
+        }
+
+        /**
+         * Return the path of the edit. For merged edits this is the closest common ancestor of all merged paths.
+         *
+         * @return Path of the edit
+         */
+        YangInstanceIdentifier getPath() {
+            return path;
+        }
+
+        DataContainerChild<?, ?> getEditStructure() {
+            return editStructure;
+        }
+
+        Optional<ModifyAction> getDefaultOperation() {
+            return defaultOperation;
+        }
+    }
+
+    private static final class Batch {
+        private final List<YangInstanceIdentifier> paths = new ArrayList<>();
+        private final List<DataContainerChild<?, ?>> editStructures = new ArrayList<>();
+        private final Optional<ModifyAction> defaultOperation;
+
+        Batch(final Optional<ModifyAction> defaultOperation) {
+            this.defaultOperation = defaultOperation;
+        }
+
+        boolean canAdd(final YangInstanceIdentifier path, final Optional<ModifyAction> operation) {
+            if (!defaultOperation.equals(operation)) {
+                return false;
+            }
+            for (YangInstanceIdentifier existing : paths) {
+                if (existing.contains(path) || path.contains(existing)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(final YangInstanceIdentifier path, final DataContainerChild<?, ?> editStructure) {
+            paths.add(path);
+            editStructures.add(editStructure);
+        }
+
+        Edit toEdit() {
+            if (editStructures.size() == 1) {
+                return new Edit(paths.get(0), editStructures.get(0), defaultOperation);
+            }
+
+            final Document document = XmlUtil.newDocument();
+            final Element config = document.createElementNS(NETCONF_CONFIG_QNAME.getNamespace().toString(),
+                NETCONF_CONFIG_QNAME.getLocalName());
+            document.appendChild(config);
+            for (DataContainerChild<?, ?> editStructure : editStructures) {
+                mergeChildren(config, getConfigElement(editStructure));
+            }
+
+            final AnyXmlNode configContent = Builders.anyXmlBuilder().withNodeIdentifier(toId(NETCONF_CONFIG_QNAME))
+                    .withValue(new DOMSource(config)).build();
+            return new Edit(commonAncestor(paths), Builders.choiceBuilder()
+                .withNodeIdentifier(toId(EditContent.QNAME)).withChild(configContent).build(), defaultOperation);
+        }
+    }
+
+    private final List<Batch> batches = new ArrayList<>();
+
+    /**
+     * Add an edit.
+     *
+     * @param path Path of the edited node
+     * @param editStructure Edit content, as created by
+     *        {@link org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps#createEditConfigStrcture}
+     * @param defaultOperation Default operation of the edit
+     */
+    void add(final YangInstanceIdentifier path, final DataContainerChild<?, ?> editStructure,
+            final Optional<ModifyAction> defaultOperation) {
+        Batch batch = batches.isEmpty() ? null : batches.get(batches.size() - 1);
+        if (batch == null || !batch.canAdd(path, defaultOperation)) {
+            batch = new Batch(defaultOperation);
+            batches.add(batch);
+        }
+        batch.add(path, editStructure);
+    }
+
+    boolean isEmpty() {
+        return batches.isEmpty();
+    }
+
+    /**
+     * Return the edits to send to the device, in the order they need to be applied, and reset this coalescer.
+     *
+     * @return Edits to send
+     */
+    List<Edit> drain() {
+        final List<Edit> ret = new ArrayList<>(batches.size());
+        for (Batch batch : batches) {
+            ret.add(batch.toEdit());
+        }
+        batches.clear();
+        return ret;
+    }
+
+    private static Element getConfigElement(final DataContainerChild<?, ?> editStructure) {
+        Preconditions.checkArgument(editStructure instanceof ChoiceNode, "Unexpected edit structure %s",
+            editStructure);
+        final DataContainerChild<?, ?> content = ((ChoiceNode) editStructure).getValue().iterator().next();
+        Preconditions.checkArgument(content instanceof AnyXmlNode, "Unexpected edit content %s", content);
+        final Node node = ((AnyXmlNode) content).getValue().getNode();
+        return node instanceof Document ? ((Document) node).getDocumentElement() : (Element) node;
+    }
+
+    /**
+     * Merge children of source into target. Elements corresponding to the same data node are merged recursively,
+     * unless one of them carries an operation attribute, all others are appended.
+     */
+    private static void mergeChildren(final Element target, final Element source) {
+        for (Node child = source.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+
+            final Element sourceChild = (Element) child;
+            final Element targetChild = hasOperation(sourceChild) ? null : findSameNode(target, sourceChild);
+            if (targetChild != null) {
+                mergeChildren(targetChild, sourceChild);
+            } else {
+                target.appendChild(target.getOwnerDocument().importNode(sourceChild, true));
+            }
+        }
+    }
+
+    private static Element findSameNode(final Element parent, final Element element) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && !hasOperation((Element) child)
+                    && isSameNode((Element) child, element)) {
+                return (Element) child;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check whether two elements correspond to the same data node. Since edit structures of ancestors carry only
+     * the keys of list entries as leaf content, we consider elements with the same name to be the same node if none
+     * of their common leaf children differ in value.
+     */
+    private static boolean isSameNode(final Element first, final Element second) {
+        if (!sameName(first, second)) {
+            return false;
+        }
+        final boolean firstLeaf = isLeaf(first);
+        final boolean secondLeaf = isLeaf(second);
+        if (firstLeaf || secondLeaf) {
+            return firstLeaf && secondLeaf && first.getTextContent().trim().equals(second.getTextContent().trim());
+        }
+
+        for (Node child = second.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && isLeaf((Element) child)) {
+                final Element otherChild = findLeaf(first, (Element) child);
+                if (otherChild != null
+                        && !otherChild.getTextContent().trim().equals(child.getTextContent().trim())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static Element findLeaf(final Element parent, final Element leaf) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && sameName((Element) child, leaf)
+                    && isLeaf((Element) child)) {
+                return (Element) child;
+            }
+        }
+        return null;
+    }
+
+    private static boolean sameName(final Element first, final Element second) {
+        return first.getLocalName().equals(second.getLocalName())
+                && Objects.equals(first.getNamespaceURI(), second.getNamespaceURI());
+    }
+
+    private static boolean isLeaf(final Element element) {
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasOperation(final Element element) {
+        return element.hasAttributeNS(NETCONF_NAMESPACE, OPERATION);
+    }
+
+    private static YangInstanceIdentifier commonAncestor(final List<YangInstanceIdentifier> paths) {
+        final List<PathArgument> first = paths.get(0).getPathArguments();
+        int length = first.size();
+        for (YangInstanceIdentifier path : paths.subList(1, paths.size())) {
+            final List<PathArgument> args = path.getPathArguments();
+            length = Math.min(length, args.size());
+            for (int i = 0; i < length; ++i) {
+                if (!first.get(i).equals(args.get(i))) {
+                    length = i;
+                    break;
+                }
+            }
+        }
+        return YangInstanceIdentifier.create(first.subList(0, length));
+    }
+}
@@ -12,7 +12,7 @@ import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.MoreExecutors;
+import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
@@ -32,10 +32,29 @@ public final class ReadOnlyTx implements DOMDataReadOnlyTransaction {
 
     private final NetconfBaseOps netconfOps;
     private final RemoteDeviceId id;
+    private final SharedReads sharedReads;
+    private final ConfigReplica configReplica;
 
     public ReadOnlyTx(final NetconfBaseOps netconfOps, final RemoteDeviceId id) {
+        this(netconfOps, id, null, null);
+    }
+
+    /**
+     * Create a new transaction.
+     *
+     * @param netconfOps Netconf operations
+     * @param id Remote device id
+     * @param sharedReads Reads shared by all transactions of the device, null if each read should be sent
+     *                    to the device
+     * @param configReplica Replica of the running datastore serving configuration reads, null if configuration
+     *                      reads should be sent to the device
+     */
+    public ReadOnlyTx(final NetconfBaseOps netconfOps, final RemoteDeviceId id,
+                      @Nullable final SharedReads sharedReads, @Nullable final ConfigReplica configReplica) {
         this.netconfOps = netconfOps;
         this.id = id;
+        this.sharedReads = sharedReads;
+        this.configReplica = configReplica;
     }
 
     private CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readConfigurationData(
@@ -62,6 +81,15 @@ public final class ReadOnlyTx implements DOMDataReadOnlyTransaction {
     @Override
     public CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> read(
             final LogicalDatastoreType store, final YangInstanceIdentifier path) {
+        if (isReplicated(store, path)) {
+            return MappingCheckedFuture.create(Futures.immediateFuture(configReplica.read(path)),
+                ReadFailedException.MAPPER);
+        }
+        if (sharedReads != null && path != null
+                && (store == LogicalDatastoreType.CONFIGURATION || store == LogicalDatastoreType.OPERATIONAL)) {
+            return MappingCheckedFuture.create(sharedReads.read(store, path), ReadFailedException.MAPPER);
+        }
+
         switch (store) {
             case CONFIGURATION:
                 return readConfigurationData(path);
@@ -78,11 +106,32 @@ public final class ReadOnlyTx implements DOMDataReadOnlyTransaction {
     @Override
     public CheckedFuture<Boolean, ReadFailedException> exists(final LogicalDatastoreType store,
                                                               final YangInstanceIdentifier path) {
-        final ListenableFuture<Boolean> result = Futures.transform(read(store, path),
-            optionalNode -> optionalNode != null && optionalNode.isPresent(), MoreExecutors.directExecutor());
+        if (isReplicated(store, path)) {
+            return MappingCheckedFuture.create(Futures.immediateFuture(configReplica.read(path).isPresent()),
+                ReadFailedException.MAPPER);
+        }
+
+        final ListenableFuture<Boolean> result;
+        switch (store) {
+            case CONFIGURATION:
+                result = netconfOps.configRunningDataExists(new NetconfRpcFutureCallback("Data exists", id), path);
+                break;
+            case OPERATIONAL:
+                result = netconfOps.dataExists(new NetconfRpcFutureCallback("Data exists", id), path);
+                break;
+            default:
+                LOG.info("Unknown datastore type: {}.", store);
+                throw new IllegalArgumentException(String.format(
+                    "%s, Cannot check data %s for %s datastore, unknown datastore type", id, path, store));
+        }
         return MappingCheckedFuture.create(result, ReadFailedException.MAPPER);
     }
 
+    private boolean isReplicated(final LogicalDatastoreType store, final YangInstanceIdentifier path) {
+        return configReplica != null && store == LogicalDatastoreType.CONFIGURATION && path != null
+                && configReplica.isReadable(path);
+    }
+
     @Override
     public Object getIdentifier() {
         return this;
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfRpcFutureCallback;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads shared by all transactions of a mount point. Concurrent reads of the same operational path are merged into
+ * a single RPC, if deduplication is enabled, and results of operational reads are optionally cached for a short time.
+ * Results are immutable NormalizedNodes, hence they can be handed to multiple readers.
+ *
+ * <p>
+ * Configuration reads are always sent to the device. Merging them would let a read issued after a commit join a read
+ * issued before it, which breaks read-your-writes.
+ *
+ * <p>
+ * Statistics are published periodically from a shared scheduler rather than from the read path, which runs on RPC
+ * callback threads.
+ */
+public final class SharedReads implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(SharedReads.class);
+
+    /**
+     * Receives updates of read statistics.
+     */
+    @FunctionalInterface
+    public interface StatisticsListener {
+        void onStatisticsUpdated(long cacheHits, long cacheMisses, long mergedReads);
+    }
+
+    private static final class ReadKey {
+        private final LogicalDatastoreType store;
+        private final YangInstanceIdentifier path;
+
+        ReadKey(final LogicalDatastoreType store, final YangInstanceIdentifier path) {
+            this.store = store;
+            this.path = path;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * store.hashCode() + path.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ReadKey)) {
+                return false;
+            }
+            final ReadKey other = (ReadKey) obj;
+            return store == other.store && path.equals(other.path);
+        }
+    }
+
+    private static final Supplier<ScheduledExecutorService> STATISTICS_EXECUTOR = Suppliers.memoize(
+        () -> Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("netconf-read-statistics-%d").build()));
+    private static final long STATISTICS_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private final ConcurrentMap<ReadKey, ListenableFuture<Optional<NormalizedNode<?, ?>>>> inFlight =
+            new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder mergedReads = new LongAdder();
+    private final RemoteDeviceId id;
+    private final NetconfBaseOps netconfOps;
+    private final boolean deduplicate;
+    private final Cache<YangInstanceIdentifier, Optional<NormalizedNode<?, ?>>> operationalCache;
+    private final StatisticsListener listener;
+    private final ScheduledFuture<?> statisticsPublisher;
+
+    // Accessed from the statistics publisher only
+    private long publishedCacheHits;
+    private long publishedCacheMisses;
+    private long publishedMergedReads;
+
+    /**
+     * Create a new instance.
+     *
+     * @param id Remote device id
+     * @param netconfOps Netconf operations used to read data
+     * @param deduplicate True if concurrent identical operational reads should be merged
+     * @param cacheTtlMillis Time for which operational read results are cached, 0 disables the cache
+     * @param cacheSize Maximum number of cached operational read results, 0 disables the cache
+     * @param listener Listener notified of updated statistics, at most once per second
+     */
+    public SharedReads(final RemoteDeviceId id, final NetconfBaseOps netconfOps, final boolean deduplicate,
+            final long cacheTtlMillis, final int cacheSize, final StatisticsListener listener) {
+        this(id, netconfOps, deduplicate, cacheTtlMillis, cacheSize, listener, Ticker.systemTicker(),
+            STATISTICS_EXECUTOR.get());
+    }
+
+    @VisibleForTesting
+    SharedReads(final RemoteDeviceId id, final NetconfBaseOps netconfOps, final boolean deduplicate,
+            final long cacheTtlMillis, final int cacheSize, final StatisticsListener listener, final Ticker ticker,
+            final ScheduledExecutorService executor) {
+        this.id = requireNonNull(id);
+        this.netconfOps = requireNonNull(netconfOps);
+        this.deduplicate = deduplicate;
+        this.listener = requireNonNull(listener);
+        this.operationalCache = cacheTtlMillis > 0 && cacheSize > 0 ? CacheBuilder.newBuilder()
+                .expireAfterWrite(cacheTtlMillis, TimeUnit.MILLISECONDS).maximumSize(cacheSize).ticker(ticker)
+                .build() : null;
+        this.statisticsPublisher = executor.scheduleWithFixedDelay(this::publishStatistics,
+            STATISTICS_INTERVAL_MILLIS, STATISTICS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Read data from the device, or from the cache.
+     *
+     * @param store Datastore to read from
+     * @param path Path to read
+     * @return Future completing with the data
+     */
+    public ListenableFuture<Optional<NormalizedNode<?, ?>>> read(final LogicalDatastoreType store,
+            final YangInstanceIdentifier path) {
+        final boolean cacheable = operationalCache != null && store == LogicalDatastoreType.OPERATIONAL;
+        if (cacheable) {
+            final Optional<NormalizedNode<?, ?>> cached = operationalCache.getIfPresent(path);
+            if (cached != null) {
+                cacheHits.increment();
+                return Futures.immediateFuture(cached);
+            }
+            cacheMisses.increment();
+        }
+
+        if (!deduplicate || store != LogicalDatastoreType.OPERATIONAL) {
+            final ListenableFuture<Optional<NormalizedNode<?, ?>>> future = invokeRead(store, path);
+            if (cacheable) {
+                Futures.addCallback(future, new FutureCallback<Optional<NormalizedNode<?, ?>>>() {
+                    @Override
+                    public void onSuccess(final Optional<NormalizedNode<?, ?>> result) {
+                        operationalCache.put(path, result);
+                    }
+
+                    @Override
+                    public void onFailure(final Throwable throwable) {
+                        // Nothing to cache
+                    }
+                }, MoreExecutors.directExecutor());
+            }
+            return future;
+        }
+
+        final ReadKey key = new ReadKey(store, path);
+        final SettableFuture<Optional<NormalizedNode<?, ?>>> future = SettableFuture.create();
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            mergedReads.increment();
+            // Do not allow one of the readers to cancel the read for all others
+            return Futures.nonCancellationPropagating(existing);
+        }
+
+        Futures.addCallback(invokeRead(store, path), new FutureCallback<Optional<NormalizedNode<?, ?>>>() {
+            @Override
+            public void onSuccess(final Optional<NormalizedNode<?, ?>> result) {
+                if (cacheable) {
+                    operationalCache.put(path, result);
+                }
+                // Remove before completing, so that readers arriving after completion issue a new read
+                inFlight.remove(key, future);
+                future.set(result);
+            }
+
+            @Override
+            public void onFailure(final Throwable throwable) {
+                inFlight.remove(key, future);
+                future.setException(throwable);
+            }
+        }, MoreExecutors.directExecutor());
+        return Futures.nonCancellationPropagating(future);
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public long getMergedReads() {
+        return mergedReads.sum();
+    }
+
+    private ListenableFuture<Optional<NormalizedNode<?, ?>>> invokeRead(final LogicalDatastoreType store,
+            final YangInstanceIdentifier path) {
+        final NetconfRpcFutureCallback callback = new NetconfRpcFutureCallback("Data read", id);
+        switch (store) {
+            case CONFIGURATION:
+                return netconfOps.getConfigRunningData(callback, Optional.fromNullable(path));
+            case OPERATIONAL:
+                return netconfOps.getData(callback, Optional.fromNullable(path));
+            default:
+                throw new IllegalArgumentException(String.format(
+                    "%s, Cannot read data %s for %s datastore, unknown datastore type", id, path, store));
+        }
+    }
+
+    @Override
+    public void close() {
+        statisticsPublisher.cancel(false);
+    }
+
+    @VisibleForTesting
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    void publishStatistics() {
+        final long hits = getCacheHits();
+        final long misses = getCacheMisses();
+        final long merged = getMergedReads();
+        if (hits != publishedCacheHits || misses != publishedCacheMisses || merged != publishedMergedReads) {
+            publishedCacheHits = hits;
+            publishedCacheMisses = misses;
+            publishedMergedReads = merged;
+            try {
+                listener.onStatisticsUpdated(hits, misses, merged);
+            } catch (RuntimeException e) {
+                // Keep publishing, an exception would cancel the periodic task
+                LOG.warn("{}: Failed to publish read statistics", id, e);
+            }
+        }
+    }
+}
@@ -8,6 +8,8 @@
 
 package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
 
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+
 interface TxListener {
 
     /**
@@ -36,5 +38,12 @@ interface TxListener {
      */
     void onTransactionSubmitted(AbstractWriteTx transaction);
 
+    /**
+     * Invoked, when a path is edited by the transaction, before the edit is passed on towards the device.
+     * @param transaction transaction
+     * @param path edited path
+     */
+    default void onTransactionEdited(AbstractWriteTx transaction, YangInstanceIdentifier path) {
+    }
 
 }
@@ -30,6 +30,11 @@ public class WriteCandidateRunningTx extends WriteCandidateTx {
         super(id, netOps, rollbackSupport);
     }
 
+    public WriteCandidateRunningTx(final RemoteDeviceId id, final NetconfBaseOps netOps,
+                                   final boolean rollbackSupport, final boolean coalesceEdits) {
+        super(id, netOps, rollbackSupport, coalesceEdits);
+    }
+
     @Override
     protected synchronized void init() {
         lockRunning();
@@ -39,7 +39,7 @@ import org.slf4j.LoggerFactory;
  *       <li>Second lock attempt has to succeed</li>
  *     </ul>
  *   </li>
- *   <li>Edit-config in candidate N times
+ *   <li>Edit-config in candidate N times, or as few times as possible on commit if edits are coalesced
  *     <ul>
  *       <li>If any issue occurs during edit,
  *       datastore is discarded using discard-changes rpc, unlocked and an exception is thrown async</li>
@@ -56,6 +56,11 @@ public class WriteCandidateTx extends AbstractWriteTx {
         super(rpc, id, rollbackSupport);
     }
 
+    public WriteCandidateTx(final RemoteDeviceId id, final NetconfBaseOps rpc, final boolean rollbackSupport,
+                            final boolean coalesceEdits) {
+        super(rpc, id, rollbackSupport, coalesceEdits);
+    }
+
     @Override
     protected synchronized void init() {
         LOG.trace("{}: Initializing {} transaction", id, getClass().getSimpleName());
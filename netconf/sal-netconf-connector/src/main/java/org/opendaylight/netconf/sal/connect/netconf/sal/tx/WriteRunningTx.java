@@ -33,7 +33,7 @@ import org.slf4j.LoggerFactory;
  *       <li> Lock has to succeed, if it does not, transaction is failed</li>
  *     </ul>
  *   </li>
- *   <li>Edit-config in running N times
+ *   <li>Edit-config in running N times, or as few times as possible if edits are coalesced
  *     <ul>
  *       <li>If any issue occurs during edit, datastore is unlocked and an exception is thrown</li>
  *     </ul>
@@ -51,6 +51,11 @@ public class WriteRunningTx extends AbstractWriteTx {
         super(netOps, id, rollbackSupport);
     }
 
+    public WriteRunningTx(final RemoteDeviceId id, final NetconfBaseOps netOps,
+                          final boolean rollbackSupport, final boolean coalesceEdits) {
+        super(netOps, id, rollbackSupport, coalesceEdits);
+    }
+
     @Override
     protected synchronized void init() {
         lock();
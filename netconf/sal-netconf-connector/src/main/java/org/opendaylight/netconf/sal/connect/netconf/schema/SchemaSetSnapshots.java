@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.unavailable.capabilities.UnavailableCapability.FailureReason;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk snapshots of resolved schema sets. For a set of sources required by a device, a snapshot records which
+ * of them ended up in the device's SchemaContext and which could not be resolved, together with a digest of the text
+ * of each of them. Devices requiring the same set of sources, typically after a controller restart, can then build
+ * their SchemaContext directly from the resolved sources, without the repeated, failing builds needed to find out
+ * which sources are unusable.
+ *
+ * <p>
+ * Only outcomes which follow from the text of the sources are recorded. Whether a source is missing depends on
+ * the device, which may or may not provide it, hence schema sets with missing sources are never stored and are
+ * resolved by each device on its own.
+ *
+ * <p>
+ * Snapshots are stored in a compact binary form, one file per set of required sources, named after a digest of
+ * their canonical form. The digests of a snapshot are checked each time it is used: if the text of any recorded
+ * source changed, for example because a device registered a different text under the same identifier, the snapshot
+ * is discarded and the schema set is resolved again. A bounded number of snapshots is kept in memory.
+ */
+public final class SchemaSetSnapshots {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaSetSnapshots.class);
+
+    private static final int MAGIC = 0x4e435353;
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".snapshot";
+    // Snapshots kept in memory, others are read from disk again when needed
+    private static final int MAX_CACHED_SNAPSHOTS = 1024;
+
+    /**
+     * Result of a previous resolution of a set of sources.
+     */
+    public static final class Snapshot {
+        private final List<SourceIdentifier> requiredSources;
+        private final List<SourceIdentifier> resolvedSources;
+        private final Map<SourceIdentifier, FailureReason> unresolvedSources;
+        private final Map<SourceIdentifier, HashCode> digests;
+
+        Snapshot(final List<SourceIdentifier> requiredSources, final List<SourceIdentifier> resolvedSources,
+                final Map<SourceIdentifier, FailureReason> unresolvedSources,
+                final Map<SourceIdentifier, HashCode> digests) {
+            this.requiredSources = ImmutableList.copyOf(requiredSources);
+            this.resolvedSources = ImmutableList.copyOf(resolvedSources);
+            this.unresolvedSources = ImmutableMap.copyOf(unresolvedSources);
+            this.digests = ImmutableMap.copyOf(digests);
+        }
+
+        public List<SourceIdentifier> getResolvedSources() {
+            return resolvedSources;
+        }
+
+        public Map<SourceIdentifier, FailureReason> getUnresolvedSources() {
+            return unresolvedSources;
+        }
+    }
+
+    private final LoadingCache<List<SourceIdentifier>, Optional<Snapshot>> validated = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_SNAPSHOTS)
+            .build(new CacheLoader<List<SourceIdentifier>, Optional<Snapshot>>() {
+                @Override
+                public Optional<Snapshot> load(final List<SourceIdentifier> key) {
+                    return loadValid(key);
+                }
+            });
+    private final File directory;
+    private final SchemaRepository repository;
+
+    /**
+     * Create a new instance.
+     *
+     * @param directory Directory to store snapshots in, created if it does not exist
+     * @param repository Repository holding the sources the snapshots refer to
+     */
+    public SchemaSetSnapshots(final File directory, final SchemaRepository repository) {
+        this.directory = requireNonNull(directory);
+        this.repository = requireNonNull(repository);
+    }
+
+    /**
+     * Look up a valid snapshot for a set of required sources.
+     *
+     * @param requiredSources Sources required by a device, order and duplicates are irrelevant
+     * @return Snapshot, or null if there is no valid snapshot for the sources
+     */
+    @Nullable
+    public Snapshot lookup(final Collection<SourceIdentifier> requiredSources) {
+        final List<SourceIdentifier> key = SharedSchemaContexts.canonicalSources(requiredSources);
+        final Optional<Snapshot> cached = validated.getIfPresent(key);
+        if (cached == null) {
+            // Checked against the sources while loading
+            return validated.getUnchecked(key).orElse(null);
+        }
+        if (cached.isPresent() && !sourcesUnchanged(cached.get(), fileFor(key))) {
+            validated.invalidate(key);
+            return null;
+        }
+        return cached.orElse(null);
+    }
+
+    /**
+     * Record the result of resolving a set of required sources. Nothing is recorded if any of the sources was
+     * missing. Failures to write the snapshot are logged and otherwise ignored, since snapshots only speed up later
+     * resolution.
+     *
+     * @param requiredSources Sources required by a device
+     * @param resolvedSources Sources the SchemaContext was successfully built from
+     * @param unresolvedSources Required sources which were left out, along with the reason
+     */
+    public void store(final Collection<SourceIdentifier> requiredSources,
+            final Collection<SourceIdentifier> resolvedSources,
+            final Map<SourceIdentifier, FailureReason> unresolvedSources) {
+        final List<SourceIdentifier> key = SharedSchemaContexts.canonicalSources(requiredSources);
+        if (unresolvedSources.containsValue(FailureReason.MissingSource)) {
+            LOG.debug("Sources of {} are missing, not storing snapshot", key);
+            return;
+        }
+
+        final Map<SourceIdentifier, HashCode> digests = new HashMap<>();
+        for (SourceIdentifier source : resolvedSources) {
+            final Optional<HashCode> digest = digest(source);
+            if (!digest.isPresent()) {
+                LOG.debug("Source {} is no longer available, not storing snapshot of {}", source, key);
+                return;
+            }
+            digests.put(source, digest.get());
+        }
+        for (SourceIdentifier source : unresolvedSources.keySet()) {
+            digest(source).ifPresent(digest -> digests.put(source, digest));
+        }
+
+        final Snapshot snapshot = new Snapshot(key, SharedSchemaContexts.canonicalSources(resolvedSources),
+            unresolvedSources, digests);
+        try {
+            write(snapshot);
+        } catch (IOException e) {
+            LOG.warn("Failed to store schema snapshot of {} in {}", key, directory, e);
+            return;
+        }
+        validated.put(key, Optional.of(snapshot));
+        LOG.debug("Stored schema snapshot of {}", key);
+    }
+
+    private Optional<Snapshot> loadValid(final List<SourceIdentifier> key) {
+        final File file = fileFor(key);
+        if (!file.isFile()) {
+            return Optional.empty();
+        }
+
+        final Snapshot snapshot;
+        try (InputStream is = Files.newInputStream(file.toPath())) {
+            snapshot = read(new DataInputStream(is));
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.warn("Discarding unreadable schema snapshot {}", file, e);
+            delete(file);
+            return Optional.empty();
+        }
+
+        if (!key.equals(snapshot.requiredSources)) {
+            LOG.debug("Schema snapshot {} was recorded for different sources", file);
+            return Optional.empty();
+        }
+        if (!sourcesUnchanged(snapshot, file)) {
+            return Optional.empty();
+        }
+        if (snapshot.unresolvedSources.containsValue(FailureReason.MissingSource)) {
+            // Written by an older version, missing sources need to be looked up for each device
+            LOG.info("Discarding schema snapshot {} with missing sources", file);
+            delete(file);
+            return Optional.empty();
+        }
+
+        LOG.debug("Using schema snapshot {} of {}", file, key);
+        return Optional.of(snapshot);
+    }
+
+    private boolean sourcesUnchanged(final Snapshot snapshot, final File file) {
+        for (Entry<SourceIdentifier, HashCode> entry : snapshot.digests.entrySet()) {
+            if (!digest(entry.getKey()).equals(Optional.of(entry.getValue()))) {
+                LOG.info("Source {} changed, discarding schema snapshot {}", entry.getKey(), file);
+                delete(file);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Optional<HashCode> digest(final SourceIdentifier source) {
+        try {
+            return Optional.of(repository.getSchemaSource(source, YangTextSchemaSource.class).get()
+                .hash(Hashing.sha256()));
+        } catch (InterruptedException | ExecutionException | IOException e) {
+            LOG.trace("Source {} is not available", source, e);
+            return Optional.empty();
+        }
+    }
+
+    private File fileFor(final List<SourceIdentifier> key) {
+        final StringBuilder sb = new StringBuilder();
+        for (SourceIdentifier source : key) {
+            sb.append(source.getName()).append('@').append(revisionOf(source)).append('\n');
+        }
+        return new File(directory, Hashing.sha256().hashString(sb, StandardCharsets.UTF_8) + SUFFIX);
+    }
+
+    private void write(final Snapshot snapshot) throws IOException {
+        Files.createDirectories(directory.toPath());
+        final Path target = fileFor(snapshot.requiredSources).toPath();
+        final Path tmp = Files.createTempFile(directory.toPath(), "snapshot", ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(tmp); DataOutputStream out = new DataOutputStream(os)) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeSources(out, snapshot.requiredSources);
+                writeSources(out, snapshot.resolvedSources);
+                out.writeInt(snapshot.unresolvedSources.size());
+                for (Entry<SourceIdentifier, FailureReason> entry : snapshot.unresolvedSources.entrySet()) {
+                    writeSource(out, entry.getKey());
+                    out.writeUTF(entry.getValue().name());
+                }
+                out.writeInt(snapshot.digests.size());
+                for (Entry<SourceIdentifier, HashCode> entry : snapshot.digests.entrySet()) {
+                    writeSource(out, entry.getKey());
+                    final byte[] bytes = entry.getValue().asBytes();
+                    out.writeShort(bytes.length);
+                    out.write(bytes);
+                }
+            }
+            // Readers never see a partially written snapshot
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static Snapshot read(final DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Unsupported snapshot format");
+        }
+        final List<SourceIdentifier> required = readSources(in);
+        final List<SourceIdentifier> resolved = readSources(in);
+        final Map<SourceIdentifier, FailureReason> unresolved = new HashMap<>();
+        for (int i = in.readInt(); i > 0; --i) {
+            unresolved.put(readSource(in), FailureReason.valueOf(in.readUTF()));
+        }
+        final Map<SourceIdentifier, HashCode> digests = new HashMap<>();
+        for (int i = in.readInt(); i > 0; --i) {
+            final SourceIdentifier source = readSource(in);
+            final byte[] bytes = new byte[in.readUnsignedShort()];
+            in.readFully(bytes);
+            digests.put(source, HashCode.fromBytes(bytes));
+        }
+        return new Snapshot(required, resolved, unresolved, digests);
+    }
+
+    private static void writeSources(final DataOutputStream out, final List<SourceIdentifier> sources)
+            throws IOException {
+        out.writeInt(sources.size());
+        for (SourceIdentifier source : sources) {
+            writeSource(out, source);
+        }
+    }
+
+    private static void writeSource(final DataOutputStream out, final SourceIdentifier source) throws IOException {
+        out.writeUTF(source.getName());
+        out.writeUTF(revisionOf(source));
+    }
+
+    private static List<SourceIdentifier> readSources(final DataInputStream in) throws IOException {
+        final ImmutableList.Builder<SourceIdentifier> builder = ImmutableList.builder();
+        for (int i = in.readInt(); i > 0; --i) {
+            builder.add(readSource(in));
+        }
+        return builder.build();
+    }
+
+    private static SourceIdentifier readSource(final DataInputStream in) throws IOException {
+        final String name = in.readUTF();
+        final String revision = in.readUTF();
+        return RevisionSourceIdentifier.create(name,
+            revision.isEmpty() ? Optional.empty() : Optional.of(Revision.of(revision)));
+    }
+
+    private static String revisionOf(final SourceIdentifier source) {
+        return source.getRevision().map(Revision::toString).orElse("");
+    }
+
+    private static void delete(final File file) {
+        if (!file.delete() && file.exists()) {
+            LOG.warn("Failed to delete schema snapshot {}", file);
+        }
+    }
+}
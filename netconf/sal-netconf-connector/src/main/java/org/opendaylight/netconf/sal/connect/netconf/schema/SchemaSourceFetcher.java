@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous retrieval of the YANG sources required by a device. Sources are requested from the schema repository
+ * without blocking any thread, which for sources not cached yet means get-schema RPCs are pipelined on the device's
+ * session. The number of outstanding requests is limited per device, so that a single device does not flood its
+ * session, and by a {@link FetchLimiter} shared by many devices, so that a reconnecting fleet of devices does not
+ * overwhelm the controller. Requests are started on a shared executor rather than on the thread completing the
+ * previous request, which may be a netty I/O thread, and requests which do not complete in time are considered
+ * missing, so that a device which never answers does not hold on to the shared limit. Sources fetched from devices
+ * pass through the repository and hence end up in its filesystem cache, as before.
+ */
+public final class SchemaSourceFetcher {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaSourceFetcher.class);
+
+    /**
+     * Default maximum number of outstanding source requests of a single device.
+     */
+    public static final int DEFAULT_DEVICE_LIMIT = 4;
+
+    /**
+     * Default maximum number of outstanding source requests of all devices sharing a {@link FetchLimiter}.
+     */
+    public static final int DEFAULT_GLOBAL_LIMIT = 32;
+
+    /**
+     * Default time after which a source request is considered failed.
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final FetchLimiter DEFAULT_GLOBAL_LIMITER = new FetchLimiter(DEFAULT_GLOBAL_LIMIT);
+
+    // Threads only start requests, hence there are never more of them busy than the global limit
+    private static final Supplier<ExecutorService> FETCH_EXECUTOR = Suppliers.memoize(
+        () -> Executors.newCachedThreadPool(new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("netconf-schema-fetch-%d").build()));
+    private static final Supplier<ScheduledExecutorService> TIMEOUT_EXECUTOR = Suppliers.memoize(
+        () -> Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("netconf-schema-fetch-timeout-%d").build()));
+
+    /**
+     * Runs tasks such that at most a given number of them is in progress at any time, queueing the rest. Tasks are
+     * expected to start asynchronous work and to call {@link #release()} once it completes. Tasks are started from
+     * a drain loop, so that work completing synchronously does not lead to unbounded recursion.
+     */
+    public static final class FetchLimiter {
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile int limit;
+
+        /**
+         * Create a limiter.
+         *
+         * @param limit Maximum number of tasks in progress
+         */
+        public FetchLimiter(final int limit) {
+            setLimit(limit);
+        }
+
+        /**
+         * Change the limit. Raising the limit starts queued tasks immediately, lowering it takes effect as tasks in
+         * progress complete.
+         *
+         * @param limit Maximum number of tasks in progress
+         */
+        public void setLimit(final int limit) {
+            Preconditions.checkArgument(limit > 0, "Limit must be positive, %s", limit);
+            this.limit = limit;
+            drain();
+        }
+
+        void submit(final Runnable task) {
+            queue.add(task);
+            drain();
+        }
+
+        void release() {
+            running.decrementAndGet();
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                // Another thread, or an outer frame of this one, is draining and will pick up the change
+                return;
+            }
+
+            int missed = 1;
+            do {
+                while (running.get() < limit) {
+                    final Runnable task = queue.poll();
+                    if (task == null) {
+                        break;
+                    }
+                    running.incrementAndGet();
+                    task.run();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+
+    private final RemoteDeviceId id;
+    private final SchemaRepository repository;
+    private final FetchLimiter globalLimiter;
+    private final FetchLimiter deviceLimiter;
+    private final long timeoutMillis;
+    private final Executor executor;
+    private final ScheduledExecutorService timeoutExecutor;
+
+    @VisibleForTesting
+    SchemaSourceFetcher(final RemoteDeviceId id, final SchemaRepository repository, final FetchLimiter globalLimiter,
+            final int deviceLimit, final long timeoutMillis, final Executor executor,
+            final ScheduledExecutorService timeoutExecutor) {
+        this.id = requireNonNull(id);
+        this.repository = requireNonNull(repository);
+        this.globalLimiter = requireNonNull(globalLimiter);
+        this.deviceLimiter = new FetchLimiter(deviceLimit);
+        this.timeoutMillis = timeoutMillis;
+        this.executor = requireNonNull(executor);
+        this.timeoutExecutor = requireNonNull(timeoutExecutor);
+    }
+
+    /**
+     * Create a fetcher for a device.
+     *
+     * @param id Remote device id
+     * @param repository Repository to fetch sources from
+     * @param globalLimiter Limiter shared with other devices
+     * @param deviceLimit Maximum number of outstanding requests of this device
+     * @param timeoutMillis Time after which a request is considered failed, values smaller than 1 disable the timeout
+     */
+    public SchemaSourceFetcher(final RemoteDeviceId id, final SchemaRepository repository,
+            final FetchLimiter globalLimiter, final int deviceLimit, final long timeoutMillis) {
+        this(id, repository, globalLimiter, deviceLimit, timeoutMillis, FETCH_EXECUTOR.get(), TIMEOUT_EXECUTOR.get());
+    }
+
+    /**
+     * Return the limiter shared by devices, which are not given one by their topology.
+     *
+     * @return Shared limiter
+     */
+    public static FetchLimiter defaultGlobalLimiter() {
+        return DEFAULT_GLOBAL_LIMITER;
+    }
+
+    /**
+     * Fetch the specified sources and report those which are not available.
+     *
+     * @param sources Sources to fetch
+     * @return Future completing with the sources which could not be fetched, it never fails
+     */
+    public ListenableFuture<Set<SourceIdentifier>> findMissingSources(final Collection<SourceIdentifier> sources) {
+        final Collection<SourceIdentifier> toFetch = ImmutableList.copyOf(sources);
+        if (toFetch.isEmpty()) {
+            return Futures.immediateFuture(ImmutableSet.of());
+        }
+
+        final SettableFuture<Set<SourceIdentifier>> result = SettableFuture.create();
+        final Set<SourceIdentifier> missing = ConcurrentHashMap.newKeySet();
+        final AtomicInteger remaining = new AtomicInteger(toFetch.size());
+        for (final SourceIdentifier source : toFetch) {
+            deviceLimiter.submit(() -> globalLimiter.submit(() -> dispatch(source, available -> {
+                if (!available) {
+                    missing.add(source);
+                }
+                globalLimiter.release();
+                deviceLimiter.release();
+                if (remaining.decrementAndGet() == 0) {
+                    LOG.debug("{}: Fetched {} sources, missing {}", id, toFetch.size(), missing);
+                    result.set(ImmutableSet.copyOf(missing));
+                }
+            })));
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface Completion {
+        void onComplete(boolean available);
+    }
+
+    private void dispatch(final SourceIdentifier source, final Completion completion) {
+        try {
+            executor.execute(() -> fetch(source, completion));
+        } catch (RejectedExecutionException e) {
+            LOG.warn("{}: Failed to start request of source {}", id, source, e);
+            completion.onComplete(false);
+        }
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void fetch(final SourceIdentifier source, final Completion completion) {
+        ListenableFuture<YangTextSchemaSource> future;
+        try {
+            future = repository.getSchemaSource(source, YangTextSchemaSource.class);
+            if (timeoutMillis > 0) {
+                // Fails the request on expiry, which releases its slots
+                future = Futures.withTimeout(future, timeoutMillis, TimeUnit.MILLISECONDS, timeoutExecutor);
+            }
+        } catch (RuntimeException e) {
+            LOG.debug("{}: Failed to request source {}", id, source, e);
+            completion.onComplete(false);
+            return;
+        }
+
+        // Only availability matters, the source itself is cached by the repository
+        Futures.addCallback(future, new FutureCallback<Object>() {
+            @Override
+            public void onSuccess(final Object result) {
+                completion.onComplete(true);
+            }
+
+            @Override
+            public void onFailure(final Throwable throwable) {
+                if (throwable instanceof TimeoutException) {
+                    LOG.debug("{}: Request of source {} timed out after {}ms", id, source, timeoutMillis);
+                } else {
+                    LOG.trace("{}: Source {} is not available", id, source, throwable);
+                }
+                completion.onComplete(false);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaContextFactory;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SchemaContexts shared by all devices, which require the same set of sources from the same
+ * {@link SchemaContextFactory}. Devices running the same software usually advertise identical module sets, possibly
+ * in a different order, so the required sources are reduced to a canonical, sorted fingerprint and a context is
+ * built only once per fingerprint. Concurrent requests for the same fingerprint share a single build, which matters
+ * when a large number of devices reconnects at once.
+ *
+ * <p>
+ * Contexts are weakly referenced, they are kept only as long as some device uses them. Since schema nodes derived by
+ * {@link org.opendaylight.netconf.sal.connect.netconf.schema.mapping.NetconfMessageTransformer} are cached per
+ * SchemaContext instance, devices sharing a context share those as well.
+ */
+public final class SharedSchemaContexts {
+    private static final Logger LOG = LoggerFactory.getLogger(SharedSchemaContexts.class);
+
+    private static final Comparator<SourceIdentifier> CANONICAL_ORDER = Comparator
+            .comparing(SourceIdentifier::getName)
+            .thenComparing(sourceId -> sourceId.getRevision().map(Revision::toString).orElse(""));
+
+    private static final Cache<Fingerprint, SchemaContext> CONTEXTS = CacheBuilder.newBuilder().weakValues().build();
+    private static final ConcurrentMap<Fingerprint, ListenableFuture<SchemaContext>> IN_FLIGHT =
+            new ConcurrentHashMap<>();
+
+    private static final class Fingerprint {
+        private final SchemaContextFactory factory;
+        private final ImmutableList<SourceIdentifier> sources;
+        private final int hashCode;
+
+        Fingerprint(final SchemaContextFactory factory, final Collection<SourceIdentifier> sources) {
+            this.factory = requireNonNull(factory);
+            this.sources = canonicalSources(sources);
+            this.hashCode = 31 * System.identityHashCode(factory) + this.sources.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Fingerprint)) {
+                return false;
+            }
+            final Fingerprint other = (Fingerprint) obj;
+            return factory == other.factory && hashCode == other.hashCode && sources.equals(other.sources);
+        }
+    }
+
+    private SharedSchemaContexts() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Get a SchemaContext built from the specified sources, reusing an existing context if one was built from the
+     * same sources by the same factory.
+     *
+     * @param factory Factory used to build the context if it does not exist yet
+     * @param requiredSources Sources required by the device, order and duplicates are irrelevant
+     * @return Future completing with the context, or failing with the same cause the factory reported
+     */
+    public static ListenableFuture<SchemaContext> getSchemaContext(final SchemaContextFactory factory,
+            final Collection<SourceIdentifier> requiredSources) {
+        final Fingerprint fingerprint = new Fingerprint(factory, requiredSources);
+        final SchemaContext existing = CONTEXTS.getIfPresent(fingerprint);
+        if (existing != null) {
+            LOG.debug("Reusing schema context built from {}", fingerprint.sources);
+            return Futures.immediateFuture(existing);
+        }
+
+        final SettableFuture<SchemaContext> future = SettableFuture.create();
+        final ListenableFuture<SchemaContext> inFlight = IN_FLIGHT.putIfAbsent(fingerprint, future);
+        if (inFlight != null) {
+            LOG.debug("Waiting for schema context being built from {}", fingerprint.sources);
+            return Futures.nonCancellationPropagating(inFlight);
+        }
+
+        // The build may have completed between the lookup and the registration above
+        final SchemaContext built = CONTEXTS.getIfPresent(fingerprint);
+        if (built != null) {
+            IN_FLIGHT.remove(fingerprint, future);
+            future.set(built);
+            return future;
+        }
+
+        Futures.addCallback(factory.createSchemaContext(fingerprint.sources), new FutureCallback<SchemaContext>() {
+            @Override
+            public void onSuccess(final SchemaContext result) {
+                CONTEXTS.put(fingerprint, result);
+                // Remove before completing, so that later requests find the context in the cache
+                IN_FLIGHT.remove(fingerprint, future);
+                future.set(result);
+            }
+
+            @Override
+            public void onFailure(final Throwable throwable) {
+                // Failures are not cached, callers retry with a reduced set of sources
+                IN_FLIGHT.remove(fingerprint, future);
+                future.setException(throwable);
+            }
+        }, MoreExecutors.directExecutor());
+        return Futures.nonCancellationPropagating(future);
+    }
+
+    /**
+     * Reduce sources to their canonical form, sorted by name and revision, without duplicates.
+     */
+    static ImmutableList<SourceIdentifier> canonicalSources(final Collection<SourceIdentifier> sources) {
+        return ImmutableList.copyOf(sources.stream().distinct().sorted(CANONICAL_ORDER).iterator());
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.model.api.ModuleImport;
+import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.rfc7950.repo.ASTSchemaSource;
+import org.opendaylight.yangtools.yang.parser.rfc7950.repo.YangModelDependencyInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Import and include graph of a set of sources, built from their headers only. It is used to find the sources,
+ * which can not be part of a SchemaContext, because they can not be parsed or because some of the modules they
+ * import or the submodules they include are not available, directly or transitively. Pruning these in a single pass
+ * means the SchemaContext is usually built only once, instead of once per unusable source.
+ *
+ * <p>
+ * Dependency information is taken from the {@link ASTSchemaSource}s of the repository, which are cached and reused
+ * by the subsequent SchemaContext build, so the analysis does not parse anything twice. Problems which are not
+ * visible in the headers are still reported by the build itself.
+ */
+public final class SourceDependencyGraph {
+    private static final Logger LOG = LoggerFactory.getLogger(SourceDependencyGraph.class);
+
+    private final List<SourceIdentifier> resolvedSources;
+    private final Map<SourceIdentifier, String> unresolvedSources;
+
+    private SourceDependencyGraph(final List<SourceIdentifier> resolvedSources,
+            final Map<SourceIdentifier, String> unresolvedSources) {
+        this.resolvedSources = ImmutableList.copyOf(resolvedSources);
+        this.unresolvedSources = ImmutableMap.copyOf(unresolvedSources);
+    }
+
+    /**
+     * Analyze dependencies of the specified sources.
+     *
+     * @param repository Repository providing sources
+     * @param sources Sources to analyze, all of which are expected to be available in the repository
+     * @return Result of the analysis, or null if dependency information is not available from the repository
+     * @throws InterruptedException if interrupted while waiting for sources
+     */
+    @Nullable
+    public static SourceDependencyGraph resolve(final SchemaRepository repository,
+            final Collection<SourceIdentifier> sources) throws InterruptedException {
+        final Map<SourceIdentifier, ListenableFuture<ASTSchemaSource>> futures = new LinkedHashMap<>();
+        for (SourceIdentifier source : sources) {
+            futures.put(source, repository.getSchemaSource(source, ASTSchemaSource.class));
+        }
+
+        final Map<SourceIdentifier, YangModelDependencyInfo> infos = new LinkedHashMap<>();
+        final Map<SourceIdentifier, String> unresolved = new LinkedHashMap<>();
+        for (Entry<SourceIdentifier, ListenableFuture<ASTSchemaSource>> entry : futures.entrySet()) {
+            try {
+                infos.put(entry.getKey(), entry.getValue().get().getDependencyInformation());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof MissingSchemaSourceException) {
+                    // The repository cannot provide parsed sources, nothing to analyze
+                    LOG.debug("Dependency information of {} is not available, skipping analysis", entry.getKey(),
+                        e);
+                    return null;
+                }
+                unresolved.put(entry.getKey(), "source cannot be parsed: " + e.getCause().getMessage());
+            }
+        }
+
+        // Index available modules and submodules by name, there may be multiple revisions
+        final Map<String, List<YangModelDependencyInfo>> byName = new HashMap<>();
+        for (YangModelDependencyInfo info : infos.values()) {
+            byName.computeIfAbsent(info.getName(), name -> new ArrayList<>()).add(info);
+        }
+
+        // Prune sources with unsatisfied dependencies until there is nothing left to prune, since pruning a source
+        // may leave sources depending on it unsatisfied
+        boolean pruned;
+        do {
+            pruned = false;
+            final Iterator<Entry<SourceIdentifier, YangModelDependencyInfo>> it = infos.entrySet().iterator();
+            while (it.hasNext()) {
+                final Entry<SourceIdentifier, YangModelDependencyInfo> entry = it.next();
+                final YangModelDependencyInfo info = entry.getValue();
+                final Optional<ModuleImport> missing = info.getDependencies().stream()
+                        .filter(dependency -> !isSatisfied(byName, dependency)).findFirst();
+                if (missing.isPresent()) {
+                    final ModuleImport dependency = missing.get();
+                    unresolved.put(entry.getKey(), "dependency " + dependency.getModuleName()
+                        + dependency.getRevision().map(rev -> "@" + rev).orElse("") + " is not available");
+                    byName.get(info.getName()).remove(info);
+                    it.remove();
+                    pruned = true;
+                }
+            }
+        } while (pruned);
+
+        return new SourceDependencyGraph(ImmutableList.copyOf(infos.keySet()), unresolved);
+    }
+
+    /**
+     * Return sources whose dependencies are all available.
+     *
+     * @return Resolved sources
+     */
+    public List<SourceIdentifier> getResolvedSources() {
+        return resolvedSources;
+    }
+
+    /**
+     * Return sources which cannot be used, along with a description of the reason.
+     *
+     * @return Unresolved sources
+     */
+    public Map<SourceIdentifier, String> getUnresolvedSources() {
+        return unresolvedSources;
+    }
+
+    private static boolean isSatisfied(final Map<String, List<YangModelDependencyInfo>> byName,
+            final ModuleImport dependency) {
+        final List<YangModelDependencyInfo> candidates = byName.get(dependency.getModuleName());
+        if (candidates == null || candidates.isEmpty()) {
+            return false;
+        }
+        final Optional<Revision> revision = dependency.getRevision();
+        return !revision.isPresent()
+                || candidates.stream().anyMatch(candidate -> revision.equals(candidate.getRevision()));
+    }
+}
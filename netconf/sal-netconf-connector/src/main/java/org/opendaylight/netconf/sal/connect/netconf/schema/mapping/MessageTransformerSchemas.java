@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimaps;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
+import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+
+/**
+ * Schema nodes derived from a {@link SchemaContext}, which are needed by {@link NetconfMessageTransformer}. These are
+ * computed once and shared by all transformers using the same SchemaContext. Instances are immutable and hence safe
+ * to use from multiple threads.
+ */
+final class MessageTransformerSchemas {
+    /**
+     * Devices with the same set of models end up with the same SchemaContext, weak keys make sure we do not keep
+     * the derived schemas around once the SchemaContext is not used anymore.
+     */
+    private static final LoadingCache<SchemaContext, MessageTransformerSchemas> SCHEMAS =
+            CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<SchemaContext, MessageTransformerSchemas>() {
+                @Override
+                public MessageTransformerSchemas load(final SchemaContext key) {
+                    return new MessageTransformerSchemas(key);
+                }
+            });
+
+    private final Map<QName, RpcDefinition> mappedRpcs;
+    private final ImmutableMultimap<QName, NotificationDefinition> mappedNotifications;
+    private final Map<QName, ContainerSchemaNode> notificationSchemas;
+    private final ContainerSchemaNode schemaForDataRead;
+
+    private MessageTransformerSchemas(final SchemaContext schemaContext) {
+        mappedRpcs = Maps.uniqueIndex(schemaContext.getOperations(), SchemaNode::getQName);
+        mappedNotifications = Multimaps.index(schemaContext.getNotifications(),
+            node -> node.getQName().withoutRevision());
+
+        final ImmutableMap.Builder<QName, ContainerSchemaNode> builder = ImmutableMap.builder();
+        for (Entry<QName, Collection<NotificationDefinition>> entry : mappedNotifications.asMap().entrySet()) {
+            builder.put(entry.getKey(), NetconfMessageTransformUtil.createSchemaForNotification(
+                getMostRecentNotification(entry.getValue())));
+        }
+        notificationSchemas = builder.build();
+        schemaForDataRead = NetconfMessageTransformUtil.createSchemaForDataRead(schemaContext);
+    }
+
+    static MessageTransformerSchemas forSchemaContext(final SchemaContext schemaContext) {
+        return SCHEMAS.getUnchecked(schemaContext);
+    }
+
+    Map<QName, RpcDefinition> getMappedRpcs() {
+        return mappedRpcs;
+    }
+
+    ImmutableMultimap<QName, NotificationDefinition> getMappedNotifications() {
+        return mappedNotifications;
+    }
+
+    /**
+     * Return the container schema of the most recent revision of a notification.
+     *
+     * @param notificationNoRev Notification QName without revision
+     * @return Notification container schema, null if the notification is not known
+     */
+    ContainerSchemaNode getNotificationSchema(final QName notificationNoRev) {
+        return notificationSchemas.get(notificationNoRev);
+    }
+
+    ContainerSchemaNode getSchemaForDataRead() {
+        return schemaForDataRead;
+    }
+
+    private static NotificationDefinition getMostRecentNotification(
+            final Collection<NotificationDefinition> notificationDefinitions) {
+        return Collections.max(notificationDefinitions, (o1, o2) ->
+            Revision.compare(o1.getQName().getRevision(), o2.getQName().getRevision()));
+    }
+}
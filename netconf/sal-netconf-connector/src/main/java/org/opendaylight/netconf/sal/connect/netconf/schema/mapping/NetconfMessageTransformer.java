@@ -12,24 +12,23 @@ import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTr
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toPath;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
 import java.io.IOException;
 import java.net.URISyntaxException;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
 import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
 import org.opendaylight.controller.md.sal.dom.api.DOMEvent;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
+import org.opendaylight.netconf.api.LazyNetconfMessage;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.xml.MissingNameSpaceException;
 import org.opendaylight.netconf.api.xml.XmlElement;
@@ -37,13 +36,13 @@ import org.opendaylight.netconf.sal.connect.api.MessageTransformer;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
 import org.opendaylight.netconf.sal.connect.util.MessageCounter;
 import org.opendaylight.yangtools.yang.common.QName;
-import org.opendaylight.yangtools.yang.common.Revision;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.codec.xml.XmlParserStream;
 import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
 import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
@@ -56,6 +55,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 import org.xml.sax.SAXException;
 
 public class NetconfMessageTransformer implements MessageTransformer<NetconfMessage> {
@@ -65,6 +65,7 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
     private final SchemaContext schemaContext;
     private final BaseSchema baseSchema;
     private final MessageCounter counter;
+    private final MessageTransformerSchemas schemas;
     private final Map<QName, RpcDefinition> mappedRpcs;
     private final Multimap<QName, NotificationDefinition> mappedNotifications;
 
@@ -78,15 +79,19 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
                                      final BaseSchema baseSchema) {
         this.counter = new MessageCounter();
         this.schemaContext = schemaContext;
-        mappedRpcs = Maps.uniqueIndex(schemaContext.getOperations(), SchemaNode::getQName);
-        mappedNotifications = Multimaps.index(schemaContext.getNotifications(),
-            node -> node.getQName().withoutRevision());
+        this.schemas = MessageTransformerSchemas.forSchemaContext(schemaContext);
+        mappedRpcs = schemas.getMappedRpcs();
+        mappedNotifications = schemas.getMappedNotifications();
         this.baseSchema = baseSchema;
         this.strictParsing = strictParsing;
     }
 
     @Override
-    public synchronized DOMNotification toNotification(final NetconfMessage message) {
+    public DOMNotification toNotification(final NetconfMessage message) {
+        if (message instanceof LazyNetconfMessage && !((LazyNetconfMessage) message).isDocumentParsed()) {
+            return toNotification((LazyNetconfMessage) message);
+        }
+
         final Map.Entry<Date, XmlElement> stripped = NetconfMessageTransformUtil.stripNotification(message);
         final QName notificationNoRev;
         try {
@@ -96,15 +101,7 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
             throw new IllegalArgumentException(
                     "Unable to parse notification " + message + ", cannot find namespace", e);
         }
-        final Collection<NotificationDefinition> notificationDefinitions = mappedNotifications.get(notificationNoRev);
-        Preconditions.checkArgument(notificationDefinitions.size() > 0,
-                "Unable to parse notification %s, unknown notification. Available notifications: %s",
-                notificationDefinitions, mappedNotifications.keySet());
-
-        final NotificationDefinition mostRecentNotification = getMostRecentNotification(notificationDefinitions);
-
-        final ContainerSchemaNode notificationAsContainerSchemaNode =
-                NetconfMessageTransformUtil.createSchemaForNotification(mostRecentNotification);
+        final ContainerSchemaNode notificationAsContainerSchemaNode = getNotificationSchema(notificationNoRev);
 
         final Element element = stripped.getValue().getDomElement();
         final ContainerNode content;
@@ -122,10 +119,62 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
         return new NetconfDeviceNotification(content, stripped.getKey());
     }
 
-    private static NotificationDefinition getMostRecentNotification(
-            final Collection<NotificationDefinition> notificationDefinitions) {
-        return Collections.max(notificationDefinitions, (o1, o2) ->
-            Revision.compare(o1.getQName().getRevision(), o2.getQName().getRevision()));
+    private DOMNotification toNotification(final LazyNetconfMessage message) {
+        Date eventTime = null;
+        ContainerNode content = null;
+        int childCount = 0;
+        try {
+            final XMLStreamReader reader = message.openStreamReader();
+            try {
+                reader.nextTag();
+                while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    childCount++;
+                    if (NetconfMessageTransformUtil.EVENT_TIME.equals(reader.getLocalName())) {
+                        eventTime = NetconfMessageTransformUtil.parseEventTime(reader.getElementText());
+                    } else {
+                        content = parseNotificationContent(reader, message);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | URISyntaxException | IOException | ParserConfigurationException
+                | SAXException | UnsupportedOperationException e) {
+            throw new IllegalArgumentException(String.format("Failed to parse notification %s", message), e);
+        }
+
+        Preconditions.checkArgument(childCount == 2, "Unable to parse notification %s, unexpected format."
+                + "\nExpected 2 childElements, actual childElements size is %s", message, childCount);
+        Preconditions.checkArgument(eventTime != null, "Notification payload does not contain %s %s",
+            NetconfMessageTransformUtil.EVENT_TIME, message);
+        Preconditions.checkArgument(content != null, "Notification payload not found in %s", message);
+        return new NetconfDeviceNotification(content, eventTime);
+    }
+
+    private ContainerNode parseNotificationContent(final XMLStreamReader reader, final NetconfMessage message)
+            throws XMLStreamException, URISyntaxException, IOException, ParserConfigurationException, SAXException {
+        final String namespace = reader.getNamespaceURI();
+        Preconditions.checkArgument(namespace != null && !namespace.isEmpty(),
+            "Unable to parse notification %s, cannot find namespace", message);
+        final QName notificationNoRev = QName.create(namespace, reader.getLocalName()).withoutRevision();
+        return (ContainerNode) parse(new SubtreeXMLStreamReader(reader), getNotificationSchema(notificationNoRev));
+    }
+
+    private ContainerSchemaNode getNotificationSchema(final QName notificationNoRev) {
+        final ContainerSchemaNode notificationSchema = schemas.getNotificationSchema(notificationNoRev);
+        Preconditions.checkArgument(notificationSchema != null,
+                "Unable to parse notification %s, unknown notification. Available notifications: %s",
+                notificationNoRev, mappedNotifications.keySet());
+        return notificationSchema;
+    }
+
+    private NormalizedNode<?, ?> parse(final XMLStreamReader reader, final SchemaNode parentNode)
+            throws XMLStreamException, URISyntaxException, IOException, ParserConfigurationException, SAXException {
+        final NormalizedNodeResult resultHolder = new NormalizedNodeResult();
+        final NormalizedNodeStreamWriter writer = ImmutableNormalizedNodeStreamWriter.from(resultHolder);
+        final XmlParserStream xmlParser = XmlParserStream.create(writer, schemaContext, parentNode, strictParsing);
+        xmlParser.parse(reader);
+        return resultHolder.getResult();
     }
 
     @Override
@@ -179,25 +228,36 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
     }
 
     @Override
-    public synchronized DOMRpcResult toRpcResult(final NetconfMessage message, final SchemaPath rpc) {
+    public DOMRpcResult toRpcResult(final NetconfMessage message, final SchemaPath rpc) {
         final NormalizedNode<?, ?> normalizedNode;
         final QName rpcQName = rpc.getLastComponent();
+        final boolean lazy = message instanceof LazyNetconfMessage
+                && !((LazyNetconfMessage) message).isDocumentParsed();
         if (NetconfMessageTransformUtil.isDataRetrievalOperation(rpcQName)) {
+            if (lazy) {
+                return new DefaultDOMRpcResult(toDataReply((LazyNetconfMessage) message));
+            }
+
             final Element xmlData = NetconfMessageTransformUtil.getDataSubtree(message.getDocument());
-            final ContainerSchemaNode schemaForDataRead =
-                    NetconfMessageTransformUtil.createSchemaForDataRead(schemaContext);
+            final ContainerSchemaNode schemaForDataRead = schemas.getSchemaForDataRead();
             final ContainerNode dataNode;
 
-            try {
-                final NormalizedNodeResult resultHolder = new NormalizedNodeResult();
-                final NormalizedNodeStreamWriter writer = ImmutableNormalizedNodeStreamWriter.from(resultHolder);
-                final XmlParserStream xmlParser = XmlParserStream.create(writer, schemaContext, schemaForDataRead,
-                        strictParsing);
-                xmlParser.traverse(new DOMSource(xmlData));
-                dataNode = (ContainerNode) resultHolder.getResult();
-            } catch (XMLStreamException | URISyntaxException | IOException | ParserConfigurationException
-                    | SAXException e) {
-                throw new IllegalArgumentException(String.format("Failed to parse data response %s", xmlData), e);
+            if (xmlData != null && !hasChildElements(xmlData)) {
+                // Typical reply of a read or existence check of absent data, there is nothing to parse
+                dataNode = ImmutableNodes.containerNode(NetconfMessageTransformUtil.NETCONF_DATA_QNAME);
+            } else {
+                try {
+                    final NormalizedNodeResult resultHolder = new NormalizedNodeResult();
+                    final NormalizedNodeStreamWriter writer = ImmutableNormalizedNodeStreamWriter.from(resultHolder);
+                    final XmlParserStream xmlParser = XmlParserStream.create(writer, schemaContext, schemaForDataRead,
+                            strictParsing);
+                    xmlParser.traverse(new DOMSource(xmlData));
+                    dataNode = (ContainerNode) resultHolder.getResult();
+                } catch (XMLStreamException | URISyntaxException | IOException | ParserConfigurationException
+                        | SAXException e) {
+                    throw new IllegalArgumentException(String.format("Failed to parse data response %s", xmlData),
+                        e);
+                }
             }
 
             normalizedNode = Builders.containerBuilder()
@@ -226,6 +286,8 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
                     message.getDocument()).getOnlyChildElementWithSameNamespaceOptionally("ok").isPresent(),
                     "Unexpected content in response of rpc: %s, %s", rpcDefinition.getQName(), message);
                 normalizedNode = null;
+            } else if (lazy) {
+                normalizedNode = parseLazy((LazyNetconfMessage) message, rpcDefinition.getOutput());
             } else {
                 final Element element = message.getDocument().getDocumentElement();
                 try {
@@ -244,6 +306,102 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
         return new DefaultDOMRpcResult(normalizedNode);
     }
 
+    private static boolean hasChildElements(final Element element) {
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ContainerNode toDataReply(final LazyNetconfMessage message) {
+        final ContainerSchemaNode schemaForDataRead = schemas.getSchemaForDataRead();
+        final ContainerNode dataNode;
+        try {
+            if (!hasDataContent(message)) {
+                // Typical reply of a read or existence check of absent data, there is nothing to parse
+                dataNode = ImmutableNodes.containerNode(NetconfMessageTransformUtil.NETCONF_DATA_QNAME);
+            } else {
+                final XMLStreamReader reader = openDataReader(message);
+                try {
+                    dataNode = (ContainerNode) parse(new SubtreeXMLStreamReader(reader), schemaForDataRead);
+                } finally {
+                    reader.close();
+                }
+            }
+        } catch (XMLStreamException | URISyntaxException | IOException | ParserConfigurationException
+                | SAXException e) {
+            throw new IllegalArgumentException(String.format("Failed to parse data response %s", message), e);
+        }
+
+        return Builders.containerBuilder()
+                .withNodeIdentifier(new YangInstanceIdentifier
+                        .NodeIdentifier(NetconfMessageTransformUtil.NETCONF_RPC_REPLY_QNAME))
+                .withChild(dataNode).build();
+    }
+
+    /**
+     * Check whether the data element of a reply has any child elements. The data element is the second element of the
+     * reply, hence the check reads only a few bytes of a non-empty reply, after which it is parsed from the start.
+     */
+    private static boolean hasDataContent(final LazyNetconfMessage message) throws XMLStreamException {
+        final XMLStreamReader reader = openDataReader(message);
+        try {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        return true;
+                    case XMLStreamConstants.END_ELEMENT:
+                        return false;
+                    default:
+                        // Whitespace, comments and the like
+                }
+            }
+            return false;
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Open a reader over a reply, positioned at the start of its data element.
+     */
+    private static XMLStreamReader openDataReader(final LazyNetconfMessage message) throws XMLStreamException {
+        final XMLStreamReader reader = message.openStreamReader();
+        if (!seekToData(reader)) {
+            reader.close();
+            throw new IllegalArgumentException(String.format("Data element not found in response %s", message));
+        }
+        return reader;
+    }
+
+    private static boolean seekToData(final XMLStreamReader reader) throws XMLStreamException {
+        final String namespace = NETCONF_URI.toString();
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT
+                    && NetconfMessageTransformUtil.NETCONF_DATA_QNAME.getLocalName().equals(reader.getLocalName())
+                    && namespace.equals(reader.getNamespaceURI())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private NormalizedNode<?, ?> parseLazy(final LazyNetconfMessage message, final SchemaNode parentNode) {
+        try {
+            final XMLStreamReader reader = message.openStreamReader();
+            try {
+                return parse(reader, parentNode);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | URISyntaxException | IOException | ParserConfigurationException
+                | SAXException e) {
+            throw new IllegalArgumentException(String.format("Failed to parse RPC response %s", message), e);
+        }
+    }
+
     static class NetconfDeviceNotification implements DOMNotification, DOMEvent {
         private final ContainerNode content;
         private final SchemaPath schemaPath;
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
+
+import com.google.common.base.Preconditions;
+import java.util.NoSuchElementException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+/**
+ * An {@link XMLStreamReader} which presents a single element of an underlying reader as a stand-alone document.
+ * This allows {@link org.opendaylight.yangtools.yang.data.codec.xml.XmlParserStream} to parse a part of a message,
+ * such as the {@code data} element of an {@code rpc-reply}, without the rest of the message being materialized.
+ *
+ * <p>
+ * The underlying reader has to be positioned at the start of the element. Once the element has been consumed,
+ * the underlying reader is left positioned at its end and can be used to continue processing.
+ */
+final class SubtreeXMLStreamReader extends StreamReaderDelegate {
+    private boolean started;
+    private boolean ended;
+    private int depth;
+
+    SubtreeXMLStreamReader(final XMLStreamReader reader) {
+        super(reader);
+        Preconditions.checkArgument(reader.getEventType() == XMLStreamConstants.START_ELEMENT,
+            "Reader %s is not positioned at element start", reader);
+    }
+
+    @Override
+    public int getEventType() {
+        if (!started) {
+            return XMLStreamConstants.START_DOCUMENT;
+        }
+        return ended ? XMLStreamConstants.END_DOCUMENT : super.getEventType();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !ended;
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        if (!started) {
+            started = true;
+            depth = 1;
+            return XMLStreamConstants.START_ELEMENT;
+        }
+        if (depth == 0) {
+            if (ended) {
+                throw new NoSuchElementException("End of subtree reached");
+            }
+            ended = true;
+            return XMLStreamConstants.END_DOCUMENT;
+        }
+
+        final int event = super.next();
+        switch (event) {
+            case XMLStreamConstants.START_ELEMENT:
+                depth++;
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                depth--;
+                break;
+            default:
+                // No-op
+        }
+        return event;
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+        int event = next();
+        while (event == XMLStreamConstants.CHARACTERS && isWhiteSpace()
+                || event == XMLStreamConstants.CDATA && isWhiteSpace()
+                || event == XMLStreamConstants.SPACE
+                || event == XMLStreamConstants.PROCESSING_INSTRUCTION
+                || event == XMLStreamConstants.COMMENT) {
+            event = next();
+        }
+        if (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT) {
+            throw new XMLStreamException("Expected start or end tag, encountered event " + event, getLocation());
+        }
+        return event;
+    }
+
+    @Override
+    public String getElementText() throws XMLStreamException {
+        // Underlying reader consumes the element up to and including its end tag
+        final String text = super.getElementText();
+        depth--;
+        return text;
+    }
+
+    @Override
+    public boolean isStartElement() {
+        return getEventType() == XMLStreamConstants.START_ELEMENT;
+    }
+
+    @Override
+    public boolean isEndElement() {
+        return getEventType() == XMLStreamConstants.END_ELEMENT;
+    }
+
+    @Override
+    public boolean isCharacters() {
+        return getEventType() == XMLStreamConstants.CHARACTERS;
+    }
+
+    @Override
+    public void close() {
+        // The underlying reader is owned by our creator
+    }
+}
@@ -207,6 +207,52 @@ public final class NetconfBaseOps {
         return extractData(filterPath, configRunning);
     }
 
+    /**
+     * Check whether data exists in the running datastore.
+     *
+     * @param callback callback invoked with the result of the get-config RPC
+     * @param path path to check, null checks the entire datastore
+     * @return future completing with true if the data exists
+     */
+    public ListenableFuture<Boolean> configRunningDataExists(final FutureCallback<DOMRpcResult> callback,
+                                                             final YangInstanceIdentifier path) {
+        Preconditions.checkNotNull(callback);
+        if (path == null || path.isEmpty()) {
+            return isPresent(getConfigRunningData(callback, Optional.fromNullable(path)));
+        }
+
+        final ListenableFuture<DOMRpcResult> future = rpc.invokeRpc(toPath(NETCONF_GET_CONFIG_QNAME),
+            NetconfMessageTransformUtil.wrap(NETCONF_GET_CONFIG_QNAME, getSourceNode(NETCONF_RUNNING_QNAME),
+                transformer.toExistsFilterStructure(path)));
+        Futures.addCallback(future, callback, MoreExecutors.directExecutor());
+        return isPresent(extractData(Optional.of(path), future));
+    }
+
+    /**
+     * Check whether data exists in the device's state.
+     *
+     * @param callback callback invoked with the result of the get RPC
+     * @param path path to check, null checks the entire datastore
+     * @return future completing with true if the data exists
+     */
+    public ListenableFuture<Boolean> dataExists(final FutureCallback<DOMRpcResult> callback,
+                                                final YangInstanceIdentifier path) {
+        Preconditions.checkNotNull(callback);
+        if (path == null || path.isEmpty()) {
+            return isPresent(getData(callback, Optional.fromNullable(path)));
+        }
+
+        final ListenableFuture<DOMRpcResult> future = rpc.invokeRpc(toPath(NETCONF_GET_QNAME),
+            NetconfMessageTransformUtil.wrap(NETCONF_GET_QNAME,
+                NetconfMessageTransformUtil.toExistsFilterStructure(path, schemaContext)));
+        Futures.addCallback(future, callback, MoreExecutors.directExecutor());
+        return isPresent(extractData(Optional.of(path), future));
+    }
+
+    private static ListenableFuture<Boolean> isPresent(final ListenableFuture<Optional<NormalizedNode<?, ?>>> data) {
+        return Futures.transform(data, Optional::isPresent, MoreExecutors.directExecutor());
+    }
+
     private ListenableFuture<Optional<NormalizedNode<?, ?>>> extractData(
             final Optional<YangInstanceIdentifier> path, final ListenableFuture<DOMRpcResult> configRunning) {
         return Futures.transform(configRunning, result -> {
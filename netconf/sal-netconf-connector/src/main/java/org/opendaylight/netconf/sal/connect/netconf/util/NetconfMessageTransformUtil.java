@@ -27,6 +27,7 @@ import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
 import org.opendaylight.netconf.api.DocumentedException;
 import org.opendaylight.netconf.api.FailedNetconfMessage;
+import org.opendaylight.netconf.api.LazyNetconfMessage;
 import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlElement;
@@ -35,6 +36,7 @@ import org.opendaylight.netconf.notifications.NetconfNotification;
 import org.opendaylight.netconf.sal.connect.util.MessageCounter;
 import org.opendaylight.netconf.util.NetconfUtil;
 import org.opendaylight.netconf.util.messages.NetconfMessageUtil;
+import org.opendaylight.netconf.util.messages.NormalizedNodeNetconfMessage;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.base._1._0.rev110601.edit.config.input.EditContent;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.CreateSubscriptionInput;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.NetconfState;
@@ -201,10 +203,25 @@ public final class NetconfMessageTransformUtil {
         return anyXmlBuilder.build();
     }
 
+    /**
+     * Create a subtree filter for checking whether the node identified by a path exists. List entries on the path are
+     * matched by their key leaves only. Selecting a non-key leaf of the entry in addition would not be safe, as a
+     * device may leave out an entry whose selected leaf is not set, even though the entry exists.
+     *
+     * @param identifier Path to the node
+     * @param ctx Schema context
+     * @return Filter structure
+     */
+    public static DataContainerChild<?, ?> toExistsFilterStructure(final YangInstanceIdentifier identifier,
+                                                                   final SchemaContext ctx) {
+        // Key leaves are the only content of list entries on the path
+        return toFilterStructure(identifier, ctx);
+    }
+
     public static void checkValidReply(final NetconfMessage input, final NetconfMessage output)
             throws NetconfDocumentedException {
-        final String inputMsgId = input.getDocument().getDocumentElement().getAttribute(MESSAGE_ID_ATTR);
-        final String outputMsgId = output.getDocument().getDocumentElement().getAttribute(MESSAGE_ID_ATTR);
+        final String inputMsgId = getMessageId(input);
+        final String outputMsgId = getMessageId(output);
 
         if (!inputMsgId.equals(outputMsgId)) {
             final Map<String, String> errorInfo = ImmutableMap.<String, String>builder()
@@ -219,7 +236,32 @@ public final class NetconfMessageTransformUtil {
         }
     }
 
+    /**
+     * Return the value of the {@code message-id} attribute of a message, avoiding building its DOM document where
+     * possible.
+     *
+     * @param message Message to examine
+     * @return Message ID, empty string if the message does not have one
+     */
+    public static String getMessageId(final NetconfMessage message) {
+        if (message instanceof LazyNetconfMessage) {
+            return ((LazyNetconfMessage) message).getMessageId();
+        }
+        if (message instanceof NormalizedNodeNetconfMessage) {
+            final String messageId = ((NormalizedNodeNetconfMessage) message).getAttributes().get(MESSAGE_ID_ATTR);
+            return messageId == null ? "" : messageId;
+        }
+        final Document document = message.getDocument();
+        final Element root = document == null ? null : document.getDocumentElement();
+        return root == null ? "" : root.getAttribute(MESSAGE_ID_ATTR);
+    }
+
     public static void checkSuccessReply(final NetconfMessage output) throws NetconfDocumentedException {
+        if (output instanceof LazyNetconfMessage
+                && !DocumentedException.RPC_ERROR.equals(((LazyNetconfMessage) output).getFirstChildName())) {
+            // Avoid building the document for replies which obviously are not errors
+            return;
+        }
         if (NetconfMessageUtil.isErrorMessage(output)) {
             throw NetconfDocumentedException.fromXMLDocument(output.getDocument());
         }
@@ -339,6 +381,22 @@ public final class NetconfMessageTransformUtil {
         return SchemaPath.create(true, rpc);
     }
 
+    /**
+     * Parse the content of a notification {@code eventTime} element.
+     *
+     * @param eventTime RFC3339 formatted time
+     * @return Parsed time, or {@link NetconfNotification#UNKNOWN_EVENT_TIME} if the time cannot be parsed
+     */
+    public static Date parseEventTime(final String eventTime) {
+        try {
+            return NetconfNotification.RFC3339_DATE_PARSER.apply(eventTime);
+        } catch (final DateTimeParseException e) {
+            LOG.warn("Unable to parse event time from {}. Setting time to {}", eventTime,
+                    NetconfNotification.UNKNOWN_EVENT_TIME, e);
+            return NetconfNotification.UNKNOWN_EVENT_TIME;
+        }
+    }
+
     public static Map.Entry<Date, XmlElement> stripNotification(final NetconfMessage message) {
         final XmlElement xmlElement = XmlElement.fromDomDocument(message.getDocument());
         final List<XmlElement> childElements = xmlElement.getChildElements();
@@ -359,16 +417,11 @@ public final class NetconfMessageTransformUtil {
         }
 
         try {
-            return new AbstractMap.SimpleEntry<>(
-                    NetconfNotification.RFC3339_DATE_PARSER.apply(eventTimeElement.getTextContent()),
+            return new AbstractMap.SimpleEntry<>(parseEventTime(eventTimeElement.getTextContent()),
                     notificationElement);
         } catch (final DocumentedException e) {
             throw new IllegalArgumentException("Notification payload does not contain " + EVENT_TIME + " " + message,
                     e);
-        } catch (final DateTimeParseException e) {
-            LOG.warn("Unable to parse event time from {}. Setting time to {}", eventTimeElement,
-                    NetconfNotification.UNKNOWN_EVENT_TIME, e);
-            return new AbstractMap.SimpleEntry<>(NetconfNotification.UNKNOWN_EVENT_TIME, notificationElement);
         }
     }
 
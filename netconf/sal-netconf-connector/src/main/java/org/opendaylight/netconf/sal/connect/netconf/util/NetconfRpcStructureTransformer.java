@@ -45,4 +45,9 @@ class NetconfRpcStructureTransformer implements RpcStructureTransformer {
     public DataContainerChild<?, ?> toFilterStructure(final YangInstanceIdentifier path) {
         return NetconfMessageTransformUtil.toFilterStructure(path, schemaContext);
     }
+
+    @Override
+    public DataContainerChild<?, ?> toExistsFilterStructure(final YangInstanceIdentifier path) {
+        return NetconfMessageTransformUtil.toExistsFilterStructure(path, schemaContext);
+    }
 }
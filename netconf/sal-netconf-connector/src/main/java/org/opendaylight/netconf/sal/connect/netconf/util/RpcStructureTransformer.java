@@ -37,6 +37,15 @@ interface RpcStructureTransformer {
      */
     DataContainerChild<?,?> toFilterStructure(YangInstanceIdentifier path);
 
+    /**
+     * Transforms path to a filter structure, which allows
+     * {@link #selectFromDataStructure(DataContainerChild, YangInstanceIdentifier)} to determine whether data exists
+     * at the path. List entries are matched by their keys only.
+     * @param path path
+     * @return filter structure
+     */
+    DataContainerChild<?,?> toExistsFilterStructure(YangInstanceIdentifier path);
+
     /**
      * Selects data specified by path from data node. Data must be product of get-config rpc with filter created by
      * {@link #toFilterStructure(YangInstanceIdentifier)} with same path.
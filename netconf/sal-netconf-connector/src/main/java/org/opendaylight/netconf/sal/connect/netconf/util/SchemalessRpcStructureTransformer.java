@@ -134,6 +134,15 @@ class SchemalessRpcStructureTransformer implements RpcStructureTransformer {
                 .build();
     }
 
+    /**
+     * Without schema it is not known which children of a node are cheap to select, hence this is the same filter
+     * as created by {@link #toFilterStructure(YangInstanceIdentifier)}.
+     */
+    @Override
+    public DataContainerChild<?, ?> toExistsFilterStructure(final YangInstanceIdentifier path) {
+        return toFilterStructure(path);
+    }
+
     private static void checkDataValidForPath(final YangInstanceIdentifier dataPath, final Element dataNode) {
         //if datapath is empty, consider dataNode to be a root node
         if (dataPath.equals(YangInstanceIdentifier.EMPTY)) {
@@ -9,16 +9,21 @@
 package org.opendaylight.netconf.sal.connect.netconf;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.Iterables;
+import com.google.common.io.ByteStreams;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.controller.md.sal.dom.api.DOMEvent;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
+import org.opendaylight.netconf.api.LazyNetconfMessage;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.notifications.NetconfNotification;
@@ -80,4 +85,26 @@ public class NetconfToNotificationTest {
         assertEquals(NetconfNotification.RFC3339_DATE_PARSER.apply("2015-10-23T09:42:27.67175+00:00"),
                 ((DOMEvent) domNotification).getEventTime());
     }
+
+    @Test
+    public void testToNotificationLazy() throws Exception {
+        final byte[] payload;
+        try (InputStream notifyPayloadStream = getClass().getResourceAsStream("/notification-payload.xml")) {
+            payload = ByteStreams.toByteArray(notifyPayloadStream);
+        }
+        // Content split into segments, as received by the lazy decoder
+        final int split = payload.length / 2;
+        final List<byte[]> segments = Arrays.asList(Arrays.copyOfRange(payload, 0, split),
+            Arrays.copyOfRange(payload, split, payload.length));
+        final LazyNetconfMessage lazy = LazyNetconfMessage.create(segments);
+
+        final SchemaContext schemaContext = getNotificationSchemaContext(getClass(), false);
+        messageTransformer = new NetconfMessageTransformer(schemaContext, true);
+        final DOMNotification lazyNotification = messageTransformer.toNotification(lazy);
+        assertFalse(lazy.isDocumentParsed());
+
+        final DOMNotification domNotification = messageTransformer.toNotification(userNotification);
+        assertEquals(domNotification.getBody(), lazyNotification.getBody());
+        assertEquals(((DOMEvent) domNotification).getEventTime(), ((DOMEvent) lazyNotification).getEventTime());
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.admission;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission.Phase;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.network.topology.topology.AdmissionStatistics;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.network.topology.topology.admission.statistics.PhaseStatistics;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class AdmissionStatisticsPublisherTest {
+    private static final RemoteDeviceId ID = new RemoteDeviceId("device", new InetSocketAddress("localhost", 830));
+
+    private ConnectionAdmission admission;
+    private DataBroker dataBroker;
+    private WriteTransaction tx;
+    private ScheduledExecutorService executor;
+
+    @Before
+    public void setUp() {
+        admission = new ConnectionAdmission(MoreExecutors.directExecutor(), mock(ScheduledExecutorService.class),
+            ImmutableMap.of(Phase.CONNECT, 1));
+        tx = mock(WriteTransaction.class);
+        doReturn(Futures.immediateCheckedFuture(null)).when(tx).submit();
+        dataBroker = mock(DataBroker.class);
+        doReturn(tx).when(dataBroker).newWriteOnlyTransaction();
+        executor = mock(ScheduledExecutorService.class);
+        doReturn(mock(ScheduledFuture.class)).when(executor).scheduleWithFixedDelay(any(Runnable.class), anyLong(),
+            anyLong(), any(TimeUnit.class));
+        doAnswer(invocation -> {
+            invocation.getArgumentAt(0, Runnable.class).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPublishChanges() {
+        final AdmissionStatisticsPublisher statistics = new AdmissionStatisticsPublisher(admission, dataBroker,
+            "topology-netconf", "member", executor);
+        final ArgumentCaptor<Runnable> publisher = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).scheduleWithFixedDelay(publisher.capture(), anyLong(), anyLong(), any(TimeUnit.class));
+
+        admission.admit(Phase.CONNECT, ID, 0, 0, () -> { });
+        admission.admit(Phase.CONNECT, ID, 0, 0, () -> { });
+        publisher.getValue().run();
+
+        final ArgumentCaptor<AdmissionStatistics> data = ArgumentCaptor.forClass(AdmissionStatistics.class);
+        verify(tx).merge(eq(LogicalDatastoreType.OPERATIONAL), any(InstanceIdentifier.class), data.capture(),
+            anyBoolean());
+        assertEquals("member", data.getValue().getController());
+        final PhaseStatistics connect = data.getValue().getPhaseStatistics().get(0);
+        assertEquals(PhaseStatistics.Phase.Connect, connect.getPhase());
+        assertEquals(Long.valueOf(1), connect.getLimit());
+        assertEquals(Long.valueOf(1), connect.getActive());
+        assertEquals(Long.valueOf(1), connect.getQueued());
+        assertEquals(BigInteger.ONE, connect.getAdmitted());
+
+        // Unchanged statistics are not published again
+        publisher.getValue().run();
+        verify(dataBroker, times(1)).newWriteOnlyTransaction();
+
+        statistics.close();
+        verify(tx).delete(eq(LogicalDatastoreType.OPERATIONAL), any(InstanceIdentifier.class));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.admission;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission.Phase;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission.Ticket;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+
+public class ConnectionAdmissionTest {
+    private final List<String> started = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+    private ConnectionAdmission admission;
+
+    @Before
+    public void setUp() {
+        scheduler = mock(ScheduledExecutorService.class);
+        admission = new ConnectionAdmission(MoreExecutors.directExecutor(), scheduler,
+            ImmutableMap.of(Phase.CONNECT, 2, Phase.SCHEMA_RESOLUTION, 1));
+    }
+
+    @Test
+    public void testQueueing() {
+        final Ticket first = admit(Phase.CONNECT, "first", 0);
+        admit(Phase.CONNECT, "second", 0);
+        final Ticket third = admit(Phase.CONNECT, "third", 0);
+        admit(Phase.CONNECT, "fourth", 0);
+        assertProgress(Phase.CONNECT, 2, 2, 2);
+
+        // A withdrawn device is skipped
+        third.close();
+        assertProgress(Phase.CONNECT, 2, 1, 2);
+        assertEquals(1, admission.getQueueSize(Phase.CONNECT));
+        first.close();
+        first.close();
+        assertEquals(3, started.size());
+        assertEquals("fourth", started.get(2));
+        assertProgress(Phase.CONNECT, 2, 0, 3);
+
+        // Phases have separate budgets
+        admit(Phase.SCHEMA_RESOLUTION, "first", 0);
+        assertProgress(Phase.SCHEMA_RESOLUTION, 1, 0, 1);
+    }
+
+    @Test
+    public void testLease() {
+        admit(Phase.CONNECT, "first", 1000);
+        admit(Phase.CONNECT, "second", 0);
+        admit(Phase.CONNECT, "third", 0);
+        assertEquals(2, started.size());
+
+        final ArgumentCaptor<Runnable> expiry = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(expiry.capture(), eq(1000L), eq(TimeUnit.MILLISECONDS));
+        expiry.getValue().run();
+        assertEquals(3, started.size());
+    }
+
+    @Test
+    public void testTaskAndLimitChange() {
+        admission.admitTask(Phase.SCHEMA_RESOLUTION, id("first"), 0, () -> started.add("first"));
+        admission.admitTask(Phase.SCHEMA_RESOLUTION, id("second"), 0, () -> started.add("second"));
+        assertProgress(Phase.SCHEMA_RESOLUTION, 0, 0, 2);
+
+        admit(Phase.SCHEMA_RESOLUTION, "third", 0);
+        admit(Phase.SCHEMA_RESOLUTION, "fourth", 0);
+        assertProgress(Phase.SCHEMA_RESOLUTION, 1, 1, 3);
+        admission.setLimit(Phase.SCHEMA_RESOLUTION, 0);
+        assertProgress(Phase.SCHEMA_RESOLUTION, 2, 0, 4);
+
+        // Unlimited phases admit immediately
+        for (int i = 0; i < 100; ++i) {
+            admit(Phase.MOUNT, "device" + i, 0);
+        }
+        assertProgress(Phase.MOUNT, 100, 0, 100);
+    }
+
+    @Test
+    public void testPriority() {
+        final Ticket first = admit(Phase.CONNECT, "first", 0);
+        final Ticket second = admit(Phase.CONNECT, "second", 0);
+        admit(Phase.CONNECT, "low", 0);
+        admit(Phase.CONNECT, "high", 10, 0);
+        admit(Phase.CONNECT, "higher", 20, 0);
+        admit(Phase.CONNECT, "high2", 10, 0);
+        assertProgress(Phase.CONNECT, 2, 4, 2);
+
+        // Higher priority overtakes, equal priority keeps the order of requests
+        first.close();
+        second.close();
+        assertEquals(ImmutableList.of("first", "second", "higher", "high"), started);
+        started.clear();
+        admission.setLimit(Phase.CONNECT, 0);
+        assertEquals(ImmutableList.of("high2", "low"), started);
+    }
+
+    private Ticket admit(final Phase phase, final String name, final long leaseMillis) {
+        return admit(phase, name, 0, leaseMillis);
+    }
+
+    private Ticket admit(final Phase phase, final String name, final int priority, final long leaseMillis) {
+        return admission.admit(phase, id(name), priority, leaseMillis, () -> started.add(name));
+    }
+
+    private void assertProgress(final Phase phase, final int active, final int queued, final long admitted) {
+        assertEquals(active, admission.getActive(phase));
+        assertEquals(queued, admission.getQueued(phase));
+        assertEquals(admitted, admission.getAdmitted(phase));
+    }
+
+    private static RemoteDeviceId id(final String name) {
+        return new RemoteDeviceId(name, new InetSocketAddress("localhost", 830));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.admission;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
+import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission.Phase;
+import org.opendaylight.netconf.sal.connect.netconf.admission.ConnectionAdmission.Ticket;
+import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+public class DeviceAdmissionTest {
+    private RemoteDeviceId id;
+    private ConnectionAdmission admission;
+    private RemoteDeviceHandler<NetconfSessionPreferences> delegate;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        id = new RemoteDeviceId("device", new InetSocketAddress("localhost", 830));
+        admission = new ConnectionAdmission(MoreExecutors.directExecutor(), mock(ScheduledExecutorService.class),
+            ImmutableMap.of(Phase.MOUNT, 1));
+        delegate = mock(RemoteDeviceHandler.class);
+    }
+
+    @Test
+    public void testNotificationsBufferedUntilMounted() {
+        final RemoteDeviceHandler<NetconfSessionPreferences> facade = new DeviceAdmission(admission, id)
+                .wrapFacade(delegate);
+        final DOMNotification first = mock(DOMNotification.class);
+        final DOMNotification second = mock(DOMNotification.class);
+        final DOMNotification third = mock(DOMNotification.class);
+
+        // Another device holds the only mount slot
+        final Ticket other = admission.admit(Phase.MOUNT, new RemoteDeviceId("other",
+            new InetSocketAddress("localhost", 831)), 0, 0, () -> { });
+        facade.onDeviceConnected(mock(SchemaContext.class), mock(NetconfSessionPreferences.class),
+            mock(DOMRpcService.class));
+        facade.onNotification(first);
+        facade.onNotification(second);
+        verify(delegate, never()).onDeviceConnected(any(), any(), any());
+        verify(delegate, never()).onNotification(any());
+
+        other.close();
+        facade.onNotification(third);
+
+        final InOrder inOrder = inOrder(delegate);
+        inOrder.verify(delegate).onDeviceConnected(any(), any(), any());
+        inOrder.verify(delegate).onNotification(first);
+        inOrder.verify(delegate).onNotification(second);
+        inOrder.verify(delegate).onNotification(third);
+    }
+
+    @Test
+    public void testNotificationsDiscardedOnDisconnect() {
+        final RemoteDeviceHandler<NetconfSessionPreferences> facade = new DeviceAdmission(admission, id)
+                .wrapFacade(delegate);
+        final DOMNotification notification = mock(DOMNotification.class);
+
+        final Ticket other = admission.admit(Phase.MOUNT, new RemoteDeviceId("other",
+            new InetSocketAddress("localhost", 831)), 0, 0, () -> { });
+        facade.onDeviceConnected(mock(SchemaContext.class), mock(NetconfSessionPreferences.class),
+            mock(DOMRpcService.class));
+        facade.onNotification(notification);
+        facade.onDeviceDisconnected();
+        other.close();
+
+        verify(delegate).onDeviceDisconnected();
+        verify(delegate, never()).onDeviceConnected(any(), any(), any());
+        verify(delegate, never()).onNotification(any());
+    }
+}
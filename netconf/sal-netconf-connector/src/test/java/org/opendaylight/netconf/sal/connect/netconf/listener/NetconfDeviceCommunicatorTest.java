@@ -22,6 +22,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.opendaylight.netconf.api.xml.XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0;
 
@@ -452,6 +453,50 @@ public class NetconfDeviceCommunicatorTest {
         assertNotNull("ListenableFuture is null", resultFuture);
     }
 
+    @Test
+    public void testOutOfOrderResponseMessages() throws Exception {
+        setupSession();
+
+        final String messageID1 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture1 = sendRequest(messageID1, true);
+        final String messageID2 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture2 = sendRequest(messageID2, true);
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID2));
+        verifyResponseMessage(resultFuture2.get(), messageID2);
+        assertFalse(resultFuture1.isDone());
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID1));
+        verifyResponseMessage(resultFuture1.get(), messageID1);
+    }
+
+    @Test
+    public void testQueuedRequests() throws Exception {
+        communicator = new NetconfDeviceCommunicator(
+                new RemoteDeviceId("test", InetSocketAddress.createUnresolved("localhost", 22)), mockDevice, 1, 1);
+        setupSession();
+
+        final String messageID1 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture1 = sendRequest(messageID1, true);
+        final String messageID2 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture2 = sendRequest(messageID2, true);
+
+        // Queue is full
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture3 =
+                sendRequest(UUID.randomUUID().toString(), true);
+        assertTrue(resultFuture3.isDone());
+        assertFalse(resultFuture2.isDone());
+        verify(mockSession, times(1)).sendMessage(any(NetconfMessage.class));
+
+        // Reply to the first request releases the second one
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID1));
+        verifyResponseMessage(resultFuture1.get(), messageID1);
+        verify(mockSession, times(2)).sendMessage(any(NetconfMessage.class));
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID2));
+        verifyResponseMessage(resultFuture2.get(), messageID2);
+    }
+
     private static NetconfMessage createErrorResponseMessage(final String messageID) throws Exception {
         String xmlStr = "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\""
                 + "           message-id=\"" + messageID + "\">"
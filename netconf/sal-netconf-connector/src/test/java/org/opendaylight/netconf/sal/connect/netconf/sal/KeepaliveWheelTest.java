@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.base.Ticker;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KeepaliveWheelTest {
+    private static final long DELAY_MILLIS = 1000;
+    private static final long MAX_JITTER_MILLIS = DELAY_MILLIS * KeepaliveWheel.JITTER_PERCENT / 100;
+
+    private final AtomicInteger idle = new AtomicInteger();
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> tickFuture;
+    private long nanos;
+    private KeepaliveWheel wheel;
+
+    @Before
+    public void setUp() {
+        tickFuture = mock(ScheduledFuture.class);
+        executor = mock(ScheduledExecutorService.class);
+        doReturn(tickFuture).when(executor).scheduleAtFixedRate(any(Runnable.class), anyLong(), anyLong(),
+            any(TimeUnit.class));
+        wheel = new KeepaliveWheel(executor, new Ticker() {
+            @Override
+            public long read() {
+                return nanos;
+            }
+        });
+    }
+
+    @Test
+    public void testIdleSession() {
+        wheel.register(TimeUnit.MILLISECONDS.toNanos(DELAY_MILLIS), idle::incrementAndGet);
+
+        advance(DELAY_MILLIS - KeepaliveWheel.TICK_MILLIS);
+        assertEquals(0, idle.get());
+        advance(MAX_JITTER_MILLIS + 2 * KeepaliveWheel.TICK_MILLIS);
+        assertEquals(1, idle.get());
+
+        // Keeps firing while the session stays idle
+        advance(DELAY_MILLIS + MAX_JITTER_MILLIS + KeepaliveWheel.TICK_MILLIS);
+        assertEquals(2, idle.get());
+    }
+
+    @Test
+    public void testActivityPostponesKeepalive() {
+        final KeepaliveWheel.Registration registration =
+                wheel.register(TimeUnit.MILLISECONDS.toNanos(DELAY_MILLIS), idle::incrementAndGet);
+
+        advance(DELAY_MILLIS / 2);
+        registration.markActive();
+        advance(DELAY_MILLIS - KeepaliveWheel.TICK_MILLIS);
+        assertEquals(0, idle.get());
+        advance(2 * KeepaliveWheel.TICK_MILLIS);
+        assertEquals(1, idle.get());
+    }
+
+    @Test
+    public void testDelayLongerThanWheel() {
+        final long delayMillis = TimeUnit.MINUTES.toMillis(2);
+        wheel.register(TimeUnit.MILLISECONDS.toNanos(delayMillis), idle::incrementAndGet);
+
+        advance(delayMillis - KeepaliveWheel.TICK_MILLIS);
+        assertEquals(0, idle.get());
+        advance(delayMillis * KeepaliveWheel.JITTER_PERCENT / 100 + 2 * KeepaliveWheel.TICK_MILLIS);
+        assertEquals(1, idle.get());
+    }
+
+    @Test
+    public void testClose() {
+        final KeepaliveWheel.Registration first =
+                wheel.register(TimeUnit.MILLISECONDS.toNanos(DELAY_MILLIS), idle::incrementAndGet);
+        final KeepaliveWheel.Registration second =
+                wheel.register(TimeUnit.MILLISECONDS.toNanos(DELAY_MILLIS), idle::incrementAndGet);
+        verify(executor, times(1)).scheduleAtFixedRate(any(Runnable.class), anyLong(), anyLong(),
+            any(TimeUnit.class));
+
+        first.close();
+        first.close();
+        verify(tickFuture, never()).cancel(false);
+        advance(DELAY_MILLIS + MAX_JITTER_MILLIS + KeepaliveWheel.TICK_MILLIS);
+        assertEquals(1, idle.get());
+
+        // The tick task is stopped along with the last registration
+        second.close();
+        verify(tickFuture).cancel(false);
+    }
+
+    private void advance(final long millis) {
+        for (long elapsed = 0; elapsed < millis; elapsed += KeepaliveWheel.TICK_MILLIS) {
+            nanos += TimeUnit.MILLISECONDS.toNanos(KeepaliveWheel.TICK_MILLIS);
+            wheel.tick();
+        }
+    }
+}
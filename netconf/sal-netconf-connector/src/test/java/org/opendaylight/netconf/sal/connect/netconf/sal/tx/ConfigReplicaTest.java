@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_DATA_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toId;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toPath;
+
+import com.google.common.util.concurrent.Futures;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
+import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfConfigChange;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.netconf.config.change.Edit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+
+public class ConfigReplicaTest {
+    private static final QName TARGET = QName.create(Edit.QNAME, "target");
+
+    @Mock
+    private DOMRpcService rpc;
+    @Mock
+    private ScheduledExecutorService executor;
+
+    private NetconfBaseOps netconfOps;
+    private SchemaContext schemaContext;
+    private RemoteDeviceId id;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        schemaContext = YangParserTestUtils.parseYangResource("/schemas/test-module.yang");
+        doReturn(Futures.immediateCheckedFuture(new DefaultDOMRpcResult())).when(rpc).invokeRpc(any(), any());
+        doAnswer(invocation -> {
+            invocation.getArgumentAt(0, Runnable.class).run();
+            return null;
+        }).when(executor).execute(any());
+        netconfOps = new NetconfBaseOps(rpc, schemaContext);
+        id = new RemoteDeviceId("device1", InetSocketAddress.createUnresolved("0.0.0.0", 17830));
+    }
+
+    @Test
+    public void testSeed() throws Exception {
+        mockRunningConfig("first");
+        final ConfigReplica replica = new ConfigReplica(id, netconfOps, schemaContext, 0, executor);
+
+        assertTrue(replica.isReadable(TxTestUtils.getLeafId()));
+        assertEquals("first", replica.read(TxTestUtils.getLeafId()).get().getValue());
+        assertEquals(NETCONF_DATA_QNAME, replica.read(YangInstanceIdentifier.EMPTY).get().getNodeType());
+
+        final ReadOnlyTx tx = new ReadOnlyTx(netconfOps, id, null, replica);
+        assertEquals("first", tx.read(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getLeafId()).get().get()
+            .getValue());
+        assertTrue(tx.exists(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getContainerId()).get());
+        verify(rpc).invokeRpc(eq(toPath(NETCONF_GET_CONFIG_QNAME)), any());
+
+        replica.close();
+        assertFalse(replica.isReadable(TxTestUtils.getLeafId()));
+    }
+
+    @Test
+    public void testRefreshAfterCommit() throws Exception {
+        mockRunningConfig("first");
+        final ConfigReplica replica = new ConfigReplica(id, netconfOps, schemaContext, 0, executor);
+
+        final WriteRunningTx tx = new WriteRunningTx(id, netconfOps, false);
+        replica.track(tx);
+        tx.put(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getLeafId(), TxTestUtils.getLeafNode());
+        mockRunningConfig("data");
+        tx.commit().get();
+
+        verify(rpc, times(2)).invokeRpc(eq(toPath(NETCONF_GET_CONFIG_QNAME)), any());
+        assertTrue(replica.isReadable(TxTestUtils.getLeafId()));
+        assertEquals("data", replica.read(TxTestUtils.getLeafId()).get().getValue());
+    }
+
+    @Test
+    public void testDirtyWhileEdited() throws Exception {
+        mockRunningConfig("first");
+        final ConfigReplica replica = new ConfigReplica(id, netconfOps, schemaContext, 0, executor);
+
+        final WriteRunningTx tx = new WriteRunningTx(id, netconfOps, false);
+        replica.track(tx);
+        tx.put(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getLeafId(), TxTestUtils.getLeafNode());
+
+        // Open transaction makes the edited path dirty
+        assertFalse(replica.isReadable(TxTestUtils.getLeafId()));
+        assertFalse(replica.isReadable(TxTestUtils.getContainerId()));
+
+        mockRunningConfig("data");
+        tx.commit().get();
+        assertTrue(replica.isReadable(TxTestUtils.getLeafId()));
+        assertEquals("data", replica.read(TxTestUtils.getLeafId()).get().getValue());
+    }
+
+    @Test
+    public void testRefreshAfterCancel() throws Exception {
+        mockRunningConfig("first");
+        final ConfigReplica replica = new ConfigReplica(id, netconfOps, schemaContext, 0, executor);
+
+        final WriteRunningTx tx = new WriteRunningTx(id, netconfOps, false);
+        replica.track(tx);
+        tx.put(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getLeafId(), TxTestUtils.getLeafNode());
+        assertFalse(replica.isReadable(TxTestUtils.getLeafId()));
+
+        mockRunningConfig("data");
+        assertTrue(tx.cancel());
+
+        verify(rpc, times(2)).invokeRpc(eq(toPath(NETCONF_GET_CONFIG_QNAME)), any());
+        assertTrue(replica.isReadable(TxTestUtils.getLeafId()));
+        assertEquals("data", replica.read(TxTestUtils.getLeafId()).get().getValue());
+    }
+
+    @Test
+    public void testApplyOnExecutor() throws Exception {
+        final ScheduledExecutorService applyExecutor = mock(ScheduledExecutorService.class);
+        mockRunningConfig("first");
+        final ConfigReplica replica = new ConfigReplica(id, netconfOps, schemaContext, 0, applyExecutor);
+
+        // Reply is received, but not applied on the thread delivering it
+        verify(rpc).invokeRpc(eq(toPath(NETCONF_GET_CONFIG_QNAME)), any());
+        assertFalse(replica.isReadable(TxTestUtils.getLeafId()));
+
+        final ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(applyExecutor).execute(task.capture());
+        task.getValue().run();
+        assertTrue(replica.isReadable(TxTestUtils.getLeafId()));
+        assertEquals("first", replica.read(TxTestUtils.getLeafId()).get().getValue());
+    }
+
+    @Test
+    public void testRefreshOnConfigChange() throws Exception {
+        mockRunningConfig("first");
+        final ConfigReplica replica = new ConfigReplica(id, netconfOps, schemaContext, 0, executor);
+
+        mockRunningConfig("second");
+        replica.onNotification(configChange(TxTestUtils.getLeafId()));
+
+        verify(rpc, times(2)).invokeRpc(eq(toPath(NETCONF_GET_CONFIG_QNAME)), any());
+        assertEquals("second", replica.read(TxTestUtils.getLeafId()).get().getValue());
+    }
+
+    private void mockRunningConfig(final String value) {
+        final ContainerNode data = Builders.containerBuilder().withNodeIdentifier(toId(NETCONF_DATA_QNAME))
+                .withChild(Builders.containerBuilder().withNodeIdentifier(TxTestUtils.getContainerNode()
+                    .getIdentifier()).withChild(ImmutableNodes.leafNode(TxTestUtils.getLeafNode().getNodeType(),
+                        value)).build())
+                .build();
+        doReturn(Futures.immediateCheckedFuture(new DefaultDOMRpcResult(Builders.containerBuilder()
+            .withNodeIdentifier(toId(NETCONF_GET_CONFIG_QNAME)).withChild(data).build())))
+                .when(rpc).invokeRpc(eq(toPath(NETCONF_GET_CONFIG_QNAME)), any());
+    }
+
+    private static DOMNotification configChange(final YangInstanceIdentifier target) {
+        final ContainerNode body = Builders.containerBuilder().withNodeIdentifier(toId(NetconfConfigChange.QNAME))
+                .withChild(Builders.unkeyedListBuilder().withNodeIdentifier(toId(Edit.QNAME))
+                    .withChild(Builders.unkeyedListEntryBuilder().withNodeIdentifier(toId(Edit.QNAME))
+                        .withChild(ImmutableNodes.leafNode(TARGET, target)).build())
+                    .build())
+                .build();
+        return new DOMNotification() {
+            @Override
+            public SchemaPath getType() {
+                return toPath(NetconfConfigChange.QNAME);
+            }
+
+            @Override
+            public ContainerNode getBody() {
+                return body;
+            }
+        };
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CONFIG_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toId;
+
+import com.google.common.base.Optional;
+import java.util.List;
+import javax.xml.transform.dom.DOMSource;
+import org.custommonkey.xmlunit.Diff;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.base._1._0.rev110601.edit.config.input.EditContent;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.ModifyAction;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+public class EditConfigCoalescerTest {
+    private static final String CONFIG_START = "<config xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" "
+            + "xmlns:nc=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><top xmlns=\"urn:test\">";
+    private static final String CONFIG_END = "</top></config>";
+
+    private static final QName TOP = QName.create("urn:test", "top");
+    private static final QName LIST = QName.create(TOP, "list");
+    private static final QName NAME = QName.create(TOP, "name");
+    private static final QName VALUE = QName.create(TOP, "value");
+    private static final QName OTHER = QName.create(TOP, "other");
+
+    private EditConfigCoalescer coalescer;
+
+    @Before
+    public void setUp() {
+        XMLUnit.setIgnoreWhitespace(true);
+        coalescer = new EditConfigCoalescer();
+    }
+
+    @Test
+    public void testDisjointEditsAreMerged() throws Exception {
+        coalescer.add(entry("a"), editStructure("<list nc:operation=\"replace\"><name>a</name><value>1</value></list>"),
+            Optional.absent());
+        coalescer.add(entry("b"), editStructure("<list><name>b</name><value>2</value></list>"), Optional.absent());
+        coalescer.add(YangInstanceIdentifier.of(TOP).node(OTHER), editStructure("<other nc:operation=\"replace\">"
+            + "x</other>"), Optional.absent());
+
+        final List<EditConfigCoalescer.Edit> edits = coalescer.drain();
+        assertTrue(coalescer.isEmpty());
+        assertEquals(1, edits.size());
+        assertEquals(YangInstanceIdentifier.of(TOP), edits.get(0).getPath());
+        assertEquals(Optional.absent(), edits.get(0).getDefaultOperation());
+        assertConfig("<list nc:operation=\"replace\"><name>a</name><value>1</value></list>"
+            + "<list><name>b</name><value>2</value></list><other nc:operation=\"replace\">x</other>",
+            edits.get(0).getEditStructure());
+    }
+
+    @Test
+    public void testOverlappingEditsAreOrdered() throws Exception {
+        final DataContainerChild<?, ?> first =
+                editStructure("<list nc:operation=\"replace\"><name>a</name><value>1</value></list>");
+        final DataContainerChild<?, ?> second =
+                editStructure("<list><name>a</name><value nc:operation=\"replace\">2</value></list>");
+        coalescer.add(entry("a"), first, Optional.absent());
+        coalescer.add(entry("a").node(VALUE), second, Optional.absent());
+
+        final List<EditConfigCoalescer.Edit> edits = coalescer.drain();
+        assertEquals(2, edits.size());
+        assertSame(first, edits.get(0).getEditStructure());
+        assertSame(second, edits.get(1).getEditStructure());
+    }
+
+    @Test
+    public void testDefaultOperationSplitsEdits() throws Exception {
+        coalescer.add(entry("a"), editStructure("<list nc:operation=\"replace\"><name>a</name></list>"),
+            Optional.absent());
+        coalescer.add(entry("b").node(VALUE), editStructure("<list><name>b</name>"
+            + "<value nc:operation=\"delete\"/></list>"), Optional.of(ModifyAction.NONE));
+        coalescer.add(entry("c").node(VALUE), editStructure("<list><name>c</name>"
+            + "<value nc:operation=\"delete\"/></list>"), Optional.of(ModifyAction.NONE));
+
+        final List<EditConfigCoalescer.Edit> edits = coalescer.drain();
+        assertEquals(2, edits.size());
+        assertEquals(Optional.absent(), edits.get(0).getDefaultOperation());
+        assertEquals(Optional.of(ModifyAction.NONE), edits.get(1).getDefaultOperation());
+        assertConfig("<list><name>b</name><value nc:operation=\"delete\"/></list>"
+            + "<list><name>c</name><value nc:operation=\"delete\"/></list>", edits.get(1).getEditStructure());
+    }
+
+    private static YangInstanceIdentifier entry(final String name) {
+        return YangInstanceIdentifier.builder().node(TOP).node(LIST).nodeWithKey(LIST, NAME, name).build();
+    }
+
+    private static DataContainerChild<?, ?> editStructure(final String content) throws Exception {
+        final AnyXmlNode config = Builders.anyXmlBuilder().withNodeIdentifier(toId(NETCONF_CONFIG_QNAME))
+                .withValue(new DOMSource(XmlUtil.readXmlToElement(CONFIG_START + content + CONFIG_END)))
+                .build();
+        return Builders.choiceBuilder().withNodeIdentifier(toId(EditContent.QNAME)).withChild(config).build();
+    }
+
+    private static void assertConfig(final String expectedContent, final DataContainerChild<?, ?> actual)
+            throws Exception {
+        final Node config = ((AnyXmlNode) ((ChoiceNode) actual).getValue().iterator().next()).getValue().getNode();
+        final Diff diff = XMLUnit.compareXML(XmlUtil.readXmlToDocument(CONFIG_START + expectedContent + CONFIG_END),
+            XmlUtil.readXmlToDocument(XmlUtil.toString((Element) config)));
+        assertTrue(diff.toString(), diff.similar());
+    }
+}
@@ -15,6 +15,7 @@ import static org.mockito.Mockito.verify;
 
 import com.google.common.util.concurrent.Futures;
 import java.net.InetSocketAddress;
+import java.util.Collections;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -22,20 +23,29 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.md.sal.common.impl.util.compat.DataNormalizationException;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
 import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.RpcError.ErrorType;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
 
 public class ReadOnlyTxTest {
 
     private static final YangInstanceIdentifier PATH = YangInstanceIdentifier.create();
+    private static final QName CONTAINER_Q_NAME = QName.create("test:namespace", "2013-07-22", "c");
 
     @Mock
     private DOMRpcService rpc;
@@ -80,6 +90,38 @@ public class ReadOnlyTxTest {
                 NetconfMessageTransformUtil.NETCONF_GET_QNAME)), any(NormalizedNode.class));
     }
 
+    @Test
+    public void testExistsResult() throws Exception {
+        final NetconfBaseOps netconfOps = new NetconfBaseOps(rpc,
+            YangParserTestUtils.parseYangResource("/schemas/test-module.yang"));
+        final ReadOnlyTx readOnlyTx =
+                new ReadOnlyTx(netconfOps, new RemoteDeviceId("a", new InetSocketAddress("localhost", 196)));
+        final YangInstanceIdentifier path = YangInstanceIdentifier.of(CONTAINER_Q_NAME);
+
+        replyData(Builders.containerBuilder().withNodeIdentifier(
+            NetconfMessageTransformUtil.toId(NetconfMessageTransformUtil.NETCONF_DATA_QNAME)).build());
+        Assert.assertFalse(readOnlyTx.exists(LogicalDatastoreType.CONFIGURATION, path).checkedGet());
+        Assert.assertFalse(readOnlyTx.exists(LogicalDatastoreType.OPERATIONAL, path).checkedGet());
+
+        replyData(Builders.containerBuilder().withNodeIdentifier(
+            NetconfMessageTransformUtil.toId(NetconfMessageTransformUtil.NETCONF_DATA_QNAME))
+            .withChild(ImmutableNodes.containerNode(CONTAINER_Q_NAME)).build());
+        Assert.assertTrue(readOnlyTx.exists(LogicalDatastoreType.CONFIGURATION, path).checkedGet());
+        Assert.assertTrue(readOnlyTx.exists(LogicalDatastoreType.OPERATIONAL, path).checkedGet());
+
+        doReturn(Futures.immediateCheckedFuture(new DefaultDOMRpcResult(Collections.singleton(
+            RpcResultBuilder.newError(ErrorType.APPLICATION, "operation-failed", "Failed"))))).when(rpc)
+                .invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        for (LogicalDatastoreType store : LogicalDatastoreType.values()) {
+            try {
+                readOnlyTx.exists(store, path).checkedGet();
+                Assert.fail("Exists check should fail on an error reply");
+            } catch (final ReadFailedException e) {
+                // Expected
+            }
+        }
+    }
+
     @Test
     public void testIdentifier() throws Exception {
         final NetconfBaseOps netconfOps = new NetconfBaseOps(rpc, mock(SchemaContext.class));
@@ -89,4 +131,12 @@ public class ReadOnlyTxTest {
                 new ReadOnlyTx(netconfOps, new RemoteDeviceId("a", new InetSocketAddress("localhost", 196)));
         Assert.assertNotEquals(tx1.getIdentifier(), tx2.getIdentifier());
     }
-}
\ No newline at end of file
+
+    private void replyData(final ContainerNode data) {
+        final ContainerNode reply = Builders.containerBuilder().withNodeIdentifier(
+            NetconfMessageTransformUtil.toId(NetconfMessageTransformUtil.NETCONF_RPC_REPLY_QNAME))
+            .withChild(data).build();
+        doReturn(Futures.immediateCheckedFuture(new DefaultDOMRpcResult(reply))).when(rpc)
+                .invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+    }
+}
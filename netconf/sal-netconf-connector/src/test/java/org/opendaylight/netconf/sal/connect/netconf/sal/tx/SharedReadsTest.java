@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_DATA_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_GET_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toId;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toPath;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
+import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+
+public class SharedReadsTest {
+    private static final RemoteDeviceId ID = new RemoteDeviceId("a", new InetSocketAddress("localhost", 196));
+    private static final YangInstanceIdentifier PATH = YangInstanceIdentifier.EMPTY;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+
+    @Mock
+    private DOMRpcService rpc;
+    @Mock
+    private SharedReads.StatisticsListener listener;
+    @Mock
+    private ScheduledExecutorService executor;
+
+    private NetconfBaseOps netconfOps;
+    private DOMRpcResult result;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        netconfOps = new NetconfBaseOps(rpc, mock(SchemaContext.class));
+        final ContainerNode data = Builders.containerBuilder().withNodeIdentifier(toId(NETCONF_DATA_QNAME)).build();
+        result = new DefaultDOMRpcResult(Builders.containerBuilder().withNodeIdentifier(toId(NETCONF_GET_QNAME))
+            .withChild(data).build());
+        doReturn(Futures.immediateCheckedFuture(result)).when(rpc)
+                .invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        doReturn(mock(ScheduledFuture.class)).when(executor).scheduleWithFixedDelay(any(Runnable.class), anyLong(),
+            anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void testConcurrentReadsAreMerged() throws Exception {
+        final SettableFuture<DOMRpcResult> rpcFuture = SettableFuture.create();
+        doReturn(Futures.makeChecked(rpcFuture, ReadFailedException.MAPPER)).when(rpc)
+                .invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        final SharedReads sharedReads = new SharedReads(ID, netconfOps, true, 0, 0, listener, ticker, executor);
+
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> first =
+                sharedReads.read(LogicalDatastoreType.OPERATIONAL, PATH);
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> second =
+                sharedReads.read(LogicalDatastoreType.OPERATIONAL, PATH);
+        verify(rpc).invokeRpc(eq(toPath(NETCONF_GET_QNAME)), any(NormalizedNode.class));
+        assertEquals(1, sharedReads.getMergedReads());
+
+        // Cancelling one of the readers must not affect the other one
+        second.cancel(false);
+        assertFalse(first.isDone());
+
+        rpcFuture.set(result);
+        assertTrue(first.get().isPresent());
+
+        // A read issued after completion is sent to the device again
+        sharedReads.read(LogicalDatastoreType.OPERATIONAL, PATH);
+        verify(rpc, times(2)).invokeRpc(eq(toPath(NETCONF_GET_QNAME)), any(NormalizedNode.class));
+        assertEquals(1, sharedReads.getMergedReads());
+    }
+
+    @Test
+    public void testOperationalReadsAreCached() throws Exception {
+        final SharedReads sharedReads = new SharedReads(ID, netconfOps, false, 1000, 10, listener, ticker, executor);
+
+        final Optional<NormalizedNode<?, ?>> first = sharedReads.read(LogicalDatastoreType.OPERATIONAL, PATH).get();
+        assertSame(first, sharedReads.read(LogicalDatastoreType.OPERATIONAL, PATH).get());
+        verify(rpc).invokeRpc(eq(toPath(NETCONF_GET_QNAME)), any(NormalizedNode.class));
+        assertEquals(1, sharedReads.getCacheHits());
+        assertEquals(1, sharedReads.getCacheMisses());
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        sharedReads.read(LogicalDatastoreType.OPERATIONAL, PATH).get();
+        verify(rpc, times(2)).invokeRpc(eq(toPath(NETCONF_GET_QNAME)), any(NormalizedNode.class));
+        assertEquals(2, sharedReads.getCacheMisses());
+
+        // Configuration reads are never cached
+        sharedReads.read(LogicalDatastoreType.CONFIGURATION, PATH).get();
+        sharedReads.read(LogicalDatastoreType.CONFIGURATION, PATH).get();
+        verify(rpc, times(2)).invokeRpc(eq(toPath(NETCONF_GET_CONFIG_QNAME)), any(NormalizedNode.class));
+        assertEquals(1, sharedReads.getCacheHits());
+    }
+
+    @Test
+    public void testConfigurationReadsAreNotMerged() throws Exception {
+        final SettableFuture<DOMRpcResult> rpcFuture = SettableFuture.create();
+        doReturn(Futures.makeChecked(rpcFuture, ReadFailedException.MAPPER)).when(rpc)
+                .invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        final SharedReads sharedReads = new SharedReads(ID, netconfOps, true, 0, 0, listener, ticker, executor);
+
+        // A read issued after a commit must not join a read issued before it
+        sharedReads.read(LogicalDatastoreType.CONFIGURATION, PATH);
+        sharedReads.read(LogicalDatastoreType.CONFIGURATION, PATH);
+        verify(rpc, times(2)).invokeRpc(eq(toPath(NETCONF_GET_CONFIG_QNAME)), any(NormalizedNode.class));
+        assertEquals(0, sharedReads.getMergedReads());
+    }
+
+    @Test
+    public void testStatisticsPublished() throws Exception {
+        final SharedReads sharedReads = new SharedReads(ID, netconfOps, false, 1000, 10, listener, ticker, executor);
+        final ArgumentCaptor<Runnable> publisher = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).scheduleWithFixedDelay(publisher.capture(), anyLong(), anyLong(), any(TimeUnit.class));
+
+        sharedReads.read(LogicalDatastoreType.OPERATIONAL, PATH).get();
+        sharedReads.read(LogicalDatastoreType.OPERATIONAL, PATH).get();
+        // Reads do not publish statistics themselves
+        verifyZeroInteractions(listener);
+
+        publisher.getValue().run();
+        verify(listener).onStatisticsUpdated(1, 1, 0);
+
+        // Unchanged statistics are not published again
+        publisher.getValue().run();
+        verify(listener, times(1)).onStatisticsUpdated(anyLong(), anyLong(), anyLong());
+
+        sharedReads.close();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.Futures;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.unavailable.capabilities.UnavailableCapability.FailureReason;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+
+public class SchemaSetSnapshotsTest {
+    private static final SourceIdentifier RESOLVED =
+            RevisionSourceIdentifier.create("resolved", Revision.of("2018-01-01"));
+    private static final SourceIdentifier BROKEN = RevisionSourceIdentifier.create("broken");
+    private static final SourceIdentifier MISSING = RevisionSourceIdentifier.create("missing");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SchemaRepository repository;
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = new File(folder.getRoot(), "snapshots");
+        repository = mock(SchemaRepository.class);
+        mockSource(RESOLVED, "module resolved {}");
+        mockSource(BROKEN, "module broken {");
+        doReturn(Futures.immediateFailedCheckedFuture(new MissingSchemaSourceException("missing", MISSING)))
+                .when(repository).getSchemaSource(eq(MISSING), any());
+    }
+
+    @Test
+    public void testStoreAndLookup() {
+        storeSnapshot();
+
+        // A fresh instance, as after a restart, reads the snapshot from disk
+        final SchemaSetSnapshots.Snapshot snapshot = new SchemaSetSnapshots(directory, repository)
+                .lookup(ImmutableList.of(BROKEN, RESOLVED));
+        assertNotNull(snapshot);
+        assertEquals(ImmutableList.of(RESOLVED), snapshot.getResolvedSources());
+        assertEquals(ImmutableMap.of(BROKEN, FailureReason.UnableToResolve), snapshot.getUnresolvedSources());
+
+        assertNull(new SchemaSetSnapshots(directory, repository).lookup(ImmutableList.of(RESOLVED)));
+    }
+
+    @Test
+    public void testChangedSourceInvalidatesSnapshot() {
+        storeSnapshot();
+
+        mockSource(BROKEN, "module broken {}");
+        assertNull(new SchemaSetSnapshots(directory, repository).lookup(ImmutableList.of(RESOLVED, BROKEN)));
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void testChangedSourceInvalidatesCachedSnapshot() {
+        final SchemaSetSnapshots snapshots = new SchemaSetSnapshots(directory, repository);
+        snapshots.store(ImmutableList.of(RESOLVED, BROKEN), ImmutableList.of(RESOLVED),
+            ImmutableMap.of(BROKEN, FailureReason.UnableToResolve));
+        assertNotNull(snapshots.lookup(ImmutableList.of(RESOLVED, BROKEN)));
+
+        // A different text registered at runtime is noticed by the instance which cached the snapshot
+        mockSource(RESOLVED, "module resolved { leaf foo { type string; } }");
+        assertNull(snapshots.lookup(ImmutableList.of(RESOLVED, BROKEN)));
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void testMissingSourceNotStored() {
+        // Another device may provide the missing source, the outcome must not be reused
+        final SchemaSetSnapshots snapshots = new SchemaSetSnapshots(directory, repository);
+        snapshots.store(ImmutableList.of(RESOLVED, BROKEN, MISSING), ImmutableList.of(RESOLVED),
+            ImmutableMap.of(BROKEN, FailureReason.UnableToResolve, MISSING, FailureReason.MissingSource));
+        assertNull(snapshots.lookup(ImmutableList.of(RESOLVED, BROKEN, MISSING)));
+        assertNull(new SchemaSetSnapshots(directory, repository).lookup(ImmutableList.of(RESOLVED, BROKEN, MISSING)));
+        assertFalse(directory.exists() && directory.list().length != 0);
+    }
+
+    private void storeSnapshot() {
+        final SchemaSetSnapshots snapshots = new SchemaSetSnapshots(directory, repository);
+        snapshots.store(ImmutableList.of(RESOLVED, BROKEN), ImmutableList.of(RESOLVED),
+            ImmutableMap.of(BROKEN, FailureReason.UnableToResolve));
+        assertEquals(1, directory.list().length);
+    }
+
+    private void mockSource(final SourceIdentifier sourceId, final String text) {
+        final YangTextSchemaSource source = YangTextSchemaSource.delegateForByteSource(sourceId,
+            ByteSource.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        doReturn(Futures.immediateCheckedFuture(source)).when(repository).getSchemaSource(eq(sourceId), any());
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+
+public class SchemaSourceFetcherTest {
+    private static final RemoteDeviceId ID = new RemoteDeviceId("a", new InetSocketAddress("localhost", 830));
+
+    private final List<SettableFuture<YangTextSchemaSource>> requests = new ArrayList<>();
+    private SchemaRepository repository;
+    private ScheduledExecutorService timeoutExecutor;
+
+    @Before
+    public void setUp() {
+        repository = mock(SchemaRepository.class);
+        doAnswer(invocation -> {
+            final SettableFuture<YangTextSchemaSource> future = SettableFuture.create();
+            requests.add(future);
+            return future;
+        }).when(repository).getSchemaSource(any(SourceIdentifier.class), eq(YangTextSchemaSource.class));
+        timeoutExecutor = mock(ScheduledExecutorService.class);
+        doReturn(mock(ScheduledFuture.class)).when(timeoutExecutor).schedule(any(Runnable.class), anyLong(),
+            any(TimeUnit.class));
+    }
+
+    @Test
+    public void testLimits() throws Exception {
+        final SchemaSourceFetcher.FetchLimiter global = new SchemaSourceFetcher.FetchLimiter(3);
+        final SchemaSourceFetcher first = newFetcher(global, 2, 0);
+        final SchemaSourceFetcher second = newFetcher(global, 2, 0);
+
+        final ListenableFuture<Set<SourceIdentifier>> firstResult = first.findMissingSources(sources(3));
+        assertEquals(2, requests.size());
+        final ListenableFuture<Set<SourceIdentifier>> secondResult = second.findMissingSources(sources(2));
+        assertEquals(3, requests.size());
+
+        // Completing a request frees a global slot for the second device, the first device then waits for it
+        requests.get(0).set(mock(YangTextSchemaSource.class));
+        assertEquals(4, requests.size());
+        // Another completion lets the third source of the first device through
+        requests.get(1).setException(new MissingSchemaSourceException("missing", source(1)));
+        assertEquals(5, requests.size());
+
+        for (int i = 2; i < 5; ++i) {
+            requests.get(i).set(mock(YangTextSchemaSource.class));
+        }
+        assertEquals(ImmutableSet.of(source(1)), firstResult.get());
+        assertEquals(ImmutableSet.of(), secondResult.get());
+    }
+
+    @Test
+    public void testSynchronousCompletion() throws Exception {
+        doReturn(Futures.immediateFuture(mock(YangTextSchemaSource.class))).when(repository)
+                .getSchemaSource(any(SourceIdentifier.class), eq(YangTextSchemaSource.class));
+        final SchemaSourceFetcher fetcher = newFetcher(new SchemaSourceFetcher.FetchLimiter(1), 1, 0);
+
+        // Cached sources complete immediately, this must not recurse once per source
+        assertEquals(ImmutableSet.of(), fetcher.findMissingSources(sources(100000)).get());
+    }
+
+    @Test
+    public void testRequestsStartedOnExecutor() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final SchemaSourceFetcher fetcher = new SchemaSourceFetcher(ID, repository,
+            new SchemaSourceFetcher.FetchLimiter(2), 2, 0, tasks::add, timeoutExecutor);
+
+        fetcher.findMissingSources(sources(3));
+        // Requests are not sent from the calling thread
+        assertEquals(2, tasks.size());
+        assertEquals(0, requests.size());
+
+        tasks.forEach(Runnable::run);
+        assertEquals(2, requests.size());
+
+        // Nor from the thread completing a previous request
+        requests.get(0).set(mock(YangTextSchemaSource.class));
+        assertEquals(3, tasks.size());
+        assertEquals(2, requests.size());
+        tasks.get(2).run();
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    public void testTimeoutReleasesSlots() throws Exception {
+        final SchemaSourceFetcher.FetchLimiter global = new SchemaSourceFetcher.FetchLimiter(1);
+        final SchemaSourceFetcher fetcher = newFetcher(global, 1, 1000);
+
+        final ListenableFuture<Set<SourceIdentifier>> result = fetcher.findMissingSources(sources(2));
+        assertEquals(1, requests.size());
+        final ArgumentCaptor<Runnable> timeout = ArgumentCaptor.forClass(Runnable.class);
+        verify(timeoutExecutor).schedule(timeout.capture(), eq(1000L), eq(TimeUnit.MILLISECONDS));
+
+        // The device never answers, the request expires and the next source is requested
+        timeout.getValue().run();
+        assertTrue(requests.get(0).isCancelled());
+        assertEquals(2, requests.size());
+        assertFalse(result.isDone());
+
+        requests.get(1).set(mock(YangTextSchemaSource.class));
+        assertEquals(ImmutableSet.of(source(0)), result.get());
+    }
+
+    @Test
+    public void testRaiseLimit() throws Exception {
+        final SchemaSourceFetcher.FetchLimiter global = new SchemaSourceFetcher.FetchLimiter(1);
+        newFetcher(global, 4, 0).findMissingSources(sources(3));
+        assertEquals(1, requests.size());
+
+        global.setLimit(3);
+        assertEquals(3, requests.size());
+    }
+
+    private SchemaSourceFetcher newFetcher(final SchemaSourceFetcher.FetchLimiter global, final int deviceLimit,
+            final long timeoutMillis) {
+        return new SchemaSourceFetcher(ID, repository, global, deviceLimit, timeoutMillis,
+            MoreExecutors.directExecutor(), timeoutExecutor);
+    }
+
+    private static List<SourceIdentifier> sources(final int count) {
+        final ImmutableList.Builder<SourceIdentifier> builder = ImmutableList.builder();
+        for (int i = 0; i < count; ++i) {
+            builder.add(source(i));
+        }
+        return builder.build();
+    }
+
+    private static SourceIdentifier source(final int index) {
+        return RevisionSourceIdentifier.create("module" + index);
+    }
+}
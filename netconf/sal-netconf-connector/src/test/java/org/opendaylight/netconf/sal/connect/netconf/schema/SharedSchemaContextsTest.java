@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaContextFactory;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+
+public class SharedSchemaContextsTest {
+    private static final SourceIdentifier FIRST = RevisionSourceIdentifier.create("first", Revision.of("2018-01-01"));
+    private static final SourceIdentifier SECOND = RevisionSourceIdentifier.create("second");
+
+    private SchemaContextFactory factory;
+    private SettableFuture<SchemaContext> build;
+
+    @Before
+    public void setUp() {
+        factory = mock(SchemaContextFactory.class);
+        build = SettableFuture.create();
+        doReturn(build).when(factory).createSchemaContext(any(Collection.class));
+    }
+
+    @Test
+    public void testSameSourcesShareContext() throws Exception {
+        final ListenableFuture<SchemaContext> first =
+                SharedSchemaContexts.getSchemaContext(factory, ImmutableList.of(FIRST, SECOND));
+        // Different order and duplicates lead to the same fingerprint, the build in progress is joined
+        final ListenableFuture<SchemaContext> second =
+                SharedSchemaContexts.getSchemaContext(factory, ImmutableList.of(SECOND, FIRST, SECOND));
+        verify(factory).createSchemaContext(ImmutableList.of(FIRST, SECOND));
+        assertFalse(second.isDone());
+
+        final SchemaContext context = mock(SchemaContext.class);
+        build.set(context);
+        assertSame(context, first.get());
+        assertSame(context, second.get());
+
+        // Once built, the context is served from the cache
+        assertSame(context, SharedSchemaContexts.getSchemaContext(factory, ImmutableList.of(SECOND, FIRST)).get());
+        verify(factory).createSchemaContext(any(Collection.class));
+    }
+
+    @Test
+    public void testFailureIsNotCached() throws Exception {
+        final MissingSchemaSourceException cause = new MissingSchemaSourceException("missing", SECOND);
+        build.setException(cause);
+        try {
+            SharedSchemaContexts.getSchemaContext(factory, ImmutableList.of(FIRST, SECOND)).get();
+            fail("Build should fail");
+        } catch (ExecutionException e) {
+            assertSame(cause, e.getCause());
+        }
+
+        final SchemaContext context = mock(SchemaContext.class);
+        doReturn(Futures.immediateFuture(context)).when(factory).createSchemaContext(any(Collection.class));
+        assertSame(context, SharedSchemaContexts.getSchemaContext(factory, ImmutableList.of(FIRST, SECOND)).get());
+        verify(factory, times(2)).createSchemaContext(any(Collection.class));
+    }
+
+    @Test
+    public void testDifferentFactoriesDoNotShare() throws Exception {
+        final SchemaContextFactory other = mock(SchemaContextFactory.class);
+        final SchemaContext otherContext = mock(SchemaContext.class);
+        doReturn(Futures.immediateFuture(otherContext)).when(other).createSchemaContext(any(Collection.class));
+
+        build.set(mock(SchemaContext.class));
+        final SchemaContext context = SharedSchemaContexts.getSchemaContext(factory, ImmutableList.of(FIRST)).get();
+        assertSame(otherContext, SharedSchemaContexts.getSchemaContext(other, ImmutableList.of(FIRST)).get());
+        assertNotSame(context, otherContext);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.Futures;
+import java.nio.charset.StandardCharsets;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.rfc7950.repo.ASTSchemaSource;
+import org.opendaylight.yangtools.yang.parser.rfc7950.repo.TextToASTTransformer;
+
+public class SourceDependencyGraphTest {
+    private static final SourceIdentifier BASE = RevisionSourceIdentifier.create("base");
+    private static final SourceIdentifier USER = RevisionSourceIdentifier.create("user");
+    private static final SourceIdentifier ORPHAN = RevisionSourceIdentifier.create("orphan");
+    private static final SourceIdentifier TRANSITIVE = RevisionSourceIdentifier.create("transitive");
+    private static final SourceIdentifier BROKEN = RevisionSourceIdentifier.create("broken");
+
+    private SchemaRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        repository = mock(SchemaRepository.class);
+        mockSource(BASE, "module base { namespace base; prefix b; }");
+        mockSource(USER, "module user { namespace user; prefix u; import base { prefix b; } }");
+        mockSource(ORPHAN, "module orphan { namespace orphan; prefix o; import absent { prefix a; } }");
+        mockSource(TRANSITIVE, "module transitive { namespace transitive; prefix t; import orphan { prefix o; } }");
+        doReturn(Futures.immediateFailedFuture(new SchemaSourceException("syntax error")))
+                .when(repository).getSchemaSource(eq(BROKEN), eq(ASTSchemaSource.class));
+    }
+
+    @Test
+    public void testPruneUnresolvable() throws Exception {
+        final SourceDependencyGraph graph = SourceDependencyGraph.resolve(repository,
+            ImmutableList.of(BASE, USER, ORPHAN, TRANSITIVE, BROKEN));
+
+        assertEquals(ImmutableList.of(BASE, USER), graph.getResolvedSources());
+        assertEquals(ImmutableSet.of(ORPHAN, TRANSITIVE, BROKEN), graph.getUnresolvedSources().keySet());
+    }
+
+    @Test
+    public void testDependencyInformationUnavailable() throws Exception {
+        doReturn(Futures.immediateFailedFuture(new MissingSchemaSourceException("not available", USER)))
+                .when(repository).getSchemaSource(eq(USER), eq(ASTSchemaSource.class));
+
+        assertNull(SourceDependencyGraph.resolve(repository, ImmutableList.of(BASE, USER)));
+    }
+
+    private void mockSource(final SourceIdentifier sourceId, final String text) throws Exception {
+        final ASTSchemaSource source = TextToASTTransformer.transformText(YangTextSchemaSource.delegateForByteSource(
+            sourceId, ByteSource.wrap(text.getBytes(StandardCharsets.UTF_8))));
+        doReturn(Futures.immediateFuture(source)).when(repository).getSchemaSource(eq(sourceId),
+            eq(ASTSchemaSource.class));
+    }
+}
@@ -9,10 +9,13 @@
 package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.CREATE_SUBSCRIPTION_RPC_CONTENT;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.CREATE_SUBSCRIPTION_RPC_QNAME;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.GET_SCHEMA_QNAME;
@@ -35,9 +38,14 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.xml.transform.dom.DOMSource;
 import org.custommonkey.xmlunit.Diff;
 import org.custommonkey.xmlunit.ElementNameAndAttributeQualifier;
@@ -47,6 +55,9 @@ import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.mdsal.binding.generator.impl.ModuleInfoBackedContext;
+import org.opendaylight.netconf.api.DocumentedException;
+import org.opendaylight.netconf.api.LazyNetconfMessage;
+import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.sal.connect.netconf.schema.NetconfRemoteSchemaYangSourceProvider;
@@ -216,6 +227,116 @@ public class NetconfMessageTransformerTest {
         assertEquals(schemaNode, schemaParent.getValue().iterator().next());
     }
 
+    @Test
+    public void testLazyGetConfigResponse() throws Exception {
+        final String reply = "<rpc-reply message-id=\"101\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+                + "<data><netconf-state xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\"><schemas>"
+                + "<schema><identifier>module</identifier><version>2012-12-12</version>"
+                + "<format xmlns:x=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">x:yang</format>"
+                + "</schema></schemas></netconf-state></data></rpc-reply>";
+        final LazyNetconfMessage lazy = LazyNetconfMessage.create(reply.getBytes(StandardCharsets.UTF_8));
+
+        final DOMRpcResult lazyResult = netconfMessageTransformer.toRpcResult(lazy, toPath(NETCONF_GET_CONFIG_QNAME));
+        assertFalse(lazy.isDocumentParsed());
+        assertTrue(lazyResult.getErrors().isEmpty());
+        assertEquals(netconfMessageTransformer.toRpcResult(new NetconfMessage(XmlUtil.readXmlToDocument(reply)),
+            toPath(NETCONF_GET_CONFIG_QNAME)).getResult(), lazyResult.getResult());
+    }
+
+    @Test
+    public void testLazyEmptyGetConfigResponse() throws Exception {
+        final LazyNetconfMessage lazy = LazyNetconfMessage.create(("<rpc-reply message-id=\"101\" "
+                + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><data/></rpc-reply>")
+                .getBytes(StandardCharsets.UTF_8));
+
+        final ContainerNode result = (ContainerNode) netconfMessageTransformer.toRpcResult(lazy,
+            toPath(NETCONF_GET_CONFIG_QNAME)).getResult();
+        final ContainerNode data = (ContainerNode) result.getChild(toId(NETCONF_DATA_QNAME)).get();
+        assertTrue(data.getValue().isEmpty());
+        assertFalse(lazy.isDocumentParsed());
+
+        // Whitespace does not make the data element any less empty
+        final LazyNetconfMessage whitespace = LazyNetconfMessage.create(("<rpc-reply message-id=\"102\" "
+                + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><data>\n  </data></rpc-reply>")
+                .getBytes(StandardCharsets.UTF_8));
+        final ContainerNode whitespaceResult = (ContainerNode) netconfMessageTransformer.toRpcResult(whitespace,
+            toPath(NETCONF_GET_CONFIG_QNAME)).getResult();
+        assertEquals(result, whitespaceResult);
+    }
+
+    @Test
+    public void testLazyGetSchemaResponse() throws Exception {
+        final LazyNetconfMessage lazy = LazyNetconfMessage.create(("<rpc-reply message-id=\"101\" "
+                + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+                + "<data xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">"
+                + "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">Random YANG SCHEMA</xs:schema>"
+                + "</data></rpc-reply>").getBytes(StandardCharsets.UTF_8));
+
+        final DOMRpcResult result = netconfMessageTransformer.toRpcResult(lazy, toPath(GET_SCHEMA_QNAME));
+        assertFalse(lazy.isDocumentParsed());
+        assertTrue(result.getErrors().isEmpty());
+        final DOMSource schemaContent =
+            ((AnyXmlNode) ((ContainerNode) result.getResult()).getValue().iterator().next()).getValue();
+        assertThat(((Element) schemaContent.getNode()).getTextContent(),
+                CoreMatchers.containsString("Random YANG SCHEMA"));
+    }
+
+    @Test
+    public void testLazyErrorReply() throws Exception {
+        final LazyNetconfMessage ok = LazyNetconfMessage.create(("<rpc-reply message-id=\"101\" "
+                + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><data/></rpc-reply>")
+                .getBytes(StandardCharsets.UTF_8));
+        NetconfMessageTransformUtil.checkSuccessReply(ok);
+        // Replies which are not errors are not parsed
+        assertFalse(ok.isDocumentParsed());
+
+        final LazyNetconfMessage error = LazyNetconfMessage.create(("<rpc-reply message-id=\"101\" "
+                + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><rpc-error>"
+                + "<error-type>protocol</error-type><error-tag>lock-denied</error-tag>"
+                + "<error-severity>error</error-severity><error-message>Lock failed</error-message>"
+                + "</rpc-error></rpc-reply>").getBytes(StandardCharsets.UTF_8));
+        try {
+            NetconfMessageTransformUtil.checkSuccessReply(error);
+            fail("Error reply should be reported");
+        } catch (NetconfDocumentedException e) {
+            assertEquals(DocumentedException.ErrorTag.LOCK_DENIED, e.getErrorTag());
+            assertEquals("Lock failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSchemasSharedPerSchemaContext() {
+        assertSame(MessageTransformerSchemas.forSchemaContext(schema),
+            MessageTransformerSchemas.forSchemaContext(schema));
+    }
+
+    @Test
+    public void testConcurrentRpcResults() throws Exception {
+        final String reply = "<rpc-reply message-id=\"101\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+                + "<data><netconf-state xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\"><schemas>"
+                + "<schema><identifier>module</identifier><version>2012-12-12</version>"
+                + "<format xmlns:x=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">x:yang</format>"
+                + "</schema></schemas></netconf-state></data></rpc-reply>";
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<DOMRpcResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; ++i) {
+                final NetconfMessage response = new NetconfMessage(XmlUtil.readXmlToDocument(reply));
+                futures.add(executor.submit(() -> netconfMessageTransformer.toRpcResult(response,
+                    toPath(NETCONF_GET_CONFIG_QNAME))));
+            }
+
+            final NormalizedNode<?, ?> expected = futures.get(0).get().getResult();
+            assertNotNull(expected);
+            for (Future<DOMRpcResult> future : futures) {
+                assertEquals(expected, future.get().getResult());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testGetConfigRequest() throws Exception {
         final DataContainerChild<?, ?> filter = toFilterStructure(
@@ -321,6 +442,40 @@ public class NetconfMessageTransformerTest {
                 + "</rpc>");
     }
 
+    @Test
+    public void testGetExistsRequest() throws Exception {
+        final Map<QName, Object> keys = Maps.newHashMap();
+        for (final DataContainerChild<? extends YangInstanceIdentifier.PathArgument, ?> value
+                : NetconfRemoteSchemaYangSourceProvider.createGetSchemaRequest("module", Optional.of("2012-12-12"))
+                    .getValue()) {
+            keys.put(value.getNodeType(), value.getValue());
+        }
+        final YangInstanceIdentifier id = YangInstanceIdentifier.builder()
+                .node(NetconfState.QNAME).node(Schemas.QNAME).node(Schema.QNAME)
+                .nodeWithKey(Schema.QNAME, keys).build();
+
+        final NetconfMessage netconfMessage = netconfMessageTransformer.toRpcRequest(toPath(NETCONF_GET_QNAME),
+                NetconfMessageTransformUtil.wrap(NETCONF_GET_QNAME,
+                    NetconfMessageTransformUtil.toExistsFilterStructure(id, schema)));
+
+        // The schema entry is matched by its keys only
+        assertSimilarXml(netconfMessage, "<rpc message-id=\"m-0\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+                + "<get xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">\n"
+                + "<filter xmlns:ns0=\"urn:ietf:params:xml:ns:netconf:base:1.0\" ns0:type=\"subtree\">\n"
+                + "<netconf-state xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">\n"
+                + "<schemas>\n"
+                + "<schema>\n"
+                + "<identifier>module</identifier>\n"
+                + "<version>2012-12-12</version>\n"
+                + "<format>yang</format>\n"
+                + "</schema>\n"
+                + "</schemas>\n"
+                + "</netconf-state>"
+                + "</filter>\n"
+                + "</get>"
+                + "</rpc>");
+    }
+
     private static NetconfMessageTransformer getTransformer(final SchemaContext schema) {
         return new NetconfMessageTransformer(schema, true);
     }
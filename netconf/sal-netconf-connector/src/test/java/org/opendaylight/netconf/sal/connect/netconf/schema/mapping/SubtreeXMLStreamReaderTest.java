@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import org.junit.Test;
+
+public class SubtreeXMLStreamReaderTest {
+    private static final String XML = "<root><a><b>text</b><c/></a><d/></root>";
+
+    @Test
+    public void testSubtreeEvents() throws Exception {
+        final XMLStreamReader reader = createReader();
+        final SubtreeXMLStreamReader subtree = new SubtreeXMLStreamReader(reader);
+
+        assertEquals(XMLStreamConstants.START_DOCUMENT, subtree.getEventType());
+        assertEquals(XMLStreamConstants.START_ELEMENT, subtree.next());
+        assertEquals("a", subtree.getLocalName());
+        assertEquals(XMLStreamConstants.START_ELEMENT, subtree.next());
+        assertEquals("b", subtree.getLocalName());
+        assertEquals(XMLStreamConstants.CHARACTERS, subtree.next());
+        assertEquals("text", subtree.getText());
+        assertEquals(XMLStreamConstants.END_ELEMENT, subtree.next());
+        assertEquals(XMLStreamConstants.START_ELEMENT, subtree.next());
+        assertEquals("c", subtree.getLocalName());
+        assertEquals(XMLStreamConstants.END_ELEMENT, subtree.next());
+        assertEquals(XMLStreamConstants.END_ELEMENT, subtree.next());
+        assertEquals("a", subtree.getLocalName());
+        assertTrue(subtree.hasNext());
+        assertEquals(XMLStreamConstants.END_DOCUMENT, subtree.next());
+        assertEquals(XMLStreamConstants.END_DOCUMENT, subtree.getEventType());
+        assertFalse(subtree.hasNext());
+
+        // The underlying reader continues after the subtree
+        assertEquals(XMLStreamConstants.START_ELEMENT, reader.nextTag());
+        assertEquals("d", reader.getLocalName());
+    }
+
+    @Test
+    public void testElementText() throws Exception {
+        final XMLStreamReader reader = createReader();
+        final SubtreeXMLStreamReader subtree = new SubtreeXMLStreamReader(reader);
+
+        assertEquals(XMLStreamConstants.START_ELEMENT, subtree.nextTag());
+        assertEquals(XMLStreamConstants.START_ELEMENT, subtree.nextTag());
+        assertEquals("text", subtree.getElementText());
+        assertEquals(XMLStreamConstants.START_ELEMENT, subtree.nextTag());
+        assertEquals(XMLStreamConstants.END_ELEMENT, subtree.nextTag());
+        assertEquals(XMLStreamConstants.END_ELEMENT, subtree.nextTag());
+        assertEquals("a", subtree.getLocalName());
+        assertEquals(XMLStreamConstants.END_DOCUMENT, subtree.next());
+    }
+
+    // Returns a reader positioned at the start of element a
+    private static XMLStreamReader createReader() throws Exception {
+        final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(XML));
+        reader.nextTag();
+        reader.nextTag();
+        assertEquals("a", reader.getLocalName());
+        return reader;
+    }
+}
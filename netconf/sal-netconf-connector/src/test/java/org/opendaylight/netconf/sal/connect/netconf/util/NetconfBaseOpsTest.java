@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import org.custommonkey.xmlunit.Diff;
 import org.custommonkey.xmlunit.XMLUnit;
 import org.hamcrest.BaseMatcher;
@@ -38,6 +39,7 @@ import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceRpc;
 import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.NetconfMessageTransformer;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.RpcError.ErrorType;
 import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 import org.opendaylight.yangtools.yang.data.api.ModifyAction;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
@@ -192,6 +194,52 @@ public class NetconfBaseOpsTest {
         Assert.assertEquals(NetconfMessageTransformUtil.NETCONF_DATA_QNAME, dataOpt.get().getNodeType());
     }
 
+    @Test
+    public void testConfigRunningDataExists() throws Exception {
+        final YangInstanceIdentifier containerId = YangInstanceIdentifier.of(CONTAINER_Q_NAME);
+        final YangInstanceIdentifier leafId = containerId.node(QName.create(CONTAINER_Q_NAME, "a"));
+
+        replyData(NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME, "");
+        Assert.assertFalse(baseOps.configRunningDataExists(callback, containerId).get());
+
+        replyData(NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME, "<c xmlns=\"test:namespace\"/>");
+        Assert.assertTrue(baseOps.configRunningDataExists(callback, containerId).get());
+        Assert.assertFalse(baseOps.configRunningDataExists(callback, leafId).get());
+
+        replyData(NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME,
+            "<c xmlns=\"test:namespace\"><a>value</a></c>");
+        Assert.assertTrue(baseOps.configRunningDataExists(callback, leafId).get());
+
+        replyError(NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME);
+        try {
+            baseOps.configRunningDataExists(callback, containerId).get();
+            Assert.fail("Exists check should fail on an error reply");
+        } catch (final ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testDataExists() throws Exception {
+        final YangInstanceIdentifier containerId = YangInstanceIdentifier.of(CONTAINER_Q_NAME);
+
+        replyData(NetconfMessageTransformUtil.NETCONF_GET_QNAME, "");
+        Assert.assertFalse(baseOps.dataExists(callback, containerId).get());
+
+        replyData(NetconfMessageTransformUtil.NETCONF_GET_QNAME, "<c xmlns=\"test:namespace\"><a>value</a></c>");
+        Assert.assertTrue(baseOps.dataExists(callback, containerId).get());
+        // A null path checks the entire datastore, as a read does
+        Assert.assertTrue(baseOps.dataExists(callback, null).get());
+
+        replyError(NetconfMessageTransformUtil.NETCONF_GET_QNAME);
+        try {
+            baseOps.dataExists(callback, containerId).get();
+            Assert.fail("Exists check should fail on an error reply");
+        } catch (final ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
     @Test
     public void testGetConfigRunning() throws Exception {
         baseOps.getConfigRunning(callback, Optional.absent());
@@ -254,6 +302,18 @@ public class NetconfBaseOpsTest {
         verifyMessageSent("edit-config-test-module-running", NetconfMessageTransformUtil.NETCONF_EDIT_CONFIG_QNAME);
     }
 
+    private void replyData(final QName operation, final String data) throws Exception {
+        final NetconfMessage reply = new NetconfMessage(XmlUtil.readXmlToDocument("<rpc-reply "
+            + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" message-id=\"a\"><data>" + data
+            + "</data></rpc-reply>"));
+        when(listener.sendRequest(any(), eq(operation))).thenReturn(RpcResultBuilder.success(reply).buildFuture());
+    }
+
+    private void replyError(final QName operation) {
+        when(listener.sendRequest(any(), eq(operation))).thenReturn(RpcResultBuilder.<NetconfMessage>failed()
+            .withError(ErrorType.APPLICATION, "operation-failed", "Failed").buildFuture());
+    }
+
     private void verifyMessageSent(final String fileName, final QName name) {
         final String path = "/netconfMessages/" + fileName + ".xml";
         verify(listener).sendRequest(msg(path), eq(name));
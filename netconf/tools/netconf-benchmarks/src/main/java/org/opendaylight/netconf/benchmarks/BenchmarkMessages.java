@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.benchmarks;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Representative NETCONF messages used by benchmarks.
+ */
+public final class BenchmarkMessages {
+    /**
+     * Payloads available to benchmarks, from a small rpc-reply up to a very large reply to get.
+     */
+    public enum Payload {
+        RPC_REPLY_1KB(1, 1024, false),
+        GET_REPLY_1MB(1, 1024 * 1024, false),
+        GET_REPLY_500MB(1, 500 * 1024 * 1024, false),
+        NOTIFICATION_BURST(1000, 0, true);
+
+        private final int count;
+        private final int size;
+        private final boolean notification;
+
+        Payload(final int count, final int size, final boolean notification) {
+            this.count = count;
+            this.size = size;
+            this.notification = notification;
+        }
+
+        /**
+         * Create serialized messages of this payload.
+         *
+         * @return Messages, in the order they should be sent
+         */
+        List<byte[]> messages() {
+            if (!notification) {
+                return Collections.singletonList(rpcReply(size));
+            }
+
+            final List<byte[]> ret = new ArrayList<>(count);
+            for (int i = 0; i < count; ++i) {
+                ret.add(notification(i));
+            }
+            return ret;
+        }
+    }
+
+    private static final byte[] REPLY_HEADER = ("<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" "
+            + "message-id=\"m-1\"><data><interfaces xmlns=\"urn:ietf:params:xml:ns:yang:ietf-interfaces\">")
+            .getBytes(US_ASCII);
+    private static final byte[] REPLY_FOOTER = "</interfaces></data></rpc-reply>".getBytes(US_ASCII);
+
+    // Fixed width index makes all entries the same size
+    private static final String ENTRY_FORMAT = "<interface><name>GigabitEthernet0/0/%08d</name>"
+            + "<description>Uplink interface number %08d</description>"
+            + "<type xmlns:ianaift=\"urn:ietf:params:xml:ns:yang:iana-if-type\">ianaift:ethernetCsmacd</type>"
+            + "<enabled>true</enabled><link-up-down-trap-enable>enabled</link-up-down-trap-enable></interface>";
+    private static final int ENTRY_SIZE = String.format(ENTRY_FORMAT, 0, 0).length();
+
+    private BenchmarkMessages() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Create an rpc-reply to a get, which carries a list of interfaces modeled after ietf-interfaces.
+     *
+     * @param size Approximate size of the message, in bytes
+     * @return Serialized message
+     */
+    static byte[] rpcReply(final int size) {
+        final int entries = Math.max(1, (size - REPLY_HEADER.length - REPLY_FOOTER.length) / ENTRY_SIZE);
+        final byte[] ret = new byte[REPLY_HEADER.length + entries * ENTRY_SIZE + REPLY_FOOTER.length];
+        System.arraycopy(REPLY_HEADER, 0, ret, 0, REPLY_HEADER.length);
+
+        int offset = REPLY_HEADER.length;
+        for (int i = 0; i < entries; ++i) {
+            final byte[] entry = String.format(ENTRY_FORMAT, i, i).getBytes(US_ASCII);
+            System.arraycopy(entry, 0, ret, offset, ENTRY_SIZE);
+            offset += ENTRY_SIZE;
+        }
+
+        System.arraycopy(REPLY_FOOTER, 0, ret, offset, REPLY_FOOTER.length);
+        return ret;
+    }
+
+    /**
+     * Create an interface state change notification.
+     *
+     * @param seq Sequence number of the notification
+     * @return Serialized message
+     */
+    static byte[] notification(final int seq) {
+        return ("<notification xmlns=\"urn:ietf:params:xml:ns:netconf:notification:1.0\">"
+            + "<eventTime>2018-06-01T12:00:00." + String.format("%06d", seq) + "Z</eventTime>"
+            + "<interface-state-change xmlns=\"urn:opendaylight:params:xml:ns:yang:benchmark\">"
+            + "<name>GigabitEthernet0/0/" + seq % 48 + "</name>"
+            + "<oper-status>" + (seq % 2 == 0 ? "up" : "down") + "</oper-status>"
+            + "</interface-state-change></notification>").getBytes(US_ASCII);
+    }
+}
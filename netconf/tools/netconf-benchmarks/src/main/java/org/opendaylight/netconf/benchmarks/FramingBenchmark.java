@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.netconf.benchmarks.BenchmarkMessages.Payload;
+import org.opendaylight.netconf.nettyutil.handler.ChunkedFramingMechanismEncoder;
+import org.opendaylight.netconf.nettyutil.handler.EOMFramingMechanismEncoder;
+import org.opendaylight.netconf.nettyutil.handler.NetconfChunkAggregator;
+import org.opendaylight.netconf.nettyutil.handler.NetconfEOMAggregator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks framing of messages into chunks or end-of-message delimited frames, and the reverse operation performed
+ * by aggregators on data arriving from the network in reads of {@value #READ_SIZE} bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class FramingBenchmark {
+    public enum Framing {
+        CHUNK,
+        EOM
+    }
+
+    private static final int READ_SIZE = 64 * 1024;
+
+    @Param({ "RPC_REPLY_1KB", "GET_REPLY_1MB", "GET_REPLY_500MB", "NOTIFICATION_BURST" })
+    public Payload payload;
+
+    @Param({ "CHUNK", "EOM" })
+    public Framing framing;
+
+    private final List<ByteBuf> messages = new ArrayList<>();
+    private EmbeddedChannel encoder;
+    private EmbeddedChannel aggregator;
+    private byte[] framed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        for (byte[] bytes : payload.messages()) {
+            messages.add(Unpooled.wrappedBuffer(bytes));
+        }
+        encoder = new EmbeddedChannel(createEncoder());
+        aggregator = new EmbeddedChannel(createAggregator());
+
+        // Data as received from the network, i.e. all framed messages back to back
+        final List<ByteBuf> frames = new ArrayList<>(messages.size());
+        int size = 0;
+        for (ByteBuf message : messages) {
+            encoder.writeOutbound(message.retainedDuplicate());
+            final ByteBuf frame = encoder.readOutbound();
+            size += frame.readableBytes();
+            frames.add(frame);
+        }
+
+        framed = new byte[size];
+        int offset = 0;
+        for (ByteBuf frame : frames) {
+            final int length = frame.readableBytes();
+            frame.readBytes(framed, offset, length);
+            frame.release();
+            offset += length;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        messages.forEach(ByteBuf::release);
+        messages.clear();
+        framed = null;
+        encoder.finishAndReleaseAll();
+        aggregator.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public void encodeFrames(final Blackhole blackhole) {
+        for (ByteBuf message : messages) {
+            encoder.writeOutbound(message.retainedDuplicate());
+            final ByteBuf frame = encoder.readOutbound();
+            blackhole.consume(frame.readableBytes());
+            frame.release();
+        }
+    }
+
+    @Benchmark
+    public void aggregateFrames(final Blackhole blackhole) {
+        for (int offset = 0; offset < framed.length; offset += READ_SIZE) {
+            aggregator.writeInbound(Unpooled.wrappedBuffer(framed, offset, Math.min(READ_SIZE,
+                framed.length - offset)));
+
+            ByteBuf message;
+            while ((message = aggregator.readInbound()) != null) {
+                blackhole.consume(message.readableBytes());
+                message.release();
+            }
+        }
+    }
+
+    private ChannelHandler createEncoder() {
+        switch (framing) {
+            case CHUNK:
+                return new ChunkedFramingMechanismEncoder();
+            case EOM:
+                return new EOMFramingMechanismEncoder();
+            default:
+                throw new IllegalStateException("Unhandled framing " + framing);
+        }
+    }
+
+    private ChannelHandler createAggregator() {
+        switch (framing) {
+            case CHUNK:
+                return new NetconfChunkAggregator();
+            case EOM:
+                return new NetconfEOMAggregator();
+            default:
+                throw new IllegalStateException("Unhandled framing " + framing);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.benchmarks;
+
+import com.siemens.ct.exi.CodingMode;
+import com.siemens.ct.exi.FidelityOptions;
+import com.siemens.ct.exi.exceptions.EXIException;
+import com.siemens.ct.exi.exceptions.UnsupportedOption;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.netconf.benchmarks.BenchmarkMessages.Payload;
+import org.opendaylight.netconf.nettyutil.handler.NetconfEXICodec;
+import org.opendaylight.netconf.nettyutil.handler.NetconfEXIToMessageDecoder;
+import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToEXIEncoder;
+import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToXMLEncoder;
+import org.opendaylight.netconf.nettyutil.handler.NetconfXMLToMessageDecoder;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXIParameters;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xml.sax.SAXException;
+
+/**
+ * Compares XML and EXI encoding of NETCONF messages in terms of CPU time. The size of encoded messages, which is what
+ * determines the bandwidth used, is reported as the {@link EncodedSize#encodedBytes} secondary result. Messages are
+ * parsed into DOM, hence the 500MB payload is not benchmarked by default.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class XmlExiCodecBenchmark {
+    public enum Encoding {
+        XML,
+        EXI
+    }
+
+    @Param({ "RPC_REPLY_1KB", "GET_REPLY_1MB", "NOTIFICATION_BURST" })
+    public Payload payload;
+
+    @Param({ "XML", "EXI" })
+    public Encoding encoding;
+
+    /**
+     * Secondary result of {@link #encodeMessages(EncodedSize, Blackhole)}, reporting the number of bytes the payload
+     * is encoded to.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class EncodedSize {
+        public long encodedBytes;
+    }
+
+    private final List<NetconfMessage> messages = new ArrayList<>();
+    private final List<ByteBuf> encoded = new ArrayList<>();
+    private EmbeddedChannel encoder;
+    private EmbeddedChannel decoder;
+
+    @Setup(Level.Trial)
+    public void setup() throws EXIException, UnsupportedOption, IOException, SAXException {
+        for (byte[] bytes : payload.messages()) {
+            messages.add(new NetconfMessage(XmlUtil.readXmlToDocument(new ByteArrayInputStream(bytes))));
+        }
+        encoder = new EmbeddedChannel(createEncoder());
+        decoder = new EmbeddedChannel(createDecoder());
+
+        for (NetconfMessage message : messages) {
+            encoded.add(encode(message));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        encoded.forEach(ByteBuf::release);
+        encoded.clear();
+        messages.clear();
+        encoder.finishAndReleaseAll();
+        decoder.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public void encodeMessages(final EncodedSize encodedSize, final Blackhole blackhole) {
+        long size = 0;
+        for (NetconfMessage message : messages) {
+            final ByteBuf buf = encode(message);
+            size += buf.readableBytes();
+            buf.release();
+        }
+        // Same for each invocation, hence assigned rather than accumulated
+        encodedSize.encodedBytes = size;
+        blackhole.consume(size);
+    }
+
+    @Benchmark
+    public void decodeMessages(final Blackhole blackhole) {
+        for (ByteBuf buf : encoded) {
+            decoder.writeInbound(buf.retainedDuplicate());
+            blackhole.consume(decoder.readInbound());
+        }
+    }
+
+    private ByteBuf encode(final NetconfMessage message) {
+        encoder.writeOutbound(message);
+        return encoder.readOutbound();
+    }
+
+    private ChannelHandler createEncoder() throws EXIException, UnsupportedOption {
+        switch (encoding) {
+            case XML:
+                return new NetconfMessageToXMLEncoder();
+            case EXI:
+                return NetconfMessageToEXIEncoder.create(exiCodec());
+            default:
+                throw new IllegalStateException("Unhandled encoding " + encoding);
+        }
+    }
+
+    private ChannelHandler createDecoder() throws EXIException, UnsupportedOption {
+        switch (encoding) {
+            case XML:
+                return new NetconfXMLToMessageDecoder();
+            case EXI:
+                return NetconfEXIToMessageDecoder.create(exiCodec());
+            default:
+                throw new IllegalStateException("Unhandled encoding " + encoding);
+        }
+    }
+
+    private static NetconfEXICodec exiCodec() throws UnsupportedOption {
+        // Same options as the ones the NETCONF client proposes in start-exi
+        final FidelityOptions fidelity = FidelityOptions.createDefault();
+        fidelity.setFidelity(FidelityOptions.FEATURE_DTD, true);
+        fidelity.setFidelity(FidelityOptions.FEATURE_LEXICAL_VALUE, true);
+        fidelity.setFidelity(FidelityOptions.FEATURE_PREFIX, true);
+        return NetconfEXICodec.forParameters(new EXIParameters(CodingMode.BYTE_PACKED, fidelity));
+    }
+}